@@ -0,0 +1,65 @@
+package com.amalitech.surveysphere.aspects;
+
+import com.amalitech.surveysphere.dto.requestDto.BlockResponseDto;
+import com.amalitech.surveysphere.dto.requestDto.ResponseManagementDto;
+import com.amalitech.surveysphere.services.admissionControlService.AdmissionControlService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/** Applies admission control to the public endpoints respondents use to load and answer surveys. */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlAspect {
+  private final AdmissionControlService admissionControlService;
+
+  @Around(
+      "execution(* com.amalitech.surveysphere.controllers.PublicController.getSurvey(..))"
+          + " && args(surveyId)")
+  public Object admitGetSurvey(ProceedingJoinPoint joinPoint, String surveyId) throws Throwable {
+    return admit(joinPoint, surveyId);
+  }
+
+  @Around(
+      "execution(* com.amalitech.surveysphere.controllers.PublicController.recordResponses(..))"
+          + " && args(request, ..)")
+  public Object admitRecordResponses(ProceedingJoinPoint joinPoint, ResponseManagementDto request)
+      throws Throwable {
+    return admit(joinPoint, request.getSurveyId());
+  }
+
+  @Around(
+      "execution(* com.amalitech.surveysphere.controllers.PublicController.saveBlock(..))"
+          + " && args(.., request)")
+  public Object admitSaveBlock(ProceedingJoinPoint joinPoint, BlockResponseDto request)
+      throws Throwable {
+    return admit(joinPoint, request.getSurveyId());
+  }
+
+  private Object admit(ProceedingJoinPoint joinPoint, String surveyId) throws Throwable {
+    try (AdmissionControlService.Permit ignored =
+        admissionControlService.admit(surveyId, clientAddress())) {
+      return joinPoint.proceed();
+    }
+  }
+
+  /**
+   * Returns the address of the client. Tomcat's RemoteIpValve only takes the address from
+   * X-Forwarded-For when the request comes from one of server.tomcat.remoteip.internal-proxies, so
+   * clients connecting directly cannot pick their own bucket by sending the header.
+   */
+  private String clientAddress() {
+    if (RequestContextHolder.getRequestAttributes()
+        instanceof ServletRequestAttributes attributes) {
+      HttpServletRequest request = attributes.getRequest();
+      return request.getRemoteAddr();
+    }
+    return "unknown";
+  }
+}
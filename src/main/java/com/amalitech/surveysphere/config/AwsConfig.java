@@ -8,6 +8,7 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
 @RequiredArgsConstructor
@@ -16,12 +17,24 @@ public class AwsConfig {
 
     @Bean
     public S3Client s3Client() {
-        final AwsBasicCredentials awsBasicCredentials =
-                AwsBasicCredentials.create(
-                        env.getProperty("aws_access_key"), env.getProperty("aws_secret_key"));
         return S3Client.builder()
                 .region(Region.EU_NORTH_1)
-                .credentialsProvider(StaticCredentialsProvider.create(awsBasicCredentials))
+                .credentialsProvider(credentialsProvider())
                 .build();
     }
+
+    @Bean
+    public S3Presigner s3Presigner() {
+        return S3Presigner.builder()
+                .region(Region.EU_NORTH_1)
+                .credentialsProvider(credentialsProvider())
+                .build();
+    }
+
+    private StaticCredentialsProvider credentialsProvider() {
+        final AwsBasicCredentials awsBasicCredentials =
+                AwsBasicCredentials.create(
+                        env.getProperty("aws_access_key"), env.getProperty("aws_secret_key"));
+        return StaticCredentialsProvider.create(awsBasicCredentials);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.amalitech.surveysphere.config;
+
+import com.amalitech.surveysphere.models.User;
+import com.amalitech.surveysphere.repositories.SurveyRepository;
+import com.amalitech.surveysphere.repositories.UserRepository;
+import java.security.Principal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Guards the live results topics on the inbound STOMP channel. A subscription to {@code
+ * /topic/results/{surveyId}} is refused unless the session's authenticated user owns the survey,
+ * and so is any subscription pattern that would match results topics, since the simple broker
+ * matches patterns against every destination. Clients may not send to results topics at all, as
+ * only the server publishes to them. A refused frame is answered with a STOMP ERROR frame.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResultsSubscriptionInterceptor implements ChannelInterceptor {
+  private static final String TOPIC_PREFIX = "/topic/results/";
+  private static final String NOT_ALLOWED = "Not allowed to access the results of this survey";
+  private final PathMatcher pathMatcher = new AntPathMatcher();
+  private final SurveyRepository surveyRepository;
+  private final UserRepository userRepository;
+
+  /**
+   * Refuses subscriptions to results topics of surveys the user does not own and messages sent to
+   * results topics.
+   *
+   * @param message The inbound message.
+   * @param channel The inbound channel.
+   * @return The message, unchanged.
+   * @throws AccessDeniedException If the frame is refused.
+   */
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+    String destination = accessor.getDestination();
+
+    if (destination == null || !matchesResults(destination)) return message;
+
+    if (StompCommand.SEND.equals(accessor.getCommand()))
+      throw new AccessDeniedException(NOT_ALLOWED);
+
+    if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+        && !ownsSurvey(accessor.getUser(), destination))
+      throw new AccessDeniedException(NOT_ALLOWED);
+
+    return message;
+  }
+
+  private boolean matchesResults(String destination) {
+    return destination.startsWith(TOPIC_PREFIX)
+        || (pathMatcher.isPattern(destination)
+            && pathMatcher.match(destination, TOPIC_PREFIX + "survey"));
+  }
+
+  /** A user owns a survey when they created it; patterns and unauthenticated users own none. */
+  private boolean ownsSurvey(Principal principal, String destination) {
+    if (principal == null || pathMatcher.isPattern(destination)) return false;
+
+    String userId = userRepository.findByEmail(principal.getName()).map(User::getId).orElse(null);
+    if (userId == null) return false;
+
+    return surveyRepository
+        .findById(destination.substring(TOPIC_PREFIX.length()))
+        .map(survey -> userId.equals(survey.getSurveyOwner()))
+        .orElse(false);
+  }
+}
@@ -8,6 +8,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -20,6 +21,7 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private final Environment env;
+    private final ResultsSubscriptionInterceptor resultsSubscriptionInterceptor;
 
     /**
      * Configure message broker options.
@@ -48,6 +50,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    /**
+     * Guard the inbound channel so only survey owners subscribe to live results.
+     *
+     * @param registration The inbound channel registration
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(resultsSubscriptionInterceptor);
+    }
+
     /**
      * Configure custom message converters for the application.
      *
@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.text.ParseException;
 import java.util.Objects;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -284,4 +285,37 @@ public class GlobalExceptionHandler {
         new ErrorResponseDto(httpServletRequest.getRequestURI(), exception.getMessage()),
         HttpStatus.BAD_REQUEST);
   }
+
+  /**
+   * Handles InvalidResponseException and returns an UNPROCESSABLE_ENTITY response.
+   *
+   * @param exception The InvalidResponseException thrown.
+   * @param httpServletRequest The HttpServletRequest associated with the request.
+   * @return A ResponseEntity containing an ErrorResponseDto with the error details and
+   *     UNPROCESSABLE_ENTITY status.
+   */
+  @ExceptionHandler(value = {InvalidResponseException.class})
+  ResponseEntity<ErrorResponseDto> handleInvalidResponseException(
+      InvalidResponseException exception, HttpServletRequest httpServletRequest) {
+    return new ResponseEntity<>(
+        new ErrorResponseDto(httpServletRequest.getRequestURI(), exception.getMessage()),
+        HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  /**
+   * Handles TooManyRequestsException and returns a TOO_MANY_REQUESTS response with a Retry-After
+   * header.
+   *
+   * @param exception The TooManyRequestsException thrown.
+   * @param httpServletRequest The HttpServletRequest associated with the request.
+   * @return A ResponseEntity containing an ErrorResponseDto with the error details and
+   *     TOO_MANY_REQUESTS status.
+   */
+  @ExceptionHandler(value = {TooManyRequestsException.class})
+  ResponseEntity<ErrorResponseDto> handleTooManyRequestsException(
+      TooManyRequestsException exception, HttpServletRequest httpServletRequest) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+        .body(new ErrorResponseDto(httpServletRequest.getRequestURI(), exception.getMessage()));
+  }
 }
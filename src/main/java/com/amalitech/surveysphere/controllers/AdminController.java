@@ -4,6 +4,7 @@ import com.amalitech.surveysphere.dto.requestDto.*;
 import com.amalitech.surveysphere.dto.responseDto.*;
 import com.amalitech.surveysphere.models.Survey;
 import com.amalitech.surveysphere.models.User;
+import com.amalitech.surveysphere.services.admissionControlService.AdmissionControlService;
 import com.amalitech.surveysphere.services.dashboardService.DashboardService;
 import com.amalitech.surveysphere.services.invitationService.InvitationService;
 import com.amalitech.surveysphere.services.surveyService.SurveyService;
@@ -32,6 +33,7 @@ public class AdminController {
   private final SurveyService surveyService;
   private final InvitationService invitationService;
   private final DashboardService dashboardService;
+  private final AdmissionControlService admissionControlService;
 
   /**
    * Retrieves a list of users.
@@ -201,4 +203,20 @@ public class AdminController {
   public DashboardDto getDashboardData() {
     return dashboardService.getDashboardData();
   }
+
+  /**
+   * Retrieves the number of public requests admitted and shed by admission control.
+   *
+   * @return AdmissionMetricsDto containing the admission metrics
+   */
+  @GetMapping("/admission-metrics")
+  @Operation(
+      summary = "Get Admission Metrics",
+      description = "Retrieves the number of public requests admitted and shed since startup.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Admission metrics retrieved successfully")
+      })
+  public ResponseEntity<AdmissionMetricsDto> getAdmissionMetrics() {
+    return new ResponseEntity<>(admissionControlService.getMetrics(), HttpStatus.OK);
+  }
 }
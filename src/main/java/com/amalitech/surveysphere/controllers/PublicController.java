@@ -207,7 +207,8 @@ public class PublicController {
       description = "Retrieves a survey by ID.",
       responses = {
         @ApiResponse(responseCode = "200", description = "Survey retrieved successfully"),
-        @ApiResponse(responseCode = "404", description = "Survey not found")
+        @ApiResponse(responseCode = "404", description = "Survey not found"),
+        @ApiResponse(responseCode = "429", description = "Too many requests")
       })
   public ResponseEntity<Survey> getSurvey(@PathVariable("surveyId") String surveyId) {
     return new ResponseEntity<>(surveyService.getSurvey(surveyId), HttpStatus.OK);
@@ -234,6 +235,7 @@ public class PublicController {
    *
    * @param request The request body containing the responses to be recorded.
    * @param respondentId The ID of the respondent whose responses are being recorded.
+   * @param idempotencyKey An optional key identifying retries of the same submission.
    * @return ResponseEntity containing ResponseManagementResponseDto with the recorded responses and
    *     HTTP status code indicating success.
    */
@@ -243,15 +245,53 @@ public class PublicController {
         @ApiResponse(responseCode = "200", description = "Responses recorded successfully"),
         @ApiResponse(responseCode = "400", description = "Bad request"),
         @ApiResponse(responseCode = "404", description = "Survey not found"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "A submission with the same idempotency key is in progress"),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Responses break the rules of the survey's questions"),
+        @ApiResponse(responseCode = "429", description = "Too many requests"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
       },
       summary = "Record Responses",
       description = "Handles POST requests to record responses from a respondent.")
   public ResponseEntity<ResponseManagementResponseDto> recordResponses(
       @Valid @RequestBody ResponseManagementDto request,
-      @RequestParam(value = "respondentId", required = false) String respondentId) {
+      @RequestParam(value = "respondentId", required = false) String respondentId,
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+    return new ResponseEntity<>(
+        responseManagementService.recordResponses(request, respondentId, idempotencyKey),
+        HttpStatus.OK);
+  }
+
+  /**
+   * Handles PATCH requests to save the responses to a completed block for an existing respondent.
+   *
+   * @param respondentId The ID of the respondent whose responses are being saved.
+   * @param request The request body containing the block index and its responses.
+   * @return ResponseEntity containing ResponseManagementResponseDto with the respondent details and
+   *     HTTP status code indicating success.
+   */
+  @PatchMapping("/response/{respondentId}")
+  @Operation(
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Block saved successfully"),
+        @ApiResponse(responseCode = "400", description = "Bad request"),
+        @ApiResponse(responseCode = "404", description = "Survey or respondent not found"),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Responses break the rules of the survey's questions"),
+        @ApiResponse(responseCode = "429", description = "Too many requests"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+      },
+      summary = "Save Block Responses",
+      description = "Appends the responses to a completed block to an existing respondent.")
+  public ResponseEntity<ResponseManagementResponseDto> saveBlock(
+      @PathVariable("respondentId") String respondentId,
+      @Valid @RequestBody BlockResponseDto request) {
     return new ResponseEntity<>(
-        responseManagementService.recordResponses(request, respondentId), HttpStatus.OK);
+        responseManagementService.saveBlock(respondentId, request), HttpStatus.OK);
   }
 
   /**
@@ -5,9 +5,17 @@ import com.amalitech.surveysphere.dto.responseDto.*;
 import com.amalitech.surveysphere.dto.responseDto.AllSurveysResponseDto;
 import com.amalitech.surveysphere.dto.responseDto.DistributionResponseDto;
 import com.amalitech.surveysphere.dto.responseDto.ErrorResponseDto;
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.enums.TimeResolution;
+import com.amalitech.surveysphere.models.Respondent;
 import com.amalitech.surveysphere.models.ScheduledSurvey;
 import com.amalitech.surveysphere.models.Survey;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.crosstabService.CrosstabService;
+import com.amalitech.surveysphere.services.exportJobService.ExportJobService;
+import com.amalitech.surveysphere.services.exportService.ExportService;
 import com.amalitech.surveysphere.services.responseManagementService.ResponseManagementService;
+import com.amalitech.surveysphere.services.responseRateService.ResponseRateService;
 import com.amalitech.surveysphere.services.surveyService.SurveyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,14 +25,22 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /** Controller class for handling user-related operations in the Survey Sphere application. */
 @RestController
@@ -36,7 +52,12 @@ import org.springframework.web.bind.annotation.*;
 public class SurveyController {
   private final SurveyService surveyService;
   private final ResponseManagementService responseManagementService;
-  private final HttpHeaders httpHeaders;
+  private final CrosstabService crosstabService;
+  private final ResponseRateService responseRateService;
+  private final ExportService exportService;
+  private final ExportJobService exportJobService;
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int GZIP_BUFFER_SIZE = 8192;
 
   /**
    * Creates a new survey.
@@ -372,7 +393,10 @@ public class SurveyController {
   @GetMapping("/response/{surveyId}")
   @Operation(
       summary = "Get survey responses",
-      description = "Retrieves survey respondents along with their responses to questions",
+      description =
+          "Retrieves survey respondents along with their responses to questions. Each filter"
+              + " parameter, given as questionId:option|option, restricts the analysis to"
+              + " respondents who chose any of its options.",
       responses = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200",
@@ -387,17 +411,277 @@ public class SurveyController {
             description = "Survey not found")
       })
   public ResponseEntity<ResponseAnalysisDto> getResponses(
-      @PathVariable("surveyId") String surveyId) {
-    return new ResponseEntity<>(responseManagementService.getResponses(surveyId), HttpStatus.OK);
+      @PathVariable("surveyId") String surveyId,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return new ResponseEntity<>(
+        responseManagementService.getResponses(surveyId, AnswerFilter.parse(filter)),
+        HttpStatus.OK);
+  }
+
+  @GetMapping("/response/{surveyId}/individual-results")
+  @Operation(
+      summary = "Get individual results",
+      description =
+          "Retrieves a page of survey respondents with their responses. Pass the nextCursor of a"
+              + " page as the after parameter to retrieve the next page. Each filter parameter,"
+              + " given as questionId:option|option, restricts the page to respondents who chose"
+              + " any of its options.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Individual results page dto"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Invalid cursor, limit or filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found")
+      })
+  public ResponseEntity<IndividualResultsPageDto> getIndividualResults(
+      @PathVariable("surveyId") String surveyId,
+      @RequestParam(value = "after", required = false) String after,
+      @RequestParam(value = "limit", defaultValue = "50") int limit,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return new ResponseEntity<>(
+        responseManagementService.getIndividualResults(
+            surveyId, after, limit, AnswerFilter.parse(filter)),
+        HttpStatus.OK);
+  }
+
+  @GetMapping(value = "/response/{surveyId}/individual-results/stream", produces = NDJSON)
+  @Operation(
+      summary = "Stream individual results",
+      description =
+          "Streams all survey respondents with their responses as newline-delimited JSON,"
+              + " optionally only those matching filter parameters as for individual results.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "One respondent per line"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Invalid filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found")
+      })
+  public ResponseEntity<StreamingResponseBody> streamIndividualResults(
+      @PathVariable("surveyId") String surveyId,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    surveyService.getSurvey(surveyId);
+    AnswerFilter answerFilter = AnswerFilter.parse(filter);
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(NDJSON))
+        .body(
+            outputStream -> {
+              try (Stream<Respondent> respondents =
+                  responseManagementService.streamIndividualResults(surveyId, answerFilter)) {
+                responseManagementService.writeIndividualResults(respondents, outputStream);
+              }
+            });
+  }
+
+  @GetMapping("/response/{surveyId}/crosstab")
+  @Operation(
+      summary = "Cross-tabulate two questions",
+      description =
+          "Counts how many respondents chose each combination of the options of two choice"
+              + " questions of a survey, optionally only among respondents matching filter"
+              + " parameters given as questionId:option|option.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Crosstab dto"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Question is not a choice question of the survey or invalid filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found")
+      })
+  public ResponseEntity<CrosstabDto> crosstab(
+      @PathVariable("surveyId") String surveyId,
+      @RequestParam("rowQuestionId") String rowQuestionId,
+      @RequestParam("columnQuestionId") String columnQuestionId,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return new ResponseEntity<>(
+        crosstabService.crosstab(
+            surveyId, rowQuestionId, columnQuestionId, AnswerFilter.parse(filter)),
+        HttpStatus.OK);
+  }
+
+  @GetMapping("/response/{surveyId}/rate")
+  @Operation(
+      summary = "Get response rate",
+      description =
+          "Retrieves the number of respondents a survey received per minute, hour or day of a time"
+              + " range. Without from, the range covers the 60 buckets before to, which defaults to"
+              + " now. Filter parameters, given as questionId:option|option, count only the"
+              + " respondents who chose any of their options.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Response rate series dto"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Empty range, too many points or invalid filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found")
+      })
+  public ResponseEntity<ResponseRateSeriesDto> getResponseRate(
+      @PathVariable("surveyId") String surveyId,
+      @RequestParam(value = "from", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant from,
+      @RequestParam(value = "to", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant to,
+      @RequestParam(value = "resolution", defaultValue = "HOUR") TimeResolution resolution,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return new ResponseEntity<>(
+        responseRateService.getSeries(
+            surveyId, from, to, resolution, AnswerFilter.parse(filter)),
+        HttpStatus.OK);
   }
 
   @GetMapping("/generate-excels")
-  public ResponseEntity<ExcelResponseDto> exportExcel(@RequestParam("surveyId") String surveyId)
-      throws IOException {
-    httpHeaders.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-    httpHeaders.setContentDispositionFormData("attachment", "filename" + ".xlsx");
+  @Operation(
+      summary = "Export responses as Excel",
+      description =
+          "Streams all survey respondents as an XLSX workbook with one row per respondent and one"
+              + " column per question, optionally only those matching filter parameters.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "The workbook"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Invalid filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found")
+      })
+  public ResponseEntity<StreamingResponseBody> exportExcel(
+      @RequestParam("surveyId") String surveyId,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return export(surveyId, ExportFormat.XLSX, null, filter);
+  }
+
+  @GetMapping("/generate-csv")
+  @Operation(
+      summary = "Export responses as CSV",
+      description =
+          "Streams all survey respondents as CSV with one row per respondent and one column per"
+              + " question, optionally only those matching filter parameters, gzip-compressed"
+              + " when the client accepts it.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "The CSV file"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Invalid filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found")
+      })
+  public ResponseEntity<StreamingResponseBody> exportCsv(
+      @RequestParam("surveyId") String surveyId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return export(surveyId, ExportFormat.CSV, acceptEncoding, filter);
+  }
+
+  @GetMapping("/generate-ndjson")
+  @Operation(
+      summary = "Export responses as NDJSON",
+      description =
+          "Streams all survey respondents as newline-delimited JSON with the answers of each"
+              + " respondent keyed by question ID, optionally only those matching filter"
+              + " parameters, gzip-compressed when the client accepts it.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "One respondent per line"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Invalid filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found")
+      })
+  public ResponseEntity<StreamingResponseBody> exportNdjson(
+      @RequestParam("surveyId") String surveyId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return export(surveyId, ExportFormat.NDJSON, acceptEncoding, filter);
+  }
+
+  @PostMapping("/export-jobs")
+  @Operation(
+      summary = "Start an export",
+      description =
+          "Queues an export of all survey respondents in the given format, optionally only those"
+              + " matching filter parameters. The exported file is uploaded to blob storage and"
+              + " linked from the job once it completes.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "202",
+            description = "Export queued"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "400",
+            description = "Invalid filter"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Survey not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "429",
+            description = "Too many exports in progress")
+      })
+  public ResponseEntity<ExportJobDto> submitExport(
+      @RequestParam("surveyId") String surveyId,
+      @RequestParam(value = "format", defaultValue = "XLSX") ExportFormat format,
+      @RequestParam(value = "filter", required = false) List<String> filter) {
+    return new ResponseEntity<>(
+        exportJobService.submit(surveyId, format, AnswerFilter.parse(filter)),
+        HttpStatus.ACCEPTED);
+  }
 
-    return ResponseEntity.ok().body(surveyService.exportExcel(surveyId));
+  @GetMapping("/export-jobs/{jobId}")
+  @Operation(
+      summary = "Get the progress of an export",
+      description =
+          "Retrieves the status of an export submitted by the user with the rows written so far"
+              + " out of the total, and a link to the exported file once it has completed. The"
+              + " link expires after a while; getting the export again returns a new one.",
+      responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)),
+            responseCode = "404",
+            description = "Export job not found")
+      })
+  public ResponseEntity<ExportJobDto> getExportJob(@PathVariable("jobId") String jobId) {
+    return new ResponseEntity<>(exportJobService.getJob(jobId), HttpStatus.OK);
   }
 
   @Operation(
@@ -449,4 +733,86 @@ public class SurveyController {
     surveyService.markSurveyAsTakingResponsesOrNot(surveyId, isTakingResponses);
     return new ResponseEntity<>(HttpStatus.OK);
   }
+
+  /**
+   * Streams the export of a survey straight from the respondent cursor, compressing it with gzip
+   * while it is written when the format benefits from it and the client accepts it. The cursor is
+   * opened when the body is written, so it is never left open by a response that is not.
+   */
+  private ResponseEntity<StreamingResponseBody> export(
+      String surveyId, ExportFormat format, String acceptEncoding, List<String> filter) {
+    String fileName = surveyService.getExportFileName(surveyId) + "." + format.getExtension();
+    AnswerFilter answerFilter = AnswerFilter.parse(filter);
+    boolean gzip = format.isCompressible() && acceptsGzip(acceptEncoding);
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, attachment(fileName));
+
+    if (!gzip)
+      return response.body(
+          outputStream ->
+              exportService.write(
+                  surveyId,
+                  format,
+                  responseManagementService.streamIndividualResults(surveyId, answerFilter),
+                  outputStream));
+
+    return response
+        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .body(
+            outputStream -> {
+              GZIPOutputStream compressed = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+              exportService.write(
+                  surveyId,
+                  format,
+                  responseManagementService.streamIndividualResults(surveyId, answerFilter),
+                  compressed);
+              compressed.finish();
+            });
+  }
+
+  /**
+   * Tells whether an Accept-Encoding header accepts gzip, either by name or through a wildcard,
+   * with a quality above zero. A coding named explicitly takes precedence over the wildcard.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) return false;
+
+    Double gzip = null;
+    Double wildcard = null;
+
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parameters = coding.split(";");
+      String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+
+      for (int index = 1; index < parameters.length; index++) {
+        String parameter = parameters[index].trim();
+        if (!parameter.startsWith("q=") && !parameter.startsWith("Q=")) continue;
+
+        try {
+          quality = Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException exception) {
+          quality = 0;
+        }
+      }
+
+      if (name.equals("gzip") || name.equals("x-gzip"))
+        gzip = gzip == null ? quality : Math.max(gzip, quality);
+      else if (name.equals("*")) wildcard = quality;
+    }
+
+    if (gzip != null) return gzip > 0;
+
+    return wildcard != null && wildcard > 0;
+  }
+
+  private static String attachment(String fileName) {
+    return ContentDisposition.attachment()
+        .filename(fileName, StandardCharsets.UTF_8)
+        .build()
+        .toString();
+  }
 }
@@ -0,0 +1,22 @@
+package com.amalitech.surveysphere.dto.requestDto;
+
+import com.amalitech.surveysphere.models.Response;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.util.List;
+import lombok.Data;
+
+/** The responses to a single completed block, saved to an existing respondent. */
+@Data
+public class BlockResponseDto {
+  @NotNull(message = "surveyId must not be null")
+  @NotEmpty(message = "surveyId must not be empty")
+  private String surveyId;
+
+  @NotNull(message = "blockIndex must not be null")
+  @PositiveOrZero(message = "blockIndex must not be negative")
+  private Integer blockIndex;
+
+  private List<Response> responses;
+}
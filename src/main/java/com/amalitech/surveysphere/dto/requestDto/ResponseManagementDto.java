@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.Date;
 import java.util.List;
 
 @Data
@@ -18,5 +19,7 @@ public class ResponseManagementDto {
   @NotEmpty(message = "surveyId must not be empty")
   private String surveyId;
 
+  private Date startedAt;
+
   private List<Response> responses;
 }
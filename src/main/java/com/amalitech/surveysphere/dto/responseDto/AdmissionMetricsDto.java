@@ -0,0 +1,19 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AdmissionMetricsDto {
+  private long admitted;
+  private long shedBySurveyLimit;
+  private long shedByClientLimit;
+  private long shedByConcurrencyLimit;
+  private int inFlight;
+  private int queued;
+}
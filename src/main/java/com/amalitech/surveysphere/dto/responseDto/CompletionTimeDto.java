@@ -0,0 +1,18 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CompletionTimeDto {
+  private long count;
+  private Long averageMillis;
+  private Long medianMillis;
+  private Long p90Millis;
+  private Long p99Millis;
+}
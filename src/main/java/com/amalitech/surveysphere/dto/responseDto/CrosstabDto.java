@@ -0,0 +1,23 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CrosstabDto {
+  private String rowQuestion;
+  private String columnQuestion;
+  private List<String> rowOptions;
+  private List<String> columnOptions;
+  private List<List<Long>> counts;
+  private List<Long> rowTotals;
+  private List<Long> columnTotals;
+  private long respondents;
+  private long responseVersion;
+}
@@ -0,0 +1,26 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.enums.ExportJobStatus;
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ExportJobDto {
+  private String jobId;
+  private String surveyId;
+  private ExportFormat format;
+  private ExportJobStatus status;
+  private long rowsWritten;
+  private long totalRows;
+  private String link;
+  private String error;
+  private Date createdDate;
+  private Date completedDate;
+}
@@ -0,0 +1,17 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import com.amalitech.surveysphere.models.Respondent;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class IndividualResultsPageDto {
+  private List<Respondent> results;
+  private String nextCursor;
+}
@@ -1,7 +1,6 @@
 package com.amalitech.surveysphere.dto.responseDto;
 
 import com.amalitech.surveysphere.models.AllResponses;
-import com.amalitech.surveysphere.models.Respondent;
 import java.util.List;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +11,6 @@ public class ResponseAnalysisDto {
   private int responseCount;
   private boolean active;
   private List<AllResponses> responses;
-  private List<Respondent> individualResults;
   private String averageTime;
+  private CompletionTimeDto completionTime;
 }
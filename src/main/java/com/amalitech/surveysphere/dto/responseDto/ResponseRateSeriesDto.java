@@ -0,0 +1,29 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import com.amalitech.surveysphere.enums.TimeResolution;
+import java.util.Date;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResponseRateSeriesDto {
+  private TimeResolution resolution;
+  private Date from;
+  private Date to;
+  private long total;
+  private List<Point> points;
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class Point {
+    private Date time;
+    private long count;
+  }
+}
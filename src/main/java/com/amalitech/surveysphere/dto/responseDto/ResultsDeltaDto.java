@@ -0,0 +1,23 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import java.util.Date;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The changes to a survey's results over one window, pushed to its live results subscribers. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResultsDeltaDto {
+  private String surveyId;
+  private Date from;
+  private Date to;
+  private long respondents;
+  private Map<String, Long> answered;
+  private Map<String, Long> skipped;
+  private Map<String, Map<String, Long>> optionCounts;
+}
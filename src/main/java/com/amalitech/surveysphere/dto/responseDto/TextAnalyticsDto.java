@@ -0,0 +1,18 @@
+package com.amalitech.surveysphere.dto.responseDto;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TextAnalyticsDto {
+  private long answers;
+  private long distinctAnswers;
+  private Map<String, Long> topTerms;
+  private Map<String, Long> topPhrases;
+}
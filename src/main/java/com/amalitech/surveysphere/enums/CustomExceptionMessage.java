@@ -14,6 +14,8 @@ public enum CustomExceptionMessage {
     INVALID_ACTIVATION_TYPE("Invalid activation type"),
     USER_ALREADY_AN_ADMIN("User is already an admin"),
     QUESTION_NOT_FOUND("Question not found"),
+    RESPONDENT_NOT_FOUND("Respondent not found"),
+    EXPORT_JOB_NOT_FOUND("Export job not found"),
     PAYMENT_FAILED("Payment verification failed, please try again!");
 
     final String message;
@@ -0,0 +1,21 @@
+package com.amalitech.surveysphere.enums;
+
+import lombok.Getter;
+
+/** Enum representing the file formats the responses to a survey can be exported to */
+@Getter
+public enum ExportFormat {
+  XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx", false),
+  CSV("text/csv", "csv", true),
+  NDJSON("application/x-ndjson", "ndjson", true);
+
+  final String contentType;
+  final String extension;
+  final boolean compressible;
+
+  ExportFormat(String contentType, String extension, boolean compressible) {
+    this.contentType = contentType;
+    this.extension = extension;
+    this.compressible = compressible;
+  }
+}
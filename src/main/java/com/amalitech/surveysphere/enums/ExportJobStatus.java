@@ -0,0 +1,9 @@
+package com.amalitech.surveysphere.enums;
+
+/** Enum representing the stages of an asynchronous export */
+public enum ExportJobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
@@ -0,0 +1,18 @@
+package com.amalitech.surveysphere.enums;
+
+import java.time.temporal.ChronoUnit;
+import lombok.Getter;
+
+/** Enum representing the width of the buckets of a time series */
+@Getter
+public enum TimeResolution {
+  MINUTE(ChronoUnit.MINUTES),
+  HOUR(ChronoUnit.HOURS),
+  DAY(ChronoUnit.DAYS);
+
+  final ChronoUnit unit;
+
+  TimeResolution(ChronoUnit unit) {
+    this.unit = unit;
+  }
+}
@@ -0,0 +1,14 @@
+package com.amalitech.surveysphere.exceptions;
+
+/** Exception class representing a submitted response that breaks the rules of its survey. */
+public class InvalidResponseException extends RuntimeException {
+
+  /**
+   * Constructs a new InvalidResponseException with the specified error message.
+   *
+   * @param message The detail message of the exception.
+   */
+  public InvalidResponseException(String message) {
+    super(message);
+  }
+}
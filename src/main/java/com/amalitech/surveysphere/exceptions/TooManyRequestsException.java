@@ -0,0 +1,20 @@
+package com.amalitech.surveysphere.exceptions;
+
+import lombok.Getter;
+
+/** Exception class representing a request rejected because the server is shedding load. */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+  private final long retryAfterSeconds;
+
+  /**
+   * Constructs a new TooManyRequestsException with the specified error message.
+   *
+   * @param message The detail message of the exception.
+   * @param retryAfterSeconds The number of seconds the client should wait before retrying.
+   */
+  public TooManyRequestsException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
@@ -1,9 +1,11 @@
 package com.amalitech.surveysphere.models;
 
+import com.amalitech.surveysphere.dto.responseDto.TextAnalyticsDto;
 import lombok.Builder;
 import lombok.Data;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -15,4 +17,6 @@ public class AllResponses {
   private String averageTime;
   private List<Response> responses;
   private List<String> options;
+  private Map<String, Long> optionCounts;
+  private TextAnalyticsDto textAnalytics;
 }
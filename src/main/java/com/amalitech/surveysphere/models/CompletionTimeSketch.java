@@ -0,0 +1,32 @@
+package com.amalitech.surveysphere.models;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Completion times of a survey's respondents, kept as counts per logarithmic bucket. Buckets are
+ * only ever incremented, so sketches from any number of writers merge by adding their counts. The
+ * ID is the ID of the survey.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "completion_time_sketch")
+public class CompletionTimeSketch {
+  @Id private String id;
+
+  private String surveyId;
+
+  private long count;
+
+  private long totalMillis;
+
+  @Builder.Default private Map<String, Long> buckets = new HashMap<>();
+}
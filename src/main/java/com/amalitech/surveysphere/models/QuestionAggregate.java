@@ -0,0 +1,51 @@
+package com.amalitech.surveysphere.models;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Answer counts of a choice question, maintained with $inc as responses are ingested. The ID is the
+ * ID of the question and the counts are keyed by the encoded option text.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "question_aggregate")
+public class QuestionAggregate {
+  @Id private String id;
+
+  private String surveyId;
+
+  @Field("counts")
+  @Builder.Default
+  private Map<String, Long> counts = new HashMap<>();
+
+  /**
+   * Encodes an option text as a counts key, escaping the characters MongoDB does not allow in
+   * field names.
+   *
+   * @param option The option text.
+   * @return The counts key.
+   */
+  public static String encodeOption(String option) {
+    return option.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+  }
+
+  /**
+   * Decodes a counts key back to its option text.
+   *
+   * @param key The counts key.
+   * @return The option text.
+   */
+  public static String decodeOption(String key) {
+    return key.replace("%24", "$").replace("%2E", ".").replace("%25", "%");
+  }
+}
@@ -11,7 +11,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -28,7 +27,17 @@ public class Respondent {
 
   private String surveyId;
 
-  @Builder.Default @DBRef private List<Response> responses = new ArrayList<>();
+  @Builder.Default private List<Response> responses = new ArrayList<>();
+
+  private int lastBlockReached;
+
+  private boolean optionsCounted;
+
+  private Date startedDate;
+
+  private Date submittedDate;
+
+  private Date modifiedDate;
 
   @JsonFormat(pattern = "HH:mm", timezone = "UTC")
   @CreatedDate
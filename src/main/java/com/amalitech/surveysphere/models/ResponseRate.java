@@ -0,0 +1,56 @@
+package com.amalitech.surveysphere.models;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Number of respondents a survey received during one UTC day, in total and per hour and minute.
+ * The document is upserted by the first increment of the day, and hour and minute buckets are keyed
+ * by their index within the day and only exist once they have received a respondent.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "response_rate")
+public class ResponseRate {
+  public static final int HOURS_PER_DAY = 24;
+  public static final int MINUTES_PER_DAY = 24 * 60;
+
+  @Id private String id;
+
+  private String surveyId;
+
+  private long total;
+
+  @Builder.Default private Map<String, Long> hours = new HashMap<>();
+
+  @Builder.Default private Map<String, Long> minutes = new HashMap<>();
+
+  /**
+   * Builds the ID of a survey's document for a day. IDs of the same survey sort by day.
+   *
+   * @param surveyId The ID of the survey.
+   * @param day The UTC day.
+   * @return The document ID.
+   */
+  public static String idOf(String surveyId, LocalDate day) {
+    return surveyId + ":" + day;
+  }
+
+  /**
+   * Returns the UTC day of the document.
+   *
+   * @return The day encoded in the document's ID.
+   */
+  public LocalDate day() {
+    return LocalDate.parse(id.substring(id.lastIndexOf(':') + 1));
+  }
+}
@@ -0,0 +1,34 @@
+package com.amalitech.surveysphere.models;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A validated survey submission waiting to be written as a respondent and its responses. */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResponseSubmission {
+  private String respondentId;
+
+  private String surveyId;
+
+  private String email;
+
+  private String authenticatedUser;
+
+  private Date createdDate;
+
+  private Date startedDate;
+
+  private Date submittedDate;
+
+  private int lastBlockReached;
+
+  @Builder.Default private List<Response> responses = new ArrayList<>();
+}
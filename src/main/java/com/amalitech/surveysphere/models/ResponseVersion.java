@@ -0,0 +1,25 @@
+package com.amalitech.surveysphere.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Version of a survey's responses, incremented whenever responses are ingested. It is kept apart
+ * from the survey document so saving a survey never overwrites it. The ID is the ID of the survey.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "response_version")
+public class ResponseVersion {
+  @Id private String id;
+
+  private String surveyId;
+
+  private long version;
+}
@@ -0,0 +1,30 @@
+package com.amalitech.surveysphere.models;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "submission_receipt")
+public class SubmissionReceipt {
+  @Id private String id;
+
+  private String respondentId;
+
+  private String message;
+
+  private String time;
+
+  private boolean completed;
+
+  private Date createdDate;
+
+  private Date claimedAt;
+}
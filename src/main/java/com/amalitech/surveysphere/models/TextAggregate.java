@@ -0,0 +1,39 @@
+package com.amalitech.surveysphere.models;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Sketches of the answers to a free-text question: a count-min sketch of its terms and phrases,
+ * the terms and phrases with the highest estimated counts and the HyperLogLog registers of its
+ * distinct answers. The ID is the ID of the question. The sketch and the registers are kept as the
+ * non-zero counters and registers keyed by their index, so answers are added to them with $inc and
+ * $max through the counter service.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "text_aggregate")
+public class TextAggregate {
+  @Id private String id;
+
+  private String surveyId;
+
+  private long answers;
+
+  @Builder.Default private Map<String, Long> sketch = new HashMap<>();
+
+  @Builder.Default private Map<String, Long> registers = new HashMap<>();
+
+  @Builder.Default private Map<String, Long> topTerms = new LinkedHashMap<>();
+
+  @Builder.Default private Map<String, Long> topPhrases = new LinkedHashMap<>();
+}
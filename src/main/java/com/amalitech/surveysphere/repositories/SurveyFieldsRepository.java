@@ -0,0 +1,19 @@
+package com.amalitech.surveysphere.repositories;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Repository fragment for changing individual fields of a survey. Saving a whole survey rewrites
+ * every field it was read with, which silently undoes concurrent updates to fields such as
+ * respondentCount, so changes to an existing survey should go through here instead.
+ */
+public interface SurveyFieldsRepository {
+
+  /**
+   * Applies an update to a survey and stamps its last modified date.
+   *
+   * @param surveyId The ID of the survey to update.
+   * @param update The fields to change.
+   */
+  void updateFields(String surveyId, Update update);
+}
@@ -0,0 +1,55 @@
+package com.amalitech.surveysphere.repositories;
+
+import com.amalitech.surveysphere.models.Survey;
+import java.util.Collection;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/** Implementation of SurveyFieldsRepository using targeted MongoDB updates. */
+@RequiredArgsConstructor
+public class SurveyFieldsRepositoryImpl implements SurveyFieldsRepository {
+  private final MongoTemplate mongoTemplate;
+
+  @Override
+  public void updateFields(String surveyId, Update update) {
+    setReferenceLists(update);
+    mongoTemplate.updateFirst(
+        Query.query(Criteria.where("_id").is(surveyId)),
+        update.currentDate("lastModifiedDate"),
+        Survey.class);
+  }
+
+  /**
+   * Converts lists of referenced documents set by an update, such as the blocks of a survey, into
+   * DBRefs. The update mapper only converts single references and would otherwise embed the whole
+   * documents in the survey.
+   *
+   * @param update The update to convert.
+   */
+  private void setReferenceLists(Update update) {
+    if (!(update.getUpdateObject().get("$set") instanceof Document fields)) return;
+
+    MongoConverter converter = mongoTemplate.getConverter();
+    MongoPersistentEntity<?> survey =
+        converter.getMappingContext().getRequiredPersistentEntity(Survey.class);
+
+    for (Map.Entry<String, Object> field : new Document(fields).entrySet()) {
+      MongoPersistentProperty property = survey.getPersistentProperty(field.getKey());
+
+      if (property != null
+          && property.isAssociation()
+          && field.getValue() instanceof Collection<?> targets)
+        update.set(
+            field.getKey(),
+            targets.stream().map(target -> converter.toDBRef(target, property)).toList());
+    }
+  }
+}
@@ -12,7 +12,7 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 @RedisHash
-public interface SurveyRepository extends MongoRepository<Survey, String> {
+public interface SurveyRepository extends MongoRepository<Survey, String>, SurveyFieldsRepository {
 
   Page<Survey> findAllBySurveyOwnerAndDeactivated(
       String surveyOwner, boolean deactivated, Pageable pageable);
@@ -0,0 +1,31 @@
+package com.amalitech.surveysphere.services.admissionControlService;
+
+import com.amalitech.surveysphere.dto.responseDto.AdmissionMetricsDto;
+
+/** Interface for admitting or shedding requests to the public survey endpoints. */
+public interface AdmissionControlService {
+
+  /**
+   * Admits a request for a survey from a client, waiting a bounded time for a free slot.
+   *
+   * @param surveyId The ID of the survey the request is for.
+   * @param clientAddress The IP address of the client.
+   * @return A permit that must be closed once the request has been handled.
+   * @throws com.amalitech.surveysphere.exceptions.TooManyRequestsException If the survey or the
+   *     client is over its rate limit, or no slot frees up in time.
+   */
+  Permit admit(String surveyId, String clientAddress);
+
+  /**
+   * Retrieves the number of admitted and shed requests since startup, and the current load.
+   *
+   * @return The admission metrics.
+   */
+  AdmissionMetricsDto getMetrics();
+
+  /** A slot held by an admitted request. */
+  interface Permit extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
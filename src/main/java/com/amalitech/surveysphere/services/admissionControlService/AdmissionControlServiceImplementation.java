@@ -0,0 +1,198 @@
+package com.amalitech.surveysphere.services.admissionControlService;
+
+import com.amalitech.surveysphere.dto.responseDto.AdmissionMetricsDto;
+import com.amalitech.surveysphere.exceptions.TooManyRequestsException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of AdmissionControlService. Every request must take a token from the bucket of
+ * its client's IP address and from the bucket of its survey, and then a slot of a global
+ * concurrency limit. Buckets are kept in lock-striped in-memory caches and dropped once idle. A
+ * request that cannot get a slot within the maximum queue time is shed instead of holding a
+ * server thread and a database connection that other surveys need. A shed request gets back the
+ * tokens it took, so it does not also count against its client or survey.
+ */
+@Service
+public class AdmissionControlServiceImplementation implements AdmissionControlService {
+  private static final Logger logger = LoggerFactory.getLogger(AdmissionControlService.class);
+  private static final String SHED_MESSAGE = "Too many requests, please try again shortly";
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder shedBySurveyLimit = new LongAdder();
+  private final LongAdder shedByClientLimit = new LongAdder();
+  private final LongAdder shedByConcurrencyLimit = new LongAdder();
+  private Cache<String, Bucket> surveyBuckets;
+  private Cache<String, Bucket> clientBuckets;
+  private Semaphore slots;
+
+  @Value("${admission.enabled:true}")
+  private boolean enabled;
+
+  @Value("${admission.survey.capacity:200}")
+  private long surveyCapacity;
+
+  @Value("${admission.survey.refill-per-second:100}")
+  private long surveyRefillPerSecond;
+
+  @Value("${admission.client.capacity:20}")
+  private long clientCapacity;
+
+  @Value("${admission.client.refill-per-second:5}")
+  private long clientRefillPerSecond;
+
+  @Value("${admission.max-concurrent:64}")
+  private int maxConcurrent;
+
+  @Value("${admission.max-queue-ms:200}")
+  private long maxQueueMillis;
+
+  @Value("${admission.retry-after-seconds:1}")
+  private long retryAfterSeconds;
+
+  @Value("${admission.bucket-cache.maximum-size:100000}")
+  private long maximumBuckets;
+
+  @Value("${admission.bucket-cache.stripes:16}")
+  private int stripes;
+
+  @Value("${admission.bucket-cache.idle-minutes:10}")
+  private long idleMinutes;
+
+  /** Creates the bucket stores and the concurrency limit. */
+  @PostConstruct
+  public void initialize() {
+    surveyBuckets = createBucketStore();
+    clientBuckets = createBucketStore();
+    slots = new Semaphore(maxConcurrent, true);
+  }
+
+  /**
+   * Admits a request for a survey from a client, waiting a bounded time for a free slot.
+   *
+   * @param surveyId The ID of the survey the request is for.
+   * @param clientAddress The IP address of the client.
+   * @return A permit that must be closed once the request has been handled.
+   * @throws TooManyRequestsException If the survey or the client is over its rate limit, or no
+   *     slot frees up in time.
+   */
+  @Override
+  public Permit admit(String surveyId, String clientAddress) {
+    if (!enabled) return () -> {};
+
+    Bucket clientBucket =
+        consume(
+            clientBuckets, clientAddress, clientCapacity, clientRefillPerSecond, shedByClientLimit);
+    Bucket surveyBucket;
+    try {
+      surveyBucket =
+          consume(
+              surveyBuckets, surveyId, surveyCapacity, surveyRefillPerSecond, shedBySurveyLimit);
+    } catch (TooManyRequestsException e) {
+      clientBucket.addTokens(1);
+      throw e;
+    }
+
+    boolean acquired;
+    try {
+      acquired = slots.tryAcquire(maxQueueMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+
+    if (!acquired) {
+      clientBucket.addTokens(1);
+      surveyBucket.addTokens(1);
+      shedByConcurrencyLimit.increment();
+      logger.debug("Shed request for survey {}: no slot within {} ms", surveyId, maxQueueMillis);
+      throw new TooManyRequestsException(SHED_MESSAGE, retryAfterSeconds);
+    }
+
+    admitted.increment();
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) slots.release();
+    };
+  }
+
+  /**
+   * Retrieves the number of admitted and shed requests since startup, and the current load.
+   *
+   * @return The admission metrics.
+   */
+  @Override
+  public AdmissionMetricsDto getMetrics() {
+    return AdmissionMetricsDto.builder()
+        .admitted(admitted.sum())
+        .shedBySurveyLimit(shedBySurveyLimit.sum())
+        .shedByClientLimit(shedByClientLimit.sum())
+        .shedByConcurrencyLimit(shedByConcurrencyLimit.sum())
+        .inFlight(maxConcurrent - slots.availablePermits())
+        .queued(slots.getQueueLength())
+        .build();
+  }
+
+  /**
+   * Takes a token from the bucket of a key, creating the bucket on first use.
+   *
+   * @return The bucket the token was taken from, so it can be refunded if the request is shed.
+   * @throws TooManyRequestsException If the bucket is empty, with the time until it refills.
+   */
+  private Bucket consume(
+      Cache<String, Bucket> buckets,
+      String key,
+      long capacity,
+      long refillPerSecond,
+      LongAdder shed) {
+    Bucket bucket;
+    try {
+      bucket = buckets.get(key, () -> createBucket(capacity, refillPerSecond));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+
+    ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+
+    if (!probe.isConsumed()) {
+      shed.increment();
+      long waitSeconds =
+          (probe.getNanosToWaitForRefill() + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+      throw new TooManyRequestsException(SHED_MESSAGE, Math.max(waitSeconds, 1));
+    }
+
+    return bucket;
+  }
+
+  private Bucket createBucket(long capacity, long refillPerSecond) {
+    return Bucket.builder()
+        .addLimit(
+            Bandwidth.classic(capacity, Refill.greedy(refillPerSecond, Duration.ofSeconds(1))))
+        .build();
+  }
+
+  private Cache<String, Bucket> createBucketStore() {
+    return CacheBuilder.newBuilder()
+        .concurrencyLevel(stripes)
+        .maximumSize(maximumBuckets)
+        .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+        .build();
+  }
+}
@@ -0,0 +1,21 @@
+package com.amalitech.surveysphere.services.analysisCacheService;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseAnalysisDto;
+import java.util.function.Supplier;
+
+/** Interface for caching the analyses of surveys' responses. */
+public interface AnalysisCacheService {
+
+  /**
+   * Retrieves the analysis of a survey, computing it if the cached analysis was computed from other
+   * responses or questions, or is too old.
+   *
+   * @param surveyId The ID of the survey.
+   * @param stamp Identifies the responses and questions the analysis is computed from, such as the
+   *     survey's response version.
+   * @param compute Computes the analysis for the given stamp.
+   * @return The analysis, possibly computed from an older stamp while a recomputation runs.
+   */
+  ResponseAnalysisDto getAnalysis(
+      String surveyId, Object stamp, Supplier<ResponseAnalysisDto> compute);
+}
@@ -0,0 +1,137 @@
+package com.amalitech.surveysphere.services.analysisCacheService;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseAnalysisDto;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of AnalysisCacheService. Each survey's latest analysis is cached with the stamp
+ * it was computed from. A request with the same stamp is answered from the cache while the analysis
+ * is younger than the maximum age, which bounds how long parts of the analysis that are written
+ * after the stamp changes, such as text analytics and respondent counts, stay out of date. Any
+ * other request is answered with the cached analysis while it is younger than the maximum
+ * staleness, and starts a recomputation in the background; an older or missing analysis is
+ * computed on the request thread. Requests for the same survey and stamp share a single
+ * computation, so a burst of refreshes during a live survey costs one aggregation.
+ */
+@Service
+public class AnalysisCacheServiceImplementation implements AnalysisCacheService {
+  private static final Logger logger = LoggerFactory.getLogger(AnalysisCacheService.class);
+  private final ConcurrentMap<Flight, CompletableFuture<ResponseAnalysisDto>> inFlight =
+      new ConcurrentHashMap<>();
+  private Cache<String, Entry> analyses;
+  private ExecutorService refreshExecutor;
+
+  @Value("${analysis.cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${analysis.cache.maximum-size:1000}")
+  private long maximumSize;
+
+  @Value("${analysis.cache.max-stale-seconds:60}")
+  private long maxStaleSeconds;
+
+  @Value("${analysis.cache.max-age-seconds:10}")
+  private long maxAgeSeconds;
+
+  /** A computation of the analysis of a survey for a stamp. */
+  private record Flight(String surveyId, Object stamp) {}
+
+  /** A cached analysis with the stamp it was computed from. */
+  private record Entry(Object stamp, ResponseAnalysisDto analysis, long computedAt) {}
+
+  /** Creates the cache and the executor of background recomputations. */
+  @PostConstruct
+  public void initialize() {
+    analyses = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    ThreadFactory threadFactory = Thread.ofVirtual().name("analysis-refresh-", 0).factory();
+    refreshExecutor = Executors.newThreadPerTaskExecutor(threadFactory);
+  }
+
+  /** Stops the background recomputations. */
+  @PreDestroy
+  public void shutdown() {
+    refreshExecutor.shutdownNow();
+  }
+
+  /**
+   * Retrieves the analysis of a survey, computing it if the cached analysis was computed from other
+   * responses or questions, or has reached the maximum age.
+   *
+   * @param surveyId The ID of the survey.
+   * @param stamp Identifies the responses and questions the analysis is computed from, such as the
+   *     survey's response version.
+   * @param compute Computes the analysis for the given stamp.
+   * @return The analysis, possibly computed from an older stamp while a recomputation runs.
+   */
+  @Override
+  public ResponseAnalysisDto getAnalysis(
+      String surveyId, Object stamp, Supplier<ResponseAnalysisDto> compute) {
+    if (!enabled) return compute.get();
+
+    Entry entry = analyses.getIfPresent(surveyId);
+    long age = entry == null ? 0 : System.currentTimeMillis() - entry.computedAt();
+
+    if (entry != null
+        && entry.stamp().equals(stamp)
+        && age < Duration.ofSeconds(maxAgeSeconds).toMillis()) return entry.analysis();
+
+    if (entry != null && age <= Duration.ofSeconds(maxStaleSeconds).toMillis()) {
+      computeOnce(new Flight(surveyId, stamp), compute, true);
+      return entry.analysis();
+    }
+
+    try {
+      return computeOnce(new Flight(surveyId, stamp), compute, false).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw e;
+    }
+  }
+
+  /**
+   * Starts the computation of a flight unless it is already running, and caches its result.
+   *
+   * @param flight The survey and stamp to compute the analysis for.
+   * @param compute Computes the analysis.
+   * @param background Whether a new computation runs in the background or on the calling thread.
+   * @return The running computation.
+   */
+  private CompletableFuture<ResponseAnalysisDto> computeOnce(
+      Flight flight, Supplier<ResponseAnalysisDto> compute, boolean background) {
+    CompletableFuture<ResponseAnalysisDto> created = new CompletableFuture<>();
+    CompletableFuture<ResponseAnalysisDto> running = inFlight.putIfAbsent(flight, created);
+
+    if (running != null) return running;
+
+    Runnable computation =
+        () -> {
+          try {
+            ResponseAnalysisDto analysis = compute.get();
+            analyses.put(
+                flight.surveyId(), new Entry(flight.stamp(), analysis, System.currentTimeMillis()));
+            created.complete(analysis);
+          } catch (RuntimeException e) {
+            if (background)
+              logger.warn("Failed to recompute the analysis of survey {}", flight.surveyId(), e);
+            created.completeExceptionally(e);
+          } finally {
+            inFlight.remove(flight, created);
+          }
+        };
+
+    if (background) refreshExecutor.execute(computation);
+    else computation.run();
+
+    return created;
+  }
+}
@@ -0,0 +1,65 @@
+package com.amalitech.surveysphere.services.answerIndexService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Restricts an analysis to the respondents who gave certain answers to choice questions. A
+ * respondent matches a clause when they chose any of its options, and matches the filter when they
+ * match every clause.
+ *
+ * @param clauses The clauses, all of which must match.
+ */
+public record AnswerFilter(List<Clause> clauses) {
+  /** The filter that matches every respondent. */
+  public static final AnswerFilter NONE = new AnswerFilter(List.of());
+
+  private static final String SYNTAX = "expected questionId:option, with options separated by |";
+
+  /**
+   * The options of a question, any of which a respondent must have chosen.
+   *
+   * @param questionId The ID of the choice question.
+   * @param options The options.
+   */
+  public record Clause(String questionId, List<String> options) {}
+
+  /**
+   * Parses filter expressions of the form {@code questionId:option|option}. Each expression is a
+   * clause and the options of an expression are alternatives.
+   *
+   * @param expressions The expressions, possibly null.
+   * @return The filter, {@link #NONE} if there are no expressions.
+   * @throws IllegalArgumentException If an expression is malformed.
+   */
+  public static AnswerFilter parse(List<String> expressions) {
+    if (expressions == null || expressions.isEmpty()) return NONE;
+
+    List<Clause> clauses = new ArrayList<>(expressions.size());
+
+    for (String expression : expressions) {
+      int separator = expression.indexOf(':');
+
+      if (separator <= 0)
+        throw new IllegalArgumentException("Invalid answer filter '" + expression + "', " + SYNTAX);
+
+      List<String> options =
+          Arrays.stream(expression.substring(separator + 1).split("\\|"))
+              .filter(option -> !option.isBlank())
+              .distinct()
+              .toList();
+
+      if (options.isEmpty())
+        throw new IllegalArgumentException("Invalid answer filter '" + expression + "', " + SYNTAX);
+
+      clauses.add(new Clause(expression.substring(0, separator), options));
+    }
+
+    return new AnswerFilter(List.copyOf(clauses));
+  }
+
+  public boolean isEmpty() {
+    return clauses.isEmpty();
+  }
+}
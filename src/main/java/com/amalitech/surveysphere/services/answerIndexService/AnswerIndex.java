@@ -0,0 +1,178 @@
+package com.amalitech.surveysphere.services.answerIndexService;
+
+import java.util.*;
+
+/**
+ * Immutable bitmap index of a survey's respondents at one response version. Every respondent is
+ * numbered by an ordinal in the order the index first saw it, and each option of each choice
+ * question has a bitmap of the ordinals of the respondents who chose it. Every question also has
+ * bitmaps of the respondents who answered and who skipped it. A filter is evaluated as unions of
+ * option bitmaps intersected with each other, and the analysis of the selected respondents counts
+ * the intersections of the selection with the same bitmaps.
+ *
+ * <p>Successive indexes of a survey share the containers of bitmaps that did not change and the
+ * arrays of respondent IDs and creation times, which an index only reads below its own respondent
+ * count.
+ */
+public final class AnswerIndex {
+  private final long version;
+  private final long watermark;
+  private final int respondentCount;
+  private final String[] respondentIds;
+  private final long[] createdMillis;
+  private final Set<String> choiceQuestionIds;
+  private final Map<String, Map<String, OrdinalBitmap>> options;
+  private final Map<String, OrdinalBitmap> answered;
+  private final Map<String, OrdinalBitmap> skipped;
+
+  AnswerIndex(
+      long version,
+      long watermark,
+      int respondentCount,
+      String[] respondentIds,
+      long[] createdMillis,
+      Set<String> choiceQuestionIds,
+      Map<String, Map<String, OrdinalBitmap>> options,
+      Map<String, OrdinalBitmap> answered,
+      Map<String, OrdinalBitmap> skipped) {
+    this.version = version;
+    this.watermark = watermark;
+    this.respondentCount = respondentCount;
+    this.respondentIds = respondentIds;
+    this.createdMillis = createdMillis;
+    this.choiceQuestionIds = choiceQuestionIds;
+    this.options = options;
+    this.answered = answered;
+    this.skipped = skipped;
+  }
+
+  /** Returns the response version of the survey the index is up to date with. */
+  public long version() {
+    return version;
+  }
+
+  /** Returns the latest modification time of the respondents the index has read. */
+  long watermark() {
+    return watermark;
+  }
+
+  public int respondentCount() {
+    return respondentCount;
+  }
+
+  Set<String> choiceQuestionIds() {
+    return choiceQuestionIds;
+  }
+
+  Map<String, Map<String, OrdinalBitmap>> options() {
+    return options;
+  }
+
+  Map<String, OrdinalBitmap> answered() {
+    return answered;
+  }
+
+  Map<String, OrdinalBitmap> skipped() {
+    return skipped;
+  }
+
+  /**
+   * Selects the respondents matching a filter. The union of each clause's option bitmaps is built
+   * first, and the unions are intersected from the smallest up, so every intersection is at most
+   * as large as the smallest clause.
+   *
+   * @param filter The filter.
+   * @return The ordinals of the matching respondents, every respondent if the filter is empty.
+   * @throws IllegalArgumentException If a clause refers to a question that is not a choice
+   *     question of the survey.
+   */
+  public OrdinalBitmap select(AnswerFilter filter) {
+    if (filter.isEmpty()) return OrdinalBitmap.range(respondentCount);
+
+    List<OrdinalBitmap> unions = new ArrayList<>(filter.clauses().size());
+
+    for (AnswerFilter.Clause clause : filter.clauses()) {
+      if (!choiceQuestionIds.contains(clause.questionId()))
+        throw new IllegalArgumentException(
+            "Question " + clause.questionId() + " is not a choice question of this survey");
+
+      Map<String, OrdinalBitmap> bitmaps = options(clause.questionId());
+      OrdinalBitmap union = OrdinalBitmap.EMPTY;
+      for (String option : clause.options())
+        union = union.or(bitmaps.getOrDefault(option, OrdinalBitmap.EMPTY));
+
+      unions.add(union);
+    }
+
+    unions.sort(Comparator.comparingInt(OrdinalBitmap::cardinality));
+    OrdinalBitmap selection = unions.get(0);
+
+    for (int index = 1; index < unions.size() && !selection.isEmpty(); index++)
+      selection = selection.and(unions.get(index));
+
+    return selection;
+  }
+
+  /**
+   * Returns the bitmaps of the options of a choice question.
+   *
+   * @param questionId The ID of the question.
+   * @return The bitmap of each option chosen at least once, in the order they were first seen.
+   */
+  public Map<String, OrdinalBitmap> options(String questionId) {
+    return options.getOrDefault(questionId, Map.of());
+  }
+
+  /** Counts the selected respondents who chose each option of a choice question. */
+  public Map<String, Long> optionCounts(OrdinalBitmap selection, String questionId) {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    options(questionId)
+        .forEach((option, bitmap) -> counts.put(option, (long) selection.andCardinality(bitmap)));
+    return counts;
+  }
+
+  /** Counts the selected respondents who answered a question. */
+  public int answered(OrdinalBitmap selection, String questionId) {
+    return selection.andCardinality(answered.getOrDefault(questionId, OrdinalBitmap.EMPTY));
+  }
+
+  /** Counts the selected respondents who skipped a question. */
+  public int skipped(OrdinalBitmap selection, String questionId) {
+    return selection.andCardinality(skipped.getOrDefault(questionId, OrdinalBitmap.EMPTY));
+  }
+
+  public String respondentId(int ordinal) {
+    return respondentIds[ordinal];
+  }
+
+  /** Returns when the respondent with an ordinal was created, in epoch milliseconds. */
+  public long createdMillis(int ordinal) {
+    return createdMillis[ordinal];
+  }
+
+  /**
+   * Returns the most recently created of the selected respondents, kept in a min-heap of creation
+   * times so the selection is read once without being sorted.
+   *
+   * @param selection The selected ordinals.
+   * @param limit The maximum number of respondents.
+   * @return Up to limit ordinals, the most recently created first.
+   */
+  public int[] mostRecent(OrdinalBitmap selection, int limit) {
+    PriorityQueue<Integer> oldestFirst =
+        new PriorityQueue<>(
+            Comparator.<Integer>comparingLong(ordinal -> createdMillis[ordinal])
+                .thenComparingInt(ordinal -> ordinal));
+
+    selection.forEach(
+        ordinal -> {
+          oldestFirst.add(ordinal);
+          if (oldestFirst.size() > limit) oldestFirst.poll();
+        });
+
+    int[] ordinals = new int[oldestFirst.size()];
+    for (int index = ordinals.length - 1; index >= 0; index--) ordinals[index] = oldestFirst.poll();
+
+    return ordinals;
+  }
+}
@@ -0,0 +1,14 @@
+package com.amalitech.surveysphere.services.answerIndexService;
+
+/** Interface for the bitmap indexes that answer filters are evaluated against. */
+public interface AnswerIndexService {
+
+  /**
+   * Retrieves the answer index of a survey, first adding the respondents ingested or changed since
+   * it was last brought up to date.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The index at the survey's current response version.
+   */
+  AnswerIndex getIndex(String surveyId);
+}
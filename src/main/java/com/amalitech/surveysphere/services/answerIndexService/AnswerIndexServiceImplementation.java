@@ -0,0 +1,291 @@
+package com.amalitech.surveysphere.services.answerIndexService;
+
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.responseVersionService.ResponseVersionService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionValidator;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of AnswerIndexService. Each survey's index is built once from a cursor over its
+ * respondents and then maintained incrementally: whenever the survey's response version has moved,
+ * the respondents modified after the index's watermark, less an overlap that covers writes still
+ * in flight, are read again. The bits of the respondents already indexed are cleared from every
+ * bitmap before their current answers are set, so answers that were replaced no longer count. As
+ * on ingest, a respondent counts once for each distinct option they chose. An index is rebuilt
+ * when the survey's choice questions change, and the cache is bounded by the number of
+ * respondents indexed, evicting the indexes of surveys that are least recently queried.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnswerIndexServiceImplementation implements AnswerIndexService {
+  private static final Logger logger = LoggerFactory.getLogger(AnswerIndexService.class);
+  private final MongoTemplate mongoTemplate;
+  private final SurveyDescriptorService surveyDescriptorService;
+  private final ResponseVersionService responseVersionService;
+  private Cache<String, SurveyIndex> indexes;
+
+  @Value("${answer-index.cache.maximum-respondents:2000000}")
+  private long maximumRespondents;
+
+  @Value("${answer-index.cache.idle-minutes:30}")
+  private long idleMinutes;
+
+  @Value("${answer-index.overlap-seconds:300}")
+  private long overlapSeconds;
+
+  /**
+   * The state a survey's indexes are built from: the ordinal of every respondent seen and the
+   * growable arrays of their IDs and creation times, shared with the published indexes.
+   */
+  private static final class SurveyIndex {
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private String[] respondentIds = new String[64];
+    private long[] createdMillis = new long[64];
+    private AnswerIndex current;
+
+    /** Forgets every respondent, leaving the arrays of published indexes untouched. */
+    void reset() {
+      ordinals.clear();
+      respondentIds = new String[64];
+      createdMillis = new long[64];
+      current = null;
+    }
+
+    int ordinalOf(String respondentId, long created) {
+      Integer ordinal = ordinals.get(respondentId);
+      if (ordinal != null) return ordinal;
+
+      int next = ordinals.size();
+      if (next == respondentIds.length) {
+        respondentIds = Arrays.copyOf(respondentIds, next * 2);
+        createdMillis = Arrays.copyOf(createdMillis, next * 2);
+      }
+
+      respondentIds[next] = respondentId;
+      createdMillis[next] = created;
+      ordinals.put(respondentId, next);
+      return next;
+    }
+  }
+
+  /** The ordinals added to one bitmap by a refresh. */
+  private static final class Additions {
+    private int[] ordinals = new int[16];
+    private int size;
+
+    void add(int ordinal) {
+      if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+      ordinals[size++] = ordinal;
+    }
+
+    OrdinalBitmap toBitmap() {
+      Arrays.sort(ordinals, 0, size);
+      return OrdinalBitmap.of(ordinals, size);
+    }
+  }
+
+  /**
+   * Creates the index cache, weighing each survey by the respondents it has indexed so a few large
+   * surveys cannot hold more memory than the bound allows.
+   */
+  @PostConstruct
+  public void initialize() {
+    indexes =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumRespondents)
+            .<String, SurveyIndex>weigher((surveyId, state) -> state.ordinals.size() + 1)
+            .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+            .build();
+  }
+
+  /**
+   * Retrieves the answer index of a survey, first adding the respondents ingested or changed since
+   * it was last brought up to date. Indexes of the same survey are refreshed one at a time.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The index at the survey's current response version.
+   * @throws NotFoundException If the survey does not exist.
+   */
+  @Override
+  public AnswerIndex getIndex(String surveyId) {
+    SubmissionDescriptor descriptor = surveyDescriptorService.getDescriptor(surveyId);
+    long version = responseVersionService.getVersion(surveyId);
+    Set<String> choiceQuestionIds =
+        descriptor.getQuestions().stream()
+            .filter(question -> SubmissionValidator.isChoiceType(question.getType()))
+            .map(Question::getId)
+            .collect(Collectors.toUnmodifiableSet());
+
+    SurveyIndex state = indexes.asMap().computeIfAbsent(surveyId, id -> new SurveyIndex());
+
+    synchronized (state) {
+      AnswerIndex current = state.current;
+
+      if (current != null && !current.choiceQuestionIds().equals(choiceQuestionIds)) {
+        state.reset();
+        current = null;
+      }
+
+      if (current == null || current.version() != version) {
+        state.current = refresh(surveyId, state, current, version, choiceQuestionIds);
+        indexes.asMap().replace(surveyId, state, state);
+      }
+
+      return state.current;
+    }
+  }
+
+  /**
+   * Reads the respondents of a survey modified since the current index was built, or all of them
+   * if there is none, and builds the next index from them. The respondents read again are cleared
+   * from the current bitmaps first, then their current answers are set.
+   */
+  private AnswerIndex refresh(
+      String surveyId,
+      SurveyIndex state,
+      AnswerIndex current,
+      long version,
+      Set<String> choiceQuestionIds) {
+    Criteria criteria = Criteria.where("surveyId").is(surveyId);
+    long watermark = 0;
+
+    if (current != null) {
+      watermark = current.watermark();
+      criteria =
+          criteria
+              .and("modifiedDate")
+              .gt(new Date(watermark - Duration.ofSeconds(overlapSeconds).toMillis()));
+    }
+
+    Query query = Query.query(criteria);
+    query
+        .fields()
+        .include("responses.questionId", "responses.answer", "createdDate", "modifiedDate");
+
+    Map<String, Map<String, Additions>> options = new HashMap<>();
+    Map<String, Additions> answered = new HashMap<>();
+    Map<String, Additions> skipped = new HashMap<>();
+    Additions reread = new Additions();
+    long start = System.nanoTime();
+    int read = 0;
+
+    try (Stream<Respondent> respondents = mongoTemplate.stream(query, Respondent.class)) {
+      Iterator<Respondent> iterator = respondents.iterator();
+
+      while (iterator.hasNext()) {
+        Respondent respondent = iterator.next();
+        long created = millis(respondent.getCreatedDate());
+        Integer indexed = state.ordinals.get(respondent.getId());
+        if (indexed != null) reread.add(indexed);
+        int ordinal = state.ordinalOf(respondent.getId(), created);
+        watermark = Math.max(watermark, Math.max(created, millis(respondent.getModifiedDate())));
+        read++;
+
+        if (respondent.getResponses() == null) continue;
+
+        for (Response response : respondent.getResponses()) {
+          String questionId = response.getQuestionId();
+          if (questionId == null) continue;
+
+          (isSkipped(response) ? skipped : answered)
+              .computeIfAbsent(questionId, id -> new Additions())
+              .add(ordinal);
+
+          if (!choiceQuestionIds.contains(questionId) || response.getAnswer() == null) continue;
+
+          for (String option : new LinkedHashSet<>(response.getAnswer()))
+            if (option != null && !option.isBlank())
+              options
+                  .computeIfAbsent(questionId, id -> new LinkedHashMap<>())
+                  .computeIfAbsent(option, key -> new Additions())
+                  .add(ordinal);
+        }
+      }
+    }
+
+    OrdinalBitmap stale = reread.toBitmap();
+    Map<String, Map<String, OrdinalBitmap>> optionBitmaps = new HashMap<>();
+    if (current != null)
+      current
+          .options()
+          .forEach(
+              (questionId, bitmaps) ->
+                  optionBitmaps.put(questionId, merge(bitmaps, stale, Map.of())));
+    options.forEach(
+        (questionId, additions) ->
+            optionBitmaps.put(
+                questionId,
+                merge(
+                    optionBitmaps.getOrDefault(questionId, Map.of()),
+                    OrdinalBitmap.EMPTY,
+                    additions)));
+
+    AnswerIndex next =
+        new AnswerIndex(
+            version,
+            watermark,
+            state.ordinals.size(),
+            state.respondentIds,
+            state.createdMillis,
+            choiceQuestionIds,
+            optionBitmaps,
+            merge(current == null ? Map.of() : current.answered(), stale, answered),
+            merge(current == null ? Map.of() : current.skipped(), stale, skipped));
+
+    logger.debug(
+        "Refreshed the answer index of survey {} to version {} from {} respondents in {} ms",
+        surveyId,
+        version,
+        read,
+        Duration.ofNanos(System.nanoTime() - start).toMillis());
+    return next;
+  }
+
+  /**
+   * Clears stale ordinals from bitmaps and sets added ones, keeping the order of the keys.
+   *
+   * @param bitmaps The current bitmaps.
+   * @param stale The ordinals to clear from every bitmap.
+   * @param additions The ordinals to set, keyed like the bitmaps.
+   * @return The updated bitmaps.
+   */
+  private static Map<String, OrdinalBitmap> merge(
+      Map<String, OrdinalBitmap> bitmaps, OrdinalBitmap stale, Map<String, Additions> additions) {
+    Map<String, OrdinalBitmap> merged = new LinkedHashMap<>();
+    bitmaps.forEach((key, bitmap) -> merged.put(key, bitmap.andNot(stale)));
+    additions.forEach(
+        (key, added) ->
+            merged.put(key, merged.getOrDefault(key, OrdinalBitmap.EMPTY).or(added.toBitmap())));
+    return Collections.unmodifiableMap(merged);
+  }
+
+  /** A response counts as skipped when it has no answer or any blank answer, as on ingest. */
+  private static boolean isSkipped(Response response) {
+    return response.getAnswer() == null
+        || response.getAnswer().isEmpty()
+        || response.getAnswer().stream().anyMatch(String::isBlank);
+  }
+
+  private static long millis(Date date) {
+    return date == null ? 0 : date.getTime();
+  }
+}
@@ -0,0 +1,368 @@
+package com.amalitech.surveysphere.services.answerIndexService;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed set of respondent ordinals, laid out like a Roaring bitmap. Ordinals are
+ * split by their high 16 bits into containers of up to 65536 values, each stored as a sorted array
+ * of its low bits while it holds at most 4096 values and as a 1024-word bitset beyond that. Set
+ * operations work container by container, and the result of a union shares every container that
+ * only one side holds, so adding a few ordinals copies only the containers they fall into.
+ */
+public final class OrdinalBitmap {
+  /** The bitmap holding no ordinals. */
+  public static final OrdinalBitmap EMPTY = new OrdinalBitmap(new char[0], new Container[0]);
+
+  private static final int ARRAY_LIMIT = 4096;
+  private static final int WORDS = 1024;
+
+  private final char[] keys;
+  private final Container[] containers;
+
+  private OrdinalBitmap(char[] keys, Container[] containers) {
+    this.keys = keys;
+    this.containers = containers;
+  }
+
+  /**
+   * Builds a bitmap of the given ordinals.
+   *
+   * @param ordinals Non-negative ordinals in ascending order, possibly repeated.
+   * @param size The number of ordinals to read from the array.
+   * @return The bitmap.
+   */
+  static OrdinalBitmap of(int[] ordinals, int size) {
+    char[] keys = new char[size == 0 ? 0 : (ordinals[size - 1] >>> 16) + 1];
+    Container[] containers = new Container[keys.length];
+    int count = 0;
+    int from = 0;
+
+    while (from < size) {
+      char key = (char) (ordinals[from] >>> 16);
+      char[] values = new char[Math.min(size - from, 1 << 16)];
+      int length = 0;
+      int index = from;
+
+      for (; index < size && ordinals[index] >>> 16 == key; index++) {
+        char value = (char) ordinals[index];
+        if (length == 0 || values[length - 1] != value) {
+          if (length == values.length) values = Arrays.copyOf(values, length * 2);
+          values[length++] = value;
+        }
+      }
+
+      keys[count] = key;
+      containers[count++] = Container.ofValues(values, length);
+      from = index;
+    }
+
+    return new OrdinalBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(containers, count));
+  }
+
+  /**
+   * Builds the bitmap of every ordinal below a bound.
+   *
+   * @param size The number of ordinals, starting at zero.
+   * @return The bitmap.
+   */
+  static OrdinalBitmap range(int size) {
+    int count = (size + 0xFFFF) >>> 16;
+    char[] keys = new char[count];
+    Container[] containers = new Container[count];
+
+    for (int index = 0; index < count; index++) {
+      int values = Math.min(size - (index << 16), 1 << 16);
+      long[] words = new long[WORDS];
+      Arrays.fill(words, 0, values >>> 6, -1L);
+      if ((values & 63) != 0) words[values >>> 6] = (1L << values) - 1;
+
+      keys[index] = (char) index;
+      containers[index] = Container.ofWords(words);
+    }
+
+    return new OrdinalBitmap(keys, containers);
+  }
+
+  /** Returns the number of ordinals in the bitmap. */
+  public int cardinality() {
+    int cardinality = 0;
+    for (Container container : containers) cardinality += container.cardinality;
+    return cardinality;
+  }
+
+  public boolean isEmpty() {
+    return containers.length == 0;
+  }
+
+  public boolean contains(int ordinal) {
+    int index = Arrays.binarySearch(keys, (char) (ordinal >>> 16));
+    return index >= 0 && containers[index].contains((char) ordinal);
+  }
+
+  /** Returns the ordinals held by both bitmaps. */
+  public OrdinalBitmap and(OrdinalBitmap other) {
+    int capacity = Math.min(keys.length, other.keys.length);
+    char[] resultKeys = new char[capacity];
+    Container[] resultContainers = new Container[capacity];
+    int count = 0;
+
+    for (int left = 0, right = 0; left < keys.length && right < other.keys.length; ) {
+      if (keys[left] < other.keys[right]) {
+        left++;
+      } else if (keys[left] > other.keys[right]) {
+        right++;
+      } else {
+        Container container = containers[left].and(other.containers[right]);
+
+        if (container.cardinality > 0) {
+          resultKeys[count] = keys[left];
+          resultContainers[count++] = container;
+        }
+
+        left++;
+        right++;
+      }
+    }
+
+    return new OrdinalBitmap(
+        Arrays.copyOf(resultKeys, count), Arrays.copyOf(resultContainers, count));
+  }
+
+  /** Returns the ordinals held by either bitmap, sharing the containers only one side holds. */
+  public OrdinalBitmap or(OrdinalBitmap other) {
+    if (other.isEmpty()) return this;
+    if (isEmpty()) return other;
+
+    char[] resultKeys = new char[keys.length + other.keys.length];
+    Container[] resultContainers = new Container[resultKeys.length];
+    int count = 0;
+    int left = 0;
+    int right = 0;
+
+    while (left < keys.length || right < other.keys.length) {
+      if (right == other.keys.length
+          || (left < keys.length && keys[left] < other.keys[right])) {
+        resultKeys[count] = keys[left];
+        resultContainers[count++] = containers[left++];
+      } else if (left == keys.length || keys[left] > other.keys[right]) {
+        resultKeys[count] = other.keys[right];
+        resultContainers[count++] = other.containers[right++];
+      } else {
+        resultKeys[count] = keys[left];
+        resultContainers[count++] = containers[left++].or(other.containers[right++]);
+      }
+    }
+
+    return new OrdinalBitmap(
+        Arrays.copyOf(resultKeys, count), Arrays.copyOf(resultContainers, count));
+  }
+
+  /** Returns the ordinals held by this bitmap and not the other, sharing untouched containers. */
+  public OrdinalBitmap andNot(OrdinalBitmap other) {
+    if (isEmpty() || other.isEmpty()) return this;
+
+    char[] resultKeys = new char[keys.length];
+    Container[] resultContainers = new Container[keys.length];
+    int count = 0;
+    boolean changed = false;
+
+    for (int left = 0, right = 0; left < keys.length; left++) {
+      while (right < other.keys.length && other.keys[right] < keys[left]) right++;
+
+      Container container = containers[left];
+
+      if (right < other.keys.length && other.keys[right] == keys[left]) {
+        Container difference = container.andNot(other.containers[right]);
+
+        if (difference.cardinality != container.cardinality) {
+          container = difference;
+          changed = true;
+        }
+      }
+
+      if (container.cardinality > 0) {
+        resultKeys[count] = keys[left];
+        resultContainers[count++] = container;
+      }
+    }
+
+    if (!changed) return this;
+
+    return new OrdinalBitmap(
+        Arrays.copyOf(resultKeys, count), Arrays.copyOf(resultContainers, count));
+  }
+
+  /** Counts the ordinals held by both bitmaps without building their intersection. */
+  public int andCardinality(OrdinalBitmap other) {
+    int cardinality = 0;
+
+    for (int left = 0, right = 0; left < keys.length && right < other.keys.length; ) {
+      if (keys[left] < other.keys[right]) {
+        left++;
+      } else if (keys[left] > other.keys[right]) {
+        right++;
+      } else {
+        cardinality += containers[left++].andCardinality(other.containers[right++]);
+      }
+    }
+
+    return cardinality;
+  }
+
+  /** Passes every ordinal of the bitmap to an action, in ascending order. */
+  public void forEach(IntConsumer action) {
+    for (int index = 0; index < keys.length; index++)
+      containers[index].forEach(keys[index] << 16, action);
+  }
+
+  /** The low 16 bits of the ordinals that share the same high 16 bits. */
+  private static final class Container {
+    private final char[] values;
+    private final long[] words;
+    private final int cardinality;
+
+    private Container(char[] values, long[] words, int cardinality) {
+      this.values = values;
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    /** Builds a container of distinct values in ascending order. */
+    static Container ofValues(char[] values, int size) {
+      if (size <= ARRAY_LIMIT)
+        return new Container(
+            size == values.length ? values : Arrays.copyOf(values, size), null, size);
+
+      long[] words = new long[WORDS];
+      for (int index = 0; index < size; index++)
+        words[values[index] >>> 6] |= 1L << values[index];
+
+      return new Container(null, words, size);
+    }
+
+    /** Builds a container of a bitset, converting it to an array if it is sparse. */
+    static Container ofWords(long[] words) {
+      int cardinality = 0;
+      for (long word : words) cardinality += Long.bitCount(word);
+
+      if (cardinality > ARRAY_LIMIT) return new Container(null, words, cardinality);
+
+      char[] values = new char[cardinality];
+      int size = 0;
+
+      for (int index = 0; index < WORDS; index++)
+        for (long word = words[index]; word != 0; word &= word - 1)
+          values[size++] = (char) ((index << 6) + Long.numberOfTrailingZeros(word));
+
+      return new Container(values, null, cardinality);
+    }
+
+    boolean contains(char value) {
+      return words != null
+          ? (words[value >>> 6] & (1L << value)) != 0
+          : Arrays.binarySearch(values, value) >= 0;
+    }
+
+    Container and(Container other) {
+      if (words != null && other.words != null) {
+        long[] result = new long[WORDS];
+        for (int index = 0; index < WORDS; index++)
+          result[index] = words[index] & other.words[index];
+        return ofWords(result);
+      }
+
+      Container array = words == null ? this : other;
+      Container probe = array == this ? other : this;
+      char[] result = new char[array.cardinality];
+      int size = 0;
+
+      for (char value : array.values) if (probe.contains(value)) result[size++] = value;
+
+      return ofValues(result, size);
+    }
+
+    int andCardinality(Container other) {
+      if (words != null && other.words != null) {
+        int cardinality = 0;
+        for (int index = 0; index < WORDS; index++)
+          cardinality += Long.bitCount(words[index] & other.words[index]);
+        return cardinality;
+      }
+
+      Container array = words == null ? this : other;
+      Container probe = array == this ? other : this;
+      int cardinality = 0;
+
+      for (char value : array.values) if (probe.contains(value)) cardinality++;
+
+      return cardinality;
+    }
+
+    Container andNot(Container other) {
+      if (words == null) {
+        char[] result = new char[cardinality];
+        int size = 0;
+
+        for (char value : values) if (!other.contains(value)) result[size++] = value;
+
+        return ofValues(result, size);
+      }
+
+      long[] result = words.clone();
+
+      if (other.words != null) {
+        for (int index = 0; index < WORDS; index++) result[index] &= ~other.words[index];
+      } else {
+        for (char value : other.values) result[value >>> 6] &= ~(1L << value);
+      }
+
+      return ofWords(result);
+    }
+
+    Container or(Container other) {
+      if (words == null && other.words == null) {
+        char[] result = new char[cardinality + other.cardinality];
+        int size = 0;
+        int left = 0;
+        int right = 0;
+
+        while (left < values.length && right < other.values.length) {
+          char value = values[left];
+          char otherValue = other.values[right];
+
+          if (value <= otherValue) left++;
+          if (otherValue <= value) right++;
+          result[size++] = value <= otherValue ? value : otherValue;
+        }
+
+        while (left < values.length) result[size++] = values[left++];
+        while (right < other.values.length) result[size++] = other.values[right++];
+
+        return ofValues(result, size);
+      }
+
+      long[] result = words != null ? words.clone() : other.words.clone();
+      Container rest = words != null ? other : this;
+
+      if (rest.words != null) {
+        for (int index = 0; index < WORDS; index++) result[index] |= rest.words[index];
+      } else {
+        for (char value : rest.values) result[value >>> 6] |= 1L << value;
+      }
+
+      return ofWords(result);
+    }
+
+    void forEach(int high, IntConsumer action) {
+      if (words == null) {
+        for (char value : values) action.accept(high | value);
+        return;
+      }
+
+      for (int index = 0; index < WORDS; index++)
+        for (long word = words[index]; word != 0; word &= word - 1)
+          action.accept(high | (index << 6) + Long.numberOfTrailingZeros(word));
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.amalitech.surveysphere.services.completionTimeService;
+
+import com.amalitech.surveysphere.dto.responseDto.CompletionTimeDto;
+import com.amalitech.surveysphere.models.CompletionTimeSketch;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.util.Date;
+import java.util.List;
+
+/** Interface for recording and summarising how long respondents take to complete surveys. */
+public interface CompletionTimeService {
+
+  /**
+   * Builds the sketch increments that record one completion of a survey.
+   *
+   * @param surveyId The ID of the survey.
+   * @param startedDate When the respondent started the survey.
+   * @param submittedDate When the respondent submitted the last block.
+   * @return The increments, empty if the timestamps do not describe a plausible completion.
+   */
+  List<CounterDelta> completionDeltas(String surveyId, Date startedDate, Date submittedDate);
+
+  /**
+   * Summarises a survey's completion time sketch.
+   *
+   * @param sketch The sketch, or null if nobody has completed the survey yet.
+   * @return The number of completions and their average, median, 90th and 99th percentile.
+   */
+  CompletionTimeDto summarise(CompletionTimeSketch sketch);
+}
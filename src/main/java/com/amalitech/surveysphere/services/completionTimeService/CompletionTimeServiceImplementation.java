@@ -0,0 +1,107 @@
+package com.amalitech.surveysphere.services.completionTimeService;
+
+import com.amalitech.surveysphere.dto.responseDto.CompletionTimeDto;
+import com.amalitech.surveysphere.models.CompletionTimeSketch;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of CompletionTimeService. Durations are recorded in a log-bucketed sketch: bucket
+ * i holds durations in (γ^(i-1), γ^i] milliseconds, so every quantile is answered within the
+ * relative accuracy α = (γ - 1) / (γ + 1) from at most a few hundred buckets, no matter how many
+ * respondents there are. Recording a completion costs one $inc of a bucket and the totals.
+ *
+ * <p>The start of a survey is the startedAt time the client sends with its first submission, since
+ * the server only learns about a respondent once the first block is saved. Respondents whose
+ * clients do not send it are not recorded, so the sketch can count fewer completions than there
+ * are completed respondents.
+ */
+@Service
+public class CompletionTimeServiceImplementation implements CompletionTimeService {
+  private static final double RELATIVE_ACCURACY = 0.01;
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  @Value("${analysis.completion-time.max-duration-hours:168}")
+  private long maxDurationHours;
+
+  /**
+   * Builds the sketch increments that record one completion of a survey. Completions without a
+   * client-supplied start time, with a negative duration or longer than the maximum duration are
+   * not recorded.
+   *
+   * @param surveyId The ID of the survey.
+   * @param startedDate When the respondent started the survey.
+   * @param submittedDate When the respondent submitted the last block.
+   * @return The increments, empty if the timestamps do not describe a plausible completion.
+   */
+  @Override
+  public List<CounterDelta> completionDeltas(
+      String surveyId, Date startedDate, Date submittedDate) {
+    if (startedDate == null || submittedDate == null) return List.of();
+
+    long millis = submittedDate.getTime() - startedDate.getTime();
+
+    if (millis < 0 || millis > Duration.ofHours(maxDurationHours).toMillis()) return List.of();
+
+    return List.of(
+        sketchDelta(surveyId, "buckets." + bucketOf(millis), 1),
+        sketchDelta(surveyId, "count", 1),
+        sketchDelta(surveyId, "totalMillis", millis));
+  }
+
+  /**
+   * Summarises a survey's completion time sketch.
+   *
+   * @param sketch The sketch, or null if nobody has completed the survey yet.
+   * @return The number of completions and their average, median, 90th and 99th percentile.
+   */
+  @Override
+  public CompletionTimeDto summarise(CompletionTimeSketch sketch) {
+    if (sketch == null || sketch.getCount() == 0) return CompletionTimeDto.builder().build();
+
+    TreeMap<Integer, Long> buckets = new TreeMap<>();
+    sketch.getBuckets().forEach((bucket, count) -> buckets.put(Integer.parseInt(bucket), count));
+    long count = buckets.values().stream().mapToLong(Long::longValue).sum();
+
+    return CompletionTimeDto.builder()
+        .count(sketch.getCount())
+        .averageMillis(sketch.getTotalMillis() / sketch.getCount())
+        .medianMillis(quantile(buckets, count, 0.5))
+        .p90Millis(quantile(buckets, count, 0.9))
+        .p99Millis(quantile(buckets, count, 0.99))
+        .build();
+  }
+
+  private CounterDelta sketchDelta(String surveyId, String field, long amount) {
+    return new CounterDelta(surveyId, CompletionTimeSketch.class, surveyId, field, amount, true);
+  }
+
+  /** Returns the bucket of a duration; durations under a millisecond share bucket 0. */
+  private static int bucketOf(long millis) {
+    return millis <= 1 ? 0 : (int) Math.ceil(Math.log(millis) / LOG_GAMMA);
+  }
+
+  /** Returns the value that represents a bucket within the relative accuracy. */
+  private static long valueOf(int bucket) {
+    return bucket == 0 ? 1 : Math.round(2 * Math.pow(GAMMA, bucket) / (GAMMA + 1));
+  }
+
+  private static Long quantile(TreeMap<Integer, Long> buckets, long count, double quantile) {
+    long rank = (long) Math.ceil(quantile * count);
+    long seen = 0;
+
+    for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+      seen += bucket.getValue();
+      if (seen >= rank) return valueOf(bucket.getKey());
+    }
+
+    return buckets.isEmpty() ? null : valueOf(buckets.lastKey());
+  }
+}
@@ -0,0 +1,62 @@
+package com.amalitech.surveysphere.services.counterService;
+
+/**
+ * An amount to add to a numeric field of a document, made on behalf of a survey, or for a maximum
+ * delta a value the field is raised to. An upserting delta creates the document, tagged with the
+ * survey ID, if it does not exist yet.
+ *
+ * @param surveyId The ID of the survey the change belongs to, used to pick its lane.
+ * @param entity The type of the document.
+ * @param documentId The ID of the document.
+ * @param field The path of the counter field.
+ * @param amount The amount to add, or the value to raise the field to.
+ * @param upsert Whether a missing document is created.
+ * @param maximum Whether the field is raised to the amount instead of incremented by it.
+ */
+public record CounterDelta(
+    String surveyId,
+    Class<?> entity,
+    String documentId,
+    String field,
+    long amount,
+    boolean upsert,
+    boolean maximum) {
+
+  public CounterDelta(
+      String surveyId, Class<?> entity, String documentId, String field, long amount) {
+    this(surveyId, entity, documentId, field, amount, false, false);
+  }
+
+  public CounterDelta(
+      String surveyId,
+      Class<?> entity,
+      String documentId,
+      String field,
+      long amount,
+      boolean upsert) {
+    this(surveyId, entity, documentId, field, amount, upsert, false);
+  }
+
+  /**
+   * Creates an upserting delta that raises a field to a value, leaving it as it is if it is already
+   * higher. Applying it more than once has the same effect as applying it once.
+   *
+   * @return The maximum delta.
+   */
+  public static CounterDelta maximum(
+      String surveyId, Class<?> entity, String documentId, String field, long value) {
+    return new CounterDelta(surveyId, entity, documentId, field, value, true, true);
+  }
+
+  /**
+   * Returns the delta that takes this one back.
+   *
+   * @return A delta of the same counter with the opposite amount.
+   * @throws UnsupportedOperationException If this is a maximum delta, which cannot be taken back.
+   */
+  public CounterDelta negated() {
+    if (maximum) throw new UnsupportedOperationException("A maximum cannot be taken back");
+
+    return new CounterDelta(surveyId, entity, documentId, field, -amount, upsert);
+  }
+}
@@ -0,0 +1,17 @@
+package com.amalitech.surveysphere.services.counterService;
+
+import java.util.List;
+
+/** Interface for applying counter increments produced by response ingestion. */
+public interface CounterService {
+
+  /**
+   * Applies a batch of counter increments, either immediately or through the ingestion lanes.
+   *
+   * @param deltas The increments to apply.
+   */
+  void apply(List<CounterDelta> deltas);
+
+  /** Writes every increment accepted so far and waits for the writes to complete. */
+  void flush();
+}
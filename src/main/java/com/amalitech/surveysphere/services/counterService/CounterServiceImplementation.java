@@ -0,0 +1,274 @@
+package com.amalitech.surveysphere.services.counterService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of CounterService. Without lanes, each batch is written as one unordered bulk of
+ * $inc and $max updates. With lanes, increments are partitioned by survey ID into a fixed number
+ * of lanes, each drained by a single virtual thread through a bounded queue. A lane sums the
+ * increments of its surveys in memory and writes them in one bulk per flush interval, so a busy
+ * survey's counters are updated by one writer at a time and many submissions cost a single $inc or
+ * $max per counter. A lane survives any failure of its own writes, and retries only the counters
+ * of the bulks that did not run, so no increment is applied twice. Increments that cannot be
+ * enqueued in time, because a lane is backed up or has stopped, are written synchronously instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class CounterServiceImplementation implements CounterService {
+  private static final Logger logger = LoggerFactory.getLogger(CounterService.class);
+  private final MongoTemplate mongoTemplate;
+  private Lane[] lanes;
+
+  @Value("${response.ingestion.lanes.enabled:false}")
+  private boolean lanesEnabled;
+
+  @Value("${response.ingestion.lanes.count:8}")
+  private int laneCount;
+
+  @Value("${response.ingestion.lanes.queue-capacity:10000}")
+  private int queueCapacity;
+
+  @Value("${response.ingestion.lanes.flush-interval-ms:500}")
+  private long flushIntervalMillis;
+
+  @Value("${response.ingestion.lanes.enqueue-timeout-ms:100}")
+  private long enqueueTimeoutMillis;
+
+  @Value("${response.ingestion.lanes.flush-timeout-ms:10000}")
+  private long flushTimeoutMillis;
+
+  /** Starts the lanes when they are enabled. */
+  @PostConstruct
+  public void startLanes() {
+    if (!lanesEnabled) return;
+
+    lanes = new Lane[laneCount];
+    for (int index = 0; index < laneCount; index++) {
+      lanes[index] = new Lane();
+      Thread.ofVirtual().name("ingestion-lane-" + index).start(lanes[index]::run);
+    }
+  }
+
+  /** Writes what the lanes hold and stops them. */
+  @PreDestroy
+  public void stopLanes() {
+    if (lanes == null) return;
+
+    List<CompletableFuture<Void>> stopped = new ArrayList<>(lanes.length);
+    for (Lane lane : lanes) if (lane.enqueue(Signal.STOP)) stopped.add(lane.stopped);
+
+    await(stopped);
+  }
+
+  /**
+   * Applies a batch of counter increments, either immediately or through the ingestion lanes.
+   * Enqueuing waits a bounded time while a lane's queue is full, after which the increments that
+   * were not enqueued are written synchronously.
+   *
+   * @param deltas The increments to apply.
+   */
+  @Override
+  public void apply(List<CounterDelta> deltas) {
+    if (deltas.isEmpty()) return;
+
+    Map<CounterKey, Map<Counter, Long>> counters = new HashMap<>();
+
+    for (CounterDelta delta : deltas)
+      if (lanes == null
+          || !lanes[Math.floorMod(delta.surveyId().hashCode(), lanes.length)].enqueue(delta))
+        merge(counters, delta);
+
+    if (counters.isEmpty()) return;
+
+    if (lanes != null) logger.warn("Ingestion lanes are backed up, writing counters directly");
+    write(counters);
+  }
+
+  /**
+   * Writes every increment accepted so far and waits for the writes to complete.
+   *
+   * @throws DataAccessException If a lane fails to write its counters, or a QueryTimeoutException
+   *     if the lanes do not flush within the flush timeout.
+   */
+  @Override
+  public void flush() {
+    if (lanes == null) return;
+
+    List<CompletableFuture<Void>> flushed = new ArrayList<>(lanes.length);
+    for (Lane lane : lanes) {
+      Barrier barrier = new Barrier(new CompletableFuture<>());
+      if (!lane.enqueue(barrier))
+        throw new QueryTimeoutException("Ingestion lane is not accepting a flush");
+      flushed.add(barrier.flushed());
+    }
+
+    await(flushed);
+  }
+
+  /**
+   * Waits a bounded time for lanes to reach a point.
+   *
+   * @throws QueryTimeoutException If the lanes do not get there within the flush timeout.
+   */
+  private void await(List<CompletableFuture<Void>> futures) {
+    try {
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+          .get(flushTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new QueryTimeoutException(
+          "Ingestion lanes did not flush within " + flushTimeoutMillis + " ms", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while flushing counter increments", e);
+    }
+  }
+
+  private static void merge(Map<CounterKey, Map<Counter, Long>> counters, CounterDelta delta) {
+    counters
+        .computeIfAbsent(
+            new CounterKey(delta.entity(), delta.documentId(), delta.surveyId(), delta.upsert()),
+            key -> new HashMap<>())
+        .merge(
+            new Counter(delta.field(), delta.maximum()),
+            delta.amount(),
+            delta.maximum() ? Math::max : Long::sum);
+  }
+
+  /**
+   * Writes summed counters as one unordered bulk of $inc and $max updates per document type. The
+   * counters of each bulk are removed as soon as it has run, so when a later bulk fails only the
+   * counters that were not written are left.
+   *
+   * @param counters The summed increments and highest maxima of each document.
+   */
+  private void write(Map<CounterKey, Map<Counter, Long>> counters) {
+    Map<Class<?>, BulkOperations> operations = new HashMap<>();
+
+    counters.forEach(
+        (key, fields) -> {
+          Update update = new Update();
+          fields.forEach(
+              (counter, amount) -> {
+                if (counter.maximum()) update.max(counter.field(), amount);
+                else update.inc(counter.field(), amount);
+              });
+          Query query = Query.query(Criteria.where("_id").is(key.documentId()));
+          BulkOperations bulk =
+              operations.computeIfAbsent(
+                  key.entity(),
+                  entity -> mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entity));
+
+          if (key.upsert()) bulk.upsert(query, update.setOnInsert("surveyId", key.surveyId()));
+          else bulk.updateOne(query, update);
+        });
+
+    operations.forEach(
+        (entity, bulk) -> {
+          bulk.execute();
+          counters.keySet().removeIf(key -> key.entity() == entity);
+        });
+  }
+
+  private record CounterKey(
+      Class<?> entity, String documentId, String surveyId, boolean upsert) {}
+
+  private record Counter(String field, boolean maximum) {}
+
+  private record Barrier(CompletableFuture<Void> flushed) {}
+
+  private enum Signal {
+    STOP
+  }
+
+  /** A single-writer lane owning the counters of the surveys hashed to it. */
+  private final class Lane {
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+    private final Map<CounterKey, Map<Counter, Long>> pending = new HashMap<>();
+    private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+
+    /**
+     * Enqueues an item, waiting a bounded time while the queue is full.
+     *
+     * @return false if the lane has stopped or the queue stayed full.
+     */
+    boolean enqueue(Object item) {
+      if (stopped.isDone()) return false;
+
+      try {
+        return queue.offer(item, enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    void run() {
+      long nextFlush = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+
+      try {
+        while (true) {
+          Object item =
+              queue.poll(Math.max(nextFlush - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+
+          try {
+            if (item instanceof CounterDelta delta) {
+              merge(pending, delta);
+            } else if (item instanceof Barrier barrier) {
+              try {
+                flushPending();
+                barrier.flushed().complete(null);
+              } catch (Throwable e) {
+                barrier.flushed().completeExceptionally(e);
+              }
+            } else if (item == Signal.STOP) {
+              flushPending();
+              return;
+            }
+
+            if (System.nanoTime() >= nextFlush) {
+              nextFlush = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+              flushPending();
+            }
+          } catch (Throwable e) {
+            logger.warn("Failed to write {} counters, retrying next interval", pending.size(), e);
+            if (item == Signal.STOP) return;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error("Ingestion lane interrupted with {} unwritten counters", pending.size());
+      } finally {
+        stopped.complete(null);
+      }
+    }
+
+    private void flushPending() {
+      if (pending.isEmpty()) return;
+
+      write(pending);
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package com.amalitech.surveysphere.services.crosstabService;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.snapshotService.ResponseSnapshot;
+import java.util.*;
+
+/**
+ * Immutable, dictionary-encoded answers of a survey's respondents to its choice questions. Each
+ * question is a column holding the option indices chosen by every respondent, stored as one int
+ * array of codes and one array of offsets per respondent, so counting combinations of answers is
+ * a scan over primitive arrays.
+ */
+final class AnswerMatrix {
+  private final int respondentCount;
+  private final Map<String, Column> columns;
+
+  /** The dictionary and codes of a single question. */
+  private record Column(List<String> dictionary, int[] offsets, int[] codes) {}
+
+  /** The counts of every combination of the options of two questions. */
+  record Counts(List<String> rowOptions, List<String> columnOptions, long[][] counts, long total) {}
+
+  private AnswerMatrix(int respondentCount, Map<String, Column> columns) {
+    this.respondentCount = respondentCount;
+    this.columns = columns;
+  }
+
+  /**
+   * Encodes the answers of respondents to the given questions. The dictionary of each question
+   * starts with its options, in order, followed by answers that are no longer among them.
+   *
+   * @param questions The choice questions to encode.
+   * @param respondents The respondents, read once.
+   * @return The encoded answers.
+   */
+  static AnswerMatrix build(List<Question> questions, Iterator<Respondent> respondents) {
+    Map<String, ColumnBuilder> builders = new LinkedHashMap<>();
+    for (Question question : questions)
+      builders.put(question.getId(), new ColumnBuilder(question.getOptions()));
+
+    int respondentCount = 0;
+
+    while (respondents.hasNext()) {
+      List<Response> responses = respondents.next().getResponses();
+
+      if (responses != null)
+        for (Response response : responses) {
+          ColumnBuilder builder = builders.get(response.getQuestionId());
+          if (builder != null && response.getAnswer() != null) builder.add(response.getAnswer());
+        }
+
+      for (ColumnBuilder builder : builders.values()) builder.endRespondent();
+      respondentCount++;
+    }
+
+    Map<String, Column> columns = new HashMap<>();
+    builders.forEach((questionId, builder) -> columns.put(questionId, builder.build()));
+    return new AnswerMatrix(respondentCount, Map.copyOf(columns));
+  }
+
+  /**
+   * Encodes the answers of the live respondents of a snapshot to the given questions, translating
+   * the codes of each segment's dictionary to the matrix's dictionary once per segment.
+   *
+   * @param questions The choice questions to encode.
+   * @param snapshot The snapshot of the survey's respondents.
+   * @return The encoded answers.
+   */
+  static AnswerMatrix build(List<Question> questions, ResponseSnapshot snapshot) {
+    Map<String, ColumnBuilder> builders = new LinkedHashMap<>();
+    for (Question question : questions)
+      builders.put(question.getId(), new ColumnBuilder(question.getOptions()));
+
+    int respondentCount = 0;
+
+    for (int segment = 0; segment < snapshot.segmentCount(); segment++) {
+      List<ColumnBuilder> segmentBuilders = new ArrayList<>();
+      List<ResponseSnapshot.Column> segmentColumns = new ArrayList<>();
+      List<int[]> translations = new ArrayList<>();
+
+      for (Map.Entry<String, ColumnBuilder> entry : builders.entrySet()) {
+        ResponseSnapshot.Column column = snapshot.column(segment, entry.getKey());
+        if (column == null) continue;
+
+        segmentBuilders.add(entry.getValue());
+        segmentColumns.add(column);
+        translations.add(entry.getValue().translate(column.dictionary()));
+      }
+
+      for (int row = 0; row < snapshot.rowCount(segment); row++) {
+        if (!snapshot.isLive(segment, row)) continue;
+
+        for (int index = 0; index < segmentColumns.size(); index++) {
+          ResponseSnapshot.Column column = segmentColumns.get(index);
+          int[] translation = translations.get(index);
+
+          for (int code = column.start(row); code < column.end(row); code++)
+            segmentBuilders.get(index).addCode(translation[column.code(code)]);
+        }
+
+        for (ColumnBuilder builder : builders.values()) builder.endRespondent();
+        respondentCount++;
+      }
+    }
+
+    Map<String, Column> columns = new HashMap<>();
+    builders.forEach((questionId, builder) -> columns.put(questionId, builder.build()));
+    return new AnswerMatrix(respondentCount, Map.copyOf(columns));
+  }
+
+  /**
+   * Counts how many respondents chose each combination of options of two questions. A respondent
+   * who chose several options of a multiple-choice question is counted once for each of them, and
+   * respondents who did not answer both questions are left out.
+   *
+   * @param rowQuestionId The ID of the question whose options are the rows.
+   * @param columnQuestionId The ID of the question whose options are the columns.
+   * @return The counts, indexed by row and column option.
+   */
+  Counts crosstab(String rowQuestionId, String columnQuestionId) {
+    Column rows = columns.get(rowQuestionId);
+    Column cols = columns.get(columnQuestionId);
+    long[][] counts = new long[rows.dictionary.size()][cols.dictionary.size()];
+    long total = 0;
+
+    for (int respondent = 0; respondent < respondentCount; respondent++) {
+      int rowStart = rows.offsets[respondent];
+      int rowEnd = rows.offsets[respondent + 1];
+      int columnStart = cols.offsets[respondent];
+      int columnEnd = cols.offsets[respondent + 1];
+
+      if (rowStart == rowEnd || columnStart == columnEnd) continue;
+
+      total++;
+      for (int row = rowStart; row < rowEnd; row++)
+        for (int column = columnStart; column < columnEnd; column++)
+          counts[rows.codes[row]][cols.codes[column]]++;
+    }
+
+    return new Counts(rows.dictionary, cols.dictionary, counts, total);
+  }
+
+  /** Encodes the answers to a question one respondent at a time. */
+  private static final class ColumnBuilder {
+    private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+    private int[] offsets = new int[64];
+    private int[] codes = new int[64];
+    private int respondents;
+    private int size;
+
+    ColumnBuilder(List<String> options) {
+      if (options != null)
+        for (String option : options)
+          if (option != null) dictionary.putIfAbsent(option, dictionary.size());
+    }
+
+    /** Adds the answer of the current respondent, skipping options it already chose. */
+    void add(List<String> answer) {
+      for (String value : answer) {
+        if (value == null || value.isBlank()) continue;
+
+        addCode(dictionary.computeIfAbsent(value, key -> dictionary.size()));
+      }
+    }
+
+    /** Adds an already encoded option of the current respondent, skipping it if already chosen. */
+    void addCode(int code) {
+      if (chosen(code)) return;
+
+      if (size == codes.length) codes = Arrays.copyOf(codes, size * 2);
+      codes[size++] = code;
+    }
+
+    /** Maps the codes of another dictionary to this column's codes, adding missing options. */
+    int[] translate(List<String> options) {
+      int[] translation = new int[options.size()];
+
+      for (int code = 0; code < translation.length; code++)
+        translation[code] = dictionary.computeIfAbsent(options.get(code), key -> dictionary.size());
+
+      return translation;
+    }
+
+    void endRespondent() {
+      if (respondents + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+      offsets[++respondents] = size;
+    }
+
+    Column build() {
+      return new Column(
+          List.copyOf(dictionary.keySet()),
+          Arrays.copyOf(offsets, respondents + 1),
+          Arrays.copyOf(codes, size));
+    }
+
+    private boolean chosen(int code) {
+      for (int index = offsets[respondents]; index < size; index++)
+        if (codes[index] == code) return true;
+      return false;
+    }
+  }
+}
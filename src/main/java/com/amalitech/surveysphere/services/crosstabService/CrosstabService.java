@@ -0,0 +1,20 @@
+package com.amalitech.surveysphere.services.crosstabService;
+
+import com.amalitech.surveysphere.dto.responseDto.CrosstabDto;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+
+/** Interface for cross-tabulating the answers to the choice questions of a survey. */
+public interface CrosstabService {
+
+  /**
+   * Counts how many respondents chose each combination of the options of two choice questions.
+   *
+   * @param surveyId The ID of the survey.
+   * @param rowQuestionId The ID of the question whose options are the rows.
+   * @param columnQuestionId The ID of the question whose options are the columns.
+   * @param filter The answers the counted respondents must have given.
+   * @return The cross-tabulation of the two questions.
+   */
+  CrosstabDto crosstab(
+      String surveyId, String rowQuestionId, String columnQuestionId, AnswerFilter filter);
+}
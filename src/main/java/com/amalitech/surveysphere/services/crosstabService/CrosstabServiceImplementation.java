@@ -0,0 +1,233 @@
+package com.amalitech.surveysphere.services.crosstabService;
+
+import com.amalitech.surveysphere.dto.responseDto.CrosstabDto;
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndex;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndexService;
+import com.amalitech.surveysphere.services.answerIndexService.OrdinalBitmap;
+import com.amalitech.surveysphere.services.responseVersionService.ResponseVersionService;
+import com.amalitech.surveysphere.services.snapshotService.SnapshotService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionValidator;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of CrosstabService. The answers of a survey's respondents to its choice questions
+ * are read once into an answer matrix, which is cached under the survey's response version and
+ * questions. Every crosstab of the same responses is then counted in memory, and the matrix is
+ * rebuilt on the first request after new responses have been ingested or the survey has changed.
+ * Concurrent requests for a matrix that is not cached wait for a single build. Crosstabs of the
+ * respondents matching an answer filter are counted from the survey's answer index instead, as
+ * intersections of the filter's selection with the bitmaps of each pair of options.
+ */
+@Service
+@RequiredArgsConstructor
+public class CrosstabServiceImplementation implements CrosstabService {
+  private static final Logger logger = LoggerFactory.getLogger(CrosstabService.class);
+  private final MongoTemplate mongoTemplate;
+  private final SurveyDescriptorService surveyDescriptorService;
+  private final ResponseVersionService responseVersionService;
+  private final SnapshotService snapshotService;
+  private final AnswerIndexService answerIndexService;
+  private Cache<MatrixKey, AnswerMatrix> matrices;
+
+  @Value("${crosstab.matrix-cache.maximum-size:64}")
+  private long maximumSize;
+
+  @Value("${crosstab.matrix-cache.idle-minutes:30}")
+  private long idleMinutes;
+
+  @Value("${snapshot.enabled:false}")
+  private boolean snapshotEnabled;
+
+  /** Identifies the responses and questions a matrix was built from. */
+  private record MatrixKey(String surveyId, long version, List<Question> questions) {}
+
+  /** Creates the matrix cache. */
+  @PostConstruct
+  public void initialize() {
+    matrices =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+            .build();
+  }
+
+  /**
+   * Counts how many respondents chose each combination of the options of two choice questions.
+   *
+   * @param surveyId The ID of the survey.
+   * @param rowQuestionId The ID of the question whose options are the rows.
+   * @param columnQuestionId The ID of the question whose options are the columns.
+   * @param filter The answers the counted respondents must have given.
+   * @return The cross-tabulation of the two questions.
+   * @throws NotFoundException If the survey does not exist.
+   * @throws IllegalArgumentException If either question or a question of the filter is not a
+   *     choice question of the survey.
+   */
+  @Override
+  public CrosstabDto crosstab(
+      String surveyId, String rowQuestionId, String columnQuestionId, AnswerFilter filter) {
+    SubmissionDescriptor descriptor = surveyDescriptorService.getDescriptor(surveyId);
+    Question rowQuestion = choiceQuestion(descriptor, rowQuestionId);
+    Question columnQuestion = choiceQuestion(descriptor, columnQuestionId);
+
+    long version;
+    AnswerMatrix.Counts counts;
+
+    if (filter.isEmpty()) {
+      version = responseVersionService.getVersion(surveyId);
+      counts =
+          getMatrix(new MatrixKey(surveyId, version, descriptor.getQuestions()))
+              .crosstab(rowQuestionId, columnQuestionId);
+    } else {
+      AnswerIndex index = answerIndexService.getIndex(surveyId);
+      version = index.version();
+      counts = crosstab(index, index.select(filter), rowQuestion, columnQuestion);
+    }
+
+    List<List<Long>> cells = new ArrayList<>(counts.rowOptions().size());
+    List<Long> rowTotals = new ArrayList<>(counts.rowOptions().size());
+    long[] columnTotals = new long[counts.columnOptions().size()];
+
+    for (long[] row : counts.counts()) {
+      List<Long> cellsOfRow = new ArrayList<>(row.length);
+      long rowTotal = 0;
+
+      for (int column = 0; column < row.length; column++) {
+        cellsOfRow.add(row[column]);
+        rowTotal += row[column];
+        columnTotals[column] += row[column];
+      }
+
+      cells.add(cellsOfRow);
+      rowTotals.add(rowTotal);
+    }
+
+    return CrosstabDto.builder()
+        .rowQuestion(rowQuestion.getTitle().getQuestion())
+        .columnQuestion(columnQuestion.getTitle().getQuestion())
+        .rowOptions(counts.rowOptions())
+        .columnOptions(counts.columnOptions())
+        .counts(cells)
+        .rowTotals(rowTotals)
+        .columnTotals(Arrays.stream(columnTotals).boxed().toList())
+        .respondents(counts.total())
+        .responseVersion(version)
+        .build();
+  }
+
+  /**
+   * Counts the combinations of the options of two questions chosen by selected respondents. A
+   * respondent is counted once for each pair of options they chose, as in the answer matrix.
+   */
+  private static AnswerMatrix.Counts crosstab(
+      AnswerIndex index, OrdinalBitmap selection, Question rowQuestion, Question columnQuestion) {
+    Map<String, OrdinalBitmap> rowBitmaps = index.options(rowQuestion.getId());
+    Map<String, OrdinalBitmap> columnBitmaps = index.options(columnQuestion.getId());
+    List<String> rowOptions = dictionary(rowQuestion, rowBitmaps);
+    List<String> columnOptions = dictionary(columnQuestion, columnBitmaps);
+
+    long[][] counts = new long[rowOptions.size()][columnOptions.size()];
+    OrdinalBitmap answeredRow = OrdinalBitmap.EMPTY;
+    OrdinalBitmap answeredColumn = OrdinalBitmap.EMPTY;
+
+    for (OrdinalBitmap bitmap : columnBitmaps.values()) answeredColumn = answeredColumn.or(bitmap);
+
+    for (int row = 0; row < rowOptions.size(); row++) {
+      OrdinalBitmap rowBitmap = rowBitmaps.get(rowOptions.get(row));
+      if (rowBitmap == null) continue;
+
+      OrdinalBitmap selectedRow = selection.and(rowBitmap);
+      answeredRow = answeredRow.or(selectedRow);
+
+      for (int column = 0; column < columnOptions.size() && !selectedRow.isEmpty(); column++) {
+        OrdinalBitmap columnBitmap = columnBitmaps.get(columnOptions.get(column));
+        if (columnBitmap != null) counts[row][column] = selectedRow.andCardinality(columnBitmap);
+      }
+    }
+
+    return new AnswerMatrix.Counts(
+        rowOptions, columnOptions, counts, answeredRow.andCardinality(answeredColumn));
+  }
+
+  /** Lists the options of a question followed by indexed answers that are no longer among them. */
+  private static List<String> dictionary(Question question, Map<String, OrdinalBitmap> bitmaps) {
+    Set<String> options = new LinkedHashSet<>();
+    if (question.getOptions() != null)
+      question.getOptions().stream().filter(Objects::nonNull).forEach(options::add);
+    options.addAll(bitmaps.keySet());
+    return List.copyOf(options);
+  }
+
+  private AnswerMatrix getMatrix(MatrixKey key) {
+    try {
+      return matrices.get(key, () -> buildMatrix(key));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Builds the answer matrix of a survey from its columnar snapshot when snapshots are enabled, or
+   * else from a single cursor over its respondents, reading only their responses.
+   */
+  private AnswerMatrix buildMatrix(MatrixKey key) {
+    List<Question> questions =
+        key.questions().stream()
+            .filter(question -> SubmissionValidator.isChoiceType(question.getType()))
+            .toList();
+
+    long start = System.nanoTime();
+    AnswerMatrix matrix;
+
+    if (snapshotEnabled) {
+      matrix = AnswerMatrix.build(questions, snapshotService.getSnapshot(key.surveyId()));
+    } else {
+      Query query = Query.query(Criteria.where("surveyId").is(key.surveyId()));
+      query.fields().include("responses.questionId", "responses.answer");
+
+      try (Stream<Respondent> respondents = mongoTemplate.stream(query, Respondent.class)) {
+        matrix = AnswerMatrix.build(questions, respondents.iterator());
+      }
+    }
+
+    logger.debug(
+        "Built answer matrix of survey {} at version {} in {} ms",
+        key.surveyId(),
+        key.version(),
+        Duration.ofNanos(System.nanoTime() - start).toMillis());
+    return matrix;
+  }
+
+  private Question choiceQuestion(SubmissionDescriptor descriptor, String questionId) {
+    return descriptor.getQuestions().stream()
+        .filter(question -> question.getId().equals(questionId))
+        .filter(question -> SubmissionValidator.isChoiceType(question.getType()))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    "Question " + questionId + " is not a choice question of this survey"));
+  }
+}
@@ -0,0 +1,27 @@
+package com.amalitech.surveysphere.services.exportJobService;
+
+import com.amalitech.surveysphere.dto.responseDto.ExportJobDto;
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+
+/** Interface for exporting the responses to a survey in the background. */
+public interface ExportJobService {
+
+  /**
+   * Queues an export of the responses to a survey.
+   *
+   * @param surveyId The ID of the survey.
+   * @param format The format to export.
+   * @param filter The answers the exported respondents must have given.
+   * @return The queued job.
+   */
+  ExportJobDto submit(String surveyId, ExportFormat format, AnswerFilter filter);
+
+  /**
+   * Retrieves the progress of an export submitted by the authenticated user.
+   *
+   * @param jobId The ID of the job.
+   * @return The job, with a link to the exported file once it has completed.
+   */
+  ExportJobDto getJob(String jobId);
+}
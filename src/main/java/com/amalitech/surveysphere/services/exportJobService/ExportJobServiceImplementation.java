@@ -0,0 +1,285 @@
+package com.amalitech.surveysphere.services.exportJobService;
+
+import static com.amalitech.surveysphere.enums.CustomExceptionMessage.EXPORT_JOB_NOT_FOUND;
+
+import com.amalitech.surveysphere.dto.responseDto.ExportJobDto;
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.enums.ExportJobStatus;
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.exceptions.TooManyRequestsException;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.exportService.ExportService;
+import com.amalitech.surveysphere.services.otherServices.uploadService.UploadService;
+import com.amalitech.surveysphere.services.responseManagementService.ResponseManagementService;
+import com.amalitech.surveysphere.services.surveyService.SurveyService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of ExportJobService. Exports run on a fixed pool of workers with a bounded queue,
+ * so a burst of exports cannot take over request threads or memory, and submissions beyond the
+ * queue are rejected with a hint to retry. Each worker streams the respondents of its survey into a
+ * temporary file, counting rows as they are read from the cursor, and uploads the file to blob
+ * storage once it is complete. Jobs are kept in memory for a retention period after they were last
+ * looked at, and only the user who submitted a job can look at it. Exported files are linked to
+ * with links that expire, created each time a job is looked at, and are deleted along with their
+ * job. Failures are logged, and users are only told that the export failed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportJobServiceImplementation implements ExportJobService {
+  private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+  private static final String QUEUE_FULL = "Too many exports are in progress, try again later";
+  private static final String EXPORT_FAILED = "The export failed, try again later";
+  private final SurveyService surveyService;
+  private final ResponseManagementService responseManagementService;
+  private final ExportService exportService;
+  private final UploadService uploadService;
+  private Cache<String, ExportJob> jobs;
+  private ThreadPoolExecutor executor;
+
+  @Value("${export.jobs.workers:2}")
+  private int workers;
+
+  @Value("${export.jobs.queue-capacity:16}")
+  private int queueCapacity;
+
+  @Value("${export.jobs.retention-minutes:60}")
+  private long retentionMinutes;
+
+  @Value("${export.jobs.retry-after-seconds:30}")
+  private long retryAfterSeconds;
+
+  @Value("${export.jobs.link-expiry-minutes:15}")
+  private long linkExpiryMinutes;
+
+  /** The state of an export, updated by its worker and read by status requests. */
+  private static final class ExportJob {
+    private final String id;
+    private final String ownerId;
+    private final String surveyId;
+    private final ExportFormat format;
+    private final AnswerFilter filter;
+    private final String fileName;
+    private final Date createdDate = new Date();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+    private volatile long totalRows;
+    private volatile String key;
+    private volatile String error;
+    private volatile Date completedDate;
+    private volatile boolean discarded;
+
+    ExportJob(
+        String id,
+        String ownerId,
+        String surveyId,
+        ExportFormat format,
+        AnswerFilter filter,
+        String fileName) {
+      this.id = id;
+      this.ownerId = ownerId;
+      this.surveyId = surveyId;
+      this.format = format;
+      this.filter = filter;
+      this.fileName = fileName;
+    }
+
+    ExportJobDto toDto(String link) {
+      return ExportJobDto.builder()
+          .jobId(id)
+          .surveyId(surveyId)
+          .format(format)
+          .status(status)
+          .rowsWritten(rowsWritten.get())
+          .totalRows(totalRows)
+          .link(link)
+          .error(error)
+          .createdDate(createdDate)
+          .completedDate(completedDate)
+          .build();
+    }
+  }
+
+  /** Creates the job registry and the pool of export workers. */
+  @PostConstruct
+  public void initialize() {
+    jobs =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(retentionMinutes))
+            .removalListener(this::discard)
+            .build();
+    executor =
+        new ThreadPoolExecutor(
+            workers,
+            workers,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("export-", 0).daemon(true).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Stops the export workers, abandoning queued and running exports, and deletes the exported
+   * files, which cannot be looked up once the jobs are gone.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+    jobs.invalidateAll();
+  }
+
+  /** Removes expired jobs, deleting their files, when no requests would remove them. */
+  @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:60000}")
+  public void removeExpiredJobs() {
+    jobs.cleanUp();
+  }
+
+  /**
+   * Queues an export of the responses to a survey.
+   *
+   * @param surveyId The ID of the survey.
+   * @param format The format to export.
+   * @param filter The answers the exported respondents must have given.
+   * @return The queued job.
+   * @throws NotFoundException If the survey does not exist.
+   * @throws TooManyRequestsException If the queue of exports is full.
+   */
+  @Override
+  public ExportJobDto submit(String surveyId, ExportFormat format, AnswerFilter filter) {
+    String fileName = surveyService.getExportFileName(surveyId) + "." + format.getExtension();
+    ExportJob job =
+        new ExportJob(
+            UUID.randomUUID().toString(),
+            surveyService.getUserId(),
+            surveyId,
+            format,
+            filter,
+            fileName);
+    jobs.put(job.id, job);
+
+    try {
+      executor.execute(() -> run(job));
+    } catch (RejectedExecutionException exception) {
+      jobs.invalidate(job.id);
+      throw new TooManyRequestsException(QUEUE_FULL, retryAfterSeconds);
+    }
+
+    return job.toDto(null);
+  }
+
+  /**
+   * Retrieves the progress of an export.
+   *
+   * @param jobId The ID of the job.
+   * @return The job, with a link to the exported file once it has completed.
+   * @throws NotFoundException If there is no such job, it has expired, or it was submitted by
+   *     another user.
+   */
+  @Override
+  public ExportJobDto getJob(String jobId) {
+    ExportJob job = jobs.getIfPresent(jobId);
+
+    if (job == null || !job.ownerId.equals(surveyService.getUserId()))
+      throw new NotFoundException(EXPORT_JOB_NOT_FOUND.getMessage());
+
+    String key = job.key;
+
+    return job.toDto(
+        key == null
+            ? null
+            : uploadService.getExportLink(key, Duration.ofMinutes(linkExpiryMinutes)));
+  }
+
+  /**
+   * Writes an export to a temporary file and uploads it. The total is counted when the export
+   * starts, so respondents recorded while it runs can take the rows written past the total; it is
+   * set to the rows written once the export completes.
+   */
+  private void run(ExportJob job) {
+    job.status = ExportJobStatus.RUNNING;
+    Path file = null;
+
+    try {
+      job.totalRows = responseManagementService.countIndividualResults(job.surveyId, job.filter);
+      file = Files.createTempFile("export-" + job.id, "." + job.format.getExtension());
+      Stream<Respondent> respondents =
+          responseManagementService
+              .streamIndividualResults(job.surveyId, job.filter)
+              .peek(respondent -> job.rowsWritten.incrementAndGet());
+
+      try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file))) {
+        exportService.write(job.surveyId, job.format, respondents, outputStream);
+      }
+
+      job.key =
+          uploadService.uploadExport(
+              file, "exports/" + job.id + "/" + job.fileName, job.format.getContentType());
+      job.totalRows = job.rowsWritten.get();
+      job.completedDate = new Date();
+      job.status = ExportJobStatus.COMPLETED;
+
+      if (job.discarded) deleteExport(job);
+    } catch (Exception exception) {
+      logger.error("Failed to export survey {} for job {}", job.surveyId, job.id, exception);
+      job.error = EXPORT_FAILED;
+      job.completedDate = new Date();
+      job.status = ExportJobStatus.FAILED;
+    } finally {
+      deleteQuietly(file);
+    }
+  }
+
+  /**
+   * Deletes the file of a job that was removed. A job removed while its export runs has no file
+   * yet, so the worker deletes the file once it is uploaded.
+   */
+  private void discard(RemovalNotification<String, ExportJob> notification) {
+    ExportJob job = notification.getValue();
+    job.discarded = true;
+    deleteExport(job);
+  }
+
+  private void deleteExport(ExportJob job) {
+    String key = job.key;
+
+    if (key == null) return;
+
+    try {
+      uploadService.deleteExport(key);
+    } catch (Exception exception) {
+      logger.warn("Failed to delete the export of job {}", job.id, exception);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) return;
+
+    try {
+      Files.deleteIfExists(file);
+    } catch (Exception ignored) {
+      // The temporary directory is cleaned up by the system.
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.amalitech.surveysphere.services.exportService;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import java.util.*;
+
+/**
+ * The columns of a tabular export, one per question of a survey in survey order. Responses are
+ * placed in their column by question ID, falling back to the question title for responses recorded
+ * without one.
+ */
+public final class ExportColumns {
+  private final List<Question> questions;
+  private final Map<String, Integer> columns = new HashMap<>();
+  private final Map<String, Integer> columnsByTitle = new HashMap<>();
+
+  /**
+   * Creates the columns for the questions of a survey.
+   *
+   * @param questions The questions of the survey, in survey order.
+   */
+  public ExportColumns(List<Question> questions) {
+    this.questions = List.copyOf(questions);
+
+    for (int column = 0; column < questions.size(); column++) {
+      columns.put(questions.get(column).getId(), column);
+      columnsByTitle.putIfAbsent(title(questions.get(column)), column);
+    }
+  }
+
+  /**
+   * Returns the number of columns.
+   *
+   * @return The number of questions of the survey.
+   */
+  public int size() {
+    return questions.size();
+  }
+
+  /**
+   * Returns the question a column holds the answers to.
+   *
+   * @param column The index of the column.
+   * @return The question.
+   */
+  public Question question(int column) {
+    return questions.get(column);
+  }
+
+  /**
+   * Returns the header of a column.
+   *
+   * @param column The index of the column.
+   * @return The title of the column's question.
+   */
+  public String title(int column) {
+    return title(questions.get(column));
+  }
+
+  /**
+   * Places the answers of a respondent in their columns.
+   *
+   * @param respondent The respondent.
+   * @param answers The answers of each column, overwritten with null for unanswered questions and
+   *     an empty list for skipped questions.
+   */
+  public void fill(Respondent respondent, List<String>[] answers) {
+    Arrays.fill(answers, null);
+
+    if (respondent.getResponses() == null) return;
+
+    for (Response response : respondent.getResponses()) {
+      Integer column =
+          response.getQuestionId() != null
+              ? columns.get(response.getQuestionId())
+              : columnsByTitle.get(response.getQuestion());
+
+      if (column != null) answers[column] = nonNullAnswers(response.getAnswer());
+    }
+  }
+
+  /**
+   * Joins the answers of a column into the text of a single cell.
+   *
+   * @param answer The answers, as filled by {@link #fill(Respondent, List[])}.
+   * @param unanswered The text of an unanswered question.
+   * @param skipped The text of a skipped question.
+   * @return The text of the cell.
+   */
+  public static String cellText(List<String> answer, String unanswered, String skipped) {
+    if (answer == null) return unanswered;
+
+    return answer.isEmpty() ? skipped : String.join(", ", answer);
+  }
+
+  private static List<String> nonNullAnswers(List<String> answer) {
+    if (answer == null) return List.of();
+
+    return answer.stream().filter(value -> value != null && !value.isEmpty()).toList();
+  }
+
+  private static String title(Question question) {
+    return question.getTitle() == null ? "" : question.getTitle().getQuestion();
+  }
+}
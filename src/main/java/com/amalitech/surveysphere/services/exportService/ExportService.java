@@ -0,0 +1,28 @@
+package com.amalitech.surveysphere.services.exportService;
+
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.models.Respondent;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/** Interface for exporting the responses to a survey in the supported file formats. */
+public interface ExportService {
+
+  /**
+   * Writes respondents in the given format as they are read from the stream, and closes the stream
+   * of respondents.
+   *
+   * @param surveyId The ID of the survey.
+   * @param format The format to write.
+   * @param respondents The respondents of the survey, read once.
+   * @param outputStream The stream to write the export to.
+   * @throws IOException If writing fails.
+   */
+  void write(
+      String surveyId,
+      ExportFormat format,
+      Stream<Respondent> respondents,
+      OutputStream outputStream)
+      throws IOException;
+}
@@ -0,0 +1,152 @@
+package com.amalitech.surveysphere.services.exportService;
+
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.services.otherServices.excelService.ExcelService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of ExportService. Workbooks are written by the ExcelService, and CSV and
+ * newline-delimited JSON are written one respondent at a time as they are read from the stream, so
+ * only the current row is held in memory. CSV cells that a spreadsheet would read as a formula are
+ * escaped with a leading apostrophe, since answers are typed by respondents.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImplementation implements ExportService {
+  private static final String[] CSV_LEADING_HEADERS = {
+    "respondentId", "createdDate", "submittedDate"
+  };
+  private static final String FORMULA_PREFIXES = "=+-@\t\r";
+  private final SurveyDescriptorService surveyDescriptorService;
+  private final ExcelService excelService;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Writes respondents in the given format as they are read from the stream, and closes the stream
+   * of respondents.
+   *
+   * @param surveyId The ID of the survey.
+   * @param format The format to write.
+   * @param respondents The respondents of the survey, read once.
+   * @param outputStream The stream to write the export to.
+   * @throws IOException If writing fails.
+   */
+  @Override
+  public void write(
+      String surveyId,
+      ExportFormat format,
+      Stream<Respondent> respondents,
+      OutputStream outputStream)
+      throws IOException {
+    switch (format) {
+      case XLSX -> excelService.writeExcel(surveyId, respondents, outputStream);
+      case CSV -> writeCsv(columns(surveyId), respondents, outputStream);
+      case NDJSON -> writeNdjson(columns(surveyId), respondents, outputStream);
+    }
+  }
+
+  /**
+   * Writes a header row followed by one row per respondent, holding the respondent's ID and dates
+   * and then an answer cell per question. Unanswered and skipped questions are left empty, and
+   * titles and answers are escaped against formula injection.
+   */
+  private void writeCsv(
+      ExportColumns columns, Stream<Respondent> respondents, OutputStream outputStream)
+      throws IOException {
+    int leading = CSV_LEADING_HEADERS.length;
+    String[] cells = new String[leading + columns.size()];
+    List<String>[] answers = newAnswers(columns);
+    CSVWriter writer =
+        new CSVWriter(
+            new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+
+    try (respondents) {
+      System.arraycopy(CSV_LEADING_HEADERS, 0, cells, 0, leading);
+      for (int column = 0; column < columns.size(); column++)
+        cells[leading + column] = escapeFormula(columns.title(column));
+      writer.writeNext(cells);
+
+      Iterator<Respondent> iterator = respondents.iterator();
+
+      while (iterator.hasNext()) {
+        Respondent respondent = iterator.next();
+        columns.fill(respondent, answers);
+        cells[0] = respondent.getId();
+        cells[1] = dateText(respondent.getCreatedDate());
+        cells[2] = dateText(respondent.getSubmittedDate());
+        for (int column = 0; column < columns.size(); column++)
+          cells[leading + column] =
+              escapeFormula(ExportColumns.cellText(answers[column], "", ""));
+        writer.writeNext(cells);
+      }
+    }
+
+    writer.flush();
+  }
+
+  /**
+   * Writes one JSON object per line for each respondent, holding the respondent's ID and dates and
+   * the answers keyed by question ID. Unanswered questions are left out and skipped questions have
+   * an empty list of answers.
+   */
+  private void writeNdjson(
+      ExportColumns columns, Stream<Respondent> respondents, OutputStream outputStream)
+      throws IOException {
+    List<String>[] answers = newAnswers(columns);
+
+    try (respondents) {
+      Iterator<Respondent> iterator = respondents.iterator();
+
+      while (iterator.hasNext()) {
+        Respondent respondent = iterator.next();
+        Map<String, List<String>> answersById = new LinkedHashMap<>();
+        columns.fill(respondent, answers);
+
+        for (int column = 0; column < columns.size(); column++)
+          if (answers[column] != null)
+            answersById.put(columns.question(column).getId(), answers[column]);
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("respondentId", respondent.getId());
+        line.put("createdDate", dateText(respondent.getCreatedDate()));
+        line.put("submittedDate", dateText(respondent.getSubmittedDate()));
+        line.put("answers", answersById);
+
+        outputStream.write(objectMapper.writeValueAsBytes(line));
+        outputStream.write('\n');
+      }
+    }
+
+    outputStream.flush();
+  }
+
+  private ExportColumns columns(String surveyId) {
+    return new ExportColumns(surveyDescriptorService.getDescriptor(surveyId).getQuestions());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String>[] newAnswers(ExportColumns columns) {
+    return new List[columns.size()];
+  }
+
+  /** Prefixes a cell that starts like a formula with an apostrophe, so it is read as text. */
+  private static String escapeFormula(String cell) {
+    if (cell == null || cell.isEmpty() || FORMULA_PREFIXES.indexOf(cell.charAt(0)) < 0)
+      return cell;
+
+    return "'" + cell;
+  }
+
+  private static String dateText(Date date) {
+    return date == null ? null : date.toInstant().toString();
+  }
+}
@@ -0,0 +1,37 @@
+package com.amalitech.surveysphere.services.idempotencyService;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseManagementResponseDto;
+import java.util.Optional;
+
+/** Interface for deduplicating retried survey submissions by client-supplied idempotency keys. */
+public interface IdempotencyService {
+
+  /**
+   * Claims an idempotency key for a new submission, unless it has been used before.
+   *
+   * @param surveyId The ID of the survey the submission belongs to.
+   * @param idempotencyKey The key supplied by the client.
+   * @return The stored result of the earlier submission if the key has been used before, or empty
+   *     if the key has now been claimed for this submission.
+   * @throws com.amalitech.surveysphere.exceptions.DuplicateException If an earlier submission with
+   *     the same key is still being recorded and its claim has not expired.
+   */
+  Optional<ResponseManagementResponseDto> claim(String surveyId, String idempotencyKey);
+
+  /**
+   * Stores the result of a submission under its claimed key.
+   *
+   * @param surveyId The ID of the survey the submission belongs to.
+   * @param idempotencyKey The key supplied by the client.
+   * @param result The result returned to the client.
+   */
+  void complete(String surveyId, String idempotencyKey, ResponseManagementResponseDto result);
+
+  /**
+   * Releases a claimed key after its submission failed, so the client can retry it.
+   *
+   * @param surveyId The ID of the survey the submission belongs to.
+   * @param idempotencyKey The key supplied by the client.
+   */
+  void release(String surveyId, String idempotencyKey);
+}
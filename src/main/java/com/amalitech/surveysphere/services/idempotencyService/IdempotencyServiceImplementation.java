@@ -0,0 +1,210 @@
+package com.amalitech.surveysphere.services.idempotencyService;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseManagementResponseDto;
+import com.amalitech.surveysphere.exceptions.DuplicateException;
+import com.amalitech.surveysphere.models.SubmissionReceipt;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of IdempotencyService. Receipts are stored in the submission_receipt collection,
+ * keyed by survey ID and idempotency key and expired by a TTL index. Recently completed receipts
+ * are kept in a bounded in-memory LRU, and a Bloom filter of every known key lets new keys skip the
+ * receipt lookup entirely. The unique receipt ID is what guarantees that a key is only claimed
+ * once, so neither structure has to be exact. A claim that is neither completed nor released
+ * within its lease, for example because the instance holding it crashed, is taken over by the
+ * next retry of the key.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceImplementation implements IdempotencyService {
+  private static final int MAX_KEY_LENGTH = 128;
+  private static final String IN_PROGRESS_MESSAGE =
+      "A submission with this idempotency key is already being recorded";
+  private final MongoTemplate mongoTemplate;
+  private BloomFilter<String> knownKeys;
+  private Map<String, ResponseManagementResponseDto> recentReceipts;
+
+  @Value("${response.idempotency.ttl-hours:24}")
+  private long ttlHours;
+
+  @Value("${response.idempotency.claim-lease-seconds:30}")
+  private long claimLeaseSeconds;
+
+  @Value("${response.idempotency.expected-keys:1000000}")
+  private int expectedKeys;
+
+  @Value("${response.idempotency.recent-receipts:10000}")
+  private int maxRecentReceipts;
+
+  /** Creates the TTL index on receipts and loads the keys of unexpired receipts. */
+  @PostConstruct
+  public void initialize() {
+    mongoTemplate
+        .indexOps(SubmissionReceipt.class)
+        .ensureIndex(
+            new Index().on("createdDate", Sort.Direction.ASC).expire(Duration.ofHours(ttlHours)));
+
+    knownKeys =
+        BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedKeys, 0.01);
+    recentReceipts =
+        Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(
+                  Map.Entry<String, ResponseManagementResponseDto> eldest) {
+                return size() > maxRecentReceipts;
+              }
+            });
+
+    Query query = new Query();
+    query.fields().include("_id");
+
+    try (Stream<SubmissionReceipt> receipts =
+        mongoTemplate.stream(query, SubmissionReceipt.class)) {
+      receipts.forEach(receipt -> knownKeys.put(receipt.getId()));
+    }
+  }
+
+  /**
+   * Claims an idempotency key for a new submission, unless it has been used before.
+   *
+   * @param surveyId The ID of the survey the submission belongs to.
+   * @param idempotencyKey The key supplied by the client.
+   * @return The stored result of the earlier submission if the key has been used before, or empty
+   *     if the key has now been claimed for this submission.
+   * @throws DuplicateException If an earlier submission with the same key is still being recorded
+   *     and its claim has not expired.
+   */
+  @Override
+  public Optional<ResponseManagementResponseDto> claim(String surveyId, String idempotencyKey) {
+    String id = receiptId(surveyId, idempotencyKey);
+
+    ResponseManagementResponseDto recent = recentReceipts.get(id);
+    if (recent != null) return Optional.of(recent);
+
+    if (knownKeys.mightContain(id)) {
+      SubmissionReceipt receipt = mongoTemplate.findById(id, SubmissionReceipt.class);
+      if (receipt != null) return resume(receipt);
+    }
+
+    try {
+      Date now = new Date();
+      mongoTemplate.insert(
+          SubmissionReceipt.builder().id(id).createdDate(now).claimedAt(now).build());
+      knownKeys.put(id);
+      return Optional.empty();
+    } catch (DuplicateKeyException e) {
+      SubmissionReceipt receipt = mongoTemplate.findById(id, SubmissionReceipt.class);
+      if (receipt == null) throw new DuplicateException(IN_PROGRESS_MESSAGE);
+      return resume(receipt);
+    }
+  }
+
+  /**
+   * Resolves a key that already has a receipt. A completed receipt returns its stored result, and
+   * a claim whose lease has expired is taken over for this submission.
+   *
+   * @param receipt The existing receipt of the key.
+   * @return The stored result, or empty if the claim has been taken over.
+   * @throws DuplicateException If the claim is still held by an earlier submission.
+   */
+  private Optional<ResponseManagementResponseDto> resume(SubmissionReceipt receipt) {
+    if (receipt.isCompleted()) return Optional.of(toResult(receipt));
+
+    Date now = new Date();
+    Date expired = new Date(now.getTime() - Duration.ofSeconds(claimLeaseSeconds).toMillis());
+    Query query =
+        Query.query(
+            Criteria.where("_id")
+                .is(receipt.getId())
+                .and("completed")
+                .is(false)
+                .orOperator(
+                    Criteria.where("claimedAt").lt(expired),
+                    Criteria.where("claimedAt").exists(false)));
+
+    UpdateResult result =
+        mongoTemplate.updateFirst(query, Update.update("claimedAt", now), SubmissionReceipt.class);
+    if (result.getModifiedCount() == 0) throw new DuplicateException(IN_PROGRESS_MESSAGE);
+
+    return Optional.empty();
+  }
+
+  /**
+   * Stores the result of a submission under its claimed key.
+   *
+   * @param surveyId The ID of the survey the submission belongs to.
+   * @param idempotencyKey The key supplied by the client.
+   * @param result The result returned to the client.
+   */
+  @Override
+  public void complete(
+      String surveyId, String idempotencyKey, ResponseManagementResponseDto result) {
+    String id = receiptId(surveyId, idempotencyKey);
+
+    mongoTemplate.updateFirst(
+        Query.query(Criteria.where("_id").is(id)),
+        new Update()
+            .set("respondentId", result.getRespondentId())
+            .set("message", result.getMessage())
+            .set("time", result.getTime())
+            .set("completed", true),
+        SubmissionReceipt.class);
+
+    recentReceipts.put(id, result);
+  }
+
+  /**
+   * Releases a claimed key after its submission failed, so the client can retry it.
+   *
+   * @param surveyId The ID of the survey the submission belongs to.
+   * @param idempotencyKey The key supplied by the client.
+   */
+  @Override
+  public void release(String surveyId, String idempotencyKey) {
+    mongoTemplate.remove(
+        Query.query(
+            Criteria.where("_id")
+                .is(receiptId(surveyId, idempotencyKey))
+                .and("completed")
+                .is(false)),
+        SubmissionReceipt.class);
+  }
+
+  private String receiptId(String surveyId, String idempotencyKey) {
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)
+      throw new IllegalArgumentException(
+          "Idempotency key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+
+    return surveyId + ":" + idempotencyKey;
+  }
+
+  private ResponseManagementResponseDto toResult(SubmissionReceipt receipt) {
+    ResponseManagementResponseDto result =
+        ResponseManagementResponseDto.builder()
+            .respondentId(receipt.getRespondentId())
+            .message(receipt.getMessage())
+            .time(receipt.getTime())
+            .build();
+
+    recentReceipts.put(receipt.getId(), result);
+    return result;
+  }
+}
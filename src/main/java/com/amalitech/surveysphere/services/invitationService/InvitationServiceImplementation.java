@@ -28,6 +28,7 @@ import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -133,7 +134,7 @@ public class InvitationServiceImplementation implements InvitationService {
       Survey existingSurvey = survey.get();
       existingSurvey.getAddedUsersId().add(newCollaborator);
 
-      surveyRepository.save(existingSurvey);
+      surveyRepository.updateFields(surveyId, new Update().push("addedUsersId", newCollaborator));
 
       Optional<User> user = userRepository.findById(userId);
       if (user.isPresent()) {
@@ -0,0 +1,20 @@
+package com.amalitech.surveysphere.services.liveResultsService;
+
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.util.List;
+import java.util.Map;
+
+/** Interface for pushing the changes to surveys' results to live subscribers. */
+public interface LiveResultsService {
+
+  /**
+   * Adds the counter changes of ingested responses to the pending results deltas of their surveys.
+   *
+   * @param deltas The counter changes, of any number of surveys.
+   * @param newRespondents The number of new respondents, keyed by survey ID.
+   */
+  void record(List<CounterDelta> deltas, Map<String, Integer> newRespondents);
+
+  /** Pushes the pending results delta of every survey to the survey's results topic. */
+  void flush();
+}
@@ -0,0 +1,188 @@
+package com.amalitech.surveysphere.services.liveResultsService;
+
+import com.amalitech.surveysphere.dto.responseDto.ResultsDeltaDto;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.QuestionAggregate;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * Implementation of LiveResultsService. The answered, skipped and option count changes made by
+ * ingestion are summed per survey into a pending delta, together with the number of new
+ * respondents, and every window the pending deltas are pushed to {@code /topic/results/{surveyId}}
+ * and started afresh. A survey therefore gets at most one message per window however many
+ * submissions it receives. Subscriptions to the results topics of this instance's broker are
+ * counted, and changes to surveys nobody is subscribed to are not recorded at all. Only the owner
+ * of a survey may subscribe to its topic, as enforced by {@link
+ * com.amalitech.surveysphere.config.ResultsSubscriptionInterceptor}.
+ *
+ * <p>Deltas are advisory: a submission replayed from the write-behind journal is counted again,
+ * so subscribers should reload the analysis when they reconnect.
+ */
+@Service
+@RequiredArgsConstructor
+public class LiveResultsServiceImplementation implements LiveResultsService {
+  private static final String TOPIC_PREFIX = "/topic/results/";
+  private static final String OPTION_COUNT_PREFIX = "counts.";
+  private final SimpMessagingTemplate messagingTemplate;
+  private final ConcurrentMap<String, String> subscriptions = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Integer> subscribers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, PendingDelta> pending = new ConcurrentHashMap<>();
+
+  @Value("${live-results.enabled:true}")
+  private boolean enabled;
+
+  /** The changes to a survey's results since its last push. */
+  private static final class PendingDelta {
+    private final Date from = new Date();
+    private final Map<String, Long> answered = new HashMap<>();
+    private final Map<String, Long> skipped = new HashMap<>();
+    private final Map<String, Map<String, Long>> optionCounts = new HashMap<>();
+    private long respondents;
+    private boolean closed;
+
+    void add(CounterDelta delta) {
+      if (delta.entity() == Question.class) {
+        if ("answered".equals(delta.field()))
+          answered.merge(delta.documentId(), delta.amount(), Long::sum);
+        else if ("skipped".equals(delta.field()))
+          skipped.merge(delta.documentId(), delta.amount(), Long::sum);
+      } else if (delta.entity() == QuestionAggregate.class
+          && delta.field().startsWith(OPTION_COUNT_PREFIX)) {
+        optionCounts
+            .computeIfAbsent(delta.documentId(), id -> new HashMap<>())
+            .merge(
+                QuestionAggregate.decodeOption(
+                    delta.field().substring(OPTION_COUNT_PREFIX.length())),
+                delta.amount(),
+                Long::sum);
+      }
+    }
+
+    ResultsDeltaDto toDto(String surveyId) {
+      return ResultsDeltaDto.builder()
+          .surveyId(surveyId)
+          .from(from)
+          .to(new Date())
+          .respondents(respondents)
+          .answered(answered)
+          .skipped(skipped)
+          .optionCounts(optionCounts)
+          .build();
+    }
+  }
+
+  /**
+   * Adds the counter changes of ingested responses to the pending results deltas of the surveys
+   * that have live subscribers.
+   *
+   * @param deltas The counter changes, of any number of surveys.
+   * @param newRespondents The number of new respondents, keyed by survey ID.
+   */
+  @Override
+  public void record(List<CounterDelta> deltas, Map<String, Integer> newRespondents) {
+    if (!enabled || subscribers.isEmpty()) return;
+
+    Map<String, List<CounterDelta>> bySurvey = new HashMap<>();
+    for (CounterDelta delta : deltas)
+      if (subscribers.containsKey(delta.surveyId()))
+        bySurvey.computeIfAbsent(delta.surveyId(), id -> new ArrayList<>()).add(delta);
+
+    bySurvey.forEach(
+        (surveyId, surveyDeltas) ->
+            update(surveyId, pendingDelta -> surveyDeltas.forEach(pendingDelta::add)));
+    newRespondents.forEach(
+        (surveyId, count) -> {
+          if (subscribers.containsKey(surveyId))
+            update(surveyId, pendingDelta -> pendingDelta.respondents += count);
+        });
+  }
+
+  /**
+   * Pushes the pending results delta of every survey to the survey's results topic, once per
+   * window. A delta is closed before it is pushed, so changes recorded concurrently go to the next
+   * window's delta instead of being lost.
+   */
+  @Override
+  @Scheduled(fixedRateString = "${live-results.window-ms:500}")
+  public void flush() {
+    for (String surveyId : pending.keySet()) {
+      PendingDelta pendingDelta = pending.remove(surveyId);
+      if (pendingDelta == null) continue;
+
+      ResultsDeltaDto message;
+      synchronized (pendingDelta) {
+        pendingDelta.closed = true;
+        message = pendingDelta.toDto(surveyId);
+      }
+
+      messagingTemplate.convertAndSend(TOPIC_PREFIX + surveyId, message);
+    }
+  }
+
+  /** Counts a subscription to a survey's results topic. */
+  @EventListener
+  public void onSubscribe(SessionSubscribeEvent event) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+    String destination = accessor.getDestination();
+
+    if (destination == null || !destination.startsWith(TOPIC_PREFIX)) return;
+
+    String surveyId = destination.substring(TOPIC_PREFIX.length());
+    if (subscriptions.putIfAbsent(subscriptionKey(accessor), surveyId) == null)
+      subscribers.merge(surveyId, 1, Integer::sum);
+  }
+
+  /** Stops counting a subscription to a survey's results topic. */
+  @EventListener
+  public void onUnsubscribe(SessionUnsubscribeEvent event) {
+    unsubscribe(subscriptionKey(StompHeaderAccessor.wrap(event.getMessage())));
+  }
+
+  /** Stops counting the subscriptions of a closed session. */
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    String prefix = event.getSessionId() + ":";
+    subscriptions.keySet().stream()
+        .filter(key -> key.startsWith(prefix))
+        .forEach(this::unsubscribe);
+  }
+
+  private void unsubscribe(String key) {
+    String surveyId = subscriptions.remove(key);
+
+    if (surveyId != null)
+      subscribers.computeIfPresent(surveyId, (id, count) -> count == 1 ? null : count - 1);
+  }
+
+  /** Applies a change to a survey's open pending delta, creating one if it was just pushed. */
+  private void update(String surveyId, Consumer<PendingDelta> change) {
+    while (true) {
+      PendingDelta pendingDelta = pending.computeIfAbsent(surveyId, id -> new PendingDelta());
+
+      synchronized (pendingDelta) {
+        if (!pendingDelta.closed) {
+          change.accept(pendingDelta);
+          return;
+        }
+      }
+    }
+  }
+
+  private static String subscriptionKey(StompHeaderAccessor accessor) {
+    return accessor.getSessionId() + ":" + accessor.getSubscriptionId();
+  }
+}
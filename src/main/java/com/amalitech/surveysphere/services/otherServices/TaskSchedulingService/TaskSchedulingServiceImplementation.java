@@ -5,11 +5,13 @@ import com.amalitech.surveysphere.models.Survey;
 import com.amalitech.surveysphere.repositories.ScheduledSurveyRepository;
 import com.amalitech.surveysphere.repositories.SurveyRepository;
 import com.amalitech.surveysphere.services.otherServices.mailService.MailServiceImplementation;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
 import jakarta.mail.MessagingException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -21,6 +23,7 @@ public class TaskSchedulingServiceImplementation implements TaskSchedulingServic
   private final ScheduledSurveyRepository scheduledSurveyRepository;
   private final MailServiceImplementation mailService;
   private final SurveyRepository surveyRepository;
+  private final SurveyDescriptorService surveyDescriptorService;
   private static final int DELAY = 10000;
 
   /** Distributes scheduled surveys. */
@@ -57,9 +60,8 @@ public class TaskSchedulingServiceImplementation implements TaskSchedulingServic
       }
 
       scheduledSurvey.setCompleted(true);
-      survey.setSent(true);
       scheduledSurveyRepository.save(scheduledSurvey);
-      surveyRepository.save(survey);
+      surveyRepository.updateFields(survey.getId(), Update.update("sent", true));
     }
   }
 
@@ -83,8 +85,8 @@ public class TaskSchedulingServiceImplementation implements TaskSchedulingServic
 
           if (survey.isDeleted()) return;
 
-          survey.setDeleted(true);
-          surveyRepository.save(survey);
+          surveyRepository.updateFields(survey.getId(), Update.update("deleted", true));
+          surveyDescriptorService.evict(survey.getId());
 
           scheduledSurvey.setCompleted(true);
           scheduledSurveyRepository.save(scheduledSurvey);
@@ -111,8 +113,8 @@ public class TaskSchedulingServiceImplementation implements TaskSchedulingServic
 
           if (survey.isDeleted()) return;
 
-          survey.setArchived(true);
-          surveyRepository.save(survey);
+          surveyRepository.updateFields(survey.getId(), Update.update("archived", true));
+          surveyDescriptorService.evict(survey.getId());
           scheduledSurvey.setCompleted(true);
           scheduledSurveyRepository.save(scheduledSurvey);
         });
@@ -1,8 +1,22 @@
 package com.amalitech.surveysphere.services.otherServices.excelService;
 
+import com.amalitech.surveysphere.models.Respondent;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
 
+/** Interface for exporting the responses to a survey as Excel workbooks. */
 public interface ExcelService {
 
-    byte[] generateExcelFiles(String surveyId) throws IOException;
+  /**
+   * Writes respondents as an XLSX workbook with one column per question and one row per
+   * respondent, and closes the stream of respondents.
+   *
+   * @param surveyId The ID of the survey.
+   * @param respondents The respondents of the survey, read once.
+   * @param outputStream The stream to write the workbook to.
+   * @throws IOException If writing fails.
+   */
+  void writeExcel(String surveyId, Stream<Respondent> respondents, OutputStream outputStream)
+      throws IOException;
 }
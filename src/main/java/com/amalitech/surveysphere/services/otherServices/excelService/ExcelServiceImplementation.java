@@ -1,122 +1,108 @@
 package com.amalitech.surveysphere.services.otherServices.excelService;
 
-import com.amalitech.surveysphere.dto.responseDto.ResponseAnalysisDto;
-import com.amalitech.surveysphere.services.responseManagementService.ResponseManagementService;
-import java.io.ByteArrayOutputStream;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.services.exportService.ExportColumns;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
 import java.io.IOException;
-import java.util.*;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Implementation of ExcelService. Rows are written through a streaming workbook that keeps only a
+ * bounded window of rows in memory and flushes older rows to a compressed temporary file, and
+ * answers are placed in their columns through the survey's {@link ExportColumns}. Exporting a
+ * survey therefore needs the same memory however many respondents it has. A sheet holds at most
+ * the rows Excel allows, so once one is full the rows continue on a new sheet with its own header
+ * row.
+ */
 @Service
 @RequiredArgsConstructor
 public class ExcelServiceImplementation implements ExcelService {
-  private final ResponseManagementService responseManagementService;
+  private static final String SHEET_NAME = "Survey Responses";
+  private static final String UNANSWERED = "-";
+  private static final String SKIPPED = "Skipped";
+  private final SurveyDescriptorService surveyDescriptorService;
 
+  @Value("${export.excel.row-window:100}")
+  private int rowWindow;
+
+  @Value("${export.excel.sheet-rows:1048576}")
+  private int sheetRows;
+
+  /**
+   * Writes respondents as an XLSX workbook with a header row of question titles followed by one
+   * row per respondent, as they are read from the stream, and closes the stream. Respondents beyond
+   * the rows of a sheet continue on further sheets.
+   *
+   * @param surveyId The ID of the survey.
+   * @param respondents The respondents of the survey, read once.
+   * @param outputStream The stream to write the workbook to.
+   * @throws IOException If writing fails.
+   */
   @Override
-  public byte[] generateExcelFiles(String surveyId) throws IOException {
-    ResponseAnalysisDto surveyResponse = responseManagementService.getResponses(surveyId);
-    try {
-      JSONObject jsonObject = new JSONObject(surveyResponse);
-      List<String> questions = extractQuestions(jsonObject.getJSONArray("responses"));
-      List<List<String>> answersLists =
-          processRespondentAnswers(jsonObject.getJSONArray("individualResults"), questions);
-
-      return createExcelFile(questions, answersLists);
-    } catch (JSONException | IOException e) {
-      throw new IOException("Error generating Excel file", e);
-    }
-  }
+  public void writeExcel(String surveyId, Stream<Respondent> respondents, OutputStream outputStream)
+      throws IOException {
+    ExportColumns columns =
+        new ExportColumns(surveyDescriptorService.getDescriptor(surveyId).getQuestions());
+    SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+    workbook.setCompressTempFiles(true);
 
-  private List<String> extractQuestions(JSONArray responsesArray) {
-    List<String> questions = new ArrayList<>();
-    for (int i = 0; i < responsesArray.length(); i++) {
-      JSONObject responseObj = responsesArray.getJSONObject(i);
-      String question = responseObj.getString("question");
-      questions.add(question);
-    }
-    return questions;
-  }
+    try (respondents) {
+      int maxRows = Math.min(sheetRows, SpreadsheetVersion.EXCEL2007.getMaxRows());
+      Sheet sheet = createSheet(workbook, columns);
 
-  private List<List<String>> processRespondentAnswers(
-      JSONArray individualResultsArray, List<String> questions) {
-    List<List<String>> answersLists = new ArrayList<>();
-    for (int i = 0; i < individualResultsArray.length(); i++) {
-      JSONObject respondentObj = individualResultsArray.getJSONObject(i);
-      JSONArray respondentResponses = respondentObj.getJSONArray("responses");
-      List<String> answers = initializeAnswers(questions);
-      updateAnswers(respondentResponses, questions, answers);
-      answersLists.add(answers);
-    }
-    return answersLists;
-  }
+      @SuppressWarnings("unchecked")
+      List<String>[] answers = new List[columns.size()];
+      int rowIndex = 1;
+      Iterator<Respondent> iterator = respondents.iterator();
 
-  private List<String> initializeAnswers(List<String> questions) {
-    return new ArrayList<>(Collections.nCopies(questions.size(), "-"));
-  }
+      while (iterator.hasNext()) {
+        columns.fill(iterator.next(), answers);
 
-  private void updateAnswers(
-      JSONArray respondentResponses, List<String> questions, List<String> answers) {
-    for (int j = 0; j < respondentResponses.length(); j++) {
-      JSONObject responseObj = respondentResponses.getJSONObject(j);
-      String question = responseObj.getString("question");
-      int questionIndex = questions.indexOf(question);
-      JSONArray answerArray = responseObj.getJSONArray("answer");
-
-      String answer = buildAnswer(answerArray);
-      if (questionIndex != -1) {
-        answers.set(questionIndex, answer.isEmpty() ? "Skipped" : answer);
-      }
-    }
-  }
+        if (rowIndex == maxRows) {
+          sheet = createSheet(workbook, columns);
+          rowIndex = 1;
+        }
 
-  private String buildAnswer(JSONArray answerArray) {
-    StringBuilder answerBuilder = new StringBuilder();
-    for (int k = 0; k < answerArray.length(); k++) {
-      answerBuilder.append(answerArray.getString(k));
-      if (k < answerArray.length() - 1) {
-        answerBuilder.append(", ");
+        Row row = sheet.createRow(rowIndex++);
+        for (int column = 0; column < columns.size(); column++)
+          row.createCell(column).setCellValue(cellText(answers[column]));
       }
+
+      workbook.write(outputStream);
+      outputStream.flush();
+    } finally {
+      workbook.dispose();
+      workbook.close();
     }
-    return answerBuilder.toString();
   }
 
-  private byte[] createExcelFile(List<String> questions, List<List<String>> answersLists)
-      throws IOException {
-    try (Workbook workbook = new XSSFWorkbook()) {
-      Sheet sheet = workbook.createSheet("Survey Responses");
-
-      // Create header row with questions as column headers
-      Row headerRow = sheet.createRow(0);
-      for (int i = 0; i < questions.size(); i++) {
-        Cell cell = headerRow.createCell(i);
-        cell.setCellValue(questions.get(i));
-      }
+  /** Creates the next sheet of a workbook with its header row of question titles. */
+  private static Sheet createSheet(SXSSFWorkbook workbook, ExportColumns columns) {
+    int number = workbook.getNumberOfSheets() + 1;
+    Sheet sheet = workbook.createSheet(number == 1 ? SHEET_NAME : SHEET_NAME + " " + number);
+    Row header = sheet.createRow(0);
 
-      // Fill data with answers under respective questions
-      int rowIndex = 1;
-      for (List<String> answers : answersLists) {
-        Row row = sheet.createRow(rowIndex++);
-        for (int i = 0; i < answers.size(); i++) {
-          Cell cell = row.createCell(i);
-          cell.setCellValue(answers.get(i));
-        }
-      }
+    for (int column = 0; column < columns.size(); column++)
+      header.createCell(column).setCellValue(columns.title(column));
 
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      workbook.write(outputStream);
+    return sheet;
+  }
 
-      return outputStream.toByteArray();
-    } catch (IOException e) {
-      throw new IOException("Error generating Excel file", e);
-    }
+  /** Joins the answers of a cell, truncated to the length a cell can hold. */
+  private static String cellText(List<String> answer) {
+    String text = ExportColumns.cellText(answer, UNANSWERED, SKIPPED);
+    int maxLength = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    return text.length() > maxLength ? text.substring(0, maxLength) : text;
   }
-    }
+}
@@ -0,0 +1,14 @@
+package com.amalitech.surveysphere.services.otherServices.migrationService;
+
+/** Interface for counting the options chosen by respondents recorded before option counting. */
+public interface OptionCountMigrationService {
+
+  /**
+   * Adds the options chosen by a batch of respondents that have not been counted yet to the answer
+   * counts of their questions.
+   *
+   * @param batchSize The maximum number of respondents to count.
+   * @return The number of respondents processed, 0 once every respondent has been counted.
+   */
+  int countOptions(int batchSize);
+}
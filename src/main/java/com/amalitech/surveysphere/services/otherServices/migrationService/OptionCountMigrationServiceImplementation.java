@@ -0,0 +1,113 @@
+package com.amalitech.surveysphere.services.otherServices.migrationService;
+
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import com.amalitech.surveysphere.services.counterService.CounterService;
+import com.amalitech.surveysphere.services.questionAggregateService.QuestionAggregateService;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of OptionCountMigrationService. Respondents recorded since option counting was
+ * introduced are counted as they are ingested; older respondents are counted here, one batch at a
+ * time, after their responses have been embedded. The options of a batch are written and flushed
+ * before its respondents are marked as counted, so a crash never leaves a respondent marked without
+ * its counts. A respondent is only marked if its modification date, which every appended block
+ * moves, is the one the batch read; otherwise its counts are taken back and it is counted again by
+ * a later batch, together with the blocks appended in the meantime. A crash between the flush and
+ * the marks counts that batch twice when it is retried.
+ */
+@Service
+@RequiredArgsConstructor
+public class OptionCountMigrationServiceImplementation implements OptionCountMigrationService {
+  private static final Logger logger = LoggerFactory.getLogger(OptionCountMigrationService.class);
+  private final MongoTemplate mongoTemplate;
+  private final QuestionAggregateService questionAggregateService;
+  private final CounterService counterService;
+  private volatile boolean completed;
+
+  @Value("${migration.option-counts.enabled:true}")
+  private boolean enabled;
+
+  @Value("${migration.option-counts.batch-size:500}")
+  private int batchSize;
+
+  /** Counts the next batch of respondents until none are left. */
+  @Scheduled(
+      initialDelay = 15000,
+      fixedDelayString = "${migration.option-counts.interval-ms:1000}")
+  public void countNextBatch() {
+    if (!enabled || completed) return;
+
+    if (countOptions(batchSize) == 0) {
+      completed = true;
+      logger.info("Options of all respondents are counted");
+    }
+  }
+
+  /**
+   * Adds the options chosen by a batch of respondents that have not been counted yet to the answer
+   * counts of their questions.
+   *
+   * @param batchSize The maximum number of respondents to count.
+   * @return The number of respondents processed, 0 once every respondent has been counted.
+   */
+  @Override
+  public int countOptions(int batchSize) {
+    Query pending =
+        new BasicQuery(
+                new Document("optionsCounted", new Document("$ne", true))
+                    .append("responses.$id", new Document("$exists", false)))
+            .limit(batchSize);
+    pending.fields().include("surveyId", "responses", "modifiedDate");
+    List<Respondent> batch = mongoTemplate.find(pending, Respondent.class);
+
+    if (batch.isEmpty()) return 0;
+
+    List<List<CounterDelta>> deltas = new ArrayList<>(batch.size());
+    for (Respondent respondent : batch)
+      deltas.add(
+          questionAggregateService.optionCountDeltas(
+              respondent.getSurveyId(), respondent.getResponses()));
+
+    counterService.apply(deltas.stream().flatMap(List::stream).toList());
+    counterService.flush();
+
+    List<CounterDelta> changed = new ArrayList<>();
+    for (int index = 0; index < batch.size(); index++) {
+      Respondent respondent = batch.get(index);
+      Query unchanged =
+          Query.query(
+              Criteria.where("_id")
+                  .is(respondent.getId())
+                  .and("modifiedDate")
+                  .is(respondent.getModifiedDate())
+                  .and("optionsCounted")
+                  .ne(true));
+
+      if (mongoTemplate
+              .updateFirst(unchanged, Update.update("optionsCounted", true), Respondent.class)
+              .getMatchedCount()
+          == 0)
+        for (CounterDelta delta : deltas.get(index)) changed.add(delta.negated());
+    }
+
+    counterService.apply(changed);
+    counterService.flush();
+    logger.debug("Counted options of {} respondents", batch.size());
+
+    return batch.size();
+  }
+}
@@ -0,0 +1,11 @@
+package com.amalitech.surveysphere.services.otherServices.migrationService;
+
+/**
+ * The outcome of migrating a batch of respondents to the embedded responses layout.
+ *
+ * @param processed The number of respondents processed.
+ * @param incomplete The number of those respondents that referenced responses which no longer
+ *     exist.
+ * @param missingResponses The number of referenced responses that no longer exist.
+ */
+public record RespondentMigrationResult(int processed, int incomplete, int missingResponses) {}
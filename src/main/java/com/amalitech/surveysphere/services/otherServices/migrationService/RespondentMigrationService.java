@@ -0,0 +1,14 @@
+package com.amalitech.surveysphere.services.otherServices.migrationService;
+
+/** Interface for migrating respondent documents to the embedded responses layout. */
+public interface RespondentMigrationService {
+
+  /**
+   * Embeds the referenced responses of a batch of respondents that still use the old layout.
+   *
+   * @param batchSize The maximum number of respondents to migrate.
+   * @return The number of respondents processed, none once every respondent has been migrated,
+   *     and how many of them referenced responses that no longer exist.
+   */
+  RespondentMigrationResult embedResponses(int batchSize);
+}
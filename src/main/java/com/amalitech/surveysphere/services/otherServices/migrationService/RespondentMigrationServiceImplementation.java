@@ -0,0 +1,140 @@
+package com.amalitech.surveysphere.services.otherServices.migrationService;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of RespondentMigrationService. Respondents used to hold their responses as
+ * references to the response collection; the migration replaces those references with the
+ * referenced documents, one batch at a time, while the application keeps serving traffic. Each
+ * respondent is only rewritten if its responses did not change since the batch was read, so
+ * concurrent appends are picked up again by a later batch instead of being lost. References to
+ * responses that no longer exist are logged and kept on the respondent as missingResponses.
+ */
+@Service
+@RequiredArgsConstructor
+public class RespondentMigrationServiceImplementation implements RespondentMigrationService {
+  private static final Logger logger = LoggerFactory.getLogger(RespondentMigrationService.class);
+  private final MongoTemplate mongoTemplate;
+  private final AtomicInteger incomplete = new AtomicInteger();
+  private final AtomicInteger missingResponses = new AtomicInteger();
+  private volatile boolean completed;
+
+  @Value("${migration.embedded-responses.enabled:true}")
+  private boolean enabled;
+
+  @Value("${migration.embedded-responses.batch-size:500}")
+  private int batchSize;
+
+  /** Migrates the next batch of respondents until none are left. */
+  @Scheduled(
+      initialDelay = 10000,
+      fixedDelayString = "${migration.embedded-responses.interval-ms:1000}")
+  public void migrateNextBatch() {
+    if (!enabled || completed) return;
+
+    RespondentMigrationResult result = embedResponses(batchSize);
+    incomplete.addAndGet(result.incomplete());
+    missingResponses.addAndGet(result.missingResponses());
+
+    if (result.processed() == 0) {
+      completed = true;
+      logger.info(
+          "All respondents use embedded responses, {} of them are missing {} responses",
+          incomplete.get(),
+          missingResponses.get());
+    }
+  }
+
+  /**
+   * Embeds the referenced responses of a batch of respondents that still use the old layout.
+   *
+   * @param batchSize The maximum number of respondents to migrate.
+   * @return The number of respondents processed, none once every respondent has been migrated,
+   *     and how many of them referenced responses that no longer exist.
+   */
+  @Override
+  public RespondentMigrationResult embedResponses(int batchSize) {
+    MongoCollection<Document> respondents = mongoTemplate.getCollection("respondent");
+    MongoCollection<Document> responses = mongoTemplate.getCollection("response");
+
+    List<Document> batch =
+        respondents
+            .find(Filters.exists("responses.$id"))
+            .projection(Projections.include("responses"))
+            .limit(batchSize)
+            .into(new ArrayList<>());
+
+    if (batch.isEmpty()) return new RespondentMigrationResult(0, 0, 0);
+
+    Set<Object> responseIds = new HashSet<>();
+    for (Document respondent : batch)
+      for (Object response : respondent.getList("responses", Object.class))
+        if (response instanceof DBRef reference) responseIds.add(reference.getId());
+
+    Map<Object, Document> responsesById = new HashMap<>();
+    responses
+        .find(Filters.in("_id", responseIds))
+        .forEach(
+            response -> {
+              response.remove("_class");
+              responsesById.put(response.get("_id"), response);
+            });
+
+    List<WriteModel<Document>> updates = new ArrayList<>(batch.size());
+    int incompleteRespondents = 0;
+    int missing = 0;
+    for (Document respondent : batch) {
+      List<Object> references = respondent.getList("responses", Object.class);
+      List<Object> embedded = new ArrayList<>(references.size());
+      List<Object> missingIds = new ArrayList<>();
+
+      for (Object response : references) {
+        if (!(response instanceof DBRef reference)) embedded.add(response);
+        else if (responsesById.containsKey(reference.getId()))
+          embedded.add(responsesById.get(reference.getId()));
+        else missingIds.add(reference.getId());
+      }
+
+      Bson update = Updates.set("responses", embedded);
+      if (!missingIds.isEmpty()) {
+        logger.warn(
+            "Respondent {} references {} responses that no longer exist: {}",
+            respondent.get("_id"),
+            missingIds.size(),
+            missingIds);
+        update = Updates.combine(update, Updates.addEachToSet("missingResponses", missingIds));
+        incompleteRespondents++;
+        missing += missingIds.size();
+      }
+
+      updates.add(
+          new UpdateOneModel<>(
+              Filters.and(
+                  Filters.eq("_id", respondent.get("_id")), Filters.eq("responses", references)),
+              update));
+    }
+
+    respondents.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+    logger.debug("Embedded responses of {} respondents", batch.size());
+
+    return new RespondentMigrationResult(batch.size(), incompleteRespondents, missing);
+  }
+}
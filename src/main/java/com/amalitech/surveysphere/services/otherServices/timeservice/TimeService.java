@@ -1,5 +1,7 @@
 package com.amalitech.surveysphere.services.otherServices.timeservice;
 
+import java.util.Date;
+
 public interface TimeService {
-    String calculateAverageTimeBySurveyId(String surveyId);
+    String formatTime(Date time);
 }
@@ -0,0 +1,56 @@
+package com.amalitech.surveysphere.services.otherServices.uploadService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/** Interface for the storage that uploaded files are kept in and linked from. */
+public interface BlobStore {
+
+  /**
+   * Stores bytes under a key, replacing any blob already stored under it.
+   *
+   * @param key The key of the blob.
+   * @param bytes The content of the blob.
+   * @param contentType The media type of the content.
+   * @return A link to the stored blob.
+   */
+  String put(String key, byte[] bytes, String contentType);
+
+  /**
+   * Stores the content of a file under a key, replacing any blob already stored under it. The file
+   * is read as it is stored, so it is never held in memory.
+   *
+   * @param key The key of the blob.
+   * @param file The file to store.
+   * @param contentType The media type of the content.
+   * @return A link to the stored blob.
+   * @throws IOException If the file cannot be read.
+   */
+  String put(String key, Path file, String contentType) throws IOException;
+
+  /**
+   * Creates a link that grants access to a blob for a limited time, for blobs that are not
+   * readable through the link returned when they were stored.
+   *
+   * @param key The key of the blob.
+   * @param expiry How long the link stays valid.
+   * @return The link to the blob.
+   */
+  String signedLink(String key, Duration expiry);
+
+  /**
+   * Deletes the blob stored under a key, if there is one.
+   *
+   * @param key The key of the blob.
+   */
+  void delete(String key);
+
+  /**
+   * Checks whether a link points to a blob in this store.
+   *
+   * @param link The link to check.
+   * @return true if the link was returned by this store.
+   */
+  boolean contains(String link);
+}
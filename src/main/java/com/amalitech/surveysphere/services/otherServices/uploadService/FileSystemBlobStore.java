@@ -0,0 +1,94 @@
+package com.amalitech.surveysphere.services.otherServices.uploadService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * BlobStore keeping blobs as files under a local directory, for development and tests where S3 is
+ * not available. Blobs are written to a temporary file and moved into place, so a blob is never
+ * seen half written, and are linked to with file URIs. File URIs cannot expire, so signed links
+ * are plain links to the file.
+ */
+@Component
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "filesystem")
+public class FileSystemBlobStore implements BlobStore {
+  private final Path directory;
+
+  /**
+   * Creates a store keeping blobs under the given directory.
+   *
+   * @param directory The directory holding the blobs.
+   */
+  public FileSystemBlobStore(@Value("${blob-store.directory:data/blobs}") Path directory) {
+    this.directory = directory.toAbsolutePath().normalize();
+  }
+
+  @Override
+  public String put(String key, byte[] bytes, String contentType) {
+    try {
+      Path target = resolve(key);
+      Path temporary = temporaryFile(target);
+      Files.write(temporary, bytes);
+      return moveIntoPlace(temporary, target);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  @Override
+  public String put(String key, Path file, String contentType) throws IOException {
+    Path target = resolve(key);
+    Path temporary = temporaryFile(target);
+    Files.copy(file, temporary, StandardCopyOption.REPLACE_EXISTING);
+    return moveIntoPlace(temporary, target);
+  }
+
+  @Override
+  public String signedLink(String key, Duration expiry) {
+    return resolve(key).toUri().toString();
+  }
+
+  @Override
+  public void delete(String key) {
+    try {
+      Files.deleteIfExists(resolve(key));
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  @Override
+  public boolean contains(String link) {
+    String prefix = directory.toUri().toString();
+
+    return link.startsWith(prefix.endsWith("/") ? prefix : prefix + "/");
+  }
+
+  /** Resolves the file of a key, rejecting keys that point outside the directory. */
+  private Path resolve(String key) {
+    Path target = directory.resolve(key).normalize();
+
+    if (!target.startsWith(directory) || target.equals(directory))
+      throw new IllegalArgumentException("Invalid blob key: " + key);
+
+    return target;
+  }
+
+  private static Path temporaryFile(Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    return Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+  }
+
+  private static String moveIntoPlace(Path temporary, Path target) throws IOException {
+    Files.move(
+        temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return target.toUri().toString();
+  }
+}
@@ -0,0 +1,76 @@
+package com.amalitech.surveysphere.services.otherServices.uploadService;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+/**
+ * BlobStore keeping blobs in the application's AWS S3 bucket. Signed links are presigned GET
+ * requests, so they grant access to blobs the bucket does not make public.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blob-store.type", havingValue = "s3", matchIfMissing = true)
+public class S3BlobStore implements BlobStore {
+  private final S3Client s3Client;
+  private final S3Presigner s3Presigner;
+  private final Environment env;
+
+  @Override
+  public String put(String key, byte[] bytes, String contentType) {
+    return put(key, RequestBody.fromBytes(bytes), contentType);
+  }
+
+  @Override
+  public String put(String key, Path file, String contentType) {
+    return put(key, RequestBody.fromFile(file), contentType);
+  }
+
+  @Override
+  public String signedLink(String key, Duration expiry) {
+    return s3Presigner
+        .presignGetObject(
+            GetObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .getObjectRequest(GetObjectRequest.builder().bucket(bucketName()).key(key).build())
+                .build())
+        .url()
+        .toString();
+  }
+
+  @Override
+  public void delete(String key) {
+    s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName()).key(key).build());
+  }
+
+  @Override
+  public boolean contains(String link) {
+    return link.startsWith(baseUrl());
+  }
+
+  private String put(String key, RequestBody body, String contentType) {
+    s3Client.putObject(
+        PutObjectRequest.builder().bucket(bucketName()).key(key).contentType(contentType).build(),
+        body);
+
+    return baseUrl() + key;
+  }
+
+  private String bucketName() {
+    return env.getProperty("aws_bucket_name");
+  }
+
+  private String baseUrl() {
+    return "https://" + bucketName() + ".s3.amazonaws.com/";
+  }
+}
@@ -1,22 +1,55 @@
 package com.amalitech.surveysphere.services.otherServices.uploadService;
 
 import com.amalitech.surveysphere.dto.requestDto.FileUploadDto;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
-/** Interface for uploading survey logos. */
+/** Interface for uploading survey logos and exported responses. */
 public interface UploadService {
   /**
-   * Uploads a file to AWS S3.
+   * Uploads an image to blob storage.
    *
-   * @param file The FileUploadDto containing the file to upload.
+   * @param file The FileUploadDto containing the image as a data URL, or a link to an image that
+   *     was already uploaded.
    * @return A String representing the URL of the uploaded file.
    */
   String uploadFile(FileUploadDto file);
 
   /**
-   * Uploads an excel file to AWS S3.
+   * Uploads an excel file to blob storage.
    *
-   * @param file The FileUploadDto containing the file to upload.
+   * @param bytes The content of the file.
+   * @param filename The key to store the file under.
    * @return A String representing the URL of the uploaded file.
    */
   String uploadExcel(byte[] bytes, String filename);
+
+  /**
+   * Uploads an exported file to blob storage, reading it from disk as it is uploaded. Exports are
+   * not linked to directly; links to them are created with {@link #getExportLink}.
+   *
+   * @param file The exported file.
+   * @param filename The name to store the file under.
+   * @param contentType The media type of the file.
+   * @return The key the file was stored under.
+   * @throws IOException If the file cannot be read.
+   */
+  String uploadExport(Path file, String filename, String contentType) throws IOException;
+
+  /**
+   * Creates a link to an uploaded export that stays valid for a limited time.
+   *
+   * @param key The key the export was stored under.
+   * @param expiry How long the link stays valid.
+   * @return The link to the export.
+   */
+  String getExportLink(String key, Duration expiry);
+
+  /**
+   * Deletes an uploaded export.
+   *
+   * @param key The key the export was stored under.
+   */
+  void deleteExport(String key);
 }
@@ -2,82 +2,79 @@ package com.amalitech.surveysphere.services.otherServices.uploadService;
 
 import com.amalitech.surveysphere.dto.requestDto.FileUploadDto;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.env.Environment;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Base64;
-import java.util.Random;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-/** Implementation of the UploadService interface for uploading survey logos to AWS S3. */
+/** Implementation of the UploadService interface for uploading files to blob storage. */
 @Service
 @RequiredArgsConstructor
 public class UploadServiceImplementation implements UploadService {
-  private final S3Client s3Client;
-  private final Environment env;
-  private final PasswordEncoder passwordEncoder;
-  private final Random random = new Random();
+  private static final Pattern IMAGE_TYPE = Pattern.compile("data:image/([a-zA-Z0-9]+);");
+  private static final String BUCKET_URL = "https://survey-sphere-bucket.s3.amazonaws.com";
+  private final BlobStore blobStore;
 
   /**
-   * Uploads a file to AWS S3.
+   * Uploads an image to blob storage. Images are stored under random keys, as their links are
+   * public. Links to images in the store, or in the bucket the default logo is kept in, are
+   * returned as they are.
    *
-   * @param file The FileUploadDto containing the file to upload.
+   * @param file The FileUploadDto containing the image as a data URL, or a link to an image that
+   *     was already uploaded.
    * @return A String representing the URL of the uploaded file.
+   * @throws IllegalArgumentException If the URL is neither an uploaded image nor an image data URL.
    */
   @Override
   public String uploadFile(FileUploadDto file) {
-    String bucketName = env.getProperty("aws_bucket_name");
     String url = file.getUrl();
 
-    String regex = "https://survey-sphere-bucket.s3.amazonaws.com";
-    if (url.contains(regex)) return url;
+    if (url.contains(BUCKET_URL) || blobStore.contains(url)) return url;
 
-    String[] urlInfo = file.getUrl().split(",");
-    Pattern pattern = Pattern.compile("data:image/([a-zA-Z0-9]+);");
-    Matcher matcher = pattern.matcher(urlInfo[0]);
-    String key = null;
-    String contentType = null;
+    String[] urlInfo = url.split(",", 2);
+    Matcher matcher = IMAGE_TYPE.matcher(urlInfo[0]);
 
-    if (matcher.find()) {
-      key = generateKey(matcher.group(1));
-      contentType = "image/" + matcher.group(1);
-    }
+    if (urlInfo.length < 2 || !matcher.find()) throw new IllegalArgumentException("Invalid image");
 
+    String key = "logos/" + UUID.randomUUID() + "." + matcher.group(1);
     byte[] fileBytes = Base64.getDecoder().decode(urlInfo[1]);
-    InputStream stream = new ByteArrayInputStream(fileBytes);
-    s3Client.putObject(
-        PutObjectRequest.builder().bucket(bucketName).key(key).contentType(contentType).build(),
-        RequestBody.fromInputStream(stream, fileBytes.length));
 
-    return "https://" + bucketName + ".s3.amazonaws.com/" + key;
+    return blobStore.put(key, fileBytes, "image/" + matcher.group(1));
   }
 
   @Override
   public String uploadExcel(byte[] bytes, String filename) {
-    String bucketName = env.getProperty("aws_bucket_name");
-    String key = filename.replaceAll("\\s", "");
-
-    s3Client.putObject(
-        PutObjectRequest.builder()
-            .bucket(env.getProperty("aws_bucket_name"))
-            .key(key)
-            .contentType("application/vnd.ms-excel")
-            .build(),
-        RequestBody.fromBytes(bytes));
+    return blobStore.put(filename.replaceAll("\\s", ""), bytes, "application/vnd.ms-excel");
+  }
 
-    return "https://" + bucketName + ".s3.amazonaws.com/" + key;
+  /**
+   * Uploads an exported file to blob storage, reading it from disk as it is uploaded.
+   *
+   * @param file The exported file.
+   * @param filename The name to store the file under.
+   * @param contentType The media type of the file.
+   * @return The key the file was stored under.
+   * @throws IOException If the file cannot be read.
+   */
+  @Override
+  public String uploadExport(Path file, String filename, String contentType) throws IOException {
+    String key = filename.replaceAll("\\s", "");
+    blobStore.put(key, file, contentType);
+    return key;
   }
 
-  private String generateKey(String extension) {
-    int randomNumber = random.nextInt(10000);
+  @Override
+  public String getExportLink(String key, Duration expiry) {
+    return blobStore.signedLink(key, expiry);
+  }
 
-    return passwordEncoder.encode(extension + randomNumber);
+  @Override
+  public void deleteExport(String key) {
+    blobStore.delete(key);
   }
 }
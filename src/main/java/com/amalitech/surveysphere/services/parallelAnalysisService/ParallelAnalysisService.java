@@ -0,0 +1,17 @@
+package com.amalitech.surveysphere.services.parallelAnalysisService;
+
+import java.util.List;
+import java.util.function.Function;
+
+/** Interface for spreading the per-question work of an analysis across cores. */
+public interface ParallelAnalysisService {
+
+  /**
+   * Applies a function to every item of a list, possibly in parallel.
+   *
+   * @param items The items, typically the questions of a survey.
+   * @param mapper The function, which must be safe to call from several threads at once.
+   * @return The results, in the order of the items, as an unmodifiable list.
+   */
+  <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> mapper);
+}
@@ -0,0 +1,120 @@
+package com.amalitech.surveysphere.services.parallelAnalysisService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of ParallelAnalysisService. Items are mapped by fork-join tasks on a pool
+ * dedicated to analyses, sized to the available cores, so analyses never compete with the common
+ * pool. Each task halves its range of items until it is small enough to map directly, and every
+ * result is written to the slot of its item, so the merged results are in item order whatever
+ * order the tasks ran in. Lists too short to be worth splitting, and all lists when parallel
+ * analysis is disabled, are mapped on the calling thread into the same kind of unmodifiable list.
+ * It is meant for CPU-bound work such as counting bitmap intersections or estimating distinct
+ * answers from text sketches; work that waits on the database gains nothing from the pool.
+ */
+@Service
+public class ParallelAnalysisServiceImplementation implements ParallelAnalysisService {
+  private ForkJoinPool pool;
+
+  @Value("${analysis.parallel.enabled:true}")
+  private boolean enabled;
+
+  @Value("${analysis.parallel.parallelism:0}")
+  private int parallelism;
+
+  @Value("${analysis.parallel.min-items:8}")
+  private int minItems;
+
+  @Value("${analysis.parallel.items-per-task:4}")
+  private int itemsPerTask;
+
+  /** Creates the analysis pool, one worker per core unless a parallelism is configured. */
+  @PostConstruct
+  public void initialize() {
+    if (enabled)
+      pool =
+          new ForkJoinPool(
+              parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+              null,
+              false);
+  }
+
+  /** Stops the analysis pool once running analyses complete. */
+  @PreDestroy
+  public void shutdown() {
+    if (pool != null) pool.shutdown();
+  }
+
+  /**
+   * Applies a function to every item of a list, splitting the list across the analysis pool when
+   * parallel analysis is enabled and the list is long enough.
+   *
+   * @param items The items, typically the questions of a survey.
+   * @param mapper The function, which must be safe to call from several threads at once.
+   * @return The results, in the order of the items, as an unmodifiable list.
+   */
+  @Override
+  public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> mapper) {
+    Object[] results = new Object[items.size()];
+
+    if (pool == null || items.size() < minItems) {
+      for (int index = 0; index < results.length; index++)
+        results[index] = mapper.apply(items.get(index));
+    } else {
+      pool.invoke(
+          new MapTask<>(items, mapper, results, 0, items.size(), Math.max(itemsPerTask, 1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    List<R> merged = (List<R>) Collections.unmodifiableList(Arrays.asList(results));
+    return merged;
+  }
+
+  /** Maps a range of items, splitting it in halves while it is larger than the threshold. */
+  private static final class MapTask<T, R> extends RecursiveAction {
+    private final List<T> items;
+    private final Function<? super T, ? extends R> mapper;
+    private final Object[] results;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    MapTask(
+        List<T> items,
+        Function<? super T, ? extends R> mapper,
+        Object[] results,
+        int from,
+        int to,
+        int threshold) {
+      this.items = items;
+      this.mapper = mapper;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= threshold) {
+        for (int index = from; index < to; index++) results[index] = mapper.apply(items.get(index));
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new MapTask<>(items, mapper, results, from, middle, threshold),
+          new MapTask<>(items, mapper, results, middle, to, threshold));
+    }
+  }
+}
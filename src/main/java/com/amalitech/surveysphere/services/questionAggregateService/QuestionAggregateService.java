@@ -0,0 +1,18 @@
+package com.amalitech.surveysphere.services.questionAggregateService;
+
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.util.List;
+
+/** Interface for maintaining the answer counts of choice questions. */
+public interface QuestionAggregateService {
+
+  /**
+   * Builds the option count increments of the choice questions answered by a submission.
+   *
+   * @param surveyId The ID of the survey.
+   * @param responses The responses of the submission.
+   * @return One increment per distinct chosen option of each response.
+   */
+  List<CounterDelta> optionCountDeltas(String surveyId, List<Response> responses);
+}
@@ -0,0 +1,63 @@
+package com.amalitech.surveysphere.services.questionAggregateService;
+
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.QuestionAggregate;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionValidator;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import java.util.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of QuestionAggregateService. Each choice question has one small aggregate document
+ * whose counts are incremented as responses are ingested, so analysing a survey reads one document
+ * per question instead of every answer. Option texts are used as field names, encoded by {@link
+ * QuestionAggregate#encodeOption(String)}.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuestionAggregateServiceImplementation implements QuestionAggregateService {
+  private final SurveyDescriptorService surveyDescriptorService;
+
+  /**
+   * Builds the option count increments of the choice questions answered by a submission. Counts
+   * are of respondents, so an option repeated in one answer is counted once, as the answer index
+   * counts it. Nothing is counted for a survey that no longer exists.
+   *
+   * @param surveyId The ID of the survey.
+   * @param responses The responses of the submission.
+   * @return One increment per distinct chosen option of each response.
+   */
+  @Override
+  public List<CounterDelta> optionCountDeltas(String surveyId, List<Response> responses) {
+    if (surveyId == null) return List.of();
+
+    SubmissionValidator validator;
+    try {
+      validator = surveyDescriptorService.getDescriptor(surveyId).getValidator();
+    } catch (NotFoundException e) {
+      return List.of();
+    }
+
+    List<CounterDelta> deltas = new ArrayList<>();
+
+    for (Response response : responses) {
+      if (response.getAnswer() == null || !validator.hasOptions(response.getQuestionId())) continue;
+
+      for (String answer : new LinkedHashSet<>(response.getAnswer()))
+        if (answer != null && !answer.isBlank())
+          deltas.add(
+              new CounterDelta(
+                  surveyId,
+                  QuestionAggregate.class,
+                  response.getQuestionId(),
+                  "counts." + QuestionAggregate.encodeOption(answer),
+                  1,
+                  true));
+    }
+
+    return deltas;
+  }
+}
@@ -0,0 +1,17 @@
+package com.amalitech.surveysphere.services.respondentCountService;
+
+import java.util.Map;
+
+/** Interface for maintaining the respondent count of surveys. */
+public interface RespondentCountService {
+
+  /**
+   * Counts new respondents that have been written to the database.
+   *
+   * @param counts The number of new respondents per survey ID.
+   */
+  void recordRespondents(Map<String, Integer> counts);
+
+  /** Writes any respondent counts buffered in memory to the database. */
+  void flush();
+}
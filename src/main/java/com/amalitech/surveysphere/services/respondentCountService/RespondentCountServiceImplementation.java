@@ -0,0 +1,97 @@
+package com.amalitech.surveysphere.services.respondentCountService;
+
+import com.amalitech.surveysphere.models.Survey;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of RespondentCountService. Respondents are counted after they have been written,
+ * so a failed write never leaves the count inflated. By default the counts of a batch are applied
+ * with one atomic update per survey. In buffered mode they are accumulated in striped in-memory
+ * adders that are flushed to the database on a short interval, which keeps surveys receiving
+ * hundreds of submissions per second from contending on a single document.
+ */
+@Service
+@RequiredArgsConstructor
+public class RespondentCountServiceImplementation implements RespondentCountService {
+  private final MongoTemplate mongoTemplate;
+  private final Map<String, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+  @Value("${response.respondent-count.buffered:false}")
+  private boolean buffered;
+
+  /**
+   * Counts new respondents that have been written to the database.
+   *
+   * @param counts The number of new respondents per survey ID.
+   */
+  @Override
+  public void recordRespondents(Map<String, Integer> counts) {
+    if (counts.isEmpty()) return;
+
+    if (!buffered) {
+      write(counts);
+      return;
+    }
+
+    counts.forEach(
+        (surveyId, count) ->
+            pendingCounts.computeIfAbsent(surveyId, id -> new LongAdder()).add(count));
+  }
+
+  /** Writes any respondent counts buffered in memory to the database. */
+  @Override
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${response.respondent-count.flush-interval-ms:1000}")
+  public void flush() {
+    Map<String, Long> counts = new HashMap<>();
+
+    pendingCounts.forEach(
+        (surveyId, adder) -> {
+          long count = adder.sumThenReset();
+          if (count > 0) counts.put(surveyId, count);
+        });
+
+    if (counts.isEmpty()) return;
+
+    try {
+      write(counts);
+    } catch (DataAccessException e) {
+      counts.forEach(
+          (surveyId, count) ->
+              pendingCounts.computeIfAbsent(surveyId, id -> new LongAdder()).add(count));
+      throw e;
+    }
+  }
+
+  /**
+   * Increments the respondent counts of surveys with one bulk write. Only surveys that are still
+   * active are counted, so respondents drained after a survey stopped taking responses do not
+   * change its count.
+   *
+   * @param counts The number of new respondents per survey ID.
+   */
+  private void write(Map<String, ? extends Number> counts) {
+    BulkOperations operations =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Survey.class);
+    counts.forEach(
+        (surveyId, count) ->
+            operations.updateOne(
+                Query.query(Criteria.where("_id").is(surveyId).and("active").is(true)),
+                new Update().inc("respondentCount", count).set("sent", true)));
+    operations.execute();
+  }
+}
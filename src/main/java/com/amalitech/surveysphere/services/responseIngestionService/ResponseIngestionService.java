@@ -0,0 +1,50 @@
+package com.amalitech.surveysphere.services.responseIngestionService;
+
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.models.ResponseSubmission;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/** Interface for writing validated survey submissions to the database. */
+public interface ResponseIngestionService {
+
+  /**
+   * Accepts a validated submission. In write-behind mode the submission is appended to the local
+   * journal and written by the background drainer, otherwise it is written immediately.
+   *
+   * @param submission The submission to write.
+   */
+  void submit(ResponseSubmission submission);
+
+  /**
+   * Writes a batch of submissions as respondents with their responses embedded, together with the
+   * answered and skipped counters of their questions.
+   *
+   * @param submissions The submissions to write.
+   */
+  void persist(List<ResponseSubmission> submissions);
+
+  /**
+   * Saves the responses to a block of an existing respondent with a single update, replacing the
+   * respondent's earlier responses to the block's questions and raising the last block the
+   * respondent reached. Saving the last block of the survey marks the respondent as submitted.
+   *
+   * @param surveyId The ID of the survey.
+   * @param respondentId The ID of the respondent.
+   * @param blockIndex The index of the block the responses answer.
+   * @param responses The validated responses to the block.
+   * @param blockQuestionIds The IDs of the questions whose earlier responses are replaced.
+   * @param completesSurvey Whether the block is the last block of the survey.
+   * @return An Optional containing the respondent's ID, creation date and submission date before
+   *     the append, or empty if the respondent does not exist.
+   */
+  Optional<Respondent> append(
+      String surveyId,
+      String respondentId,
+      int blockIndex,
+      List<Response> responses,
+      Set<String> blockQuestionIds,
+      boolean completesSurvey);
+}
@@ -0,0 +1,492 @@
+package com.amalitech.surveysphere.services.responseIngestionService;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.models.ResponseSubmission;
+import com.amalitech.surveysphere.repositories.UserRepository;
+import com.amalitech.surveysphere.services.completionTimeService.CompletionTimeService;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import com.amalitech.surveysphere.services.counterService.CounterService;
+import com.amalitech.surveysphere.services.liveResultsService.LiveResultsService;
+import com.amalitech.surveysphere.services.questionAggregateService.QuestionAggregateService;
+import com.amalitech.surveysphere.services.respondentCountService.RespondentCountService;
+import com.amalitech.surveysphere.services.responseRateService.ResponseRateService;
+import com.amalitech.surveysphere.services.responseVersionService.ResponseVersionService;
+import com.amalitech.surveysphere.services.textAnalyticsService.TextAnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of ResponseIngestionService. In write-behind mode, submissions are acknowledged as
+ * soon as they are durable in the local journal and are group-committed to the database by a
+ * background drainer, so a database outage does not fail respondents' requests. Records that were
+ * not committed before a shutdown are replayed on the next start. Respondents are written with
+ * upserts on their pre-assigned IDs that add responses to a set, so a replayed batch neither
+ * duplicates them nor overwrites blocks appended since, and counters are only applied for the
+ * respondents a write inserted, so replaying a batch does not count it again.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResponseIngestionServiceImplementation implements ResponseIngestionService {
+  private static final Logger logger = LoggerFactory.getLogger(ResponseIngestionService.class);
+  private final MongoTemplate mongoTemplate;
+  private final UserRepository userRepository;
+  private final ObjectMapper objectMapper;
+  private final CounterService counterService;
+  private final QuestionAggregateService questionAggregateService;
+  private final CompletionTimeService completionTimeService;
+  private final ResponseVersionService responseVersionService;
+  private final TextAnalyticsService textAnalyticsService;
+  private final ResponseRateService responseRateService;
+  private final LiveResultsService liveResultsService;
+  private final RespondentCountService respondentCountService;
+  private final Map<String, CompletableFuture<Void>> pendingRespondents =
+      new ConcurrentHashMap<>();
+  private ResponseJournal journal;
+
+  @Value("${response.ingestion.write-behind:false}")
+  private boolean writeBehind;
+
+  @Value("${response.ingestion.journal.directory:data/response-journal}")
+  private String journalDirectory;
+
+  @Value("${response.ingestion.journal.segment-size:67108864}")
+  private int segmentSize;
+
+  @Value("${response.ingestion.batch-size:500}")
+  private int batchSize;
+
+  @Value("${response.ingestion.pending-wait-ms:2000}")
+  private long pendingWaitMs;
+
+  /**
+   * Opens the journal when write-behind mode is enabled and indexes the respondents it still
+   * holds.
+   *
+   * @throws IOException If the journal cannot be opened.
+   */
+  @PostConstruct
+  public void openJournal() throws IOException {
+    if (!writeBehind) return;
+
+    journal = new ResponseJournal(Path.of(journalDirectory), segmentSize);
+    ResponseJournal.Position position = journal.checkpoint();
+    List<ResponseJournal.Entry> entries;
+
+    while (!(entries = journal.read(position, batchSize)).isEmpty()) {
+      for (ResponseJournal.Entry entry : entries)
+        pendingRespondents.put(
+            objectMapper.readValue(entry.payload(), ResponseSubmission.class).getRespondentId(),
+            new CompletableFuture<>());
+      position = entries.get(entries.size() - 1).next();
+    }
+  }
+
+  /**
+   * Commits what is left in the journal and closes it.
+   *
+   * @throws IOException If the journal cannot be read or closed.
+   */
+  @PreDestroy
+  public void closeJournal() throws IOException {
+    if (journal == null) return;
+
+    try {
+      drain();
+    } finally {
+      journal.close();
+    }
+  }
+
+  /**
+   * Accepts a validated submission. In write-behind mode the submission is appended to the local
+   * journal and written by the background drainer, otherwise it is written immediately.
+   *
+   * @param submission The submission to write.
+   */
+  @Override
+  public void submit(ResponseSubmission submission) {
+    if (journal == null) {
+      persist(List.of(submission));
+      return;
+    }
+
+    CompletableFuture<Void> written = new CompletableFuture<>();
+    pendingRespondents.put(submission.getRespondentId(), written);
+
+    try {
+      journal.append(objectMapper.writeValueAsBytes(submission));
+    } catch (IOException e) {
+      pendingRespondents.remove(submission.getRespondentId(), written);
+      throw new UncheckedIOException("Failed to journal submission", e);
+    }
+  }
+
+  /**
+   * Group-commits journaled submissions to the database in batches, advancing the journal
+   * checkpoint after each batch.
+   *
+   * @throws IOException If the journal cannot be read or its checkpoint cannot be written.
+   */
+  @Scheduled(fixedDelayString = "${response.ingestion.drain-interval-ms:200}")
+  public synchronized void drain() throws IOException {
+    if (journal == null) return;
+
+    List<ResponseJournal.Entry> entries;
+    while (!(entries = journal.read(batchSize)).isEmpty()) {
+      List<ResponseSubmission> submissions = new ArrayList<>(entries.size());
+
+      for (ResponseJournal.Entry entry : entries)
+        submissions.add(objectMapper.readValue(entry.payload(), ResponseSubmission.class));
+
+      persist(submissions);
+
+      for (ResponseSubmission submission : submissions) {
+        CompletableFuture<Void> written = pendingRespondents.remove(submission.getRespondentId());
+        if (written != null) written.complete(null);
+      }
+
+      counterService.flush();
+      journal.commit(entries.get(entries.size() - 1).next());
+      logger.debug("Committed {} journaled submissions", submissions.size());
+    }
+  }
+
+  /**
+   * Writes a batch of submissions as respondents with their responses embedded, together with the
+   * answered and skipped counters of their questions, the completion times of submissions that
+   * complete their survey, the arrival times of the respondents, the respondent counts and response
+   * versions of their surveys and the sketches of their free-text answers. The counter changes are
+   * also passed on to the live results of the surveys. Only submissions whose respondent was
+   * inserted by this write are counted, so a replayed submission is not counted twice.
+   *
+   * @param submissions The submissions to write.
+   */
+  @Override
+  public void persist(List<ResponseSubmission> submissions) {
+    if (submissions.isEmpty()) return;
+
+    BulkOperations operations =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Respondent.class);
+
+    for (ResponseSubmission submission : submissions) {
+      submission.getResponses().stream()
+          .filter(response -> response.getId() == null)
+          .forEach(response -> response.setId(new ObjectId().toHexString()));
+
+      operations.upsert(
+          Query.query(Criteria.where("_id").is(submission.getRespondentId())),
+          createRespondent(submission));
+    }
+
+    try {
+      count(submissions, operations.execute());
+    } catch (BulkOperationException e) {
+      count(submissions, e.getResult());
+      throw e;
+    }
+  }
+
+  /**
+   * Applies the counters of the submissions whose respondent was inserted by a bulk write. A
+   * respondent that already existed was written by an earlier attempt, whose counters have already
+   * been applied. The insert is the marker that the counters are applied, so a crash between the
+   * two loses the counters of that batch rather than doubling them.
+   *
+   * @param submissions The submissions in the order they were added to the bulk write.
+   * @param result The result of the bulk write.
+   */
+  private void count(List<ResponseSubmission> submissions, BulkWriteResult result) {
+    List<CounterDelta> deltas = new ArrayList<>();
+    Map<String, Integer> newRespondents = new HashMap<>();
+
+    for (BulkWriteUpsert upsert : result.getUpserts()) {
+      ResponseSubmission submission = submissions.get(upsert.getIndex());
+
+      deltas.addAll(answeredAndSkipped(submission.getSurveyId(), submission.getResponses()));
+      deltas.addAll(
+          questionAggregateService.optionCountDeltas(
+              submission.getSurveyId(), submission.getResponses()));
+      deltas.addAll(
+          completionTimeService.completionDeltas(
+              submission.getSurveyId(),
+              submission.getStartedDate(),
+              submission.getSubmittedDate()));
+      deltas.add(responseVersionService.bump(submission.getSurveyId()));
+      deltas.addAll(
+          responseRateService.arrivalDeltas(submission.getSurveyId(), submission.getCreatedDate()));
+      deltas.addAll(
+          textAnalyticsService.sketchDeltas(submission.getSurveyId(), submission.getResponses()));
+      newRespondents.merge(submission.getSurveyId(), 1, Integer::sum);
+    }
+
+    if (newRespondents.isEmpty()) return;
+
+    counterService.apply(deltas);
+    respondentCountService.recordRespondents(newRespondents);
+    liveResultsService.record(deltas, newRespondents);
+  }
+
+  /**
+   * Saves the responses to a block of an existing respondent, replacing its earlier responses to
+   * the block's questions. The counters of the replaced responses are taken back and those of the
+   * new responses added, so saving a block again does not count it twice. Free-text sketches cannot
+   * take answers back, so they only record questions that had no response yet. In write-behind
+   * mode, a respondent whose submission is still in the journal is waited for, up to a bounded
+   * time, until the drainer has written it; any other unknown respondent is reported as missing
+   * immediately. Options are only counted for respondents whose earlier responses are already
+   * counted, the rest are left to the backfill. The first save that completes the survey sets the
+   * respondent's submission date and records its completion time.
+   *
+   * @param surveyId The ID of the survey.
+   * @param respondentId The ID of the respondent.
+   * @param blockIndex The index of the block the responses answer.
+   * @param responses The validated responses to the block.
+   * @param blockQuestionIds The IDs of the questions whose earlier responses are replaced.
+   * @param completesSurvey Whether the block is the last block of the survey.
+   * @return An Optional containing the respondent's ID and creation date, or empty if the
+   *     respondent does not exist.
+   */
+  @Override
+  public Optional<Respondent> append(
+      String surveyId,
+      String respondentId,
+      int blockIndex,
+      List<Response> responses,
+      Set<String> blockQuestionIds,
+      boolean completesSurvey) {
+    CompletableFuture<Void> written = pendingRespondents.get(respondentId);
+    if (written != null) awaitWritten(written);
+
+    Date submittedDate = completesSurvey ? new Date() : null;
+    Optional<Respondent> respondent =
+        appendBlock(surveyId, respondentId, blockIndex, responses, blockQuestionIds, submittedDate);
+
+    if (respondent.isEmpty()) return respondent;
+
+    List<Response> replaced =
+        respondent.get().getResponses() == null
+            ? List.of()
+            : respondent.get().getResponses().stream()
+                .filter(response -> blockQuestionIds.contains(response.getQuestionId()))
+                .toList();
+    Set<String> answeredBefore =
+        replaced.stream().map(Response::getQuestionId).collect(Collectors.toSet());
+
+    List<CounterDelta> deltas = new ArrayList<>(answeredAndSkipped(surveyId, responses));
+    answeredAndSkipped(surveyId, replaced).forEach(delta -> deltas.add(delta.negated()));
+
+    if (respondent.get().isOptionsCounted()) {
+      deltas.addAll(questionAggregateService.optionCountDeltas(surveyId, responses));
+      questionAggregateService
+          .optionCountDeltas(surveyId, replaced)
+          .forEach(delta -> deltas.add(delta.negated()));
+    }
+
+    if (submittedDate != null && respondent.get().getSubmittedDate() == null)
+      deltas.addAll(
+          completionTimeService.completionDeltas(
+              surveyId, respondent.get().getStartedDate(), submittedDate));
+
+    deltas.add(responseVersionService.bump(surveyId));
+    deltas.addAll(
+        textAnalyticsService.sketchDeltas(
+            surveyId,
+            responses.stream()
+                .filter(response -> !answeredBefore.contains(response.getQuestionId()))
+                .toList()));
+    counterService.apply(deltas);
+    liveResultsService.record(deltas, Map.of());
+    return respondent;
+  }
+
+  /**
+   * Waits for the drainer to write a journaled respondent. A respondent that is not written in time
+   * is then looked up as it is.
+   */
+  private void awaitWritten(CompletableFuture<Void> written) {
+    try {
+      written.get(pendingWaitMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      logger.debug("Journaled respondent was not written within {} ms", pendingWaitMs);
+    }
+  }
+
+  /**
+   * Saves a block with a single findAndModify, which returns the respondent as it was before the
+   * save. The earlier responses to the block's questions are filtered out and the new responses
+   * appended in the same pipeline update. The submission date is set with $min, so it keeps the
+   * time the survey was first completed, and the modification date is moved to now for
+   * incremental snapshots.
+   */
+  private Optional<Respondent> appendBlock(
+      String surveyId,
+      String respondentId,
+      int blockIndex,
+      List<Response> responses,
+      Set<String> blockQuestionIds,
+      Date submittedDate) {
+    Query query =
+        Query.query(Criteria.where("_id").is(respondentId).and("surveyId").is(surveyId));
+    query
+        .fields()
+        .include("createdDate", "optionsCounted", "startedDate", "submittedDate", "responses");
+
+    List<Object> newResponses = new ArrayList<>(responses.size());
+    for (Response response : responses)
+      newResponses.add(mongoTemplate.getConverter().convertToMongoType(response));
+
+    Document keptResponses =
+        new Document(
+            "$filter",
+            new Document("input", new Document("$ifNull", List.of("$responses", List.of())))
+                .append(
+                    "cond",
+                    new Document(
+                        "$not",
+                        List.of(
+                            new Document(
+                                "$in",
+                                List.of("$$this.questionId", List.copyOf(blockQuestionIds)))))));
+
+    AggregationUpdate update =
+        AggregationUpdate.update()
+            .set("responses")
+            .toValue(
+                new Document(
+                    "$concatArrays",
+                    List.of(keptResponses, new Document("$literal", newResponses))))
+            .set("lastBlockReached")
+            .toValue(new Document("$max", List.of("$lastBlockReached", blockIndex)))
+            .set("modifiedDate")
+            .toValue(new Date());
+
+    if (submittedDate != null)
+      update
+          .set("submittedDate")
+          .toValue(new Document("$min", List.of("$submittedDate", submittedDate)));
+
+    return Optional.ofNullable(mongoTemplate.findAndModify(query, update, Respondent.class));
+  }
+
+  /**
+   * Builds the upsert of a submission's respondent. The respondent's fields are only set when it is
+   * inserted and its responses are added to a set, so applying the upsert again has no effect.
+   * Unknown start and submission dates are left unset, so a later $min can still set them.
+   *
+   * @param submission The submission.
+   * @return The upsert of the respondent.
+   */
+  private Update createRespondent(ResponseSubmission submission) {
+    Optional<String> platformUser = isPlatformUser(submission);
+    Update update = new Update();
+
+    if (submission.getStartedDate() != null)
+      update.setOnInsert("startedDate", submission.getStartedDate());
+
+    if (submission.getSubmittedDate() != null)
+      update.setOnInsert("submittedDate", submission.getSubmittedDate());
+
+    return update
+        .setOnInsert("email", platformUser.orElse(null))
+        .setOnInsert("isAnonymous", platformUser.isEmpty())
+        .setOnInsert("surveyId", submission.getSurveyId())
+        .setOnInsert("createdDate", submission.getCreatedDate())
+        .setOnInsert("modifiedDate", new Date())
+        .setOnInsert("optionsCounted", true)
+        .addToSet("responses")
+        .each(submission.getResponses().toArray())
+        .max("lastBlockReached", submission.getLastBlockReached());
+  }
+
+  /**
+   * Builds the answered and skipped counter increments of the questions of a submission. They are
+   * applied as atomic $inc updates, so concurrent submissions never overwrite each other's counts.
+   *
+   * @param surveyId The ID of the survey.
+   * @param responses The responses of the submission.
+   * @return One increment per response.
+   */
+  private List<CounterDelta> answeredAndSkipped(String surveyId, List<Response> responses) {
+    List<CounterDelta> deltas = new ArrayList<>(responses.size());
+
+    for (Response response : responses)
+      deltas.add(
+          new CounterDelta(
+              surveyId,
+              Question.class,
+              response.getQuestionId(),
+              isSkipped(response) ? "skipped" : "answered",
+              1));
+
+    return deltas;
+  }
+
+  /**
+   * Determines whether a response counts as skipped.
+   *
+   * @param response The response to check.
+   * @return true if the response has no answer or any blank answer.
+   */
+  private boolean isSkipped(Response response) {
+    return response.getAnswer() == null
+        || response.getAnswer().isEmpty()
+        || response.getAnswer().stream().anyMatch(String::isBlank);
+  }
+
+  /**
+   * Determines the platform user behind a submission. A submitted email that does not belong to a
+   * registered user is replaced by the authenticated user, if there is one.
+   *
+   * @param submission The submission.
+   * @return An Optional containing the email of the platform user, or empty if anonymous.
+   */
+  private Optional<String> isPlatformUser(ResponseSubmission submission) {
+    String email = submission.getEmail();
+    String authenticatedUser = submission.getAuthenticatedUser();
+
+    if (email == null) return Optional.ofNullable(authenticatedUser);
+
+    if (authenticatedUser != null && userRepository.findByEmail(email).isEmpty())
+      return Optional.of(authenticatedUser);
+
+    return Optional.of(email);
+  }
+}
@@ -0,0 +1,326 @@
+package com.amalitech.surveysphere.services.responseIngestionService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of serialized submissions, stored in memory-mapped segment files. Every
+ * record is written as its length, a CRC32 of the payload and the payload itself, and is forced to
+ * disk before the append returns. Records are written under the journal's lock but forced outside
+ * it, as a group commit: one appender forces every record written so far while the others wait for
+ * it, so concurrent appends share a single force. A checkpoint file records the position up to
+ * which records have been committed to the database, so uncommitted records are read again after a
+ * restart.
+ */
+class ResponseJournal implements Closeable {
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String CHECKPOINT_FILE = "checkpoint";
+  private static final int HEADER_SIZE = 8;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final Object forceLock = new Object();
+  private Segment activeSegment;
+  private Position durable;
+  private volatile Position checkpoint;
+
+  /** A position in the journal, given as a segment ID and a byte offset within that segment. */
+  record Position(long segmentId, int offset) {}
+
+  /** A journal record together with the position directly after it. */
+  record Entry(byte[] payload, Position next) {}
+
+  /**
+   * Opens the journal in the given directory, recovering any existing segments. Recovered segments
+   * are sealed and new records are always appended to a fresh segment.
+   *
+   * @param directory The directory holding the segment files.
+   * @param segmentSize The size in bytes of each segment file.
+   * @throws IOException If the journal files cannot be read or created.
+   */
+  ResponseJournal(Path directory, int segmentSize) throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    Files.createDirectories(directory);
+
+    List<Long> segmentIds = new ArrayList<>();
+    try (Stream<Path> files = Files.list(directory)) {
+      files
+          .map(file -> file.getFileName().toString())
+          .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+          .map(
+              name ->
+                  name.substring(
+                      SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))
+          .map(Long::parseLong)
+          .forEach(segmentIds::add);
+    }
+
+    for (long segmentId : segmentIds) {
+      Segment segment = Segment.open(segmentPath(segmentId), segmentId, segmentSize);
+      segment.recover();
+      segments.put(segmentId, segment);
+    }
+
+    long nextSegmentId = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+    activeSegment = Segment.open(segmentPath(nextSegmentId), nextSegmentId, segmentSize);
+    segments.put(nextSegmentId, activeSegment);
+
+    durable = new Position(nextSegmentId, 0);
+    checkpoint = readCheckpoint();
+  }
+
+  /**
+   * Appends a record to the journal and returns once it has been forced to disk.
+   *
+   * @param payload The serialized record.
+   * @throws IOException If the record does not fit in a segment or a new segment cannot be created.
+   */
+  void append(byte[] payload) throws IOException {
+    force(write(payload));
+  }
+
+  /** Writes a record to the active segment and returns the position directly after it. */
+  private synchronized Position write(byte[] payload) throws IOException {
+    int recordSize = HEADER_SIZE + payload.length;
+
+    if (recordSize > segmentSize)
+      throw new IOException("Submission exceeds the journal segment size");
+
+    if (!activeSegment.hasRoomFor(recordSize)) {
+      activeSegment.sealed = true;
+      long nextSegmentId = activeSegment.id + 1;
+      activeSegment = Segment.open(segmentPath(nextSegmentId), nextSegmentId, segmentSize);
+      segments.put(nextSegmentId, activeSegment);
+    }
+
+    activeSegment.write(payload);
+    return new Position(activeSegment.id, activeSegment.writePosition);
+  }
+
+  /**
+   * Forces the journal to disk up to at least the given position. A caller that finds its records
+   * not yet durable forces everything written so far, so appenders that wrote while it was forcing
+   * find their records covered and return without forcing again.
+   */
+  private void force(Position position) {
+    synchronized (forceLock) {
+      if (covers(durable, position)) return;
+
+      Position target;
+      List<Segment> unforced;
+
+      synchronized (this) {
+        target = new Position(activeSegment.id, activeSegment.writePosition);
+        unforced =
+            new ArrayList<>(
+                segments.subMap(durable.segmentId(), true, target.segmentId(), true).values());
+      }
+
+      for (Segment segment : unforced) {
+        int from = segment.id == durable.segmentId() ? durable.offset() : 0;
+        int to = segment.id == target.segmentId() ? target.offset() : segment.writePosition;
+        segment.force(from, to);
+      }
+
+      durable = target;
+    }
+  }
+
+  private static boolean covers(Position durable, Position position) {
+    return durable.segmentId() > position.segmentId()
+        || (durable.segmentId() == position.segmentId() && durable.offset() >= position.offset());
+  }
+
+  /**
+   * Reads records that have not yet been committed, starting at the checkpoint.
+   *
+   * @param maxEntries The maximum number of records to read.
+   * @return The records in append order, empty if everything has been committed.
+   */
+  List<Entry> read(int maxEntries) {
+    return read(checkpoint, maxEntries);
+  }
+
+  /**
+   * Reads records starting at a given position, which is the checkpoint or the position after an
+   * earlier read record.
+   *
+   * @param from The position of the first record to read.
+   * @param maxEntries The maximum number of records to read.
+   * @return The records in append order, empty if there are no records from the position on.
+   */
+  List<Entry> read(Position from, int maxEntries) {
+    List<Entry> entries = new ArrayList<>();
+    Position position = from;
+
+    while (entries.size() < maxEntries) {
+      Segment segment = segments.get(position.segmentId());
+
+      if (segment == null) {
+        Long nextSegmentId = segments.higherKey(position.segmentId());
+        if (nextSegmentId == null) break;
+        position = new Position(nextSegmentId, 0);
+        continue;
+      }
+
+      boolean sealed = segment.sealed;
+
+      if (position.offset() < segment.writePosition) {
+        byte[] payload = segment.readAt(position.offset());
+        position =
+            new Position(position.segmentId(), position.offset() + HEADER_SIZE + payload.length);
+        entries.add(new Entry(payload, position));
+      } else if (sealed && segments.higherKey(position.segmentId()) != null) {
+        position = new Position(segments.higherKey(position.segmentId()), 0);
+      } else {
+        break;
+      }
+    }
+
+    return entries;
+  }
+
+  /** Returns the position directly after the last committed record. */
+  Position checkpoint() {
+    return checkpoint;
+  }
+
+  /**
+   * Marks every record before the given position as committed and deletes segments that no longer
+   * hold uncommitted records.
+   *
+   * @param position The position directly after the last committed record.
+   * @throws IOException If the checkpoint cannot be written.
+   */
+  void commit(Position position) throws IOException {
+    Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+    ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+    buffer.putLong(position.segmentId()).putInt(position.offset());
+    Files.write(temporary, buffer.array());
+    Files.move(
+        temporary,
+        directory.resolve(CHECKPOINT_FILE),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    checkpoint = position;
+
+    for (Map.Entry<Long, Segment> entry : segments.headMap(position.segmentId()).entrySet()) {
+      segments.remove(entry.getKey());
+      entry.getValue().close();
+      Files.deleteIfExists(entry.getValue().path);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    for (Segment segment : segments.values()) segment.close();
+  }
+
+  private Position readCheckpoint() throws IOException {
+    Path file = directory.resolve(CHECKPOINT_FILE);
+
+    if (!Files.exists(file)) return new Position(segments.firstKey(), 0);
+
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    return new Position(buffer.getLong(), buffer.getInt());
+  }
+
+  private Path segmentPath(long segmentId) {
+    return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentId, SEGMENT_SUFFIX));
+  }
+
+  /** A single memory-mapped segment file. */
+  private static final class Segment {
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private volatile int writePosition;
+    private volatile boolean sealed;
+
+    private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.id = id;
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    static Segment open(Path path, long id, int segmentSize) throws IOException {
+      FileChannel channel =
+          FileChannel.open(
+              path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      long size = Math.max(channel.size(), segmentSize);
+      return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /** Finds the end of the valid records of a segment written before a restart and seals it. */
+    void recover() {
+      int position = 0;
+
+      while (position + HEADER_SIZE <= buffer.capacity()) {
+        int length = buffer.getInt(position);
+
+        if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) break;
+
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_SIZE, payload);
+
+        if (checksum(payload) != buffer.getInt(position + Integer.BYTES)) break;
+
+        position += HEADER_SIZE + length;
+      }
+
+      writePosition = position;
+      sealed = true;
+    }
+
+    boolean hasRoomFor(int recordSize) {
+      return writePosition + recordSize <= buffer.capacity();
+    }
+
+    void write(byte[] payload) {
+      int position = writePosition;
+      buffer.putInt(position, payload.length);
+      buffer.putInt(position + Integer.BYTES, checksum(payload));
+      buffer.put(position + HEADER_SIZE, payload);
+      writePosition = position + HEADER_SIZE + payload.length;
+    }
+
+    void force(int from, int to) {
+      if (to > from) buffer.force(from, to - from);
+    }
+
+    byte[] readAt(int position) {
+      byte[] payload = new byte[buffer.getInt(position)];
+      buffer.get(position + HEADER_SIZE, payload);
+      return payload;
+    }
+
+    void close() throws IOException {
+      channel.close();
+    }
+
+    private static int checksum(byte[] payload) {
+      CRC32 crc = new CRC32();
+      crc.update(payload);
+      return (int) crc.getValue();
+    }
+  }
+}
@@ -1,8 +1,15 @@
 package com.amalitech.surveysphere.services.responseManagementService;
 
+import com.amalitech.surveysphere.dto.requestDto.BlockResponseDto;
 import com.amalitech.surveysphere.dto.requestDto.ResponseManagementDto;
+import com.amalitech.surveysphere.dto.responseDto.IndividualResultsPageDto;
 import com.amalitech.surveysphere.dto.responseDto.ResponseAnalysisDto;
 import com.amalitech.surveysphere.dto.responseDto.ResponseManagementResponseDto;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
 
 /** Interface for managing responses to surveys. */
 public interface ResponseManagementService {
@@ -12,11 +19,70 @@ public interface ResponseManagementService {
    *
    * @param managementDto The ResponseManagementDto containing response details.
    * @param respondentId The ID of the respondent submitting the responses.
+   * @param idempotencyKey An optional client-supplied key identifying retries of the same
+   *     submission.
    * @return A ResponseManagementResponseDto representing the result of the response recording
    *     process.
    */
   ResponseManagementResponseDto recordResponses(
-      ResponseManagementDto managementDto, String respondentId);
+      ResponseManagementDto managementDto, String respondentId, String idempotencyKey);
 
-  ResponseAnalysisDto getResponses(String surveyId);
+  /**
+   * Saves the responses to a completed block of a survey to an existing respondent.
+   *
+   * @param respondentId The ID of the respondent.
+   * @param blockResponseDto The responses to the block.
+   * @return A ResponseManagementResponseDto representing the result of the response recording
+   *     process.
+   */
+  ResponseManagementResponseDto saveBlock(String respondentId, BlockResponseDto blockResponseDto);
+
+  /**
+   * Retrieves the analysis of a survey's responses.
+   *
+   * @param surveyId The ID of the survey.
+   * @param filter The answers the analysed respondents must have given.
+   * @return The analysis of the matching respondents' responses.
+   */
+  ResponseAnalysisDto getResponses(String surveyId, AnswerFilter filter);
+
+  /**
+   * Retrieves a page of a survey's respondents in the order they were recorded.
+   *
+   * @param surveyId The ID of the survey.
+   * @param after The cursor returned with the previous page, or null for the first page.
+   * @param limit The maximum number of respondents in the page.
+   * @param filter The answers the respondents must have given.
+   * @return The page of respondents and the cursor of the next page, null on the last page.
+   */
+  IndividualResultsPageDto getIndividualResults(
+      String surveyId, String after, int limit, AnswerFilter filter);
+
+  /**
+   * Streams the respondents of a survey from a database cursor. The stream must be closed.
+   *
+   * @param surveyId The ID of the survey.
+   * @param filter The answers the respondents must have given.
+   * @return The respondents in the order they were recorded.
+   */
+  Stream<Respondent> streamIndividualResults(String surveyId, AnswerFilter filter);
+
+  /**
+   * Counts the respondents of a survey.
+   *
+   * @param surveyId The ID of the survey.
+   * @param filter The answers the respondents must have given.
+   * @return The number of matching respondents.
+   */
+  long countIndividualResults(String surveyId, AnswerFilter filter);
+
+  /**
+   * Writes streamed respondents as newline-delimited JSON and closes the stream.
+   *
+   * @param respondents The respondents, as returned by {@link #streamIndividualResults}.
+   * @param outputStream The stream to write to.
+   * @throws IOException If writing fails.
+   */
+  void writeIndividualResults(Stream<Respondent> respondents, OutputStream outputStream)
+      throws IOException;
 }
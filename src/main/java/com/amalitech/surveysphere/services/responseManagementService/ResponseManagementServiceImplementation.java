@@ -2,16 +2,50 @@ package com.amalitech.surveysphere.services.responseManagementService;
 
 import static com.amalitech.surveysphere.enums.CustomExceptionMessage.*;
 
+import com.amalitech.surveysphere.dto.requestDto.BlockResponseDto;
 import com.amalitech.surveysphere.dto.requestDto.ResponseManagementDto;
+import com.amalitech.surveysphere.dto.responseDto.IndividualResultsPageDto;
 import com.amalitech.surveysphere.dto.responseDto.ResponseAnalysisDto;
 import com.amalitech.surveysphere.dto.responseDto.ResponseManagementResponseDto;
+import com.amalitech.surveysphere.exceptions.InvalidResponseException;
 import com.amalitech.surveysphere.exceptions.NotFoundException;
 import com.amalitech.surveysphere.exceptions.UnauthorizedException;
 import com.amalitech.surveysphere.models.*;
-import com.amalitech.surveysphere.repositories.*;
+import com.amalitech.surveysphere.services.analysisCacheService.AnalysisCacheService;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndex;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndexService;
+import com.amalitech.surveysphere.services.answerIndexService.OrdinalBitmap;
+import com.amalitech.surveysphere.services.completionTimeService.CompletionTimeService;
+import com.amalitech.surveysphere.services.idempotencyService.IdempotencyService;
 import com.amalitech.surveysphere.services.otherServices.timeservice.TimeService;
+import com.amalitech.surveysphere.services.parallelAnalysisService.ParallelAnalysisService;
+import com.amalitech.surveysphere.services.responseIngestionService.ResponseIngestionService;
+import com.amalitech.surveysphere.services.responseVersionService.ResponseVersionService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionValidator;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.amalitech.surveysphere.services.textAnalyticsService.TextAnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -20,211 +54,742 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class ResponseManagementServiceImplementation implements ResponseManagementService {
-  private final RespondentRepository respondentRepository;
-  private final UserRepository userRepository;
-  private final SurveyRepository surveyRepository;
-  private final QuestionRepository questionRepository;
-  private final ResponseRepository responseRepository;
+  private static final String NOT_TAKING_RESPONSES = "This survey is no longer taking responses";
+  private static final int ID_BATCH_SIZE = 1000;
+
+  /** Identifies the responses and survey state an analysis was computed from. */
+  private record AnalysisStamp(long responseVersion, boolean active, List<Question> questions) {}
+
+  private final MongoTemplate mongoTemplate;
   private final TimeService timeService;
+  private final SurveyDescriptorService surveyDescriptorService;
+  private final ResponseIngestionService responseIngestionService;
+  private final IdempotencyService idempotencyService;
+  private final CompletionTimeService completionTimeService;
+  private final TextAnalyticsService textAnalyticsService;
+  private final ResponseVersionService responseVersionService;
+  private final AnalysisCacheService analysisCacheService;
+  private final AnswerIndexService answerIndexService;
+  private final ParallelAnalysisService parallelAnalysisService;
+  private final ObjectMapper objectMapper;
+
+  @Value("${analysis.text-responses-limit:1000}")
+  private int textResponsesLimit;
+
+  @Value("${analysis.individual-results.max-page-size:500}")
+  private int maxPageSize;
 
   /**
    * Records responses to a survey.
    *
    * @param managementDto The ResponseManagementDto containing response details.
    * @param respondentId The ID of the respondent submitting the responses.
+   * @param idempotencyKey An optional client-supplied key identifying retries of the same
+   *     submission. A retry is answered with the stored result of the original submission.
    * @return A ResponseManagementResponseDto representing the result of the response recording
    *     process.
    */
   @Override
   public ResponseManagementResponseDto recordResponses(
+      ResponseManagementDto managementDto, String respondentId, String idempotencyKey) {
+    if (idempotencyKey == null) return recordResponses(managementDto, respondentId);
+
+    String surveyId = managementDto.getSurveyId();
+    Optional<ResponseManagementResponseDto> receipt =
+        idempotencyService.claim(surveyId, idempotencyKey);
+
+    if (receipt.isPresent()) return receipt.get();
+
+    try {
+      ResponseManagementResponseDto result = recordResponses(managementDto, respondentId);
+      idempotencyService.complete(surveyId, idempotencyKey, result);
+      return result;
+    } catch (RuntimeException e) {
+      idempotencyService.release(surveyId, idempotencyKey);
+      throw e;
+    }
+  }
+
+  /**
+   * Records responses to a survey, either for a new respondent or by adding them to an existing
+   * one.
+   *
+   * @param managementDto The ResponseManagementDto containing response details.
+   * @param respondentId The ID of the respondent submitting the responses.
+   * @return A ResponseManagementResponseDto representing the result of the response recording
+   *     process.
+   */
+  private ResponseManagementResponseDto recordResponses(
       ResponseManagementDto managementDto, String respondentId) {
 
     String message = "Response recorded successfully";
+    String surveyId = managementDto.getSurveyId();
+    List<Response> responses = withGeneratedIds(managementDto.getResponses());
 
-    Optional<Survey> surveyExists = surveyRepository.findById(managementDto.getSurveyId());
-
-    if (surveyExists.isEmpty()) throw new NotFoundException(SURVEY_NOT_FOUND.getMessage());
-
-    Survey survey = surveyExists.get();
-
-    if (!(survey.isSent())) survey.setSent(true);
-
-    int responseCount = respondentRepository.countResponsesBySurveyId(survey.getId()) + 1;
-
-    if (responseCount == 0) {
-      responseCount = 1;
-    }
-
-    survey.setRespondentCount(responseCount);
-    surveyRepository.save(survey);
-
-    if (!survey.isActive())
-      throw new UnauthorizedException("This survey is no longer taking responses");
+    SubmissionDescriptor descriptor = surveyDescriptorService.getDescriptor(surveyId);
+    checkSubmission(descriptor, responses);
+    int lastBlockReached = Math.max(descriptor.getValidator().lastBlockOf(responses), 0);
+    boolean completesSurvey = lastBlockReached >= descriptor.getValidator().lastBlockIndex();
 
     if (respondentId != null) {
-      Optional<Respondent> respondentExists = respondentRepository.findById(respondentId);
+      Optional<Respondent> respondentExists =
+          responseIngestionService.append(
+              surveyId,
+              respondentId,
+              lastBlockReached,
+              responses,
+              descriptor.getValidator().blockQuestionIds(responses),
+              completesSurvey);
 
       if (respondentExists.isPresent())
         return ResponseManagementResponseDto.builder()
             .time(respondentExists.get().getCreatedDate().toString())
-            .respondentId(updateRespondent(respondentExists.get(), managementDto).getId())
+            .respondentId(respondentExists.get().getId())
             .message(message)
             .build();
     }
 
-    List<Response> responses = responseRepository.saveAll(managementDto.getResponses());
-    updateAnsweredAndSkipped(responses);
+    Date now = new Date();
+    Date startedAt = managementDto.getStartedAt();
+    ResponseSubmission submission =
+        ResponseSubmission.builder()
+            .respondentId(new ObjectId().toHexString())
+            .surveyId(surveyId)
+            .email(managementDto.getEmail())
+            .authenticatedUser(getAuthenticatedUser())
+            .createdDate(now)
+            .startedDate(startedAt != null && !startedAt.after(now) ? startedAt : null)
+            .submittedDate(completesSurvey ? now : null)
+            .lastBlockReached(lastBlockReached)
+            .responses(responses)
+            .build();
+
+    responseIngestionService.submit(submission);
+
+    return ResponseManagementResponseDto.builder()
+        .time(submission.getCreatedDate().toString())
+        .respondentId(submission.getRespondentId())
+        .message(message)
+        .build();
+  }
+
+  /**
+   * Saves the responses to a completed block of an existing respondent with a single update,
+   * replacing any responses saved for the block before, so each block costs one write regardless of
+   * how many blocks came before it.
+   *
+   * @param respondentId The ID of the respondent.
+   * @param blockResponseDto The responses to the block.
+   * @return A ResponseManagementResponseDto representing the result of the response recording
+   *     process.
+   * @throws NotFoundException If the survey or the respondent does not exist.
+   */
+  @Override
+  public ResponseManagementResponseDto saveBlock(
+      String respondentId, BlockResponseDto blockResponseDto) {
+    String surveyId = blockResponseDto.getSurveyId();
+    int blockIndex = blockResponseDto.getBlockIndex();
+    List<Response> responses = withGeneratedIds(blockResponseDto.getResponses());
+
+    SubmissionDescriptor descriptor = surveyDescriptorService.getDescriptor(surveyId);
+    checkTakingResponses(descriptor);
+    descriptor.getValidator().validate(responses, blockIndex);
+
+    Respondent respondent =
+        responseIngestionService
+            .append(
+                surveyId,
+                respondentId,
+                blockIndex,
+                responses,
+                descriptor.getValidator().blockQuestionIds(blockIndex),
+                blockIndex >= descriptor.getValidator().lastBlockIndex())
+            .orElseThrow(() -> new NotFoundException(RESPONDENT_NOT_FOUND.getMessage()));
 
-    Respondent respondent = returnCreatedRespondent(managementDto, responses);
     return ResponseManagementResponseDto.builder()
         .time(respondent.getCreatedDate().toString())
         .respondentId(respondent.getId())
-        .message(message)
+        .message("Block saved successfully")
         .build();
   }
 
+  /**
+   * Retrieves the analysis of a survey's responses. Analyses are cached under the survey's response
+   * version and questions for up to the cache's maximum age, so repeated requests between
+   * submissions cost a single read of the version, and a survey that received new responses is
+   * served its previous analysis while it is recomputed. Analyses of the respondents matching an
+   * answer filter are computed from the survey's answer index and are not cached.
+   *
+   * @param surveyId The ID of the survey.
+   * @param filter The answers the analysed respondents must have given.
+   * @return The analysis of the matching respondents' responses.
+   * @throws NotFoundException If the survey does not exist.
+   * @throws IllegalArgumentException If the filter refers to a question that is not a choice
+   *     question of the survey.
+   */
   @Override
-  public ResponseAnalysisDto getResponses(String surveyId) {
-    Optional<Survey> surveyExist = surveyRepository.findById(surveyId);
+  public ResponseAnalysisDto getResponses(String surveyId, AnswerFilter filter) {
+    SubmissionDescriptor descriptor = surveyDescriptorService.getDescriptor(surveyId);
 
-    if (surveyExist.isEmpty()) throw new NotFoundException(SURVEY_NOT_FOUND.getMessage());
+    if (!filter.isEmpty()) return computeFilteredResponses(surveyId, descriptor, filter);
+
+    AnalysisStamp stamp =
+        new AnalysisStamp(
+            responseVersionService.getVersion(surveyId),
+            descriptor.isActive(),
+            descriptor.getQuestions());
+
+    return analysisCacheService.getAnalysis(
+        surveyId, stamp, () -> computeResponses(surveyId, descriptor));
+  }
+
+  /**
+   * Computes the analysis of a survey's responses. The survey's questions come from its cached
+   * descriptor and everything else is computed by a single aggregation over its respondents, whose
+   * facets count the respondents, average their submission times and look up the question
+   * counters, option counts, text aggregates and completion time sketch. Text questions are
+   * summarised by their text aggregates alone, so no raw answer is read. The analyses of the
+   * questions, which decode the HyperLogLog registers of every text question, are built by the
+   * parallel analysis service.
+   * Individual respondents are served separately by {@link #getIndividualResults} and {@link
+   * #writeIndividualResults}.
+   *
+   * @param surveyId The ID of the survey.
+   * @param descriptor The submission descriptor of the survey.
+   * @return The analysis of the survey's responses.
+   */
+  private ResponseAnalysisDto computeResponses(String surveyId, SubmissionDescriptor descriptor) {
+    List<Question> questions = descriptor.getQuestions();
+
+    Aggregation aggregation =
+        Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("surveyId").is(surveyId)),
+                context -> new Document("$facet", analysisFacets(surveyId, questions)))
+            .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+    Document analysis =
+        Objects.requireNonNullElseGet(
+            mongoTemplate
+                .aggregate(aggregation, "respondent", Document.class)
+                .getUniqueMappedResult(),
+            Document::new);
+    MongoConverter converter = mongoTemplate.getConverter();
+
+    Document totals = first(analysis, "respondents");
+    Number averageCreatedDate = totals.get("averageCreatedDate", Number.class);
+
+    Map<String, Document> counters = new HashMap<>();
+    for (Document question : analysis.getList("questions", Document.class, List.of()))
+      counters.put(question.get("_id").toString(), question);
+
+    Map<String, Map<String, Long>> optionCounts = new HashMap<>();
+    for (Document aggregate : analysis.getList("optionCounts", Document.class, List.of())) {
+      Map<String, Long> counts = new HashMap<>();
+      aggregate
+          .get("counts", new Document())
+          .forEach(
+              (option, count) ->
+                  counts.put(QuestionAggregate.decodeOption(option), ((Number) count).longValue()));
+      optionCounts.put(aggregate.get("_id").toString(), counts);
+    }
 
-    Survey survey = surveyExist.get();
-    List<Question> questions =
-        survey.getBlocks().stream().flatMap(block -> block.getQuestions().stream()).toList();
+    Map<String, TextAggregate> textAggregates = new HashMap<>();
+    for (Document aggregate : analysis.getList("textAnalytics", Document.class, List.of()))
+      textAggregates.put(
+          aggregate.get("_id").toString(), converter.read(TextAggregate.class, aggregate));
 
     List<AllResponses> allResponses =
-        questions.stream()
-            .map(
-                question ->
-                    AllResponses.builder()
-                        .question(question.getTitle().getQuestion())
-                        .questionType(question.getType())
-                        .answered(question.getAnswered())
-                        .skipped(question.getSkipped())
-                        .responses(responseRepository.findAllByQuestionId(question.getId()))
-                        .options(question.getOptions())
-                        .build())
+        parallelAnalysisService.map(
+            questions,
+            question ->
+                toAllResponses(
+                    question,
+                    counters.getOrDefault(question.getId(), new Document()),
+                    Map.of(),
+                    optionCounts,
+                    textAggregates));
+
+    List<Document> sketches = analysis.getList("completionTime", Document.class, List.of());
+    CompletionTimeSketch sketch =
+        sketches.isEmpty() ? null : converter.read(CompletionTimeSketch.class, sketches.get(0));
+
+    return ResponseAnalysisDto.builder()
+        .completionTime(completionTimeService.summarise(sketch))
+        .averageTime(
+            averageCreatedDate == null
+                ? ""
+                : timeService.formatTime(new Date(averageCreatedDate.longValue())))
+        .responseCount(intValue(totals, "count"))
+        .active(descriptor.isActive())
+        .responses(allResponses)
+        .build();
+  }
+
+  /**
+   * Computes the analysis of the respondents of a survey matching an answer filter. The filter is
+   * evaluated against the survey's answer index, and the respondent, answered, skipped and option
+   * counts are intersections of the selection with the index's bitmaps, counted for several
+   * questions at once by the parallel analysis service. The responses to text questions are read
+   * for the most recently created selected respondents only. Text analytics and completion times
+   * are summarised for whole surveys, so they are left out.
+   *
+   * @param surveyId The ID of the survey.
+   * @param descriptor The submission descriptor of the survey.
+   * @param filter The answers the analysed respondents must have given.
+   * @return The analysis of the matching respondents' responses.
+   */
+  private ResponseAnalysisDto computeFilteredResponses(
+      String surveyId, SubmissionDescriptor descriptor, AnswerFilter filter) {
+    List<Question> questions = descriptor.getQuestions();
+    AnswerIndex index = answerIndexService.getIndex(surveyId);
+    OrdinalBitmap selection = index.select(filter);
+
+    double[] createdTotal = new double[1];
+    int[] createdCount = new int[1];
+    selection.forEach(
+        ordinal -> {
+          long created = index.createdMillis(ordinal);
+          if (created > 0) {
+            createdTotal[0] += created;
+            createdCount[0]++;
+          }
+        });
+
+    List<Object> respondentIds =
+        Arrays.stream(index.mostRecent(selection, textResponsesLimit))
+            .mapToObj(ordinal -> toObjectId(index.respondentId(ordinal)))
             .toList();
+    List<AggregationOperation> stages = new ArrayList<>();
+    stages.add(Aggregation.match(Criteria.where("_id").in(respondentIds)));
+    textResponsesStages(textQuestionIds(questions))
+        .forEach(stage -> stages.add(context -> stage));
+
+    Map<String, List<Response>> responsesByQuestion =
+        respondentIds.isEmpty()
+            ? Map.of()
+            : readTextResponses(
+                mongoTemplate
+                    .aggregate(Aggregation.newAggregation(stages), "respondent", Document.class)
+                    .getMappedResults());
 
-    List<Respondent> respondents = respondentRepository.findBySurveyId(surveyId);
+    List<AllResponses> allResponses =
+        parallelAnalysisService.map(
+            questions,
+            question ->
+                toAllResponses(
+                    question,
+                    new Document("answered", index.answered(selection, question.getId()))
+                        .append("skipped", index.skipped(selection, question.getId())),
+                    responsesByQuestion,
+                    isChoiceQuestion(question)
+                        ? Map.of(
+                            question.getId(), index.optionCounts(selection, question.getId()))
+                        : Map.of(),
+                    null));
 
     return ResponseAnalysisDto.builder()
-        .averageTime(timeService.calculateAverageTimeBySurveyId(surveyId))
-        .responseCount(respondents.size())
-        .active(survey.isActive())
+        .averageTime(
+            createdCount[0] == 0
+                ? ""
+                : timeService.formatTime(new Date((long) (createdTotal[0] / createdCount[0]))))
+        .responseCount(selection.cardinality())
+        .active(descriptor.isActive())
         .responses(allResponses)
-        .individualResults(respondents)
         .build();
   }
 
-  private void updateAnsweredAndSkipped(List<Response> responses) {
-    for (Response response : responses) {
-      Optional<Question> questionExist = questionRepository.findById(response.getQuestionId());
+  /**
+   * Retrieves a page of a survey's respondents in the order they were recorded, using the ID of the
+   * last respondent of the previous page as the cursor. Each page is a range scan of the
+   * survey and ID index, however deep into the results it is. With a filter, the IDs of the page
+   * are selected from the survey's answer index and read by ID.
+   *
+   * @param surveyId The ID of the survey.
+   * @param after The cursor returned with the previous page, or null for the first page.
+   * @param limit The maximum number of respondents in the page, capped at the maximum page size.
+   * @param filter The answers the respondents must have given.
+   * @return The page of respondents and the cursor of the next page, null on the last page.
+   * @throws NotFoundException If the survey does not exist.
+   * @throws IllegalArgumentException If the cursor, the limit or the filter is invalid.
+   */
+  @Override
+  public IndividualResultsPageDto getIndividualResults(
+      String surveyId, String after, int limit, AnswerFilter filter) {
+    surveyDescriptorService.getDescriptor(surveyId);
 
-      if (questionExist.isEmpty()) throw new NotFoundException(QUESTION_NOT_FOUND.getMessage());
+    if (limit < 1) throw new IllegalArgumentException("limit must be positive");
 
-      Question question = questionExist.get();
+    if (after != null && !ObjectId.isValid(after))
+      throw new IllegalArgumentException("Invalid individual results cursor");
 
-      if (response.getAnswer().isEmpty()
-          || response.getAnswer().stream().anyMatch(String::isBlank)) {
-        int skipped = question.getSkipped();
-        question.setSkipped(skipped + 1);
-        questionRepository.save(question);
-      }
+    int pageSize = Math.min(limit, maxPageSize);
+    ObjectId cursor = after == null ? null : new ObjectId(after);
+    Criteria criteria = Criteria.where("surveyId").is(surveyId);
 
-      if (!response.getAnswer().isEmpty()
-          && response.getAnswer().stream().noneMatch(String::isBlank)) {
-        int answered = question.getAnswered();
-        question.setAnswered(answered + 1);
-        questionRepository.save(question);
-      }
-    }
+    if (!filter.isEmpty())
+      criteria = criteria.and("_id").in(selectedIds(surveyId, filter, cursor, pageSize + 1));
+    else if (cursor != null) criteria = criteria.and("_id").gt(cursor);
+
+    List<Respondent> respondents =
+        mongoTemplate.find(
+            Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(pageSize + 1),
+            Respondent.class);
+
+    boolean hasMore = respondents.size() > pageSize;
+    List<Respondent> page = hasMore ? respondents.subList(0, pageSize) : respondents;
+
+    return IndividualResultsPageDto.builder()
+        .results(page)
+        .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+        .build();
   }
 
-  private Respondent updateRespondent(Respondent respondent, ResponseManagementDto managementDto) {
-    respondent.getResponses().addAll(managementDto.getResponses());
-    return respondentRepository.save(respondent);
+  /**
+   * Streams the respondents of a survey from a database cursor, so they are never all held in
+   * memory. With a filter, the IDs of the matching respondents are selected from the survey's
+   * answer index and read in batches, one cursor at a time. The stream must be closed to release
+   * the cursor.
+   *
+   * @param surveyId The ID of the survey.
+   * @param filter The answers the respondents must have given.
+   * @return The respondents in the order they were recorded.
+   * @throws NotFoundException If the survey does not exist.
+   * @throws IllegalArgumentException If the filter refers to a question that is not a choice
+   *     question of the survey.
+   */
+  @Override
+  public Stream<Respondent> streamIndividualResults(String surveyId, AnswerFilter filter) {
+    surveyDescriptorService.getDescriptor(surveyId);
+    Criteria criteria = Criteria.where("surveyId").is(surveyId);
+    Sort byId = Sort.by(Sort.Direction.ASC, "_id");
+
+    if (filter.isEmpty())
+      return mongoTemplate.stream(Query.query(criteria).with(byId), Respondent.class);
+
+    return Lists.partition(selectedIds(surveyId, filter, null, Integer.MAX_VALUE), ID_BATCH_SIZE)
+        .stream()
+        .flatMap(
+            ids ->
+                mongoTemplate.stream(
+                    Query.query(Criteria.where("surveyId").is(surveyId).and("_id").in(ids))
+                        .with(byId),
+                    Respondent.class));
   }
 
   /**
-   * Returns a newly created Respondent based on the provided details in the request.
+   * Counts the respondents of a survey, from its answer index with a filter.
    *
-   * @param request The ResponseManagementDto containing request details.
-   * @param responses The list of responses associated with the respondent.
-   * @return The newly created Respondent.
+   * @param surveyId The ID of the survey.
+   * @param filter The answers the respondents must have given.
+   * @return The number of matching respondents.
+   * @throws IllegalArgumentException If the filter refers to a question that is not a choice
+   *     question of the survey.
    */
-  private Respondent returnCreatedRespondent(
-      ResponseManagementDto request, List<Response> responses) {
-    Optional<String> platformUser = isPlatformUser(request);
+  @Override
+  public long countIndividualResults(String surveyId, AnswerFilter filter) {
+    if (!filter.isEmpty())
+      return answerIndexService.getIndex(surveyId).select(filter).cardinality();
 
-    return platformUser
-        .map(s -> createRespondent(s, request.getSurveyId(), false, responses))
-        .orElseGet(() -> createRespondent(responses, request.getSurveyId()));
+    return mongoTemplate.count(
+        Query.query(Criteria.where("surveyId").is(surveyId)), Respondent.class);
   }
 
   /**
-   * Creates a new Respondent with anonymous status and the provided list of responses.
+   * Writes streamed respondents as newline-delimited JSON, one respondent per line, as they are
+   * read from the database cursor, and closes the stream.
    *
-   * @param responses The list of responses associated with the respondent.
-   * @return The newly created Respondent.
+   * @param respondents The respondents, as returned by {@link #streamIndividualResults}.
+   * @param outputStream The stream to write to.
+   * @throws IOException If writing fails.
    */
-  private Respondent createRespondent(List<Response> responses, String surveyId) {
-    return createRespondent(null, surveyId, true, responses);
+  @Override
+  public void writeIndividualResults(Stream<Respondent> respondents, OutputStream outputStream)
+      throws IOException {
+    try (respondents) {
+      Iterator<Respondent> iterator = respondents.iterator();
+
+      while (iterator.hasNext()) {
+        outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+        outputStream.write('\n');
+      }
+    }
+
+    outputStream.flush();
   }
 
   /**
-   * Creates a new Respondent with the provided email, anonymous status, and list of responses.
+   * Selects the IDs of the respondents of a survey matching a filter from its answer index, keeping
+   * the lowest in a max-heap so a page does not sort the whole selection.
    *
-   * @param email The email of the respondent.
-   * @param isAnonymous The anonymous status of the respondent.
-   * @param responses The list of responses associated with the respondent.
-   * @return The newly created Respondent.
+   * @param surveyId The ID of the survey.
+   * @param filter The filter.
+   * @param after The ID the selected IDs must be greater than, or null.
+   * @param limit The maximum number of IDs.
+   * @return Up to limit IDs, in ascending order.
    */
-  private Respondent createRespondent(
-      String email, String surveyId, boolean isAnonymous, List<Response> responses) {
-    Respondent respondent =
-        Respondent.builder()
-            .email(email)
-            .isAnonymous(isAnonymous)
-            .responses(responses)
-            .surveyId(surveyId)
-            .build();
+  private List<ObjectId> selectedIds(
+      String surveyId, AnswerFilter filter, ObjectId after, int limit) {
+    AnswerIndex index = answerIndexService.getIndex(surveyId);
+    PriorityQueue<ObjectId> highestFirst = new PriorityQueue<>(Comparator.reverseOrder());
+
+    index
+        .select(filter)
+        .forEach(
+            ordinal -> {
+              String id = index.respondentId(ordinal);
+              if (!ObjectId.isValid(id)) return;
+
+              ObjectId objectId = new ObjectId(id);
+              if (after != null && objectId.compareTo(after) <= 0) return;
+
+              highestFirst.add(objectId);
+              if (highestFirst.size() > limit) highestFirst.poll();
+            });
+
+    List<ObjectId> ids = new ArrayList<>(highestFirst);
+    Collections.sort(ids);
+    return ids;
+  }
 
-    return respondentRepository.save(respondent);
+  /** Creates the index that individual results are paged and streamed through. */
+  @PostConstruct
+  public void ensureIndividualResultsIndex() {
+    mongoTemplate
+        .indexOps(Respondent.class)
+        .ensureIndex(new Index().on("surveyId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC));
   }
 
   /**
-   * Determines if the user submitting the response is a platform user based on the provided email.
-   * If the email is not provided, it checks if the authenticated user is a platform user.
+   * Builds the facets of the analysis aggregation.
    *
-   * @param managementDto The ResponseManagementDto containing request details.
-   * @return An Optional containing the email of the platform user if found, or empty if not a
-   *     platform user.
+   * @param surveyId The ID of the survey.
+   * @param questions The questions of the survey.
+   * @return The facets, keyed by output field.
    */
-  private Optional<String> isPlatformUser(ResponseManagementDto managementDto) {
-    String email = managementDto.getEmail();
+  private Document analysisFacets(String surveyId, List<Question> questions) {
+    List<Object> questionIds =
+        questions.stream().map(question -> toObjectId(question.getId())).toList();
+
+    return new Document(
+            "respondents",
+            List.of(
+                new Document(
+                    "$group",
+                    new Document("_id", null)
+                        .append("count", new Document("$sum", 1))
+                        .append(
+                            "averageCreatedDate",
+                            new Document("$avg", new Document("$toLong", "$createdDate"))))))
+        .append(
+            "questions",
+            lookup(
+                "question",
+                new Document("_id", new Document("$in", questionIds)),
+                new Document("answered", 1).append("skipped", 1)))
+        .append(
+            "optionCounts",
+            lookup(
+                "question_aggregate",
+                new Document("surveyId", surveyId),
+                new Document("counts", 1)))
+        .append(
+            "textAnalytics",
+            lookup(
+                "text_aggregate",
+                new Document("surveyId", surveyId),
+                new Document("answers", 1)
+                    .append("registers", 1)
+                    .append("topTerms", 1)
+                    .append("topPhrases", 1)))
+        .append(
+            "completionTime",
+            lookup(
+                "completion_time_sketch",
+                new Document("_id", toObjectId(surveyId)),
+                new Document("count", 1).append("totalMillis", 1).append("buckets", 1)));
+  }
 
-    if (email != null) {
-      Optional<User> userExists = userRepository.findByEmail(email);
+  /**
+   * Builds the stages that collect the most recent responses to each text question of the
+   * respondents they are applied to. $topN keeps only the limit per question while grouping, so
+   * the group never holds every text answer of a large survey.
+   */
+  private List<Document> textResponsesStages(List<String> textQuestionIds) {
+    return List.of(
+        new Document("$unwind", "$responses"),
+        new Document(
+            "$match", new Document("responses.questionId", new Document("$in", textQuestionIds))),
+        new Document(
+            "$group",
+            new Document("_id", "$responses.questionId")
+                .append(
+                    "responses",
+                    new Document(
+                        "$topN",
+                        new Document("n", textResponsesLimit)
+                            .append("sortBy", new Document("createdDate", -1))
+                            .append("output", "$responses")))));
+  }
 
-      if (userExists.isEmpty()
-          && SecurityContextHolder.getContext().getAuthentication().isAuthenticated()) {
-        String isAuthenticatedUser = getAuthenticatedUser();
+  /** Reads the responses grouped by {@link #textResponsesStages}, keyed by question ID. */
+  private Map<String, List<Response>> readTextResponses(List<Document> groups) {
+    MongoConverter converter = mongoTemplate.getConverter();
+    Map<String, List<Response>> responsesByQuestion = new HashMap<>();
 
-        if (isAuthenticatedUser != null) return isAuthenticatedUser.describeConstable();
-      }
-      return userExists
-          .map(user -> user.getEmail().describeConstable())
-          .orElseGet(email::describeConstable);
+    for (Document group : groups)
+      responsesByQuestion.put(
+          group.getString("_id"),
+          group.getList("responses", Document.class, List.of()).stream()
+              .map(response -> converter.read(Response.class, response))
+              .toList());
 
-    } else {
-      String isAuthenticatedUser = getAuthenticatedUser();
+    return responsesByQuestion;
+  }
 
-      if (isAuthenticatedUser != null) return isAuthenticatedUser.describeConstable();
-    }
+  private List<String> textQuestionIds(List<Question> questions) {
+    return questions.stream()
+        .filter(question -> !isChoiceQuestion(question))
+        .map(Question::getId)
+        .toList();
+  }
+
+  /**
+   * Builds a facet that looks up documents of another collection once, independent of how many
+   * respondents the survey has.
+   */
+  private static List<Document> lookup(String collection, Document filter, Document projection) {
+    return List.of(
+        new Document("$limit", 1),
+        new Document(
+            "$lookup",
+            new Document("from", collection)
+                .append(
+                    "pipeline",
+                    List.of(new Document("$match", filter), new Document("$project", projection)))
+                .append("as", "documents")),
+        new Document("$unwind", "$documents"),
+        new Document("$replaceRoot", new Document("newRoot", "$documents")));
+  }
+
+  private static Document first(Document analysis, String facet) {
+    List<Document> results = analysis.getList(facet, Document.class, List.of());
+    return results.isEmpty() ? new Document() : results.get(0);
+  }
+
+  /**
+   * Reads a count that may be stored as an Int32 or an Int64, since counters incremented by a long
+   * amount are widened to Int64.
+   */
+  private static int intValue(Document document, String key) {
+    return ((Number) document.getOrDefault(key, 0)).intValue();
+  }
+
+  private static Object toObjectId(String id) {
+    return ObjectId.isValid(id) ? new ObjectId(id) : id;
+  }
+
+  /**
+   * Builds the analysis of a question. Choice questions are summarised by their option counts,
+   * other questions are summarised by their text analytics or, for a filtered analysis, list the
+   * most recent responses of the selected respondents.
+   *
+   * @param question The question.
+   * @param counters The question's answered and skipped counters.
+   * @param responsesByQuestion The responses to list, keyed by question ID.
+   * @param optionCounts The option counts of the survey's choice questions, keyed by question ID.
+   * @param textAggregates The text aggregates of the survey's text questions, keyed by question ID,
+   *     or null to leave text analytics out.
+   * @return The analysis of the question.
+   */
+  private AllResponses toAllResponses(
+      Question question,
+      Document counters,
+      Map<String, List<Response>> responsesByQuestion,
+      Map<String, Map<String, Long>> optionCounts,
+      Map<String, TextAggregate> textAggregates) {
+    AllResponses.AllResponsesBuilder builder =
+        AllResponses.builder()
+            .question(question.getTitle().getQuestion())
+            .questionType(question.getType())
+            .answered(intValue(counters, "answered"))
+            .skipped(intValue(counters, "skipped"))
+            .options(question.getOptions());
+
+    if (!isChoiceQuestion(question))
+      return builder
+          .responses(responsesByQuestion.getOrDefault(question.getId(), List.of()))
+          .textAnalytics(
+              textAggregates == null
+                  ? null
+                  : textAnalyticsService.summarise(textAggregates.get(question.getId())))
+          .build();
+
+    return builder
+        .responses(List.of())
+        .optionCounts(
+            orderedOptionCounts(question, optionCounts.getOrDefault(question.getId(), Map.of())))
+        .build();
+  }
+
+  private boolean isChoiceQuestion(Question question) {
+    return SubmissionValidator.isChoiceType(question.getType());
+  }
+
+  /**
+   * Orders the answer counts of a choice question by its options, followed by answers that are no
+   * longer among the options.
+   *
+   * @param question The choice question.
+   * @param counts The answer counts of the question, keyed by option text.
+   * @return The counts of every option, zero for options nobody chose.
+   */
+  private Map<String, Long> orderedOptionCounts(Question question, Map<String, Long> counts) {
+    Map<String, Long> ordered = new LinkedHashMap<>();
+    question.getOptions().forEach(option -> ordered.put(option, counts.getOrDefault(option, 0L)));
+    counts.forEach(ordered::putIfAbsent);
+    return ordered;
+  }
+
+  /**
+   * Checks a submission against the cached descriptor of its survey, without reading the database.
+   *
+   * @param descriptor The submission descriptor of the survey.
+   * @param responses The submitted responses.
+   * @throws NotFoundException If the survey has been deleted or a response answers a question that
+   *     is not part of it.
+   * @throws UnauthorizedException If the survey is no longer taking responses.
+   * @throws InvalidResponseException If the responses break the rules of the survey's questions.
+   */
+  private void checkSubmission(SubmissionDescriptor descriptor, List<Response> responses) {
+    checkTakingResponses(descriptor);
+    descriptor.getValidator().validate(responses);
+  }
+
+  /**
+   * Checks that a survey is taking responses, using its cached descriptor.
+   *
+   * @param descriptor The submission descriptor of the survey.
+   * @throws NotFoundException If the survey has been deleted.
+   * @throws UnauthorizedException If the survey is no longer taking responses.
+   */
+  private void checkTakingResponses(SubmissionDescriptor descriptor) {
+    if (descriptor.isDeleted()) throw new NotFoundException(SURVEY_NOT_FOUND.getMessage());
+
+    if (!descriptor.isActive()) throw new UnauthorizedException(NOT_TAKING_RESPONSES);
+  }
+
+  /**
+   * Assigns new IDs to the responses of a submission, so the submission can be replayed without
+   * creating duplicates.
+   *
+   * @param responses The submitted responses, possibly null.
+   * @return The responses with newly generated IDs.
+   */
+  private List<Response> withGeneratedIds(List<Response> responses) {
+    if (responses == null) return new ArrayList<>();
 
-    return Optional.empty();
+    responses.forEach(response -> response.setId(new ObjectId().toHexString()));
+    return responses;
   }
 
   /**
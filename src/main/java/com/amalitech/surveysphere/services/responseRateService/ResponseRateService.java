@@ -0,0 +1,36 @@
+package com.amalitech.surveysphere.services.responseRateService;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseRateSeriesDto;
+import com.amalitech.surveysphere.enums.TimeResolution;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/** Interface for recording and reading when a survey's respondents arrived. */
+public interface ResponseRateService {
+
+  /**
+   * Builds the increments that record a respondent arriving at a survey.
+   *
+   * @param surveyId The ID of the survey.
+   * @param arrivedAt When the respondent's submission was received.
+   * @return The increments of the day, hour and minute buckets.
+   */
+  List<CounterDelta> arrivalDeltas(String surveyId, Date arrivedAt);
+
+  /**
+   * Retrieves the number of respondents a survey received per bucket of a time range.
+   *
+   * @param surveyId The ID of the survey.
+   * @param from The start of the range, rounded down to the resolution, or null for a default
+   *     number of buckets before the end.
+   * @param to The end of the range, exclusive, or null for now.
+   * @param resolution The width of the buckets.
+   * @param filter The answers the counted respondents must have given.
+   * @return One point per bucket of the range, including empty buckets.
+   */
+  ResponseRateSeriesDto getSeries(
+      String surveyId, Instant from, Instant to, TimeResolution resolution, AnswerFilter filter);
+}
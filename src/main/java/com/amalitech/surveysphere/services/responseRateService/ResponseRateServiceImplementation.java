@@ -0,0 +1,218 @@
+package com.amalitech.surveysphere.services.responseRateService;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseRateSeriesDto;
+import com.amalitech.surveysphere.enums.TimeResolution;
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.ResponseRate;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndex;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndexService;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of ResponseRateService. Each survey has one document per UTC day holding its day
+ * total and its hour and minute buckets. Every respondent increments its day, hour and minute
+ * through the counter service with upserts, so the first respondent of a day creates the document
+ * and the ingest path never writes to the database on its own. A series is read from the documents
+ * of the days it covers, projected to the buckets of the requested resolution, so it never touches
+ * the respondents. The series of the respondents matching an answer filter is counted from the
+ * creation times held by the survey's answer index.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResponseRateServiceImplementation implements ResponseRateService {
+  private final MongoTemplate mongoTemplate;
+  private final SurveyDescriptorService surveyDescriptorService;
+  private final AnswerIndexService answerIndexService;
+
+  @Value("${analysis.response-rate.max-points:2000}")
+  private int maxPoints;
+
+  @Value("${analysis.response-rate.default-points:60}")
+  private int defaultPoints;
+
+  /**
+   * Builds the increments that record a respondent arriving at a survey. They create the survey's
+   * document for the day if it does not exist yet.
+   *
+   * @param surveyId The ID of the survey.
+   * @param arrivedAt When the respondent's submission was received.
+   * @return The increments of the day, hour and minute buckets.
+   */
+  @Override
+  public List<CounterDelta> arrivalDeltas(String surveyId, Date arrivedAt) {
+    if (surveyId == null || arrivedAt == null) return List.of();
+
+    ZonedDateTime time = arrivedAt.toInstant().atZone(ZoneOffset.UTC);
+    String id = ResponseRate.idOf(surveyId, time.toLocalDate());
+
+    return List.of(
+        new CounterDelta(surveyId, ResponseRate.class, id, "total", 1, true),
+        new CounterDelta(surveyId, ResponseRate.class, id, "hours." + time.getHour(), 1, true),
+        new CounterDelta(
+            surveyId,
+            ResponseRate.class,
+            id,
+            "minutes." + (time.getHour() * 60 + time.getMinute()),
+            1,
+            true));
+  }
+
+  /**
+   * Retrieves the number of respondents a survey received per bucket of a time range.
+   *
+   * @param surveyId The ID of the survey.
+   * @param from The start of the range, rounded down to the resolution, or null for a default
+   *     number of buckets before the end.
+   * @param to The end of the range, exclusive, or null for now.
+   * @param resolution The width of the buckets.
+   * @param filter The answers the counted respondents must have given.
+   * @return One point per bucket of the range, including empty buckets.
+   * @throws NotFoundException If the survey does not exist.
+   * @throws IllegalArgumentException If the range is empty or has too many buckets, or the filter
+   *     refers to a question that is not a choice question of the survey.
+   */
+  @Override
+  public ResponseRateSeriesDto getSeries(
+      String surveyId,
+      Instant from,
+      Instant to,
+      TimeResolution resolution,
+      AnswerFilter filter) {
+    surveyDescriptorService.getDescriptor(surveyId);
+
+    ChronoUnit unit = resolution.getUnit();
+    Instant end = to == null ? Instant.now() : to;
+    Instant start =
+        (from == null ? end.minus(unit.getDuration().multipliedBy(defaultPoints)) : from)
+            .truncatedTo(unit);
+
+    if (!start.isBefore(end)) throw new IllegalArgumentException("from must be before to");
+
+    long bucketMillis = unit.getDuration().toMillis();
+    long points = (Duration.between(start, end).toMillis() - 1) / bucketMillis + 1;
+
+    if (points > maxPoints)
+      throw new IllegalArgumentException(
+          "The range has more than " + maxPoints + " points at this resolution");
+
+    long[] counts = new long[(int) points];
+
+    if (!filter.isEmpty()) {
+      addSelected(counts, start, end, bucketMillis, answerIndexService.getIndex(surveyId), filter);
+      return toSeries(counts, start, end, resolution);
+    }
+
+    for (ResponseRate day : readDays(surveyId, start, end, resolution)) {
+      Instant dayStart = day.day().atStartOfDay(ZoneOffset.UTC).toInstant();
+
+      switch (resolution) {
+        case DAY -> add(counts, start, end, unit, dayStart, day.getTotal());
+        case HOUR -> addBuckets(counts, start, end, unit, dayStart, day.getHours());
+        case MINUTE -> addBuckets(counts, start, end, unit, dayStart, day.getMinutes());
+      }
+    }
+
+    return toSeries(counts, start, end, resolution);
+  }
+
+  private static ResponseRateSeriesDto toSeries(
+      long[] counts, Instant start, Instant end, TimeResolution resolution) {
+    ChronoUnit unit = resolution.getUnit();
+    List<ResponseRateSeriesDto.Point> series = new ArrayList<>(counts.length);
+    long total = 0;
+
+    for (int index = 0; index < counts.length; index++) {
+      Date time = Date.from(start.plus(index, unit));
+      series.add(new ResponseRateSeriesDto.Point(time, counts[index]));
+      total += counts[index];
+    }
+
+    return ResponseRateSeriesDto.builder()
+        .resolution(resolution)
+        .from(Date.from(start))
+        .to(Date.from(end))
+        .total(total)
+        .points(series)
+        .build();
+  }
+
+  /** Reads the documents of the days a range covers, with only the buckets of the resolution. */
+  private List<ResponseRate> readDays(
+      String surveyId, Instant start, Instant end, TimeResolution resolution) {
+    LocalDate firstDay = LocalDate.ofInstant(start, ZoneOffset.UTC);
+    LocalDate lastDay = LocalDate.ofInstant(end.minusMillis(1), ZoneOffset.UTC);
+
+    Query query =
+        Query.query(
+            Criteria.where("_id")
+                .gte(ResponseRate.idOf(surveyId, firstDay))
+                .lte(ResponseRate.idOf(surveyId, lastDay)));
+    query
+        .fields()
+        .include(
+            switch (resolution) {
+              case DAY -> "total";
+              case HOUR -> "hours";
+              case MINUTE -> "minutes";
+            });
+
+    return mongoTemplate.find(query, ResponseRate.class);
+  }
+
+  /** Counts the respondents matching a filter by the bucket of their creation time. */
+  private static void addSelected(
+      long[] counts,
+      Instant start,
+      Instant end,
+      long bucketMillis,
+      AnswerIndex index,
+      AnswerFilter filter) {
+    long startMillis = start.toEpochMilli();
+    long endMillis = end.toEpochMilli();
+
+    index
+        .select(filter)
+        .forEach(
+            ordinal -> {
+              long created = index.createdMillis(ordinal);
+              if (created >= startMillis && created < endMillis)
+                counts[(int) ((created - startMillis) / bucketMillis)]++;
+            });
+  }
+
+  private static void addBuckets(
+      long[] counts,
+      Instant start,
+      Instant end,
+      ChronoUnit unit,
+      Instant dayStart,
+      Map<String, Long> buckets) {
+    if (buckets == null) return;
+
+    buckets.forEach(
+        (bucket, count) ->
+            add(counts, start, end, unit, dayStart.plus(Integer.parseInt(bucket), unit), count));
+  }
+
+  private static void add(
+      long[] counts, Instant start, Instant end, ChronoUnit unit, Instant time, long count) {
+    if (count == 0 || time.isBefore(start) || !time.isBefore(end)) return;
+
+    counts[(int) (Duration.between(start, time).toMillis() / unit.getDuration().toMillis())] +=
+        count;
+  }
+}
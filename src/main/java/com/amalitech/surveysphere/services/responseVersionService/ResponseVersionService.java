@@ -0,0 +1,26 @@
+package com.amalitech.surveysphere.services.responseVersionService;
+
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+
+/**
+ * Interface for the version of a survey's responses, which identifies the responses that results
+ * derived from them were computed from.
+ */
+public interface ResponseVersionService {
+
+  /**
+   * Builds the increment that bumps the response version of a survey after ingesting responses.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The increment of the survey's response version.
+   */
+  CounterDelta bump(String surveyId);
+
+  /**
+   * Retrieves the current response version of a survey.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The response version, 0 if the survey has no responses.
+   */
+  long getVersion(String surveyId);
+}
@@ -0,0 +1,46 @@
+package com.amalitech.surveysphere.services.responseVersionService;
+
+import com.amalitech.surveysphere.models.ResponseVersion;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of ResponseVersionService. Versions are bumped through the counter service
+ * together with the other counters of an ingested batch, so they are only raised once the
+ * respondents of the batch have been written and a reader never sees a version ahead of the data.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResponseVersionServiceImplementation implements ResponseVersionService {
+  private final MongoTemplate mongoTemplate;
+
+  /**
+   * Builds the increment that bumps the response version of a survey after ingesting responses.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The increment of the survey's response version.
+   */
+  @Override
+  public CounterDelta bump(String surveyId) {
+    return new CounterDelta(surveyId, ResponseVersion.class, surveyId, "version", 1, true);
+  }
+
+  /**
+   * Retrieves the current response version of a survey.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The response version, 0 if the survey has no responses.
+   */
+  @Override
+  public long getVersion(String surveyId) {
+    Query query = Query.query(Criteria.where("_id").is(surveyId));
+    query.fields().include("version");
+    ResponseVersion version = mongoTemplate.findOne(query, ResponseVersion.class);
+
+    return version == null ? 0 : version.getVersion();
+  }
+}
@@ -0,0 +1,257 @@
+package com.amalitech.surveysphere.services.snapshotService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read-only, memory-mapped columnar snapshot of the answers of a survey's respondents to its choice
+ * questions. A snapshot is a list of immutable segment files, each holding a block of respondents
+ * sorted by ID as columns: their IDs and modification times, and per question a dictionary of
+ * options followed by the offsets of each respondent's dictionary-encoded option codes.
+ * Respondents that were rewritten by a later segment are masked by a tombstone bitset. Scans read
+ * the mapped pages directly and allocate nothing per respondent.
+ */
+public final class ResponseSnapshot {
+  static final int MAGIC = 0x53534332;
+  static final int ID_SIZE = 12;
+
+  private final List<String> questionIds;
+  private final List<Segment> segments;
+
+  private ResponseSnapshot(List<String> questionIds, List<Segment> segments) {
+    this.questionIds = questionIds;
+    this.segments = segments;
+  }
+
+  /**
+   * Maps the segments of a snapshot.
+   *
+   * @param directory The directory of the snapshot.
+   * @param manifest The manifest listing the snapshot's segments.
+   * @return The snapshot.
+   * @throws IOException If a segment cannot be mapped or is not a snapshot segment.
+   */
+  static ResponseSnapshot open(Path directory, SnapshotManifest manifest) throws IOException {
+    List<Segment> segments = new ArrayList<>(manifest.segments().size());
+
+    for (String name : manifest.segments())
+      segments.add(Segment.open(directory, name, manifest.questionIds().size()));
+
+    return new ResponseSnapshot(List.copyOf(manifest.questionIds()), List.copyOf(segments));
+  }
+
+  /** Returns the IDs of the questions the snapshot has columns for, in survey order. */
+  public List<String> questionIds() {
+    return questionIds;
+  }
+
+  public int segmentCount() {
+    return segments.size();
+  }
+
+  public int rowCount(int segment) {
+    return segments.get(segment).rows;
+  }
+
+  /** Returns whether a row holds the current state of its respondent. */
+  public boolean isLive(int segment, int row) {
+    long[] tombstones = segments.get(segment).tombstones;
+    return (tombstones[row >>> 6] & (1L << row)) == 0;
+  }
+
+  /**
+   * Finds the row of a respondent in a segment by binary search over its sorted IDs.
+   *
+   * @param segment The index of the segment.
+   * @param id The 12 bytes of the respondent's ObjectId.
+   * @return The row, or -1 if the segment does not hold the respondent.
+   */
+  int find(int segment, byte[] id) {
+    Segment view = segments.get(segment);
+    int low = 0;
+    int high = view.rows - 1;
+
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = view.compareId(middle, id);
+
+      if (comparison < 0) low = middle + 1;
+      else if (comparison > 0) high = middle - 1;
+      else return middle;
+    }
+
+    return -1;
+  }
+
+  long[] tombstones(int segment) {
+    return segments.get(segment).tombstones.clone();
+  }
+
+  long modified(int segment, int row) {
+    Segment view = segments.get(segment);
+    return view.buffer.getLong(view.modifiedAt + row * Long.BYTES);
+  }
+
+  /**
+   * Returns the column of a question in a segment.
+   *
+   * @param segment The index of the segment.
+   * @param questionId The ID of the question.
+   * @return The column, or null if the snapshot has no column for the question.
+   */
+  public Column column(int segment, String questionId) {
+    return segments.get(segment).columns.get(questionId);
+  }
+
+  /** The mapped column of one question in one segment. */
+  public static final class Column {
+    private final ByteBuffer buffer;
+    private final List<String> dictionary;
+    private final int offsetsAt;
+    private final int codesAt;
+
+    private Column(ByteBuffer buffer, List<String> dictionary, int offsetsAt, int codesAt) {
+      this.buffer = buffer;
+      this.dictionary = dictionary;
+      this.offsetsAt = offsetsAt;
+      this.codesAt = codesAt;
+    }
+
+    /** Returns the options the codes of the column refer to. */
+    public List<String> dictionary() {
+      return dictionary;
+    }
+
+    /** Returns the index of a row's first code. */
+    public int start(int row) {
+      return buffer.getInt(offsetsAt + row * Integer.BYTES);
+    }
+
+    /** Returns the index after a row's last code. */
+    public int end(int row) {
+      return buffer.getInt(offsetsAt + (row + 1) * Integer.BYTES);
+    }
+
+    public int code(int index) {
+      return buffer.getInt(codesAt + index * Integer.BYTES);
+    }
+  }
+
+  /** A mapped segment file and the positions of its columns. */
+  private static final class Segment {
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int idsAt;
+    private final int modifiedAt;
+    private final Map<String, Column> columns;
+    private final long[] tombstones;
+
+    private Segment(
+        ByteBuffer buffer,
+        int rows,
+        int idsAt,
+        int modifiedAt,
+        Map<String, Column> columns,
+        long[] tombstones) {
+      this.buffer = buffer;
+      this.rows = rows;
+      this.idsAt = idsAt;
+      this.modifiedAt = modifiedAt;
+      this.columns = columns;
+      this.tombstones = tombstones;
+    }
+
+    /** Compares the ID of a row with an ID byte by byte, unsigned, as ObjectIds are ordered. */
+    int compareId(int row, byte[] id) {
+      int at = idsAt + row * ID_SIZE;
+
+      for (int index = 0; index < ID_SIZE; index++) {
+        int comparison =
+            Integer.compare(
+                Byte.toUnsignedInt(buffer.get(at + index)), Byte.toUnsignedInt(id[index]));
+        if (comparison != 0) return comparison;
+      }
+
+      return 0;
+    }
+
+    static Segment open(Path directory, String name, int expectedColumns) throws IOException {
+      ByteBuffer buffer;
+      try (FileChannel channel =
+          FileChannel.open(directory.resolve(name), StandardOpenOption.READ)) {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+
+      if (buffer.getInt(0) != MAGIC) throw new IOException(name + " is not a snapshot segment");
+
+      int rows = buffer.getInt(4);
+      int columnCount = buffer.getInt(8);
+
+      if (columnCount != expectedColumns)
+        throw new IOException(name + " does not match the snapshot's questions");
+
+      int position = 12;
+      int idsAt = position;
+      position += rows * ID_SIZE;
+      int modifiedAt = position;
+      position += rows * Long.BYTES;
+
+      Map<String, Column> columns = new HashMap<>();
+
+      for (int index = 0; index < columnCount; index++) {
+        int idLength = buffer.getInt(position);
+        byte[] id = new byte[idLength];
+        buffer.get(position + Integer.BYTES, id);
+        position += Integer.BYTES + idLength;
+
+        int size = buffer.getInt(position);
+        position += Integer.BYTES;
+        String[] options = new String[size];
+
+        for (int code = 0; code < size; code++) {
+          byte[] option = new byte[buffer.getInt(position)];
+          buffer.get(position + Integer.BYTES, option);
+          position += Integer.BYTES + option.length;
+          options[code] = new String(option, StandardCharsets.UTF_8);
+        }
+
+        int offsetsAt = position;
+        int codes = buffer.getInt(offsetsAt + rows * Integer.BYTES);
+        position += (rows + 1) * Integer.BYTES;
+        int codesAt = position;
+        position += codes * Integer.BYTES;
+
+        columns.put(
+            new String(id, StandardCharsets.UTF_8),
+            new Column(buffer, List.of(options), offsetsAt, codesAt));
+      }
+
+      long[] tombstones = readTombstones(directory, name, rows);
+      return new Segment(buffer, rows, idsAt, modifiedAt, Map.copyOf(columns), tombstones);
+    }
+  }
+
+  static int words(int rows) {
+    return (rows + 63) >>> 6;
+  }
+
+  static Path tombstonePath(Path directory, String segment) {
+    return directory.resolve(segment + ".del");
+  }
+
+  private static long[] readTombstones(Path directory, String name, int rows) throws IOException {
+    long[] tombstones = new long[words(rows)];
+    Path path = tombstonePath(directory, name);
+
+    if (Files.exists(path))
+      ByteBuffer.wrap(Files.readAllBytes(path)).asLongBuffer().get(tombstones);
+
+    return tombstones;
+  }
+}
@@ -0,0 +1,11 @@
+package com.amalitech.surveysphere.services.snapshotService;
+
+import java.util.List;
+
+/**
+ * Describes the current state of a survey's snapshot: the questions it has columns for, its
+ * segments in write order, the latest respondent modification time it includes and the number of
+ * the next segment to write.
+ */
+record SnapshotManifest(
+    List<String> questionIds, List<String> segments, long watermark, long nextSegment) {}
@@ -0,0 +1,103 @@
+package com.amalitech.surveysphere.services.snapshotService;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Response;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import org.bson.types.ObjectId;
+
+/**
+ * Writes a block of respondents as a snapshot segment in the layout read by {@link
+ * ResponseSnapshot}. The segment is written to a temporary file and moved into place, so readers
+ * never map a partial segment.
+ */
+final class SnapshotSegmentWriter {
+
+  /** A respondent to write: its ID, modification time and responses. */
+  record Row(ObjectId id, long modified, List<Response> responses) {}
+
+  private SnapshotSegmentWriter() {}
+
+  /**
+   * Writes a segment.
+   *
+   * @param file The path of the segment.
+   * @param questions The choice questions to write columns for, in survey order.
+   * @param rows The respondents, sorted by ID.
+   * @throws IOException If the segment cannot be written.
+   */
+  static void write(Path file, List<Question> questions, List<Row> rows) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+    try (DataOutputStream output =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      output.writeInt(ResponseSnapshot.MAGIC);
+      output.writeInt(rows.size());
+      output.writeInt(questions.size());
+
+      for (Row row : rows) output.write(row.id().toByteArray());
+      for (Row row : rows) output.writeLong(row.modified());
+
+      List<Map<String, Response>> responsesByRow = new ArrayList<>(rows.size());
+      for (Row row : rows) {
+        Map<String, Response> responses = new HashMap<>();
+        if (row.responses() != null)
+          for (Response response : row.responses())
+            if (response.getQuestionId() != null) responses.put(response.getQuestionId(), response);
+        responsesByRow.add(responses);
+      }
+
+      for (Question question : questions) writeColumn(output, question, responsesByRow);
+    }
+
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void writeColumn(
+      DataOutputStream output, Question question, List<Map<String, Response>> responsesByRow)
+      throws IOException {
+    int rows = responsesByRow.size();
+    int[] offsets = new int[rows + 1];
+    Map<String, Integer> dictionary = new LinkedHashMap<>();
+    int[] codes = new int[rows];
+    int codeCount = 0;
+
+    if (question.getOptions() != null)
+      for (String option : question.getOptions())
+        if (option != null) dictionary.putIfAbsent(option, dictionary.size());
+
+    for (int row = 0; row < rows; row++) {
+      Response response = responsesByRow.get(row).get(question.getId());
+
+      if (response != null && response.getAnswer() != null)
+        for (String value : new LinkedHashSet<>(response.getAnswer())) {
+          if (value == null || value.isBlank()) continue;
+          if (codeCount == codes.length) codes = Arrays.copyOf(codes, codeCount * 2 + 1);
+          codes[codeCount++] = dictionary.computeIfAbsent(value, key -> dictionary.size());
+        }
+
+      offsets[row + 1] = codeCount;
+    }
+
+    byte[] id = question.getId().getBytes(StandardCharsets.UTF_8);
+    output.writeInt(id.length);
+    output.write(id);
+    output.writeInt(dictionary.size());
+
+    for (String option : dictionary.keySet()) {
+      byte[] bytes = option.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+
+    for (int offset : offsets) output.writeInt(offset);
+    for (int index = 0; index < codeCount; index++) output.writeInt(codes[index]);
+  }
+}
@@ -0,0 +1,14 @@
+package com.amalitech.surveysphere.services.snapshotService;
+
+/** Interface for the columnar snapshots of surveys' respondents. */
+public interface SnapshotService {
+
+  /**
+   * Retrieves the columnar snapshot of a survey, first adding the respondents ingested or changed
+   * since it was last brought up to date.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The snapshot, which stays valid while later snapshots are written.
+   */
+  ResponseSnapshot getSnapshot(String surveyId);
+}
@@ -0,0 +1,398 @@
+package com.amalitech.surveysphere.services.snapshotService;
+
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.services.responseVersionService.ResponseVersionService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionValidator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of SnapshotService. Snapshots hold the answers to choice questions, which is what
+ * the crosstab reads. Each cached snapshot lives in a directory of its own on local disk, and at
+ * most the configured number of surveys are cached: an evicted snapshot's directory is deleted, and
+ * its mappings are released once the readers still holding it let go. A snapshot is brought up to
+ * date whenever the survey's response version has moved since it was last used: respondents
+ * modified after the manifest's watermark, less an overlap that covers writes still in flight, are
+ * written as a new segment, and the rows they replace in earlier segments are found by binary
+ * search over the segments' sorted IDs and tombstoned. Rows that are already up to date are
+ * skipped, so the overlap never duplicates them. The snapshot is rebuilt from scratch when the
+ * survey's choice questions change or it has accumulated too many segments. Snapshots are caches,
+ * so the snapshots left in the snapshot directory by an earlier run are deleted on start.
+ */
+@Service
+@RequiredArgsConstructor
+public class SnapshotServiceImplementation implements SnapshotService {
+  private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+  private static final Pattern SNAPSHOT_FILE =
+      Pattern.compile("(segment-\\d+\\.col(\\.del)?|manifest\\.json)(\\.tmp)?");
+  private final MongoTemplate mongoTemplate;
+  private final SurveyDescriptorService surveyDescriptorService;
+  private final ResponseVersionService responseVersionService;
+  private Cache<String, SurveySnapshot> snapshots;
+
+  @Value("${snapshot.directory:data/snapshots}")
+  private String snapshotDirectory;
+
+  @Value("${snapshot.segment-rows:50000}")
+  private int segmentRows;
+
+  @Value("${snapshot.max-segments:32}")
+  private int maxSegments;
+
+  @Value("${snapshot.max-surveys:64}")
+  private long maxSurveys;
+
+  @Value("${snapshot.overlap-seconds:300}")
+  private long overlapSeconds;
+
+  /** The current snapshot of a survey and the response version it was brought up to date at. */
+  private static final class SurveySnapshot {
+    private Path directory;
+    private SnapshotManifest manifest;
+    private ResponseSnapshot snapshot;
+    private long version = -1;
+    private boolean evicted;
+  }
+
+  /**
+   * Deletes the snapshots left by an earlier run, creates the cache of snapshots and the index that
+   * changed respondents are found through.
+   *
+   * @throws IOException If the snapshot directory cannot be read.
+   */
+  @PostConstruct
+  public void initialize() throws IOException {
+    deleteLeftSnapshots(Path.of(snapshotDirectory));
+    snapshots =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSurveys)
+            .removalListener(this::evict)
+            .build();
+
+    mongoTemplate
+        .indexOps(Respondent.class)
+        .ensureIndex(
+            new Index().on("surveyId", Sort.Direction.ASC).on("modifiedDate", Sort.Direction.ASC));
+  }
+
+  /** Deletes the snapshots on shutdown. */
+  @PreDestroy
+  public void shutdown() {
+    snapshots.invalidateAll();
+  }
+
+  /**
+   * Retrieves the columnar snapshot of a survey, first adding the respondents ingested or changed
+   * since it was last brought up to date. Snapshots of the same survey are updated one at a time.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The snapshot, which stays valid while later snapshots are written.
+   * @throws NotFoundException If the survey does not exist.
+   * @throws UncheckedIOException If the snapshot cannot be read or written.
+   */
+  @Override
+  public ResponseSnapshot getSnapshot(String surveyId) {
+    SubmissionDescriptor descriptor = surveyDescriptorService.getDescriptor(surveyId);
+    long version = responseVersionService.getVersion(surveyId);
+    List<Question> questions = choiceQuestions(descriptor.getQuestions());
+
+    while (true) {
+      SurveySnapshot state =
+          snapshots.asMap().computeIfAbsent(surveyId, id -> new SurveySnapshot());
+
+      synchronized (state) {
+        if (state.evicted) continue;
+
+        if (state.snapshot == null
+            || state.version != version
+            || !state.snapshot.questionIds().equals(questionIds(questions))) {
+          try {
+            refresh(surveyId, questions, state);
+          } catch (IOException e) {
+            throw new UncheckedIOException(
+                "Failed to refresh the snapshot of survey " + surveyId, e);
+          }
+          state.version = version;
+        }
+
+        return state.snapshot;
+      }
+    }
+  }
+
+  private void refresh(String surveyId, List<Question> questions, SurveySnapshot state)
+      throws IOException {
+    if (state.directory == null) {
+      Files.createDirectories(Path.of(snapshotDirectory));
+      state.directory = Files.createTempDirectory(Path.of(snapshotDirectory), surveyId + "-");
+    }
+
+    SnapshotManifest manifest = state.manifest;
+
+    if (manifest == null
+        || !manifest.questionIds().equals(questionIds(questions))
+        || manifest.segments().size() >= maxSegments) {
+      rebuild(surveyId, questions, state);
+      return;
+    }
+
+    update(surveyId, questions, state);
+  }
+
+  /** Writes a new snapshot of every respondent of a survey and deletes the previous segments. */
+  private void rebuild(String surveyId, List<Question> questions, SurveySnapshot state)
+      throws IOException {
+    Path directory = state.directory;
+    SnapshotManifest previous = state.manifest;
+    long nextSegment = previous == null ? 0 : previous.nextSegment();
+    long watermark = 0;
+    List<String> segments = new ArrayList<>();
+    List<SnapshotSegmentWriter.Row> rows = new ArrayList<>();
+
+    Query query =
+        respondentsQuery(Criteria.where("surveyId").is(surveyId))
+            .with(Sort.by(Sort.Direction.ASC, "_id"));
+
+    try (Stream<Respondent> respondents = mongoTemplate.stream(query, Respondent.class)) {
+      Iterator<Respondent> iterator = respondents.iterator();
+
+      while (iterator.hasNext()) {
+        SnapshotSegmentWriter.Row row = toRow(iterator.next());
+        if (row == null) continue;
+
+        rows.add(row);
+        watermark = Math.max(watermark, row.modified());
+
+        if (rows.size() == segmentRows) {
+          segments.add(writeSegment(directory, nextSegment++, questions, rows));
+          rows.clear();
+        }
+      }
+    }
+
+    if (!rows.isEmpty()) segments.add(writeSegment(directory, nextSegment++, questions, rows));
+
+    SnapshotManifest manifest =
+        new SnapshotManifest(questionIds(questions), segments, watermark, nextSegment);
+
+    if (previous != null)
+      for (String segment : previous.segments()) {
+        Files.deleteIfExists(directory.resolve(segment));
+        Files.deleteIfExists(ResponseSnapshot.tombstonePath(directory, segment));
+      }
+
+    state.manifest = manifest;
+    state.snapshot = ResponseSnapshot.open(directory, manifest);
+    logger.info("Rebuilt the snapshot of survey {} in {} segments", surveyId, segments.size());
+  }
+
+  /**
+   * Appends the respondents of a survey modified since the snapshot's watermark as new segments
+   * and tombstones the rows they replace. Each changed respondent is looked up in the segments by
+   * its ID, so the cost follows the number of changes rather than the size of the snapshot.
+   */
+  private void update(String surveyId, List<Question> questions, SurveySnapshot state)
+      throws IOException {
+    Path directory = state.directory;
+    SnapshotManifest manifest = state.manifest;
+    ResponseSnapshot snapshot = state.snapshot;
+    long watermark = manifest.watermark();
+    Map<ObjectId, SnapshotSegmentWriter.Row> changed = new HashMap<>();
+
+    Query query =
+        respondentsQuery(
+            Criteria.where("surveyId")
+                .is(surveyId)
+                .and("modifiedDate")
+                .gt(new Date(watermark - Duration.ofSeconds(overlapSeconds).toMillis())));
+
+    try (Stream<Respondent> respondents = mongoTemplate.stream(query, Respondent.class)) {
+      Iterator<Respondent> iterator = respondents.iterator();
+
+      while (iterator.hasNext()) {
+        SnapshotSegmentWriter.Row row = toRow(iterator.next());
+        if (row == null) continue;
+
+        changed.put(row.id(), row);
+        watermark = Math.max(watermark, row.modified());
+      }
+    }
+
+    Map<Integer, long[]> tombstones = new HashMap<>();
+
+    for (SnapshotSegmentWriter.Row update : List.copyOf(changed.values())) {
+      byte[] id = update.id().toByteArray();
+
+      for (int segment = snapshot.segmentCount() - 1; segment >= 0; segment--) {
+        int row = snapshot.find(segment, id);
+        if (row < 0 || !snapshot.isLive(segment, row)) continue;
+
+        if (snapshot.modified(segment, row) >= update.modified()) changed.remove(update.id());
+        else tombstones.computeIfAbsent(segment, snapshot::tombstones)[row >>> 6] |= 1L << row;
+        break;
+      }
+    }
+
+    if (changed.isEmpty() && tombstones.isEmpty()) return;
+
+    long nextSegment = manifest.nextSegment();
+    List<String> segments = new ArrayList<>(manifest.segments());
+    List<SnapshotSegmentWriter.Row> rows =
+        changed.values().stream()
+            .sorted(Comparator.comparing(SnapshotSegmentWriter.Row::id))
+            .toList();
+
+    for (int from = 0; from < rows.size(); from += segmentRows)
+      segments.add(
+          writeSegment(
+              directory,
+              nextSegment++,
+              questions,
+              rows.subList(from, Math.min(from + segmentRows, rows.size()))));
+
+    for (Map.Entry<Integer, long[]> entry : tombstones.entrySet())
+      writeTombstones(directory, manifest.segments().get(entry.getKey()), entry.getValue());
+
+    SnapshotManifest updated =
+        new SnapshotManifest(manifest.questionIds(), segments, watermark, nextSegment);
+
+    state.manifest = updated;
+    state.snapshot = ResponseSnapshot.open(directory, updated);
+    logger.debug(
+        "Added {} respondents to the snapshot of survey {}, replacing {} segments' rows",
+        rows.size(),
+        surveyId,
+        tombstones.size());
+  }
+
+  /**
+   * Deletes the directory of a snapshot that left the cache. The state is marked evicted under its
+   * lock, so a request that still holds it looks the survey up again instead of writing to the
+   * deleted directory.
+   */
+  private void evict(RemovalNotification<String, SurveySnapshot> notification) {
+    SurveySnapshot state = notification.getValue();
+    if (state == null) return;
+
+    synchronized (state) {
+      state.evicted = true;
+      state.snapshot = null;
+
+      if (state.directory == null) return;
+
+      try {
+        deleteDirectory(state.directory);
+      } catch (IOException e) {
+        logger.warn("Failed to delete the snapshot of survey {}", notification.getKey(), e);
+      }
+    }
+  }
+
+  /**
+   * Deletes the directories under the snapshot directory that hold nothing but snapshot files, so a
+   * misconfigured snapshot directory never loses other files.
+   */
+  private static void deleteLeftSnapshots(Path root) throws IOException {
+    if (!Files.isDirectory(root)) return;
+
+    try (Stream<Path> directories = Files.list(root)) {
+      for (Path directory : directories.filter(Files::isDirectory).toList()) {
+        boolean snapshot;
+        try (Stream<Path> files = Files.list(directory)) {
+          snapshot =
+              files.allMatch(
+                  file ->
+                      Files.isRegularFile(file)
+                          && SNAPSHOT_FILE.matcher(file.getFileName().toString()).matches());
+        }
+
+        if (snapshot) deleteDirectory(directory);
+      }
+    }
+  }
+
+  private static void deleteDirectory(Path directory) throws IOException {
+    if (!Files.exists(directory)) return;
+
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+    }
+  }
+
+  private static Query respondentsQuery(Criteria criteria) {
+    Query query = Query.query(criteria);
+    query.fields().include("responses", "modifiedDate", "createdDate");
+    return query;
+  }
+
+  private static SnapshotSegmentWriter.Row toRow(Respondent respondent) {
+    if (respondent.getId() == null || !ObjectId.isValid(respondent.getId())) return null;
+
+    Date modified =
+        respondent.getModifiedDate() != null
+            ? respondent.getModifiedDate()
+            : respondent.getCreatedDate();
+
+    return new SnapshotSegmentWriter.Row(
+        new ObjectId(respondent.getId()),
+        modified == null ? 0 : modified.getTime(),
+        respondent.getResponses());
+  }
+
+  private static String writeSegment(
+      Path directory, long number, List<Question> questions, List<SnapshotSegmentWriter.Row> rows)
+      throws IOException {
+    String name = String.format("segment-%020d.col", number);
+    SnapshotSegmentWriter.write(directory.resolve(name), questions, rows);
+    return name;
+  }
+
+  private static void writeTombstones(Path directory, String segment, long[] tombstones)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(tombstones.length * Long.BYTES);
+    buffer.asLongBuffer().put(tombstones);
+    Path file = ResponseSnapshot.tombstonePath(directory, segment);
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    Files.write(temporary, buffer.array());
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static List<Question> choiceQuestions(List<Question> questions) {
+    return questions.stream()
+        .filter(question -> SubmissionValidator.isChoiceType(question.getType()))
+        .toList();
+  }
+
+  private static List<String> questionIds(List<Question> questions) {
+    return questions.stream().map(Question::getId).toList();
+  }
+}
@@ -0,0 +1,28 @@
+package com.amalitech.surveysphere.services.surveyDescriptorService;
+
+import com.amalitech.surveysphere.models.Question;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The parts of a survey needed to accept a submission and to analyse its responses: its status
+ * flags, its questions in survey order and the validator compiled from them.
+ */
+@Value
+@Builder
+public class SubmissionDescriptor {
+  String surveyId;
+
+  boolean active;
+
+  boolean sent;
+
+  boolean deleted;
+
+  boolean archived;
+
+  List<Question> questions;
+
+  SubmissionValidator validator;
+}
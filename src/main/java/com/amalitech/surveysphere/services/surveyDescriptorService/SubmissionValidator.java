@@ -0,0 +1,326 @@
+package com.amalitech.surveysphere.services.surveyDescriptorService;
+
+import static com.amalitech.surveysphere.enums.CustomExceptionMessage.QUESTION_NOT_FOUND;
+
+import com.amalitech.surveysphere.exceptions.InvalidResponseException;
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.Condition;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Response;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable validator compiled from the blocks of a survey. Every question is flattened into a
+ * rule holding its answer constraints, and its condition is resolved once to the index of the
+ * question it depends on, so checking a submission only needs a hash lookup per response and a
+ * pass over the rules.
+ *
+ * <p>A question with a condition is shown only when the answer to the referenced question contains
+ * the condition's choice. Required questions are checked for the blocks a submission contains,
+ * since surveys can be submitted one block at a time.
+ */
+public final class SubmissionValidator {
+  private static final int NO_CONDITION = -1;
+
+  private final Rule[] rules;
+  private final Map<String, Integer> ruleIndexes;
+  private final List<Set<String>> blockQuestionIds;
+
+  private record Rule(
+      String questionId,
+      int blockIndex,
+      boolean required,
+      int maximumAnswers,
+      Set<String> options,
+      boolean freeText,
+      int conditionRule,
+      String conditionChoice) {}
+
+  private SubmissionValidator(
+      Rule[] rules, Map<String, Integer> ruleIndexes, List<Set<String>> blockQuestionIds) {
+    this.rules = rules;
+    this.ruleIndexes = ruleIndexes;
+    this.blockQuestionIds = blockQuestionIds;
+  }
+
+  /**
+   * Compiles a validator from the questions of a survey.
+   *
+   * @param blocks The questions of each block, in block and question order.
+   * @return The compiled validator.
+   */
+  public static SubmissionValidator compile(List<List<Question>> blocks) {
+    Map<String, Integer> ruleIndexes = new HashMap<>();
+    List<int[]> positions = new ArrayList<>();
+
+    for (int blockIndex = 0; blockIndex < blocks.size(); blockIndex++)
+      for (int questionIndex = 0; questionIndex < blocks.get(blockIndex).size(); questionIndex++) {
+        ruleIndexes.put(blocks.get(blockIndex).get(questionIndex).getId(), positions.size());
+        positions.add(new int[] {blockIndex, questionIndex});
+      }
+
+    Rule[] rules = new Rule[positions.size()];
+
+    for (int index = 0; index < rules.length; index++) {
+      int blockIndex = positions.get(index)[0];
+      Question question = blocks.get(blockIndex).get(positions.get(index)[1]);
+      Condition condition = question.getConditions();
+      int conditionRule = NO_CONDITION;
+
+      if (condition != null
+          && condition.getChoice() != null
+          && !condition.getChoice().isBlank()
+          && condition.getBlockIndex() >= 0
+          && condition.getBlockIndex() < blocks.size()
+          && condition.getQuestionIndex() >= 0
+          && condition.getQuestionIndex() < blocks.get(condition.getBlockIndex()).size()) {
+        String referencedId =
+            blocks.get(condition.getBlockIndex()).get(condition.getQuestionIndex()).getId();
+        if (!question.getId().equals(referencedId)) conditionRule = ruleIndexes.get(referencedId);
+      }
+
+      rules[index] =
+          new Rule(
+              question.getId(),
+              blockIndex,
+              question.isRequired(),
+              maximumAnswers(question.getType()),
+              isChoiceType(question.getType()) ? options(question) : Set.of(),
+              isFreeTextType(question.getType()),
+              conditionRule,
+              conditionRule == NO_CONDITION ? null : condition.getChoice());
+    }
+
+    List<Set<String>> blockQuestionIds = new ArrayList<>(blocks.size());
+    for (List<Question> block : blocks)
+      blockQuestionIds.add(
+          block.stream().map(Question::getId).collect(Collectors.toUnmodifiableSet()));
+
+    return new SubmissionValidator(rules, Map.copyOf(ruleIndexes), List.copyOf(blockQuestionIds));
+  }
+
+  /**
+   * Returns whether a question belongs to the survey.
+   *
+   * @param questionId The ID of the question.
+   * @return True if the question is part of the survey.
+   */
+  public boolean hasQuestion(String questionId) {
+    return ruleIndexes.containsKey(questionId);
+  }
+
+  /**
+   * Returns whether a question of the survey is answered by choosing from a set of options.
+   *
+   * @param questionId The ID of the question.
+   * @return True if the question is a choice or dropdown question with options.
+   */
+  public boolean hasOptions(String questionId) {
+    Integer index = ruleIndexes.get(questionId);
+    return index != null && !rules[index].options.isEmpty();
+  }
+
+  /**
+   * Returns whether a question of the survey is answered with free text.
+   *
+   * @param questionId The ID of the question.
+   * @return True if the question is a short-text or paragraph question.
+   */
+  public boolean isFreeText(String questionId) {
+    Integer index = ruleIndexes.get(questionId);
+    return index != null && rules[index].freeText;
+  }
+
+  /**
+   * Returns the IDs of the questions of a block.
+   *
+   * @param blockIndex The index of the block.
+   * @return The IDs of the block's questions, empty if the block does not exist.
+   */
+  public Set<String> blockQuestionIds(int blockIndex) {
+    return blockIndex >= 0 && blockIndex < blockQuestionIds.size()
+        ? blockQuestionIds.get(blockIndex)
+        : Set.of();
+  }
+
+  /**
+   * Returns the IDs of the questions of every block a submission answers.
+   *
+   * @param responses The submitted responses, already validated.
+   * @return The IDs of the questions of the answered blocks.
+   */
+  public Set<String> blockQuestionIds(List<Response> responses) {
+    Set<String> questionIds = new HashSet<>();
+
+    for (Response response : responses) {
+      Integer index = ruleIndexes.get(response.getQuestionId());
+      if (index != null) questionIds.addAll(blockQuestionIds(rules[index].blockIndex));
+    }
+
+    return questionIds;
+  }
+
+  /**
+   * Returns the index of the last block answered by a submission.
+   *
+   * @param responses The submitted responses, already validated.
+   * @return The highest block index of the responses, or -1 if there are none.
+   */
+  public int lastBlockOf(List<Response> responses) {
+    int lastBlock = -1;
+
+    for (Response response : responses) {
+      Integer index = ruleIndexes.get(response.getQuestionId());
+      if (index != null) lastBlock = Math.max(lastBlock, rules[index].blockIndex);
+    }
+
+    return lastBlock;
+  }
+
+  /**
+   * Returns the index of the last block of the survey that has questions. A respondent who reaches
+   * it has completed the survey.
+   *
+   * @return The index of the last block, or -1 if the survey has no questions.
+   */
+  public int lastBlockIndex() {
+    return rules.length == 0 ? -1 : rules[rules.length - 1].blockIndex;
+  }
+
+  /**
+   * Checks the responses to a single block against the compiled rules.
+   *
+   * @param responses The submitted responses.
+   * @param blockIndex The index of the block the responses answer.
+   * @throws NotFoundException If a response answers a question that is not part of the survey.
+   * @throws InvalidResponseException If a response belongs to another block or the responses break
+   *     the rules checked by {@link #validate(List)}.
+   */
+  public void validate(List<Response> responses, int blockIndex) {
+    for (Response response : responses) {
+      Integer index = ruleIndexes.get(response.getQuestionId());
+
+      if (index != null && rules[index].blockIndex != blockIndex)
+        throw new InvalidResponseException(
+            "Question " + response.getQuestionId() + " is not part of block " + blockIndex);
+    }
+
+    validate(responses);
+  }
+
+  /**
+   * Checks the responses of a submission against the compiled rules.
+   *
+   * @param responses The submitted responses.
+   * @throws NotFoundException If a response answers a question that is not part of the survey.
+   * @throws InvalidResponseException If a response answers a question more than once, breaks the
+   *     question's answer constraints, answers a question hidden by its condition or leaves a shown
+   *     required question unanswered.
+   */
+  public void validate(List<Response> responses) {
+    List<String>[] answers = answersByRule(responses);
+    boolean[] submittedBlocks =
+        new boolean[rules.length == 0 ? 0 : rules[rules.length - 1].blockIndex + 1];
+
+    for (int index = 0; index < rules.length; index++)
+      if (answers[index] != null) submittedBlocks[rules[index].blockIndex] = true;
+
+    for (int index = 0; index < rules.length; index++) {
+      Rule rule = rules[index];
+      List<String> answer = answers[index];
+      Boolean shown = isShown(rule, answers);
+
+      if (answer != null && !answer.isEmpty()) {
+        if (Boolean.FALSE.equals(shown))
+          throw new InvalidResponseException(
+              "Question " + rule.questionId + " is not shown for the given answers");
+
+        if (answer.size() > rule.maximumAnswers)
+          throw new InvalidResponseException(
+              "Question " + rule.questionId + " accepts a single answer");
+
+        if (!rule.options.isEmpty())
+          for (String value : answer)
+            if (!rule.options.contains(value))
+              throw new InvalidResponseException(
+                  "Answer '" + value + "' is not an option of question " + rule.questionId);
+      } else if (rule.required && submittedBlocks[rule.blockIndex] && Boolean.TRUE.equals(shown)) {
+        throw new InvalidResponseException("Question " + rule.questionId + " requires an answer");
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<String>[] answersByRule(List<Response> responses) {
+    List<String>[] answers = new List[rules.length];
+
+    for (Response response : responses) {
+      Integer index = ruleIndexes.get(response.getQuestionId());
+
+      if (index == null) throw new NotFoundException(QUESTION_NOT_FOUND.getMessage());
+
+      if (answers[index] != null)
+        throw new InvalidResponseException(
+            "Question " + response.getQuestionId() + " is answered more than once");
+
+      answers[index] = nonBlankAnswers(response.getAnswer());
+    }
+
+    return answers;
+  }
+
+  /**
+   * Resolves whether a question is shown: true or false when its condition can be evaluated, or
+   * null when the question it depends on is not part of the submission.
+   */
+  private Boolean isShown(Rule rule, List<String>[] answers) {
+    if (rule.conditionRule == NO_CONDITION) return true;
+
+    List<String> referencedAnswer = answers[rule.conditionRule];
+
+    if (referencedAnswer == null) return null;
+
+    return referencedAnswer.contains(rule.conditionChoice);
+  }
+
+  private static List<String> nonBlankAnswers(List<String> answer) {
+    if (answer == null) return List.of();
+
+    return answer.stream().filter(value -> value != null && !value.isBlank()).toList();
+  }
+
+  private static Set<String> options(Question question) {
+    if (question.getOptions() == null) return Set.of();
+
+    Set<String> options = new HashSet<>(question.getOptions());
+    options.remove(null);
+    return Set.copyOf(options);
+  }
+
+  private static int maximumAnswers(String type) {
+    return "single-choice".equals(type) || "dropdown".equals(type) ? 1 : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns whether questions of a type are answered with free text.
+   *
+   * @param type The type of the question.
+   * @return True for short-text and paragraph questions.
+   */
+  public static boolean isFreeTextType(String type) {
+    return "short-text".equals(type) || "paragraph".equals(type);
+  }
+
+  /**
+   * Returns whether questions of a type are answered by choosing from a set of options.
+   *
+   * @param type The type of the question.
+   * @return True for single-choice, multiple-choice and dropdown questions.
+   */
+  public static boolean isChoiceType(String type) {
+    return "single-choice".equals(type)
+        || "dropdown".equals(type)
+        || "multiple-choice".equals(type);
+  }
+}
@@ -0,0 +1,21 @@
+package com.amalitech.surveysphere.services.surveyDescriptorService;
+
+/** Interface for the cached submission descriptors of surveys. */
+public interface SurveyDescriptorService {
+
+  /**
+   * Retrieves the submission descriptor of a survey, loading it if it is not cached.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The submission descriptor of the survey.
+   * @throws com.amalitech.surveysphere.exceptions.NotFoundException If the survey does not exist.
+   */
+  SubmissionDescriptor getDescriptor(String surveyId);
+
+  /**
+   * Removes the cached descriptor of a survey after the survey has changed.
+   *
+   * @param surveyId The ID of the survey.
+   */
+  void evict(String surveyId);
+}
@@ -0,0 +1,132 @@
+package com.amalitech.surveysphere.services.surveyDescriptorService;
+
+import static com.amalitech.surveysphere.enums.CustomExceptionMessage.SURVEY_NOT_FOUND;
+
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.Question;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.mongodb.DBRef;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of SurveyDescriptorService. Descriptors are read from the raw survey and block
+ * documents and the survey's questions are fetched with a single query, in place of resolving every
+ * reference of the survey one at a time. They are kept in a bounded in-memory cache and invalidated
+ * whenever the survey service changes a survey; the expiry only bounds how long another instance
+ * can serve a descriptor after such a change.
+ */
+@Service
+@RequiredArgsConstructor
+public class SurveyDescriptorServiceImplementation implements SurveyDescriptorService {
+  private final MongoTemplate mongoTemplate;
+  private Cache<String, SubmissionDescriptor> descriptors;
+
+  @Value("${survey.descriptor-cache.maximum-size:10000}")
+  private long maximumSize;
+
+  @Value("${survey.descriptor-cache.ttl-seconds:30}")
+  private long ttlSeconds;
+
+  /** Creates the descriptor cache. */
+  @PostConstruct
+  public void initialize() {
+    descriptors =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+  }
+
+  /**
+   * Retrieves the submission descriptor of a survey, loading it if it is not cached.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The submission descriptor of the survey.
+   * @throws NotFoundException If the survey does not exist.
+   */
+  @Override
+  public SubmissionDescriptor getDescriptor(String surveyId) {
+    try {
+      return descriptors.get(surveyId, () -> load(surveyId));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) throw cause;
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Removes the cached descriptor of a survey after the survey has changed.
+   *
+   * @param surveyId The ID of the survey.
+   */
+  @Override
+  public void evict(String surveyId) {
+    descriptors.invalidate(surveyId);
+  }
+
+  /**
+   * Loads the descriptor of a survey from its survey, block and question documents and compiles
+   * its submission validator.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The submission descriptor of the survey.
+   * @throws NotFoundException If the survey does not exist.
+   */
+  private SubmissionDescriptor load(String surveyId) {
+    Query surveyQuery = Query.query(Criteria.where("_id").is(surveyId));
+    surveyQuery.fields().include("active", "sent", "deleted", "archived", "blocks");
+    Document survey = mongoTemplate.findOne(surveyQuery, Document.class, "survey");
+
+    if (survey == null) throw new NotFoundException(SURVEY_NOT_FOUND.getMessage());
+
+    List<Object> blockIds =
+        survey.getList("blocks", DBRef.class, List.of()).stream().map(DBRef::getId).toList();
+
+    Query blockQuery = Query.query(Criteria.where("_id").in(blockIds));
+    blockQuery.fields().include("questions");
+
+    Map<Object, List<Object>> questionIdsByBlock = new HashMap<>();
+    for (Document block : mongoTemplate.find(blockQuery, Document.class, "block"))
+      questionIdsByBlock.put(
+          block.get("_id"),
+          block.getList("questions", DBRef.class, List.of()).stream().map(DBRef::getId).toList());
+
+    List<Object> questionIds =
+        questionIdsByBlock.values().stream().flatMap(Collection::stream).toList();
+
+    Map<String, Question> questions = new HashMap<>();
+    for (Question question :
+        mongoTemplate.find(Query.query(Criteria.where("_id").in(questionIds)), Question.class))
+      questions.put(question.getId(), question);
+
+    List<List<Question>> blocks = new ArrayList<>();
+    for (Object blockId : blockIds)
+      blocks.add(
+          questionIdsByBlock.getOrDefault(blockId, List.of()).stream()
+              .map(questionId -> questions.get(questionId.toString()))
+              .filter(Objects::nonNull)
+              .toList());
+
+    return SubmissionDescriptor.builder()
+        .surveyId(surveyId)
+        .active(survey.getBoolean("active", true))
+        .sent(survey.getBoolean("sent", false))
+        .deleted(survey.getBoolean("deleted", false))
+        .archived(survey.getBoolean("archived", false))
+        .questions(blocks.stream().flatMap(List::stream).toList())
+        .validator(SubmissionValidator.compile(blocks))
+        .build();
+  }
+}
@@ -5,11 +5,9 @@ import com.amalitech.surveysphere.dto.requestDto.SurveyDto;
 import com.amalitech.surveysphere.dto.requestDto.SurveySchedulerDto;
 import com.amalitech.surveysphere.dto.responseDto.AllSurveysResponseDto;
 import com.amalitech.surveysphere.dto.responseDto.DistributionResponseDto;
-import com.amalitech.surveysphere.dto.responseDto.ExcelResponseDto;
 import com.amalitech.surveysphere.models.ScheduledSurvey;
 import com.amalitech.surveysphere.models.Survey;
 import jakarta.mail.MessagingException;
-import java.io.IOException;
 import java.util.List;
 
 /** Interface defining operations related to survey management. */
@@ -134,7 +132,13 @@ public interface SurveyService {
 
   AllSurveysResponseDto getTemplate(int page, int limit, String tab);
 
-  ExcelResponseDto exportExcel(String surveyId) throws IOException;
+  /**
+   * Retrieves the name of the files a survey's responses are exported to.
+   *
+   * @param surveyId The ID of the survey.
+   * @return The title of the survey.
+   */
+  String getExportFileName(String surveyId);
 
   String getUserId();
 
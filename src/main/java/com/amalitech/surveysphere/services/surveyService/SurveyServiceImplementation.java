@@ -6,17 +6,15 @@ import static com.amalitech.surveysphere.enums.Role.*;
 import com.amalitech.surveysphere.dto.requestDto.*;
 import com.amalitech.surveysphere.dto.responseDto.AllSurveysResponseDto;
 import com.amalitech.surveysphere.dto.responseDto.DistributionResponseDto;
-import com.amalitech.surveysphere.dto.responseDto.ExcelResponseDto;
 import com.amalitech.surveysphere.exceptions.DuplicateException;
 import com.amalitech.surveysphere.exceptions.NotFoundException;
 import com.amalitech.surveysphere.models.*;
 import com.amalitech.surveysphere.repositories.*;
-import com.amalitech.surveysphere.services.otherServices.excelService.ExcelService;
 import com.amalitech.surveysphere.services.otherServices.mailService.MailService;
 import com.amalitech.surveysphere.services.otherServices.uploadService.UploadService;
 import com.amalitech.surveysphere.services.questionService.QuestionService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
 import jakarta.mail.MessagingException;
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -25,6 +23,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -40,10 +39,10 @@ public class SurveyServiceImplementation implements SurveyService {
   private final SurveyRepository surveyRepository;
   private final MailService mailService;
   private final UploadService uploadService;
-  private final ExcelService excelService;
   private final QuestionService questionService;
   private final Environment env;
   private final ScheduledSurveyRepository scheduledSurveyRepository;
+  private final SurveyDescriptorService surveyDescriptorService;
 
   /**
    * Creates a new survey based on the provided SurveyDto.
@@ -85,7 +84,8 @@ public class SurveyServiceImplementation implements SurveyService {
         Objects.requireNonNull(env.getProperty("FRONTEND_ORIGIN"))
             .concat("/survey/")
             .concat(savedSurvey.getId()));
-    surveyRepository.save(savedSurvey);
+    surveyRepository.updateFields(
+        savedSurvey.getId(), Update.update("surveyLink", savedSurvey.getSurveyLink()));
 
     User findUser =
         userRepository
@@ -128,7 +128,17 @@ public class SurveyServiceImplementation implements SurveyService {
     survey.setLogo(fileUploadDto);
     survey.setBlocks(questionService.updateBlocks(surveyDto.getBlocks()));
 
-    return surveyRepository.save(survey);
+    surveyRepository.updateFields(
+        surveyId,
+        new Update()
+            .set("surveyTitle", survey.getSurveyTitle())
+            .set("category", survey.getCategory())
+            .set("surveyView", survey.getSurveyView())
+            .set("colorScheme", survey.getColorScheme())
+            .set("logo", survey.getLogo())
+            .set("blocks", survey.getBlocks()));
+    surveyDescriptorService.evict(surveyId);
+    return survey;
   }
 
   /**
@@ -260,26 +270,24 @@ public class SurveyServiceImplementation implements SurveyService {
    */
   @Override
   public DistributionResponseDto archiveSurvey(String surveyId) {
-    Survey survey =
-        surveyRepository
-            .findById(surveyId)
-            .orElseThrow(() -> new NotFoundException(SURVEY_NOT_FOUND.getMessage()));
+    surveyRepository
+        .findById(surveyId)
+        .orElseThrow(() -> new NotFoundException(SURVEY_NOT_FOUND.getMessage()));
 
-    survey.setArchived(true);
-    surveyRepository.save(survey);
+    surveyRepository.updateFields(surveyId, Update.update("archived", true));
+    surveyDescriptorService.evict(surveyId);
 
     return new DistributionResponseDto("Survey archived");
   }
 
   @Override
   public void markSurveyAsTakingResponsesOrNot(String surveyId, boolean isTakingResponses) {
-    Survey survey =
-        surveyRepository
-            .findById(surveyId)
-            .orElseThrow(() -> new NotFoundException(SURVEY_NOT_FOUND.getMessage()));
+    surveyRepository
+        .findById(surveyId)
+        .orElseThrow(() -> new NotFoundException(SURVEY_NOT_FOUND.getMessage()));
 
-    survey.setActive(isTakingResponses);
-    surveyRepository.save(survey);
+    surveyRepository.updateFields(surveyId, Update.update("active", isTakingResponses));
+    surveyDescriptorService.evict(surveyId);
   }
 
   /**
@@ -318,8 +326,7 @@ public class SurveyServiceImplementation implements SurveyService {
     if (survey != null) {
       String surveyUrl = survey.getSurveyLink();
       if (!survey.isSent()) {
-        survey.setSent(true);
-        surveyRepository.save(survey);
+        surveyRepository.updateFields(surveyId, Update.update("sent", true));
       }
 
       for (String email : emails) {
@@ -359,9 +366,9 @@ public class SurveyServiceImplementation implements SurveyService {
             .action("distribute")
             .build();
 
-    com.amalitech.surveysphere.models.Survey survey = getSurvey(scheduledSurvey.getSurveyId());
-    survey.setScheduledSurvey(scheduledSurvey);
-    surveyRepository.save(survey);
+    getSurvey(scheduledSurvey.getSurveyId());
+    surveyRepository.updateFields(
+        scheduledSurvey.getSurveyId(), Update.update("scheduledSurvey", scheduledSurvey));
 
     return scheduledSurveyRepository.save(scheduledSurvey);
   }
@@ -389,9 +396,9 @@ public class SurveyServiceImplementation implements SurveyService {
             .action("delete")
             .build();
 
-    com.amalitech.surveysphere.models.Survey survey = getSurvey(scheduledSurvey.getSurveyId());
-    survey.setScheduledSurvey(scheduledSurvey);
-    surveyRepository.save(survey);
+    getSurvey(scheduledSurvey.getSurveyId());
+    surveyRepository.updateFields(
+        scheduledSurvey.getSurveyId(), Update.update("scheduledSurvey", scheduledSurvey));
 
     return (scheduledSurveyRepository.save(scheduledSurvey));
   }
@@ -419,9 +426,9 @@ public class SurveyServiceImplementation implements SurveyService {
             .action("archive")
             .build();
 
-    com.amalitech.surveysphere.models.Survey survey = getSurvey(scheduledSurvey.getSurveyId());
-    survey.setScheduledSurvey(scheduledSurvey);
-    surveyRepository.save(survey);
+    getSurvey(scheduledSurvey.getSurveyId());
+    surveyRepository.updateFields(
+        scheduledSurvey.getSurveyId(), Update.update("scheduledSurvey", scheduledSurvey));
 
     return scheduledSurveyRepository.save(scheduledSurvey);
   }
@@ -433,9 +440,8 @@ public class SurveyServiceImplementation implements SurveyService {
 
     if (surveyExist.isEmpty()) throw new NotFoundException(SURVEY_NOT_FOUND.getMessage());
 
-    com.amalitech.surveysphere.models.Survey survey = surveyExist.get();
-    survey.setDeleted(true);
-    surveyRepository.save(survey);
+    surveyRepository.updateFields(surveyId, Update.update("deleted", true));
+    surveyDescriptorService.evict(surveyId);
 
     return DistributionResponseDto.builder().message("Survey deleted successfully").build();
   }
@@ -494,7 +500,9 @@ public class SurveyServiceImplementation implements SurveyService {
             .orElseThrow(() -> new NotFoundException(SURVEY_NOT_FOUND.getMessage()));
 
     surveyExists.setDeactivated(managementDto.getStatus().equals("DEACTIVATE"));
-    return surveyRepository.save(surveyExists);
+    surveyRepository.updateFields(
+        surveyExists.getId(), Update.update("deactivated", surveyExists.isDeactivated()));
+    return surveyExists;
   }
 
   /**
@@ -532,23 +540,19 @@ public class SurveyServiceImplementation implements SurveyService {
   }
 
   /**
-   * Exports survey data to Excel format.
+   * Retrieves the name of the files a survey's responses are exported to.
    *
    * @param surveyId The ID of the survey to be exported
-   * @return ExcelResponseDto containing the Excel file bytes and filename
-   * @throws IOException If an I/O error occurs while generating the Excel file
+   * @return The title of the survey
    * @throws NotFoundException If the survey with the provided ID is not found
    */
   @Override
-  public ExcelResponseDto exportExcel(String surveyId) throws IOException {
+  public String getExportFileName(String surveyId) {
     Optional<com.amalitech.surveysphere.models.Survey> surveyExist =
         surveyRepository.findById(surveyId);
 
     if (surveyExist.isEmpty()) throw new NotFoundException(SURVEY_NOT_FOUND.getMessage());
 
-    String fileName = surveyExist.get().getSurveyTitle().getTitle().getTitleName();
-
-    byte[] bytes = excelService.generateExcelFiles(surveyId);
-    return new ExcelResponseDto(bytes, fileName);
+    return surveyExist.get().getSurveyTitle().getTitle().getTitleName();
   }
 }
@@ -0,0 +1,76 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Count-min sketch of term frequencies. Every term increments one counter in each of the rows, and
+ * its frequency is estimated by the smallest of them, which never underestimates and overestimates
+ * by at most e / WIDTH of the total count with high probability. Sketches merge by adding their
+ * counters, so the dimensions are fixed for every stored sketch. A stored sketch keeps only its
+ * non-zero counters, keyed by their index, so each one can be incremented on its own.
+ */
+final class CountMinSketch {
+  static final int DEPTH = 4;
+  static final int WIDTH = 1024;
+
+  private final long[] counters = new long[DEPTH * WIDTH];
+
+  /**
+   * Reads stored counters, or starts an empty sketch if there are none. Indexes outside the sketch
+   * are ignored.
+   *
+   * @param counters The non-zero counters, keyed by their index.
+   * @return The sketch.
+   */
+  static CountMinSketch of(Map<String, Long> counters) {
+    CountMinSketch sketch = new CountMinSketch();
+    if (counters == null) return sketch;
+
+    counters.forEach(
+        (index, count) -> {
+          int cell = Integer.parseInt(index);
+          if (cell >= 0 && cell < DEPTH * WIDTH && count != null) sketch.counters[cell] = count;
+        });
+    return sketch;
+  }
+
+  /**
+   * Returns the counters a term increments, one in each row.
+   *
+   * @param term The term.
+   * @return The indexes of the counters, row after row.
+   */
+  static int[] indexes(String term) {
+    long hash = hash(term);
+    int[] indexes = new int[DEPTH];
+    for (int row = 0; row < DEPTH; row++) indexes[row] = index(hash, row);
+    return indexes;
+  }
+
+  void add(String term) {
+    for (int index : indexes(term)) counters[index]++;
+  }
+
+  long estimate(String term) {
+    long estimate = Long.MAX_VALUE;
+    for (int index : indexes(term)) estimate = Math.min(estimate, counters[index]);
+    return estimate;
+  }
+
+  void merge(CountMinSketch other) {
+    for (int index = 0; index < counters.length; index++) counters[index] += other.counters[index];
+  }
+
+  /** Derives the counter of a row from two halves of one hash, as in double hashing. */
+  private static int index(long hash, int row) {
+    int first = (int) hash;
+    int second = (int) (hash >>> 32);
+    return row * WIDTH + Math.floorMod(first + row * second, WIDTH);
+  }
+
+  private static long hash(String term) {
+    return Hashing.murmur3_128().hashString(term, StandardCharsets.UTF_8).asLong();
+  }
+}
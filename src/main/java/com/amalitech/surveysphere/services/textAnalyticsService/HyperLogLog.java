@@ -0,0 +1,79 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * HyperLogLog estimate of the number of distinct values, kept in 2^PRECISION one-byte registers
+ * with a standard error of about 1.6%. Sketches merge by taking the larger of each pair of
+ * registers, so adding a value again never changes them. A stored sketch keeps only its non-zero
+ * registers, keyed by their index, so each one can be raised on its own.
+ */
+final class HyperLogLog {
+  static final int PRECISION = 12;
+  private static final int REGISTERS = 1 << PRECISION;
+
+  private final byte[] registers = new byte[REGISTERS];
+
+  /**
+   * Reads stored registers, or starts an empty sketch if there are none. Indexes outside the sketch
+   * are ignored.
+   *
+   * @param registers The non-zero registers, keyed by their index.
+   * @return The sketch.
+   */
+  static HyperLogLog of(Map<String, Long> registers) {
+    HyperLogLog sketch = new HyperLogLog();
+    if (registers == null) return sketch;
+
+    registers.forEach(
+        (index, rank) -> {
+          int register = Integer.parseInt(index);
+          if (register >= 0 && register < REGISTERS && rank != null)
+            sketch.registers[register] = (byte) Math.max(sketch.registers[register], rank);
+        });
+    return sketch;
+  }
+
+  /** The register a value raises and the rank it raises it to. */
+  record Register(int index, int rank) {}
+
+  /**
+   * Returns the register a value raises.
+   *
+   * @param value The value.
+   * @return The index of the register and the rank of the value's hash.
+   */
+  static Register register(String value) {
+    long hash = Hashing.murmur3_128().hashString(value, StandardCharsets.UTF_8).asLong();
+    int index = (int) (hash >>> (Long.SIZE - PRECISION));
+    int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), Long.SIZE - PRECISION) + 1;
+    return new Register(index, rank);
+  }
+
+  void add(String value) {
+    Register register = register(value);
+    if (register.rank() > registers[register.index()])
+      registers[register.index()] = (byte) register.rank();
+  }
+
+  /** Estimates the number of distinct values, using linear counting while few are set. */
+  long estimate() {
+    double sum = 0;
+    int zeros = 0;
+
+    for (byte register : registers) {
+      sum += Math.scalb(1.0, -register);
+      if (register == 0) zeros++;
+    }
+
+    double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+    double estimate = alpha * REGISTERS * REGISTERS / sum;
+
+    if (estimate <= 2.5 * REGISTERS && zeros > 0)
+      estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+
+    return Math.round(estimate);
+  }
+}
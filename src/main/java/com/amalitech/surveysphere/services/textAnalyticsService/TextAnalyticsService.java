@@ -0,0 +1,33 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import com.amalitech.surveysphere.dto.responseDto.TextAnalyticsDto;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.models.TextAggregate;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.util.List;
+
+/** Interface for maintaining and reading the analytics of answers to free-text questions. */
+public interface TextAnalyticsService {
+
+  /**
+   * Builds the counter changes that add the answers of a submission to the sketches of the survey's
+   * free-text questions, and notes their terms and phrases as candidates for the top terms.
+   *
+   * @param surveyId The ID of the survey.
+   * @param responses The responses of the submission.
+   * @return The counter changes of the text aggregates.
+   */
+  List<CounterDelta> sketchDeltas(String surveyId, List<Response> responses);
+
+  /** Updates the top terms and phrases of the questions answered since the last flush. */
+  void flush();
+
+  /**
+   * Summarises the text aggregate of a question.
+   *
+   * @param aggregate The text aggregate, or null if the question has no answers yet.
+   * @return The number of answers, the estimated number of distinct answers and the top terms
+   *     and phrases of the question.
+   */
+  TextAnalyticsDto summarise(TextAggregate aggregate);
+}
@@ -0,0 +1,246 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import com.amalitech.surveysphere.dto.responseDto.TextAnalyticsDto;
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.models.TextAggregate;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionValidator;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import jakarta.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of TextAnalyticsService. Each answer to a free-text question is tokenized once at
+ * ingest into counter changes of the question's stored text aggregate: its terms and phrases
+ * increment the counters of a count-min sketch, the normalized answer raises one HyperLogLog
+ * register and the answer count is incremented. The changes are applied by the counter service
+ * with the rest of a submission's counters, so they are written only for respondents the
+ * ingestion inserted and journal replay does not record them twice. Only the choice of top terms
+ * is kept in memory: the terms and phrases seen since the last flush are kept in a small local
+ * sketch, and on a schedule of its own the flush estimates them, together with the stored top
+ * terms, from the stored sketch. A crash only loses candidates, which return the next time they
+ * are answered. The analysis only reads the top terms and the registers, never the raw answers.
+ */
+@Service
+@RequiredArgsConstructor
+public class TextAnalyticsServiceImplementation implements TextAnalyticsService {
+  private static final Logger logger = LoggerFactory.getLogger(TextAnalyticsService.class);
+  private final MongoTemplate mongoTemplate;
+  private final SurveyDescriptorService surveyDescriptorService;
+  private final Map<String, PendingSketch> pending = new ConcurrentHashMap<>();
+
+  @Value("${analysis.text.top-k:20}")
+  private int topK;
+
+  /**
+   * Builds the counter changes that add the answers of a submission to the sketches of the survey's
+   * free-text questions, and notes their terms and phrases as candidates for the top terms. Nothing
+   * is recorded for a survey that no longer exists.
+   *
+   * @param surveyId The ID of the survey.
+   * @param responses The responses of the submission.
+   * @return The counter changes of the text aggregates.
+   */
+  @Override
+  public List<CounterDelta> sketchDeltas(String surveyId, List<Response> responses) {
+    if (surveyId == null) return List.of();
+
+    SubmissionValidator validator;
+    try {
+      validator = surveyDescriptorService.getDescriptor(surveyId).getValidator();
+    } catch (NotFoundException e) {
+      return List.of();
+    }
+
+    List<CounterDelta> deltas = new ArrayList<>();
+
+    for (Response response : responses) {
+      if (response.getAnswer() == null || !validator.isFreeText(response.getQuestionId()))
+        continue;
+
+      String answer =
+          response.getAnswer().stream()
+              .filter(value -> value != null && !value.isBlank())
+              .collect(Collectors.joining(" "));
+
+      if (answer.isEmpty()) continue;
+
+      String questionId = response.getQuestionId();
+      TextTokenizer.Tokens tokens = TextTokenizer.tokenize(answer);
+      HyperLogLog.Register register = HyperLogLog.register(TextTokenizer.normalize(answer));
+
+      deltas.add(new CounterDelta(surveyId, TextAggregate.class, questionId, "answers", 1, true));
+      deltas.add(
+          CounterDelta.maximum(
+              surveyId,
+              TextAggregate.class,
+              questionId,
+              "registers." + register.index(),
+              register.rank()));
+
+      for (Set<String> terms : List.of(tokens.terms(), tokens.phrases()))
+        for (String term : terms)
+          for (int index : CountMinSketch.indexes(term))
+            deltas.add(
+                new CounterDelta(
+                    surveyId, TextAggregate.class, questionId, "sketch." + index, 1, true));
+
+      pending.compute(
+          questionId,
+          (id, sketch) -> {
+            PendingSketch updated = sketch == null ? new PendingSketch(topK) : sketch;
+            updated.add(tokens);
+            return updated;
+          });
+    }
+
+    return deltas;
+  }
+
+  /**
+   * Updates the top terms and phrases of the questions answered since the last flush. Candidates
+   * of a question whose aggregate has not been written yet are kept for the next flush.
+   *
+   * @throws DataAccessException If the database cannot be reached.
+   */
+  @Override
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${analysis.text.flush-interval-ms:5000}")
+  public synchronized void flush() {
+    for (String questionId : pending.keySet()) {
+      PendingSketch sketch = pending.remove(questionId);
+      if (sketch == null) continue;
+
+      try {
+        if (!updateTopTerms(questionId, sketch)) requeue(questionId, sketch);
+      } catch (DataAccessException e) {
+        requeue(questionId, sketch);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Summarises the text aggregate of a question.
+   *
+   * @param aggregate The text aggregate, or null if the question has no answers yet.
+   * @return The number of answers, the estimated number of distinct answers and the top terms
+   *     and phrases of the question.
+   */
+  @Override
+  public TextAnalyticsDto summarise(TextAggregate aggregate) {
+    if (aggregate == null)
+      return TextAnalyticsDto.builder().topTerms(Map.of()).topPhrases(Map.of()).build();
+
+    return TextAnalyticsDto.builder()
+        .answers(aggregate.getAnswers())
+        .distinctAnswers(
+            Math.min(
+                HyperLogLog.of(aggregate.getRegisters()).estimate(), aggregate.getAnswers()))
+        .topTerms(aggregate.getTopTerms())
+        .topPhrases(aggregate.getTopPhrases())
+        .build();
+  }
+
+  /**
+   * Estimates the candidates and the stored top terms and phrases of a question from its stored
+   * sketch, and saves the highest. Estimates only grow, so a concurrent flush by another instance
+   * at worst drops candidates, which return the next time they are answered.
+   *
+   * @return False if the question has no stored aggregate yet.
+   */
+  private boolean updateTopTerms(String questionId, PendingSketch sketch) {
+    Query query = Query.query(Criteria.where("_id").is(questionId));
+    query.fields().include("sketch", "topTerms", "topPhrases");
+    TextAggregate stored = mongoTemplate.findOne(query, TextAggregate.class);
+
+    if (stored == null) {
+      logger.debug("Text aggregate of question {} is not written yet", questionId);
+      return false;
+    }
+
+    CountMinSketch counts = CountMinSketch.of(stored.getSketch());
+
+    mongoTemplate.updateFirst(
+        Query.query(Criteria.where("_id").is(questionId)),
+        new Update()
+            .set("topTerms", top(counts, stored.getTopTerms().keySet(), sketch.topTerms))
+            .set("topPhrases", top(counts, stored.getTopPhrases().keySet(), sketch.topPhrases)),
+        TextAggregate.class);
+    return true;
+  }
+
+  private Map<String, Long> top(CountMinSketch counts, Set<String> stored, TopK candidates) {
+    TopK top = new TopK(topK);
+    Set<String> terms = new HashSet<>(stored);
+    terms.addAll(candidates.terms());
+    terms.forEach(term -> top.offer(term, counts.estimate(term)));
+    return top.toMap();
+  }
+
+  private void requeue(String questionId, PendingSketch sketch) {
+    pending.merge(
+        questionId,
+        sketch,
+        (recorded, failed) -> {
+          failed.absorb(recorded);
+          return failed;
+        });
+  }
+
+  /** The candidates for the top terms and phrases of a question seen since the last flush. */
+  private static final class PendingSketch {
+    private final int capacity;
+    private final CountMinSketch counts = new CountMinSketch();
+    private TopK topTerms;
+    private TopK topPhrases;
+
+    PendingSketch(int capacity) {
+      this.capacity = capacity;
+      this.topTerms = new TopK(capacity);
+      this.topPhrases = new TopK(capacity);
+    }
+
+    /** Counts each distinct term and phrase of an answer once. */
+    void add(TextTokenizer.Tokens tokens) {
+      for (String term : tokens.terms()) {
+        counts.add(term);
+        topTerms.offer(term, counts.estimate(term));
+      }
+
+      for (String phrase : tokens.phrases()) {
+        counts.add(phrase);
+        topPhrases.offer(phrase, counts.estimate(phrase));
+      }
+    }
+
+    /** Adds another pending sketch of the same question to this one. */
+    void absorb(PendingSketch other) {
+      counts.merge(other.counts);
+      topTerms = reestimate(topTerms, other.topTerms);
+      topPhrases = reestimate(topPhrases, other.topPhrases);
+    }
+
+    private TopK reestimate(TopK first, TopK second) {
+      TopK merged = new TopK(capacity);
+      Set<String> terms = new HashSet<>(first.terms());
+      terms.addAll(second.terms());
+      terms.forEach(term -> merged.offer(term, counts.estimate(term)));
+      return merged;
+    }
+  }
+}
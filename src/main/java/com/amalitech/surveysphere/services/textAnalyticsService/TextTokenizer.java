@@ -0,0 +1,81 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free-text answers into lower-case terms and two-word phrases. Terms are runs of letters,
+ * digits and apostrophes; stop words, single characters and numbers are left out, and phrases are
+ * only formed from terms that were next to each other in the answer.
+ */
+final class TextTokenizer {
+  private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}']+");
+  private static final Pattern NUMBER = Pattern.compile("\\p{N}+");
+  private static final Set<String> STOP_WORDS =
+      Set.of(
+          "a", "about", "above", "after", "again", "against", "all", "am", "an", "and", "any",
+          "are", "aren't", "as", "at", "be", "because", "been", "before", "being", "below",
+          "between", "both", "but", "by", "can", "can't", "could", "couldn't", "did", "didn't",
+          "do", "does", "doesn't", "doing", "don't", "down", "during", "each", "few", "for",
+          "from", "further", "had", "hadn't", "has", "hasn't", "have", "haven't", "having", "he",
+          "her", "here", "hers", "herself", "him", "himself", "his", "how", "i", "i'm", "i've",
+          "if", "in", "into", "is", "isn't", "it", "it's", "its", "itself", "just", "let's", "me",
+          "more", "most", "my", "myself", "no", "nor", "not", "of", "off", "on", "once", "only",
+          "or", "other", "our", "ours", "ourselves", "out", "over", "own", "same", "she",
+          "should", "shouldn't", "so", "some", "such", "than", "that", "that's", "the", "their",
+          "theirs", "them", "themselves", "then", "there", "there's", "these", "they", "they're",
+          "this", "those", "through", "to", "too", "under", "until", "up", "very", "was",
+          "wasn't", "we", "we're", "were", "weren't", "what", "when", "where", "which", "while",
+          "who", "whom", "why", "will", "with", "won't", "would", "wouldn't", "you", "you're",
+          "your", "yours", "yourself", "yourselves");
+
+  private TextTokenizer() {}
+
+  /** The distinct terms and phrases of an answer. */
+  record Tokens(Set<String> terms, Set<String> phrases) {}
+
+  /**
+   * Tokenizes an answer.
+   *
+   * @param text The answer.
+   * @return The distinct terms and phrases of the answer, in order of first appearance.
+   */
+  static Tokens tokenize(String text) {
+    Set<String> terms = new LinkedHashSet<>();
+    Set<String> phrases = new LinkedHashSet<>();
+    String previous = null;
+
+    for (String word : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+      String term = stripApostrophes(word);
+
+      if (term.length() < 2 || STOP_WORDS.contains(term) || NUMBER.matcher(term).matches()) {
+        previous = null;
+        continue;
+      }
+
+      terms.add(term);
+      if (previous != null) phrases.add(previous + " " + term);
+      previous = term;
+    }
+
+    return new Tokens(terms, phrases);
+  }
+
+  /**
+   * Normalizes a whole answer for counting distinct answers, ignoring case and spacing.
+   *
+   * @param text The answer.
+   * @return The normalized answer.
+   */
+  static String normalize(String text) {
+    return String.join(" ", SEPARATOR.split(text.toLowerCase(Locale.ROOT).strip()));
+  }
+
+  private static String stripApostrophes(String word) {
+    int start = 0;
+    int end = word.length();
+    while (start < end && word.charAt(start) == '\'') start++;
+    while (end > start && word.charAt(end - 1) == '\'') end--;
+    return word.substring(start, end);
+  }
+}
@@ -0,0 +1,66 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import java.util.*;
+
+/**
+ * The k terms with the highest estimated counts, kept in a min-heap so a term only enters when its
+ * estimate beats the smallest one held.
+ */
+final class TopK {
+  private final int capacity;
+  private final Map<String, Long> estimates = new HashMap<>();
+  private final PriorityQueue<String> heap;
+
+  TopK(int capacity) {
+    this.capacity = capacity;
+    this.heap =
+        new PriorityQueue<>(
+            Comparator.<String>comparingLong(estimates::get)
+                .thenComparing(Comparator.reverseOrder()));
+  }
+
+  /**
+   * Offers a term with its current estimate, replacing the smallest term if the heap is full.
+   *
+   * @param term The term.
+   * @param estimate The estimated count of the term.
+   */
+  void offer(String term, long estimate) {
+    if (estimates.containsKey(term)) {
+      heap.remove(term);
+      estimates.put(term, estimate);
+      heap.add(term);
+      return;
+    }
+
+    if (heap.size() < capacity) {
+      estimates.put(term, estimate);
+      heap.add(term);
+      return;
+    }
+
+    String smallest = heap.peek();
+    if (smallest == null || estimate <= estimates.get(smallest)) return;
+
+    heap.poll();
+    estimates.remove(smallest);
+    estimates.put(term, estimate);
+    heap.add(term);
+  }
+
+  Set<String> terms() {
+    return Set.copyOf(estimates.keySet());
+  }
+
+  /** Returns the terms ordered by descending estimate, ties broken alphabetically. */
+  Map<String, Long> toMap() {
+    Map<String, Long> ordered = new LinkedHashMap<>();
+    estimates.entrySet().stream()
+        .sorted(
+            Map.Entry.<String, Long>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey()))
+        .forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+    return ordered;
+  }
+}
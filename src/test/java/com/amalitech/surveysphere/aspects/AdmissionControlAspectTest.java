@@ -0,0 +1,106 @@
+package com.amalitech.surveysphere.aspects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.services.admissionControlService.AdmissionControlService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.InputStream;
+import java.util.Properties;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Tests the client address the aspect keys buckets on. Requests pass through Tomcat's
+ * RemoteIpFilter, which applies the same rules as the RemoteIpValve the native forward-headers
+ * strategy installs, configured with the application's properties.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlAspectTest {
+  private static final String SURVEY_ID = "survey";
+  private static final String PROXY = "127.0.0.1";
+  private static final String CLIENT = "203.0.113.7";
+  private static final String SPOOFED = "198.51.100.1";
+
+  @Mock private AdmissionControlService admissionControlService;
+  @Mock private AdmissionControlService.Permit permit;
+  @Mock private ProceedingJoinPoint joinPoint;
+
+  private AdmissionControlAspect aspect;
+  private RemoteIpFilter remoteIpFilter;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    aspect = new AdmissionControlAspect(admissionControlService);
+    Properties properties = new Properties();
+
+    try (InputStream input =
+        getClass().getClassLoader().getResourceAsStream("application.properties")) {
+      properties.load(input);
+    }
+
+    assertEquals("native", properties.getProperty("server.forward-headers-strategy"));
+    remoteIpFilter = new RemoteIpFilter();
+    remoteIpFilter.setInternalProxies(
+        properties.getProperty("server.tomcat.remoteip.internal-proxies"));
+    remoteIpFilter.setRemoteIpHeader(
+        properties.getProperty("server.tomcat.remoteip.remote-ip-header"));
+    remoteIpFilter.setProtocolHeader(
+        properties.getProperty("server.tomcat.remoteip.protocol-header"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void admitGetSurvey_ignoresForwardedHeadersFromClients() throws Throwable {
+    assertEquals(CLIENT, bucketKey(CLIENT, SPOOFED));
+    assertEquals(CLIENT, bucketKey(CLIENT, "198.51.100.2"));
+  }
+
+  @Test
+  void admitGetSurvey_takesTheClientAddressFromTheLoadBalancer() throws Throwable {
+    assertEquals(CLIENT, bucketKey(PROXY, CLIENT));
+  }
+
+  @Test
+  void admitGetSurvey_ignoresAddressesClientsAddBeforeTheLoadBalancer() throws Throwable {
+    assertEquals(CLIENT, bucketKey(PROXY, SPOOFED + ", " + CLIENT));
+  }
+
+  /** Sends a request from an address with an X-Forwarded-For header and returns its bucket key. */
+  private String bucketKey(String remoteAddress, String forwardedFor) throws Throwable {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/public/survey");
+    request.setRemoteAddr(remoteAddress);
+    request.addHeader("X-Forwarded-For", forwardedFor);
+    MockFilterChain chain = new MockFilterChain();
+    remoteIpFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes((HttpServletRequest) chain.getRequest()));
+    when(admissionControlService.admit(anyString(), anyString())).thenReturn(permit);
+    aspect.admitGetSurvey(joinPoint, SURVEY_ID);
+
+    ArgumentCaptor<String> clientAddress = ArgumentCaptor.forClass(String.class);
+    verify(admissionControlService, atLeastOnce()).admit(eq(SURVEY_ID), clientAddress.capture());
+    return clientAddress.getValue();
+  }
+}
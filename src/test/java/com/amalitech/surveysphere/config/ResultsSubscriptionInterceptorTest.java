@@ -0,0 +1,111 @@
+package com.amalitech.surveysphere.config;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.models.Survey;
+import com.amalitech.surveysphere.models.User;
+import com.amalitech.surveysphere.repositories.SurveyRepository;
+import com.amalitech.surveysphere.repositories.UserRepository;
+import java.security.Principal;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+@ExtendWith(MockitoExtension.class)
+class ResultsSubscriptionInterceptorTest {
+  private static final String SURVEY_ID = "survey";
+  private static final String OWNER_EMAIL = "owner@example.com";
+  private static final Principal OWNER = () -> OWNER_EMAIL;
+
+  @Mock private SurveyRepository surveyRepository;
+  @Mock private UserRepository userRepository;
+  @Mock private MessageChannel channel;
+
+  private ResultsSubscriptionInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    interceptor = new ResultsSubscriptionInterceptor(surveyRepository, userRepository);
+  }
+
+  @Test
+  void preSend_refusesUnauthenticatedSubscriptions() {
+    Message<byte[]> message =
+        frame(StompCommand.SUBSCRIBE, "/topic/results/" + SURVEY_ID, null);
+
+    assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+    verifyNoInteractions(surveyRepository, userRepository);
+  }
+
+  @Test
+  void preSend_allowsTheOwnerToSubscribe() {
+    givenSurveyOwnedBy("owner-id");
+    Message<byte[]> message =
+        frame(StompCommand.SUBSCRIBE, "/topic/results/" + SURVEY_ID, OWNER);
+
+    assertSame(message, interceptor.preSend(message, channel));
+  }
+
+  @Test
+  void preSend_refusesSubscriptionsToOtherUsersSurveys() {
+    givenSurveyOwnedBy("someone-else");
+    Message<byte[]> message =
+        frame(StompCommand.SUBSCRIBE, "/topic/results/" + SURVEY_ID, OWNER);
+
+    assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+  }
+
+  @Test
+  void preSend_refusesPatternsMatchingResultsTopics() {
+    for (String destination : new String[] {"/topic/**", "/topic/results/*"}) {
+      Message<byte[]> message = frame(StompCommand.SUBSCRIBE, destination, OWNER);
+
+      assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+    }
+
+    verifyNoInteractions(surveyRepository, userRepository);
+  }
+
+  @Test
+  void preSend_refusesMessagesSentToResultsTopics() {
+    Message<byte[]> message = frame(StompCommand.SEND, "/topic/results/" + SURVEY_ID, OWNER);
+
+    assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, channel));
+  }
+
+  @Test
+  void preSend_letsOtherDestinationsThrough() {
+    Message<byte[]> message = frame(StompCommand.SUBSCRIBE, "/topic/notification", null);
+
+    assertSame(message, interceptor.preSend(message, channel));
+    verifyNoInteractions(surveyRepository, userRepository);
+  }
+
+  private void givenSurveyOwnedBy(String ownerId) {
+    when(userRepository.findByEmail(OWNER_EMAIL))
+        .thenReturn(Optional.of(User.builder().id("owner-id").email(OWNER_EMAIL).build()));
+    when(surveyRepository.findById(SURVEY_ID))
+        .thenReturn(Optional.of(Survey.builder().id(SURVEY_ID).surveyOwner(ownerId).build()));
+  }
+
+  private static Message<byte[]> frame(StompCommand command, String destination, Principal user) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    accessor.setDestination(destination);
+    accessor.setSessionId("session");
+    accessor.setSubscriptionId("subscription");
+    accessor.setUser(user);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+}
@@ -0,0 +1,151 @@
+package com.amalitech.surveysphere.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Survey;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.crosstabService.CrosstabService;
+import com.amalitech.surveysphere.services.exportJobService.ExportJobService;
+import com.amalitech.surveysphere.services.exportService.ExportService;
+import com.amalitech.surveysphere.services.responseManagementService.ResponseManagementService;
+import com.amalitech.surveysphere.services.responseRateService.ResponseRateService;
+import com.amalitech.surveysphere.services.surveyService.SurveyService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@ExtendWith(MockitoExtension.class)
+class SurveyControllerTest {
+  private static final String SURVEY_ID = "survey";
+  private static final String EXPORTED = "respondentId,createdDate\n";
+
+  @Mock private SurveyService surveyService;
+  @Mock private ResponseManagementService responseManagementService;
+  @Mock private CrosstabService crosstabService;
+  @Mock private ResponseRateService responseRateService;
+  @Mock private ExportService exportService;
+  @Mock private ExportJobService exportJobService;
+
+  @InjectMocks private SurveyController surveyController;
+
+  private final Stream<Respondent> respondents = Stream.empty();
+
+  @Test
+  void exportCsv_opensTheCursorOnlyWhenTheBodyIsWritten() throws Exception {
+    givenExport();
+
+    ResponseEntity<StreamingResponseBody> response =
+        surveyController.exportCsv(SURVEY_ID, null, null);
+
+    verify(responseManagementService, never()).streamIndividualResults(any(), any());
+
+    response.getBody().writeTo(new ByteArrayOutputStream());
+
+    verify(responseManagementService).streamIndividualResults(SURVEY_ID, AnswerFilter.NONE);
+    verify(exportService).write(eq(SURVEY_ID), eq(ExportFormat.CSV), same(respondents), any());
+  }
+
+  @Test
+  void exportCsv_compressesTheBodyWhenTheClientAcceptsGzip() throws Exception {
+    givenExport();
+
+    ResponseEntity<StreamingResponseBody> response =
+        surveyController.exportCsv(SURVEY_ID, "deflate, gzip;q=0.8", null);
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    response.getBody().writeTo(body);
+
+    assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+    try (GZIPInputStream decompressed =
+        new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+      assertEquals(EXPORTED, new String(decompressed.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  void exportNdjson_doesNotCompressWhenGzipIsRefused() throws Exception {
+    givenExport();
+
+    ResponseEntity<StreamingResponseBody> response =
+        surveyController.exportNdjson(SURVEY_ID, "gzip;q=0, identity", null);
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    response.getBody().writeTo(body);
+
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(EXPORTED, body.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void streamIndividualResults_opensTheCursorInTheBodyAndClosesIt() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    Stream<Respondent> cursor = Stream.<Respondent>empty().onClose(() -> closed.set(true));
+    when(surveyService.getSurvey(SURVEY_ID)).thenReturn(Survey.builder().id(SURVEY_ID).build());
+    when(responseManagementService.streamIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenReturn(cursor);
+
+    ResponseEntity<StreamingResponseBody> response =
+        surveyController.streamIndividualResults(SURVEY_ID, null);
+
+    verify(responseManagementService, never()).streamIndividualResults(any(), any());
+
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    response.getBody().writeTo(body);
+
+    verify(responseManagementService).writeIndividualResults(same(cursor), same(body));
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void acceptsGzip_readsQualityValues() {
+    assertTrue(SurveyController.acceptsGzip("gzip"));
+    assertTrue(SurveyController.acceptsGzip("br, GZIP;q=0.5"));
+    assertTrue(SurveyController.acceptsGzip("x-gzip"));
+    assertTrue(SurveyController.acceptsGzip("*;q=0.1"));
+    assertFalse(SurveyController.acceptsGzip(null));
+    assertFalse(SurveyController.acceptsGzip("deflate, br"));
+    assertFalse(SurveyController.acceptsGzip("gzip;q=0"));
+    assertFalse(SurveyController.acceptsGzip("gzip; q=0.000"));
+    assertFalse(SurveyController.acceptsGzip("gzip;q=0, *"));
+    assertFalse(SurveyController.acceptsGzip("*;q=0"));
+    assertFalse(SurveyController.acceptsGzip("gzip;q=high"));
+  }
+
+  private void givenExport() throws Exception {
+    when(surveyService.getExportFileName(SURVEY_ID)).thenReturn("Survey");
+    when(responseManagementService.streamIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenReturn(respondents);
+    doAnswer(
+            invocation -> {
+              invocation
+                  .getArgument(3, OutputStream.class)
+                  .write(EXPORTED.getBytes(StandardCharsets.UTF_8));
+              return null;
+            })
+        .when(exportService)
+        .write(eq(SURVEY_ID), any(), same(respondents), any());
+  }
+}
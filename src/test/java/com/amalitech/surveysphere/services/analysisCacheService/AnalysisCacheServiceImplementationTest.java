@@ -0,0 +1,150 @@
+package com.amalitech.surveysphere.services.analysisCacheService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseAnalysisDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AnalysisCacheServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+  private static final int REQUESTS = 16;
+
+  private final AnalysisCacheServiceImplementation analysisCacheService =
+      new AnalysisCacheServiceImplementation();
+  private final ExecutorService requests = Executors.newFixedThreadPool(REQUESTS);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(analysisCacheService, "enabled", true);
+    ReflectionTestUtils.setField(analysisCacheService, "maximumSize", 100L);
+    ReflectionTestUtils.setField(analysisCacheService, "maxStaleSeconds", 60L);
+    ReflectionTestUtils.setField(analysisCacheService, "maxAgeSeconds", 60L);
+    analysisCacheService.initialize();
+  }
+
+  @AfterEach
+  void tearDown() {
+    requests.shutdownNow();
+    analysisCacheService.shutdown();
+  }
+
+  @Test
+  void concurrentRequestsForTheSameStampShareOneComputation() throws Exception {
+    ResponseAnalysisDto computed = analysis(3);
+    AtomicInteger computations = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<ResponseAnalysisDto> compute =
+        () -> {
+          computations.incrementAndGet();
+          started.countDown();
+          await(release);
+          return computed;
+        };
+
+    List<Future<ResponseAnalysisDto>> results = new ArrayList<>();
+    results.add(requests.submit(() -> analysisCacheService.getAnalysis(SURVEY_ID, 1L, compute)));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    for (int request = 1; request < REQUESTS; request++)
+      results.add(
+          requests.submit(() -> analysisCacheService.getAnalysis(SURVEY_ID, 1L, compute)));
+    release.countDown();
+
+    for (Future<ResponseAnalysisDto> result : results)
+      assertSame(computed, result.get(5, TimeUnit.SECONDS));
+    assertEquals(1, computations.get());
+    assertSame(computed, analysisCacheService.getAnalysis(SURVEY_ID, 1L, this::unexpected));
+  }
+
+  @Test
+  void servesTheStaleAnalysisWhileANewerStampIsComputed() throws Exception {
+    ResponseAnalysisDto stale = analysis(3);
+    ResponseAnalysisDto fresh = analysis(4);
+    analysisCacheService.getAnalysis(SURVEY_ID, 1L, () -> stale);
+
+    AtomicInteger computations = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<ResponseAnalysisDto> compute =
+        () -> {
+          computations.incrementAndGet();
+          await(release);
+          return fresh;
+        };
+
+    List<Future<ResponseAnalysisDto>> results = new ArrayList<>();
+    for (int request = 0; request < REQUESTS; request++)
+      results.add(
+          requests.submit(() -> analysisCacheService.getAnalysis(SURVEY_ID, 2L, compute)));
+
+    for (Future<ResponseAnalysisDto> result : results)
+      assertSame(stale, result.get(5, TimeUnit.SECONDS));
+    release.countDown();
+
+    ResponseAnalysisDto served = stale;
+    for (long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        served == stale && System.nanoTime() < deadline; )
+      served = analysisCacheService.getAnalysis(SURVEY_ID, 2L, this::unexpected);
+
+    assertSame(fresh, served);
+    assertEquals(1, computations.get());
+  }
+
+  @Test
+  void refreshesAnAnalysisThatReachedTheMaximumAgeWithoutANewStamp() {
+    ReflectionTestUtils.setField(analysisCacheService, "maxAgeSeconds", 0L);
+    AtomicInteger computations = new AtomicInteger();
+    Supplier<ResponseAnalysisDto> compute = () -> analysis(computations.incrementAndGet());
+    analysisCacheService.getAnalysis(SURVEY_ID, 1L, compute);
+
+    ResponseAnalysisDto served = analysisCacheService.getAnalysis(SURVEY_ID, 1L, compute);
+    for (long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        served.getResponseCount() == 1 && System.nanoTime() < deadline; )
+      served = analysisCacheService.getAnalysis(SURVEY_ID, 1L, compute);
+
+    assertEquals(2, served.getResponseCount());
+  }
+
+  @Test
+  void computesEveryRequestWhenDisabled() {
+    ReflectionTestUtils.setField(analysisCacheService, "enabled", false);
+    AtomicInteger computations = new AtomicInteger();
+
+    analysisCacheService.getAnalysis(SURVEY_ID, 1L, () -> analysis(computations.incrementAndGet()));
+    analysisCacheService.getAnalysis(SURVEY_ID, 1L, () -> analysis(computations.incrementAndGet()));
+
+    assertEquals(2, computations.get());
+  }
+
+  private ResponseAnalysisDto unexpected() {
+    return fail("The analysis was computed again");
+  }
+
+  private static ResponseAnalysisDto analysis(int responseCount) {
+    return ResponseAnalysisDto.builder().responseCount(responseCount).build();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("Not released");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
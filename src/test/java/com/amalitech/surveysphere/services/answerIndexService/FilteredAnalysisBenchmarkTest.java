@@ -0,0 +1,142 @@
+package com.amalitech.surveysphere.services.answerIndexService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amalitech.surveysphere.services.parallelAnalysisService.ParallelAnalysisServiceImplementation;
+import java.util.*;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares serial and fork-join analysis of a synthetic survey of 100 choice questions and 100,000
+ * respondents, filtered by the answer to one question. Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FilteredAnalysisBenchmarkTest {
+  private static final int QUESTIONS = 100;
+  private static final int RESPONDENTS = 100_000;
+  private static final int OPTIONS = 5;
+  private static final int ROUNDS = 10;
+
+  @Test
+  void parallelAnalysisMatchesSerialAnalysisAndIsFaster() {
+    AnswerIndex index = syntheticIndex(new Random(42));
+    OrdinalBitmap selection =
+        index.select(
+            new AnswerFilter(
+                List.of(new AnswerFilter.Clause("question-0", List.of("option-0", "option-1")))));
+    List<String> questionIds = new ArrayList<>(index.choiceQuestionIds());
+    Collections.sort(questionIds);
+
+    Function<String, Map<String, Long>> analyse =
+        questionId -> {
+          Map<String, Long> counts = new LinkedHashMap<>(index.optionCounts(selection, questionId));
+          counts.put("answered", (long) index.answered(selection, questionId));
+          counts.put("skipped", (long) index.skipped(selection, questionId));
+          return counts;
+        };
+
+    ParallelAnalysisServiceImplementation serial = service(false);
+    ParallelAnalysisServiceImplementation parallel = service(true);
+
+    try {
+      List<Map<String, Long>> serialResults = serial.map(questionIds, analyse);
+      List<Map<String, Long>> parallelResults = parallel.map(questionIds, analyse);
+      assertEquals(serialResults, parallelResults);
+
+      long serialNanos = bestOf(() -> serial.map(questionIds, analyse));
+      long parallelNanos = bestOf(() -> parallel.map(questionIds, analyse));
+
+      System.out.printf(
+          "Analysed %d questions of %d selected respondents: serial %.1f ms, parallel %.1f ms"
+              + " on %d cores, %.2fx%n",
+          QUESTIONS,
+          selection.cardinality(),
+          serialNanos / 1e6,
+          parallelNanos / 1e6,
+          Runtime.getRuntime().availableProcessors(),
+          (double) serialNanos / parallelNanos);
+
+      if (Runtime.getRuntime().availableProcessors() > 1)
+        assertTrue(parallelNanos < serialNanos, "parallel analysis should be faster");
+    } finally {
+      parallel.shutdown();
+    }
+  }
+
+  private static long bestOf(Runnable analysis) {
+    long best = Long.MAX_VALUE;
+
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      analysis.run();
+      best = Math.min(best, System.nanoTime() - start);
+    }
+
+    return best;
+  }
+
+  private static ParallelAnalysisServiceImplementation service(boolean enabled) {
+    ParallelAnalysisServiceImplementation service = new ParallelAnalysisServiceImplementation();
+    ReflectionTestUtils.setField(service, "enabled", enabled);
+    ReflectionTestUtils.setField(service, "minItems", 8);
+    ReflectionTestUtils.setField(service, "itemsPerTask", 4);
+    service.initialize();
+    return service;
+  }
+
+  /**
+   * Builds the index of respondents who each chose one random option of every question, or
+   * skipped it one time in ten.
+   */
+  private static AnswerIndex syntheticIndex(Random random) {
+    Set<String> questionIds = new HashSet<>();
+    Map<String, Map<String, OrdinalBitmap>> options = new HashMap<>();
+    Map<String, OrdinalBitmap> answered = new HashMap<>();
+    Map<String, OrdinalBitmap> skipped = new HashMap<>();
+
+    for (int question = 0; question < QUESTIONS; question++) {
+      String questionId = "question-" + question;
+      int[][] chosen = new int[OPTIONS + 1][RESPONDENTS];
+      int[] sizes = new int[OPTIONS + 1];
+
+      for (int respondent = 0; respondent < RESPONDENTS; respondent++) {
+        int option = random.nextInt(10) == 0 ? OPTIONS : random.nextInt(OPTIONS);
+        chosen[option][sizes[option]++] = respondent;
+      }
+
+      Map<String, OrdinalBitmap> bitmaps = new LinkedHashMap<>();
+      OrdinalBitmap answers = OrdinalBitmap.EMPTY;
+
+      for (int option = 0; option < OPTIONS; option++) {
+        OrdinalBitmap bitmap = OrdinalBitmap.of(chosen[option], sizes[option]);
+        bitmaps.put("option-" + option, bitmap);
+        answers = answers.or(bitmap);
+      }
+
+      questionIds.add(questionId);
+      options.put(questionId, bitmaps);
+      answered.put(questionId, answers);
+      skipped.put(questionId, OrdinalBitmap.of(chosen[OPTIONS], sizes[OPTIONS]));
+    }
+
+    String[] respondentIds = new String[RESPONDENTS];
+    long[] createdMillis = new long[RESPONDENTS];
+    for (int respondent = 0; respondent < RESPONDENTS; respondent++)
+      respondentIds[respondent] = "respondent-" + respondent;
+
+    return new AnswerIndex(
+        1,
+        0,
+        RESPONDENTS,
+        respondentIds,
+        createdMillis,
+        Set.copyOf(questionIds),
+        options,
+        answered,
+        skipped);
+  }
+}
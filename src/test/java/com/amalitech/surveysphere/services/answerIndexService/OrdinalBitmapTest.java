@@ -0,0 +1,123 @@
+package com.amalitech.surveysphere.services.answerIndexService;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class OrdinalBitmapTest {
+  private static final int CONTAINER = 1 << 16;
+
+  @Test
+  void or_unionsOrdinalsAcrossContainers() {
+    OrdinalBitmap union =
+        of(1, CONTAINER, 2 * CONTAINER + 1).or(of(2, CONTAINER, 3 * CONTAINER + 5));
+
+    assertArrayEquals(
+        new int[] {1, 2, CONTAINER, 2 * CONTAINER + 1, 3 * CONTAINER + 5}, ordinals(union));
+    assertEquals(5, union.cardinality());
+  }
+
+  @Test
+  void or_convertsArraysToBitsetsBeyondTheArrayLimit() {
+    OrdinalBitmap evens = of(IntStream.range(0, 4096).map(value -> value * 2).toArray());
+    OrdinalBitmap odds = of(IntStream.range(0, 4096).map(value -> value * 2 + 1).toArray());
+
+    OrdinalBitmap union = evens.or(odds);
+
+    assertEquals(8192, union.cardinality());
+    assertArrayEquals(IntStream.range(0, 8192).toArray(), ordinals(union));
+  }
+
+  @Test
+  void and_intersectsBitsetAndArrayContainers() {
+    OrdinalBitmap range = OrdinalBitmap.range(CONTAINER + 5000);
+    OrdinalBitmap multiples =
+        of(IntStream.range(0, 3 * CONTAINER).filter(value -> value % 20 == 0).toArray());
+
+    OrdinalBitmap intersection = range.and(multiples);
+    int expected = (CONTAINER + 5000 + 19) / 20;
+
+    assertEquals(expected, intersection.cardinality());
+    assertEquals(expected, range.andCardinality(multiples));
+    assertEquals(expected, multiples.andCardinality(range));
+    assertTrue(intersection.contains(CONTAINER + 4984));
+    assertFalse(intersection.contains(CONTAINER + 5004));
+    assertFalse(intersection.contains(1));
+  }
+
+  @Test
+  void and_dropsContainersWithNothingInCommon() {
+    OrdinalBitmap intersection = of(1, CONTAINER + 1).and(of(2, CONTAINER + 1));
+
+    assertArrayEquals(new int[] {CONTAINER + 1}, ordinals(intersection));
+  }
+
+  @Test
+  void andNot_clearsOrdinalsAcrossContainers() {
+    OrdinalBitmap range = OrdinalBitmap.range(CONTAINER + 5000);
+    OrdinalBitmap stale =
+        of(IntStream.concat(IntStream.range(0, 61440), IntStream.of(CONTAINER)).toArray());
+
+    OrdinalBitmap difference = range.andNot(stale);
+
+    assertEquals(CONTAINER + 5000 - 61440 - 1, difference.cardinality());
+    assertFalse(difference.contains(0));
+    assertFalse(difference.contains(61439));
+    assertTrue(difference.contains(61440));
+    assertTrue(difference.contains(CONTAINER - 1));
+    assertFalse(difference.contains(CONTAINER));
+    assertTrue(difference.contains(CONTAINER + 1));
+    assertEquals(4096, difference.andCardinality(OrdinalBitmap.range(CONTAINER)));
+  }
+
+  @Test
+  void andNot_clearsArrayContainersAndDropsEmptiedOnes() {
+    OrdinalBitmap difference = of(1, 5, CONTAINER).andNot(of(1, 5, 7));
+
+    assertArrayEquals(new int[] {CONTAINER}, ordinals(difference));
+    assertEquals(1, difference.cardinality());
+  }
+
+  @Test
+  void andNot_returnsTheSameBitmapWhenNothingIsCleared() {
+    OrdinalBitmap bitmap = of(1, 2, CONTAINER + 3);
+
+    assertSame(bitmap, bitmap.andNot(OrdinalBitmap.EMPTY));
+    assertSame(bitmap, bitmap.andNot(of(3, 2 * CONTAINER)));
+    assertSame(OrdinalBitmap.EMPTY, OrdinalBitmap.EMPTY.andNot(bitmap));
+  }
+
+  @Test
+  void andNot_thenOr_replacesAnOrdinal() {
+    OrdinalBitmap chosen = of(1, 2, 3);
+    OrdinalBitmap replaced = chosen.andNot(of(2)).or(of(4));
+
+    assertArrayEquals(new int[] {1, 3, 4}, ordinals(replaced));
+    assertArrayEquals(new int[] {1, 2, 3}, ordinals(chosen));
+  }
+
+  @Test
+  void range_holdsEveryOrdinalBelowTheBound() {
+    OrdinalBitmap range = OrdinalBitmap.range(2 * CONTAINER + 3);
+
+    assertEquals(2 * CONTAINER + 3, range.cardinality());
+    assertTrue(range.contains(2 * CONTAINER + 2));
+    assertFalse(range.contains(2 * CONTAINER + 3));
+    assertTrue(OrdinalBitmap.range(0).isEmpty());
+  }
+
+  private static OrdinalBitmap of(int... ordinals) {
+    return OrdinalBitmap.of(ordinals, ordinals.length);
+  }
+
+  private static int[] ordinals(OrdinalBitmap bitmap) {
+    IntStream.Builder ordinals = IntStream.builder();
+    bitmap.forEach(ordinals::add);
+    return ordinals.build().toArray();
+  }
+}
@@ -0,0 +1,108 @@
+package com.amalitech.surveysphere.services.completionTimeService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amalitech.surveysphere.dto.responseDto.CompletionTimeDto;
+import com.amalitech.surveysphere.models.CompletionTimeSketch;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CompletionTimeServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+  private static final double RELATIVE_ACCURACY = 0.01;
+
+  private final CompletionTimeServiceImplementation completionTimeService =
+      new CompletionTimeServiceImplementation();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(completionTimeService, "maxDurationHours", 168L);
+  }
+
+  @Test
+  void recordsACompletionAsUpsertsOfItsBucketAndTotals() {
+    List<CounterDelta> deltas =
+        completionTimeService.completionDeltas(SURVEY_ID, new Date(1_000), new Date(61_000));
+
+    assertEquals(3, deltas.size());
+    assertTrue(deltas.stream().allMatch(CounterDelta::upsert));
+    assertTrue(deltas.stream().allMatch(delta -> SURVEY_ID.equals(delta.documentId())));
+    assertTrue(deltas.stream().anyMatch(delta -> delta.field().startsWith("buckets.")));
+    assertTrue(
+        deltas.stream()
+            .anyMatch(delta -> delta.field().equals("totalMillis") && delta.amount() == 60_000));
+  }
+
+  @Test
+  void skipsImplausibleCompletions() {
+    Date now = new Date();
+
+    assertTrue(completionTimeService.completionDeltas(SURVEY_ID, null, now).isEmpty());
+    assertTrue(
+        completionTimeService
+            .completionDeltas(SURVEY_ID, new Date(now.getTime() + 1), now)
+            .isEmpty());
+    assertTrue(
+        completionTimeService
+            .completionDeltas(SURVEY_ID, new Date(now.getTime() - 169L * 3_600_000), now)
+            .isEmpty());
+  }
+
+  @Test
+  void summarisesQuantilesWithinTheRelativeAccuracy() {
+    CompletionTimeSketch sketch = CompletionTimeSketch.builder().build();
+    for (long millis = 1; millis <= 10_000; millis++) record(sketch, millis);
+
+    CompletionTimeDto summary = completionTimeService.summarise(sketch);
+
+    assertEquals(10_000, summary.getCount());
+    assertEquals(5_000, summary.getAverageMillis());
+    assertWithinAccuracy(5_000, summary.getMedianMillis());
+    assertWithinAccuracy(9_000, summary.getP90Millis());
+    assertWithinAccuracy(9_900, summary.getP99Millis());
+  }
+
+  @Test
+  void sharesTheLowestBucketBelowAMillisecond() {
+    CompletionTimeSketch sketch = CompletionTimeSketch.builder().build();
+    record(sketch, 0);
+    record(sketch, 1);
+
+    assertEquals(1, completionTimeService.summarise(sketch).getMedianMillis());
+  }
+
+  @Test
+  void summarisesAnEmptySketchWithoutQuantiles() {
+    CompletionTimeDto summary = completionTimeService.summarise(null);
+
+    assertEquals(0, summary.getCount());
+    assertNull(summary.getMedianMillis());
+  }
+
+  /** Applies the increments of one completion to a sketch, as the counter service would. */
+  private void record(CompletionTimeSketch sketch, long millis) {
+    for (CounterDelta delta :
+        completionTimeService.completionDeltas(SURVEY_ID, new Date(0), new Date(millis))) {
+      switch (delta.field()) {
+        case "count" -> sketch.setCount(sketch.getCount() + delta.amount());
+        case "totalMillis" -> sketch.setTotalMillis(sketch.getTotalMillis() + delta.amount());
+        default ->
+            sketch
+                .getBuckets()
+                .merge(delta.field().substring("buckets.".length()), delta.amount(), Long::sum);
+      }
+    }
+  }
+
+  private static void assertWithinAccuracy(long expected, Long actual) {
+    assertTrue(
+        Math.abs(actual - expected) <= expected * RELATIVE_ACCURACY + 1,
+        "expected " + expected + " within " + RELATIVE_ACCURACY + " but was " + actual);
+  }
+}
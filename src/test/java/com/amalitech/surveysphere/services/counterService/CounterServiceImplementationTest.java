@@ -0,0 +1,82 @@
+package com.amalitech.surveysphere.services.counterService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.models.ResponseRate;
+import com.amalitech.surveysphere.models.ResponseVersion;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class CounterServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+
+  @Mock private MongoTemplate mongoTemplate;
+  @Mock private BulkOperations rateBulk;
+  @Mock private BulkOperations versionBulk;
+
+  private CounterServiceImplementation counterService;
+
+  @BeforeEach
+  void setUp() {
+    counterService = new CounterServiceImplementation(mongoTemplate);
+    ReflectionTestUtils.setField(counterService, "lanesEnabled", true);
+    ReflectionTestUtils.setField(counterService, "laneCount", 1);
+    ReflectionTestUtils.setField(counterService, "queueCapacity", 100);
+    ReflectionTestUtils.setField(counterService, "flushIntervalMillis", 60_000L);
+    ReflectionTestUtils.setField(counterService, "enqueueTimeoutMillis", 1_000L);
+    ReflectionTestUtils.setField(counterService, "flushTimeoutMillis", 10_000L);
+    counterService.startLanes();
+  }
+
+  @AfterEach
+  void tearDown() {
+    counterService.stopLanes();
+  }
+
+  @Test
+  void flush_retriesOnlyTheBulksThatDidNotRun() {
+    List<BulkOperations> executed = Collections.synchronizedList(new ArrayList<>());
+    Answer<Void> execute =
+        invocation -> {
+          executed.add((BulkOperations) invocation.getMock());
+          if (executed.size() == 2) throw new DataAccessResourceFailureException("down");
+          return null;
+        };
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResponseRate.class))
+        .thenReturn(rateBulk);
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResponseVersion.class))
+        .thenReturn(versionBulk);
+    doAnswer(execute).when(rateBulk).execute();
+    doAnswer(execute).when(versionBulk).execute();
+
+    counterService.apply(
+        List.of(
+            new CounterDelta(SURVEY_ID, ResponseRate.class, "rate", "total", 1, true),
+            new CounterDelta(SURVEY_ID, ResponseVersion.class, SURVEY_ID, "version", 1, true)));
+
+    assertThrows(DataAccessResourceFailureException.class, counterService::flush);
+    counterService.flush();
+
+    assertEquals(3, executed.size());
+    assertNotSame(executed.get(0), executed.get(1));
+    assertSame(executed.get(1), executed.get(2));
+  }
+}
@@ -0,0 +1,86 @@
+package com.amalitech.surveysphere.services.crosstabService;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AnswerMatrixTest {
+  private static final Question DEPARTMENT =
+      Question.builder().id("department").type("single-choice").options(List.of("A", "B")).build();
+  private static final Question TOPICS =
+      Question.builder()
+          .id("topics")
+          .type("multiple-choice")
+          .options(List.of("X", "Y", "Z"))
+          .build();
+
+  @Test
+  void countsEveryCombinationOfTheRespondentsWhoAnsweredBothQuestions() {
+    List<Respondent> respondents =
+        List.of(
+            respondent(answer("department", "A"), answer("topics", "X", "Y")),
+            respondent(answer("department", "B"), answer("topics", "X")),
+            respondent(answer("department", "A")),
+            respondent(answer("department", "A"), answer("topics", "X", "X")),
+            respondent(answer("department", "C"), answer("topics", "Z")),
+            Respondent.builder().responses(null).build());
+
+    AnswerMatrix.Counts counts =
+        AnswerMatrix.build(List.of(DEPARTMENT, TOPICS), respondents.iterator())
+            .crosstab("department", "topics");
+
+    assertEquals(List.of("A", "B", "C"), counts.rowOptions());
+    assertEquals(List.of("X", "Y", "Z"), counts.columnOptions());
+    assertArrayEquals(new long[] {2, 1, 0}, counts.counts()[0]);
+    assertArrayEquals(new long[] {1, 0, 0}, counts.counts()[1]);
+    assertArrayEquals(new long[] {0, 0, 1}, counts.counts()[2]);
+    assertEquals(4, counts.total());
+  }
+
+  @Test
+  void ignoresBlankAnswersAndQuestionsOutsideTheMatrix() {
+    List<Respondent> respondents =
+        List.of(
+            respondent(answer("department", " "), answer("topics", "Y")),
+            respondent(answer("department", "B"), answer("topics", "Y"), answer("other", "A")));
+
+    AnswerMatrix.Counts counts =
+        AnswerMatrix.build(List.of(DEPARTMENT, TOPICS), respondents.iterator())
+            .crosstab("department", "topics");
+
+    assertEquals(List.of("A", "B"), counts.rowOptions());
+    assertArrayEquals(new long[] {0, 1, 0}, counts.counts()[1]);
+    assertEquals(1, counts.total());
+  }
+
+  @Test
+  void growsBeyondItsInitialCapacity() {
+    List<Respondent> respondents = new ArrayList<>();
+    for (int index = 0; index < 1_000; index++)
+      respondents.add(
+          respondent(
+              answer("department", index % 2 == 0 ? "A" : "B"), answer("topics", "X", "Y", "Z")));
+
+    AnswerMatrix.Counts counts =
+        AnswerMatrix.build(List.of(DEPARTMENT, TOPICS), respondents.iterator())
+            .crosstab("topics", "department");
+
+    assertArrayEquals(new long[] {500, 500}, counts.counts()[0]);
+    assertArrayEquals(new long[] {500, 500}, counts.counts()[2]);
+    assertEquals(1_000, counts.total());
+  }
+
+  private static Respondent respondent(Response... responses) {
+    return Respondent.builder().responses(List.of(responses)).build();
+  }
+
+  private static Response answer(String questionId, String... answer) {
+    return Response.builder().questionId(questionId).answer(List.of(answer)).build();
+  }
+}
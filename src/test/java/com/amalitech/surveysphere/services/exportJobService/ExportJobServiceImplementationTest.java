@@ -0,0 +1,240 @@
+package com.amalitech.surveysphere.services.exportJobService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.dto.responseDto.ExportJobDto;
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.enums.ExportJobStatus;
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.exceptions.TooManyRequestsException;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.QuestionTitle;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.exportService.ExportServiceImplementation;
+import com.amalitech.surveysphere.services.otherServices.excelService.ExcelService;
+import com.amalitech.surveysphere.services.otherServices.uploadService.FileSystemBlobStore;
+import com.amalitech.surveysphere.services.otherServices.uploadService.UploadServiceImplementation;
+import com.amalitech.surveysphere.services.responseManagementService.ResponseManagementService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.amalitech.surveysphere.services.surveyService.SurveyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceImplementationTest {
+  private static final String SURVEY_ID = new ObjectId().toHexString();
+  private static final String QUESTION_ID = new ObjectId().toHexString();
+  private static final String OWNER_ID = new ObjectId().toHexString();
+
+  @Mock private SurveyService surveyService;
+  @Mock private ResponseManagementService responseManagementService;
+  @Mock private SurveyDescriptorService surveyDescriptorService;
+  @Mock private ExcelService excelService;
+
+  @TempDir private Path blobDirectory;
+
+  private ExportJobServiceImplementation exportJobService;
+
+  @BeforeEach
+  void setUp() {
+    exportJobService =
+        new ExportJobServiceImplementation(
+            surveyService,
+            responseManagementService,
+            new ExportServiceImplementation(
+                surveyDescriptorService, excelService, new ObjectMapper()),
+            new UploadServiceImplementation(new FileSystemBlobStore(blobDirectory)));
+    ReflectionTestUtils.setField(exportJobService, "workers", 1);
+    ReflectionTestUtils.setField(exportJobService, "queueCapacity", 1);
+    ReflectionTestUtils.setField(exportJobService, "retentionMinutes", 60L);
+    ReflectionTestUtils.setField(exportJobService, "retryAfterSeconds", 30L);
+    ReflectionTestUtils.setField(exportJobService, "linkExpiryMinutes", 15L);
+    exportJobService.initialize();
+  }
+
+  @AfterEach
+  void tearDown() {
+    exportJobService.shutdown();
+  }
+
+  @Test
+  void submit_writesTheExportToTheBlobStoreAndReportsProgress() throws Exception {
+    givenColourSurvey();
+
+    ExportJobDto submitted =
+        exportJobService.submit(SURVEY_ID, ExportFormat.CSV, AnswerFilter.NONE);
+    ExportJobDto job = awaitCompletion(submitted.getJobId());
+
+    assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+    assertEquals(2, job.getRowsWritten());
+    assertEquals(2, job.getTotalRows());
+    assertNull(job.getError());
+
+    Path exported = Path.of(URI.create(job.getLink()));
+    assertTrue(exported.startsWith(blobDirectory.toAbsolutePath().normalize()));
+    assertTrue(exported.getFileName().toString().endsWith("Coloursurvey.csv"));
+
+    List<String> lines = Files.readAllLines(exported, StandardCharsets.UTF_8);
+    assertEquals(3, lines.size());
+    assertTrue(lines.get(0).endsWith("\"Favourite colour\""));
+    assertTrue(lines.get(1).startsWith("\"first\""));
+    assertTrue(lines.get(1).endsWith("\"Red\""));
+    assertTrue(lines.get(2).endsWith("\"Blue\""));
+  }
+
+  @Test
+  void shutdown_deletesTheExportedFiles() throws Exception {
+    givenColourSurvey();
+
+    ExportJobDto job =
+        awaitCompletion(
+            exportJobService.submit(SURVEY_ID, ExportFormat.CSV, AnswerFilter.NONE).getJobId());
+    Path exported = Path.of(URI.create(job.getLink()));
+    assertTrue(Files.exists(exported));
+
+    exportJobService.shutdown();
+
+    assertFalse(Files.exists(exported));
+  }
+
+  @Test
+  void submit_reportsFailedExportsWithoutTheirCause() throws Exception {
+    when(surveyService.getUserId()).thenReturn(OWNER_ID);
+    when(surveyService.getExportFileName(SURVEY_ID)).thenReturn("Colour survey");
+    when(responseManagementService.countIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenReturn(1L);
+    when(responseManagementService.streamIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenThrow(new IllegalStateException("cursor closed"));
+
+    ExportJobDto job =
+        awaitCompletion(
+            exportJobService.submit(SURVEY_ID, ExportFormat.NDJSON, AnswerFilter.NONE).getJobId());
+
+    assertEquals(ExportJobStatus.FAILED, job.getStatus());
+    assertEquals("The export failed, try again later", job.getError());
+    assertNull(job.getLink());
+    try (Stream<Path> blobs = Files.list(blobDirectory)) {
+      assertEquals(0, blobs.count());
+    }
+  }
+
+  @Test
+  void submit_rejectsExportsBeyondTheQueue() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(surveyService.getUserId()).thenReturn(OWNER_ID);
+    when(surveyService.getExportFileName(SURVEY_ID)).thenReturn("Colour survey");
+    when(responseManagementService.countIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(10, TimeUnit.SECONDS);
+              return 0L;
+            });
+    when(responseManagementService.streamIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenAnswer(invocation -> Stream.empty());
+
+    exportJobService.submit(SURVEY_ID, ExportFormat.NDJSON, AnswerFilter.NONE);
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    exportJobService.submit(SURVEY_ID, ExportFormat.NDJSON, AnswerFilter.NONE);
+
+    TooManyRequestsException exception =
+        assertThrows(
+            TooManyRequestsException.class,
+            () -> exportJobService.submit(SURVEY_ID, ExportFormat.NDJSON, AnswerFilter.NONE));
+    assertEquals(30, exception.getRetryAfterSeconds());
+
+    release.countDown();
+  }
+
+  @Test
+  void getJob_throwsForUnknownJobs() {
+    assertThrows(NotFoundException.class, () -> exportJobService.getJob("missing"));
+  }
+
+  @Test
+  void getJob_throwsForJobsOfOtherUsers() throws Exception {
+    givenColourSurvey();
+    String jobId =
+        awaitCompletion(
+                exportJobService.submit(SURVEY_ID, ExportFormat.CSV, AnswerFilter.NONE).getJobId())
+            .getJobId();
+
+    when(surveyService.getUserId()).thenReturn(new ObjectId().toHexString());
+
+    assertThrows(NotFoundException.class, () -> exportJobService.getJob(jobId));
+  }
+
+  private void givenColourSurvey() {
+    Question question =
+        Question.builder()
+            .id(QUESTION_ID)
+            .title(QuestionTitle.builder().question("Favourite colour").build())
+            .type("single-choice")
+            .options(List.of("Red", "Blue"))
+            .build();
+    when(surveyService.getUserId()).thenReturn(OWNER_ID);
+    when(surveyService.getExportFileName(SURVEY_ID)).thenReturn("Colour survey");
+    when(surveyDescriptorService.getDescriptor(SURVEY_ID))
+        .thenReturn(
+            SubmissionDescriptor.builder()
+                .surveyId(SURVEY_ID)
+                .questions(List.of(question))
+                .build());
+    when(responseManagementService.countIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenReturn(2L);
+    when(responseManagementService.streamIndividualResults(SURVEY_ID, AnswerFilter.NONE))
+        .thenReturn(Stream.of(respondent("first", "Red"), respondent("second", "Blue")));
+  }
+
+  private ExportJobDto awaitCompletion(String jobId) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    ExportJobDto job = exportJobService.getJob(jobId);
+
+    while ((job.getStatus() == ExportJobStatus.QUEUED || job.getStatus() == ExportJobStatus.RUNNING)
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      job = exportJobService.getJob(jobId);
+    }
+
+    return job;
+  }
+
+  private static Respondent respondent(String id, String answer) {
+    return Respondent.builder()
+        .id(id)
+        .surveyId(SURVEY_ID)
+        .responses(
+            List.of(
+                Response.builder()
+                    .questionId(QUESTION_ID)
+                    .questionType("single-choice")
+                    .answer(List.of(answer))
+                    .build()))
+        .build();
+  }
+}
@@ -0,0 +1,92 @@
+package com.amalitech.surveysphere.services.exportService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.QuestionTitle;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ExportColumnsTest {
+  private final ExportColumns columns =
+      new ExportColumns(List.of(question("colour", "Colour"), question("comment", "Comment")));
+
+  @SuppressWarnings("unchecked")
+  private final List<String>[] answers = new List[2];
+
+  @Test
+  void constructor_makesAColumnPerQuestionInSurveyOrder() {
+    assertEquals(2, columns.size());
+    assertEquals("Colour", columns.title(0));
+    assertEquals("comment", columns.question(1).getId());
+  }
+
+  @Test
+  void fill_placesAnswersByQuestionId() {
+    columns.fill(
+        respondent(response("comment", null, "Fine"), response("colour", null, "Red", "Blue")),
+        answers);
+
+    assertEquals(List.of("Red", "Blue"), answers[0]);
+    assertEquals(List.of("Fine"), answers[1]);
+  }
+
+  @Test
+  void fill_fallsBackToTheTitleForResponsesWithoutQuestionId() {
+    columns.fill(respondent(response(null, "Comment", "Fine")), answers);
+
+    assertNull(answers[0]);
+    assertEquals(List.of("Fine"), answers[1]);
+  }
+
+  @Test
+  void fill_leavesUnansweredQuestionsNullAndSkippedQuestionsEmpty() {
+    Response skipped = response("colour", null);
+    skipped.setAnswer(Arrays.asList("", null));
+
+    columns.fill(respondent(skipped), answers);
+
+    assertEquals(List.of(), answers[0]);
+    assertNull(answers[1]);
+  }
+
+  @Test
+  void fill_clearsTheAnswersOfThePreviousRespondent() {
+    columns.fill(respondent(response("colour", null, "Red")), answers);
+    columns.fill(respondent(), answers);
+
+    assertNull(answers[0]);
+    assertNull(answers[1]);
+  }
+
+  @Test
+  void cellText_joinsAnswersAndNamesUnansweredAndSkippedQuestions() {
+    assertEquals("Red, Blue", ExportColumns.cellText(List.of("Red", "Blue"), "-", "Skipped"));
+    assertEquals("Skipped", ExportColumns.cellText(List.of(), "-", "Skipped"));
+    assertEquals("-", ExportColumns.cellText(null, "-", "Skipped"));
+  }
+
+  private static Question question(String id, String title) {
+    return Question.builder()
+        .id(id)
+        .title(QuestionTitle.builder().question(title).build())
+        .type("short-text")
+        .build();
+  }
+
+  private static Response response(String questionId, String question, String... answer) {
+    return Response.builder()
+        .questionId(questionId)
+        .question(question)
+        .answer(List.of(answer))
+        .build();
+  }
+
+  private static Respondent respondent(Response... responses) {
+    return Respondent.builder().id("respondent").responses(List.of(responses)).build();
+  }
+}
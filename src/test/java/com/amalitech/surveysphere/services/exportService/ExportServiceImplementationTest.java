@@ -0,0 +1,173 @@
+package com.amalitech.surveysphere.services.exportService;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.enums.ExportFormat;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.QuestionTitle;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.otherServices.excelService.ExcelService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+  private static final Date CREATED = new Date(1_700_000_000_000L);
+
+  @Mock private SurveyDescriptorService surveyDescriptorService;
+  @Mock private ExcelService excelService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private ExportServiceImplementation exportService;
+
+  @BeforeEach
+  void setUp() {
+    exportService =
+        new ExportServiceImplementation(surveyDescriptorService, excelService, objectMapper);
+  }
+
+  @Test
+  void write_csvWritesAHeaderAndARowPerRespondent() throws Exception {
+    givenQuestions();
+
+    List<String[]> rows =
+        csv(
+            respondent("first", response("colour", "Red", "Blue"), response("comment")),
+            respondent("second", response("comment", "Fine")));
+
+    assertEquals(3, rows.size());
+    assertArrayEquals(
+        new String[] {"respondentId", "createdDate", "submittedDate", "Colour", "Comment"},
+        rows.get(0));
+    assertArrayEquals(
+        new String[] {"first", CREATED.toInstant().toString(), "", "Red, Blue", ""}, rows.get(1));
+    assertArrayEquals(
+        new String[] {"second", CREATED.toInstant().toString(), "", "", "Fine"}, rows.get(2));
+  }
+
+  @Test
+  void write_csvEscapesCellsThatStartLikeFormulas() throws Exception {
+    givenQuestions();
+
+    List<String[]> rows =
+        csv(
+            respondent("first", response("comment", "=HYPERLINK(\"x\")")),
+            respondent("second", response("comment", "+1")),
+            respondent("third", response("comment", "-1")),
+            respondent("fourth", response("comment", "@SUM(A1)")),
+            respondent("fifth", response("comment", "Fine - thanks")));
+
+    assertEquals("'=HYPERLINK(\"x\")", rows.get(1)[4]);
+    assertEquals("'+1", rows.get(2)[4]);
+    assertEquals("'-1", rows.get(3)[4]);
+    assertEquals("'@SUM(A1)", rows.get(4)[4]);
+    assertEquals("Fine - thanks", rows.get(5)[4]);
+  }
+
+  @Test
+  void write_ndjsonWritesAnObjectPerRespondentWithAnswersKeyedByQuestionId() throws Exception {
+    givenQuestions();
+
+    String[] lines =
+        write(
+                ExportFormat.NDJSON,
+                Stream.of(
+                    respondent("first", response("colour", "Red"), response("comment")),
+                    respondent("second")))
+            .split("\n");
+
+    assertEquals(2, lines.length);
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertEquals("first", first.get("respondentId").asText());
+    assertEquals(CREATED.toInstant().toString(), first.get("createdDate").asText());
+    assertTrue(first.get("submittedDate").isNull());
+    assertEquals("Red", first.get("answers").get("colour").get(0).asText());
+    assertEquals(0, first.get("answers").get("comment").size());
+
+    JsonNode second = objectMapper.readTree(lines[1]);
+    assertFalse(second.get("answers").fieldNames().hasNext());
+  }
+
+  @Test
+  void write_closesTheStreamOfRespondents() throws Exception {
+    givenQuestions();
+    AtomicBoolean closed = new AtomicBoolean();
+
+    write(ExportFormat.CSV, Stream.of(respondent("first")).onClose(() -> closed.set(true)));
+
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void write_leavesWorkbooksToTheExcelService() throws Exception {
+    Stream<Respondent> respondents = Stream.empty();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    exportService.write(SURVEY_ID, ExportFormat.XLSX, respondents, outputStream);
+
+    verify(excelService).writeExcel(SURVEY_ID, respondents, outputStream);
+  }
+
+  private void givenQuestions() {
+    when(surveyDescriptorService.getDescriptor(SURVEY_ID))
+        .thenReturn(
+            SubmissionDescriptor.builder()
+                .surveyId(SURVEY_ID)
+                .questions(List.of(question("colour", "Colour"), question("comment", "Comment")))
+                .build());
+  }
+
+  private List<String[]> csv(Respondent... respondents) throws Exception {
+    try (CSVReader reader =
+        new CSVReader(new StringReader(write(ExportFormat.CSV, Stream.of(respondents))))) {
+      return reader.readAll();
+    }
+  }
+
+  private String write(ExportFormat format, Stream<Respondent> respondents) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    exportService.write(SURVEY_ID, format, respondents, outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8);
+  }
+
+  private static Question question(String id, String title) {
+    return Question.builder()
+        .id(id)
+        .title(QuestionTitle.builder().question(title).build())
+        .type("short-text")
+        .build();
+  }
+
+  private static Response response(String questionId, String... answer) {
+    return Response.builder().questionId(questionId).answer(List.of(answer)).build();
+  }
+
+  private static Respondent respondent(String id, Response... responses) {
+    Respondent respondent =
+        Respondent.builder().id(id).surveyId(SURVEY_ID).responses(List.of(responses)).build();
+    respondent.setCreatedDate(CREATED);
+    return respondent;
+  }
+}
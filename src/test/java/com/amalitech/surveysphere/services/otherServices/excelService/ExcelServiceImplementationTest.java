@@ -0,0 +1,116 @@
+package com.amalitech.surveysphere.services.otherServices.excelService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.QuestionTitle;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ExcelServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+  private static final String QUESTION_ID = "question";
+
+  @Mock private SurveyDescriptorService surveyDescriptorService;
+
+  private ExcelServiceImplementation excelService;
+
+  @BeforeEach
+  void setUp() {
+    excelService = new ExcelServiceImplementation(surveyDescriptorService);
+    ReflectionTestUtils.setField(excelService, "rowWindow", 2);
+    ReflectionTestUtils.setField(excelService, "sheetRows", 3);
+    when(surveyDescriptorService.getDescriptor(SURVEY_ID))
+        .thenReturn(
+            SubmissionDescriptor.builder()
+                .surveyId(SURVEY_ID)
+                .questions(
+                    List.of(
+                        Question.builder()
+                            .id(QUESTION_ID)
+                            .title(QuestionTitle.builder().question("Name").build())
+                            .type("short-text")
+                            .build()))
+                .build());
+  }
+
+  @Test
+  void writeExcel_continuesOnANewSheetOnceASheetIsFull() throws Exception {
+    try (XSSFWorkbook workbook = write(5)) {
+      assertEquals(3, workbook.getNumberOfSheets());
+      assertEquals("Survey Responses", workbook.getSheetName(0));
+      assertEquals("Survey Responses 2", workbook.getSheetName(1));
+      assertEquals("Survey Responses 3", workbook.getSheetName(2));
+
+      for (int index = 0; index < 3; index++)
+        assertEquals("Name", workbook.getSheetAt(index).getRow(0).getCell(0).getStringCellValue());
+
+      assertEquals(List.of("respondent-0", "respondent-1"), answers(workbook.getSheetAt(0)));
+      assertEquals(List.of("respondent-2", "respondent-3"), answers(workbook.getSheetAt(1)));
+      assertEquals(List.of("respondent-4"), answers(workbook.getSheetAt(2)));
+    }
+  }
+
+  @Test
+  void writeExcel_keepsAFullSheetWithoutAddingAnEmptyOne() throws Exception {
+    try (XSSFWorkbook workbook = write(2)) {
+      assertEquals(1, workbook.getNumberOfSheets());
+      assertEquals(List.of("respondent-0", "respondent-1"), answers(workbook.getSheetAt(0)));
+    }
+  }
+
+  @Test
+  void writeExcel_writesTheHeaderOfAnEmptySurvey() throws Exception {
+    try (XSSFWorkbook workbook = write(0)) {
+      assertEquals(1, workbook.getNumberOfSheets());
+      assertEquals(0, workbook.getSheetAt(0).getLastRowNum());
+    }
+  }
+
+  private XSSFWorkbook write(int respondents) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Stream<Respondent> stream =
+        IntStream.range(0, respondents).mapToObj(ExcelServiceImplementationTest::respondent);
+
+    excelService.writeExcel(SURVEY_ID, stream, outputStream);
+
+    return new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+  }
+
+  private static List<String> answers(Sheet sheet) {
+    return IntStream.rangeClosed(1, sheet.getLastRowNum())
+        .mapToObj(index -> sheet.getRow(index).getCell(0).getStringCellValue())
+        .toList();
+  }
+
+  private static Respondent respondent(int index) {
+    return Respondent.builder()
+        .id("id-" + index)
+        .surveyId(SURVEY_ID)
+        .responses(
+            List.of(
+                Response.builder()
+                    .questionId(QUESTION_ID)
+                    .questionType("short-text")
+                    .answer(List.of("respondent-" + index))
+                    .build()))
+        .build();
+  }
+}
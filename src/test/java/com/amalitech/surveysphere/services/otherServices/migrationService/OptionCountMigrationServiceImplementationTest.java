@@ -0,0 +1,87 @@
+package com.amalitech.surveysphere.services.otherServices.migrationService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.models.QuestionAggregate;
+import com.amalitech.surveysphere.models.Respondent;
+import com.amalitech.surveysphere.models.Response;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import com.amalitech.surveysphere.services.counterService.CounterService;
+import com.amalitech.surveysphere.services.questionAggregateService.QuestionAggregateService;
+import com.mongodb.client.result.UpdateResult;
+import java.util.Date;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
+class OptionCountMigrationServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+  private static final Date MODIFIED = new Date(1_700_000_000_000L);
+
+  @Mock private MongoTemplate mongoTemplate;
+  @Mock private QuestionAggregateService questionAggregateService;
+  @Mock private CounterService counterService;
+
+  private OptionCountMigrationServiceImplementation migrationService;
+  private final List<Response> responses =
+      List.of(Response.builder().questionId("colour").answer(List.of("Red")).build());
+  private final CounterDelta delta =
+      new CounterDelta(SURVEY_ID, QuestionAggregate.class, "colour", "counts.Red", 1, true);
+
+  @BeforeEach
+  void setUp() {
+    migrationService =
+        new OptionCountMigrationServiceImplementation(
+            mongoTemplate, questionAggregateService, counterService);
+    Respondent respondent =
+        Respondent.builder()
+            .id("respondent")
+            .surveyId(SURVEY_ID)
+            .responses(responses)
+            .modifiedDate(MODIFIED)
+            .build();
+    when(mongoTemplate.find(any(Query.class), eq(Respondent.class)))
+        .thenReturn(List.of(respondent));
+    when(questionAggregateService.optionCountDeltas(SURVEY_ID, responses))
+        .thenReturn(List.of(delta));
+  }
+
+  @Test
+  void countOptions_marksRespondentsNotModifiedSinceTheyWereRead() {
+    ArgumentCaptor<Query> unchanged = ArgumentCaptor.forClass(Query.class);
+    when(mongoTemplate.updateFirst(unchanged.capture(), any(Update.class), eq(Respondent.class)))
+        .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+    assertEquals(1, migrationService.countOptions(10));
+
+    Document criteria = unchanged.getValue().getQueryObject();
+    assertEquals("respondent", criteria.get("_id"));
+    assertEquals(MODIFIED, criteria.get("modifiedDate"));
+    verify(counterService).apply(List.of(delta));
+    verify(counterService).apply(List.of());
+  }
+
+  @Test
+  void countOptions_takesBackTheCountsOfRespondentsModifiedSinceTheyWereRead() {
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Respondent.class)))
+        .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+    migrationService.countOptions(10);
+
+    verify(counterService).apply(List.of(delta));
+    verify(counterService).apply(List.of(delta.negated()));
+  }
+}
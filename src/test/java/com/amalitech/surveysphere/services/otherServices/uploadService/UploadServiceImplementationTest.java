@@ -0,0 +1,79 @@
+package com.amalitech.surveysphere.services.otherServices.uploadService;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amalitech.surveysphere.dto.requestDto.FileUploadDto;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UploadServiceImplementationTest {
+  private static final byte[] IMAGE = {1, 2, 3};
+
+  @TempDir private Path blobDirectory;
+
+  private UploadServiceImplementation uploadService;
+
+  @BeforeEach
+  void setUp() {
+    uploadService = new UploadServiceImplementation(new FileSystemBlobStore(blobDirectory));
+  }
+
+  @Test
+  void uploadFile_storesImagesInTheBlobStore() throws Exception {
+    String link = uploadService.uploadFile(image("data:image/png;base64,"));
+
+    Path stored = Path.of(URI.create(link));
+    assertTrue(stored.startsWith(blobDirectory.toAbsolutePath().normalize().resolve("logos")));
+    assertTrue(stored.getFileName().toString().endsWith(".png"));
+    assertArrayEquals(IMAGE, Files.readAllBytes(stored));
+  }
+
+  @Test
+  void uploadFile_returnsLinksToUploadedImagesAsTheyAre() {
+    String link = uploadService.uploadFile(image("data:image/png;base64,"));
+
+    assertEquals(link, uploadService.uploadFile(FileUploadDto.builder().url(link).build()));
+  }
+
+  @Test
+  void uploadFile_rejectsUrlsThatAreNotImages() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> uploadService.uploadFile(image("data:text/html;base64,")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            uploadService.uploadFile(
+                FileUploadDto.builder().url("https://example.com/logo.png").build()));
+  }
+
+  @Test
+  void deleteExport_removesTheUploadedExport() throws Exception {
+    Path file = Files.writeString(blobDirectory.resolve("export.csv"), "respondentId\n");
+    String key = uploadService.uploadExport(file, "exports/job/Colour survey.csv", "text/csv");
+    Path stored = Path.of(URI.create(uploadService.getExportLink(key, Duration.ofMinutes(1))));
+
+    assertEquals("exports/job/Coloursurvey.csv", key);
+    assertEquals("respondentId\n", Files.readString(stored));
+
+    uploadService.deleteExport(key);
+
+    assertFalse(Files.exists(stored));
+  }
+
+  private static FileUploadDto image(String prefix) {
+    return FileUploadDto.builder()
+        .url(prefix + Base64.getEncoder().encodeToString(IMAGE))
+        .build();
+  }
+}
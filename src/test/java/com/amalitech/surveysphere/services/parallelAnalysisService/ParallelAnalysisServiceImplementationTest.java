@@ -0,0 +1,121 @@
+package com.amalitech.surveysphere.services.parallelAnalysisService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ParallelAnalysisServiceImplementationTest {
+  private final List<Integer> items = IntStream.range(0, 100).boxed().toList();
+  private ParallelAnalysisServiceImplementation service;
+
+  @AfterEach
+  void tearDown() {
+    if (service != null) service.shutdown();
+  }
+
+  @Test
+  void map_returnsResultsInItemOrderFromThePool() {
+    service = service(true, 4, 8);
+    Thread caller = Thread.currentThread();
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    List<Integer> results =
+        service.map(
+            items,
+            item -> {
+              threads.add(Thread.currentThread());
+              return item * 2;
+            });
+
+    assertEquals(items.stream().map(item -> item * 2).toList(), results);
+    assertFalse(threads.contains(caller));
+  }
+
+  @Test
+  void map_runsTasksConcurrently() throws Exception {
+    service = service(true, 2, 2);
+    CyclicBarrier barrier = new CyclicBarrier(2);
+
+    List<Integer> results =
+        service.map(
+            List.of(1, 2),
+            item -> {
+              try {
+                barrier.await(10, TimeUnit.SECONDS);
+              } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+              }
+              return item;
+            });
+
+    assertEquals(List.of(1, 2), results);
+  }
+
+  @Test
+  void map_mapsShortListsOnTheCallingThread() {
+    service = service(true, 4, 8);
+    Thread caller = Thread.currentThread();
+
+    List<Thread> threads = service.map(List.of(1, 2, 3), item -> Thread.currentThread());
+
+    assertEquals(List.of(caller, caller, caller), threads);
+  }
+
+  @Test
+  void map_mapsOnTheCallingThreadWhenDisabled() {
+    service = service(false, 4, 8);
+    Thread caller = Thread.currentThread();
+
+    List<Thread> threads = service.map(items, item -> Thread.currentThread());
+
+    assertEquals(items.size(), threads.size());
+    threads.forEach(thread -> assertSame(caller, thread));
+  }
+
+  @Test
+  void map_returnsTheSameUnmodifiableListInBothModes() {
+    service = service(true, 4, 8);
+    ParallelAnalysisServiceImplementation serial = service(false, 4, 8);
+
+    List<Integer> parallelResults = service.map(items, item -> item);
+    List<Integer> serialResults = serial.map(items, item -> item);
+
+    assertEquals(serialResults, parallelResults);
+    assertSame(serialResults.getClass(), parallelResults.getClass());
+    assertThrows(UnsupportedOperationException.class, () -> parallelResults.set(0, 1));
+    assertThrows(UnsupportedOperationException.class, () -> serialResults.set(0, 1));
+  }
+
+  @Test
+  void map_keepsNullResults() {
+    service = service(true, 4, 8);
+
+    List<Object> results = service.map(items, item -> item % 2 == 0 ? null : item);
+
+    assertNull(results.get(0));
+    assertEquals(1, results.get(1));
+  }
+
+  private static ParallelAnalysisServiceImplementation service(
+      boolean enabled, int parallelism, int minItems) {
+    ParallelAnalysisServiceImplementation service = new ParallelAnalysisServiceImplementation();
+    ReflectionTestUtils.setField(service, "enabled", enabled);
+    ReflectionTestUtils.setField(service, "parallelism", parallelism);
+    ReflectionTestUtils.setField(service, "minItems", minItems);
+    ReflectionTestUtils.setField(service, "itemsPerTask", 1);
+    service.initialize();
+    return service;
+  }
+}
@@ -0,0 +1,46 @@
+package com.amalitech.surveysphere.services.respondentCountService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.models.Survey;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
+class RespondentCountServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+
+  @Mock private MongoTemplate mongoTemplate;
+  @Mock private BulkOperations operations;
+
+  @InjectMocks private RespondentCountServiceImplementation respondentCountService;
+
+  @Test
+  void recordRespondents_onlyIncrementsActiveSurveys() {
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Survey.class))
+        .thenReturn(operations);
+
+    respondentCountService.recordRespondents(Map.of(SURVEY_ID, 2));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(operations).updateOne(query.capture(), update.capture());
+    verify(operations).execute();
+    assertEquals(
+        new Document("_id", SURVEY_ID).append("active", true), query.getValue().getQueryObject());
+    assertEquals(
+        new Document("respondentCount", 2), update.getValue().getUpdateObject().get("$inc"));
+  }
+}
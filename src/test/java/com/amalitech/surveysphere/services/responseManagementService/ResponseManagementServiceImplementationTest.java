@@ -0,0 +1,184 @@
+package com.amalitech.surveysphere.services.responseManagementService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseAnalysisDto;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.QuestionTitle;
+import com.amalitech.surveysphere.services.analysisCacheService.AnalysisCacheService;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndexService;
+import com.amalitech.surveysphere.services.completionTimeService.CompletionTimeService;
+import com.amalitech.surveysphere.services.idempotencyService.IdempotencyService;
+import com.amalitech.surveysphere.services.otherServices.timeservice.TimeService;
+import com.amalitech.surveysphere.services.parallelAnalysisService.ParallelAnalysisService;
+import com.amalitech.surveysphere.services.parallelAnalysisService.ParallelAnalysisServiceImplementation;
+import com.amalitech.surveysphere.services.responseIngestionService.ResponseIngestionService;
+import com.amalitech.surveysphere.services.responseVersionService.ResponseVersionService;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionDescriptor;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SubmissionValidator;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import com.amalitech.surveysphere.services.textAnalyticsService.TextAnalyticsService;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseManagementServiceImplementationTest {
+  private static final String SURVEY_ID = new ObjectId().toHexString();
+  private static final String CHOICE_QUESTION_ID = new ObjectId().toHexString();
+  private static final String TEXT_QUESTION_ID = new ObjectId().toHexString();
+
+  @Mock private MongoTemplate mongoTemplate;
+  @Mock private TimeService timeService;
+  @Mock private SurveyDescriptorService surveyDescriptorService;
+  @Mock private ResponseIngestionService responseIngestionService;
+  @Mock private IdempotencyService idempotencyService;
+  @Mock private CompletionTimeService completionTimeService;
+  @Mock private TextAnalyticsService textAnalyticsService;
+  @Mock private ResponseVersionService responseVersionService;
+  @Mock private AnalysisCacheService analysisCacheService;
+  @Mock private AnswerIndexService answerIndexService;
+
+  @Spy
+  private ParallelAnalysisService parallelAnalysisService =
+      new ParallelAnalysisServiceImplementation();
+
+  @InjectMocks private ResponseManagementServiceImplementation responseManagementService;
+
+  @BeforeEach
+  void setUp() {
+    Question choiceQuestion =
+        Question.builder()
+            .id(CHOICE_QUESTION_ID)
+            .title(QuestionTitle.builder().question("Favourite colour").build())
+            .type("single-choice")
+            .options(List.of("Red", "Blue"))
+            .build();
+    Question textQuestion =
+        Question.builder()
+            .id(TEXT_QUESTION_ID)
+            .title(QuestionTitle.builder().question("Why?").build())
+            .type("paragraph")
+            .build();
+
+    when(surveyDescriptorService.getDescriptor(SURVEY_ID))
+        .thenReturn(
+            SubmissionDescriptor.builder()
+                .surveyId(SURVEY_ID)
+                .active(true)
+                .questions(List.of(choiceQuestion, textQuestion))
+                .validator(
+                    SubmissionValidator.compile(List.of(List.of(choiceQuestion, textQuestion))))
+                .build());
+
+    MappingMongoConverter converter =
+        new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+    converter.afterPropertiesSet();
+    when(mongoTemplate.getConverter()).thenReturn(converter);
+    when(analysisCacheService.getAnalysis(eq(SURVEY_ID), any(), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+  }
+
+  @Test
+  void getResponsesIssuesASingleAggregation() {
+    Date averageCreatedDate = new Date();
+    Document analysis =
+        new Document(
+                "respondents",
+                List.of(
+                    new Document("count", 3L)
+                        .append("averageCreatedDate", averageCreatedDate.getTime())))
+            .append(
+                "questions",
+                List.of(
+                    new Document("_id", new ObjectId(CHOICE_QUESTION_ID))
+                        .append("answered", 3L)
+                        .append("skipped", 0L),
+                    new Document("_id", new ObjectId(TEXT_QUESTION_ID))
+                        .append("answered", 2)
+                        .append("skipped", 1)))
+            .append(
+                "optionCounts",
+                List.of(
+                    new Document("_id", new ObjectId(CHOICE_QUESTION_ID))
+                        .append("counts", new Document("Red", 2L).append("Blue", 1L)))));
+
+    when(mongoTemplate.aggregate(any(Aggregation.class), eq("respondent"), eq(Document.class)))
+        .thenReturn(new AggregationResults<>(List.of(analysis), new Document()));
+    when(timeService.formatTime(averageCreatedDate)).thenReturn("10:30");
+
+    ResponseAnalysisDto result =
+        responseManagementService.getResponses(SURVEY_ID, AnswerFilter.NONE);
+
+    ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+    verify(mongoTemplate, times(1))
+        .aggregate(aggregation.capture(), anyString(), eq(Document.class));
+    verify(mongoTemplate, atLeastOnce()).getConverter();
+    verifyNoMoreInteractions(mongoTemplate);
+    verifyNoInteractions(responseIngestionService, idempotencyService);
+
+    List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+    assertEquals(2, pipeline.size());
+    assertEquals("$facet", pipeline.get(1).keySet().iterator().next());
+    assertFalse(pipeline.get(1).get("$facet", Document.class).containsKey("textResponses"));
+
+    assertEquals(3, result.getResponseCount());
+    assertEquals("10:30", result.getAverageTime());
+    assertEquals(2, result.getResponses().size());
+    assertEquals(Map.of("Red", 2L, "Blue", 1L), result.getResponses().get(0).getOptionCounts());
+    assertEquals(3, result.getResponses().get(0).getAnswered());
+    assertEquals(0, result.getResponses().get(0).getSkipped());
+    assertEquals(1, result.getResponses().get(1).getSkipped());
+    assertTrue(result.getResponses().get(1).getResponses().isEmpty());
+  }
+
+  @Test
+  void getResponsesOfASurveyWithoutRespondents() {
+    when(mongoTemplate.aggregate(any(Aggregation.class), eq("respondent"), eq(Document.class)))
+        .thenReturn(
+            new AggregationResults<>(
+                List.of(
+                    new Document("respondents", List.of())
+                        .append("questions", List.of())
+                        .append("optionCounts", List.of())),
+                new Document()));
+
+    ResponseAnalysisDto result =
+        responseManagementService.getResponses(SURVEY_ID, AnswerFilter.NONE);
+
+    verify(mongoTemplate, times(1))
+        .aggregate(any(Aggregation.class), anyString(), eq(Document.class));
+    assertEquals(0, result.getResponseCount());
+    assertEquals("", result.getAverageTime());
+    assertEquals(Map.of("Red", 0L, "Blue", 0L), result.getResponses().get(0).getOptionCounts());
+  }
+}
@@ -0,0 +1,127 @@
+package com.amalitech.surveysphere.services.responseRateService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.dto.responseDto.ResponseRateSeriesDto;
+import com.amalitech.surveysphere.enums.TimeResolution;
+import com.amalitech.surveysphere.models.ResponseRate;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerFilter;
+import com.amalitech.surveysphere.services.answerIndexService.AnswerIndexService;
+import com.amalitech.surveysphere.services.counterService.CounterDelta;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseRateServiceImplementationTest {
+  private static final String SURVEY_ID = "survey";
+  private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+  @Mock private MongoTemplate mongoTemplate;
+  @Mock private SurveyDescriptorService surveyDescriptorService;
+  @Mock private AnswerIndexService answerIndexService;
+
+  @InjectMocks private ResponseRateServiceImplementation responseRateService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(responseRateService, "maxPoints", 2000);
+    ReflectionTestUtils.setField(responseRateService, "defaultPoints", 60);
+  }
+
+  @Test
+  void recordsAnArrivalAsUpsertsOfItsDayHourAndMinute() {
+    List<CounterDelta> deltas =
+        responseRateService.arrivalDeltas(
+            SURVEY_ID, Date.from(Instant.parse("2026-10-18T13:45:10Z")));
+
+    assertEquals(
+        List.of("total", "hours.13", "minutes.825"),
+        deltas.stream().map(CounterDelta::field).toList());
+    assertTrue(deltas.stream().allMatch(CounterDelta::upsert));
+    assertTrue(
+        deltas.stream()
+            .allMatch(delta -> delta.documentId().equals(ResponseRate.idOf(SURVEY_ID, DAY))));
+  }
+
+  @Test
+  void rollsUpMinutes() {
+    returnDays(day(DAY, 4, Map.of("13", 4L), Map.of("825", 3L, "826", 1L)));
+
+    ResponseRateSeriesDto series =
+        series("2026-10-18T13:44:30Z", "2026-10-18T13:48:00Z", TimeResolution.MINUTE);
+
+    assertEquals(List.of(0L, 3L, 1L, 0L), counts(series));
+    assertEquals(Date.from(Instant.parse("2026-10-18T13:44:00Z")), series.getFrom());
+    assertEquals(4, series.getTotal());
+  }
+
+  @Test
+  void rollsUpHours() {
+    returnDays(day(DAY, 4, Map.of("13", 4L), Map.of()));
+
+    ResponseRateSeriesDto series =
+        series("2026-10-18T12:00:00Z", "2026-10-18T15:00:00Z", TimeResolution.HOUR);
+
+    assertEquals(List.of(0L, 4L, 0L), counts(series));
+  }
+
+  @Test
+  void rollsUpDays() {
+    returnDays(day(DAY, 5, Map.of(), Map.of()), day(DAY.plusDays(1), 7, Map.of(), Map.of()));
+
+    ResponseRateSeriesDto series =
+        series("2026-10-18T00:00:00Z", "2026-10-21T00:00:00Z", TimeResolution.DAY);
+
+    assertEquals(List.of(5L, 7L, 0L), counts(series));
+    assertEquals(12, series.getTotal());
+  }
+
+  @Test
+  void rejectsRangesWithTooManyPoints() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> series("2026-10-01T00:00:00Z", "2026-10-18T00:00:00Z", TimeResolution.MINUTE));
+  }
+
+  private ResponseRateSeriesDto series(String from, String to, TimeResolution resolution) {
+    return responseRateService.getSeries(
+        SURVEY_ID, Instant.parse(from), Instant.parse(to), resolution, AnswerFilter.NONE);
+  }
+
+  private void returnDays(ResponseRate... days) {
+    when(mongoTemplate.find(any(Query.class), eq(ResponseRate.class))).thenReturn(List.of(days));
+  }
+
+  private static ResponseRate day(
+      LocalDate day, long total, Map<String, Long> hours, Map<String, Long> minutes) {
+    return ResponseRate.builder()
+        .id(ResponseRate.idOf(SURVEY_ID, day))
+        .surveyId(SURVEY_ID)
+        .total(total)
+        .hours(hours)
+        .minutes(minutes)
+        .build();
+  }
+
+  private static List<Long> counts(ResponseRateSeriesDto series) {
+    return series.getPoints().stream().map(ResponseRateSeriesDto.Point::getCount).toList();
+  }
+}
@@ -0,0 +1,143 @@
+package com.amalitech.surveysphere.services.snapshotService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Response;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResponseSnapshotTest {
+  private static final Question DEPARTMENT =
+      Question.builder().id("department").type("single-choice").options(List.of("A", "B")).build();
+  private static final Question TOPICS =
+      Question.builder()
+          .id("topics")
+          .type("multiple-choice")
+          .options(List.of("X", "Y", "Z"))
+          .build();
+
+  @TempDir Path directory;
+
+  @Test
+  void readsBackWhatTheWriterWrote() throws IOException {
+    List<SnapshotSegmentWriter.Row> rows =
+        List.of(
+            row(1, 100, answer("department", "B"), answer("topics", "Z", "X", "Z")),
+            row(2, 200, answer("department", "C"), answer("topics", " ")),
+            row(3, 300));
+
+    ResponseSnapshot snapshot = write(List.of(rows));
+
+    assertEquals(List.of("department", "topics"), snapshot.questionIds());
+    assertEquals(1, snapshot.segmentCount());
+    assertEquals(3, snapshot.rowCount(0));
+    assertEquals(200, snapshot.modified(0, 1));
+
+    ResponseSnapshot.Column department = snapshot.column(0, "department");
+    assertEquals(List.of("A", "B", "C"), department.dictionary());
+    assertEquals(List.of("B"), answers(department, 0));
+    assertEquals(List.of("C"), answers(department, 1));
+    assertEquals(List.of(), answers(department, 2));
+
+    ResponseSnapshot.Column topics = snapshot.column(0, "topics");
+    assertEquals(List.of("X", "Y", "Z"), topics.dictionary());
+    assertEquals(List.of("Z", "X"), answers(topics, 0));
+    assertEquals(List.of(), answers(topics, 1));
+    assertNull(snapshot.column(0, "other"));
+  }
+
+  @Test
+  void findsRowsByTheirSortedIds() throws IOException {
+    List<SnapshotSegmentWriter.Row> rows = new ArrayList<>();
+    for (int index = 0; index < 300; index++) rows.add(row(index * 2, index));
+
+    ResponseSnapshot snapshot = write(List.of(rows));
+
+    for (int index = 0; index < rows.size(); index++)
+      assertEquals(index, snapshot.find(0, rows.get(index).id().toByteArray()));
+    assertEquals(-1, snapshot.find(0, id(1).toByteArray()));
+    assertEquals(-1, snapshot.find(0, id(1_000).toByteArray()));
+  }
+
+  @Test
+  void masksTombstonedRowsAcrossWordBoundaries() throws IOException {
+    List<SnapshotSegmentWriter.Row> first = new ArrayList<>();
+    for (int index = 0; index < 130; index++) first.add(row(index, index));
+    List<SnapshotSegmentWriter.Row> second = List.of(row(70, 1_000, answer("department", "A")));
+
+    ResponseSnapshot written = write(List.of(first, second));
+    long[] tombstones = written.tombstones(0);
+    tombstones[70 >>> 6] |= 1L << 70;
+    tombstones[129 >>> 6] |= 1L << 129;
+    ByteBuffer buffer = ByteBuffer.allocate(tombstones.length * Long.BYTES);
+    buffer.asLongBuffer().put(tombstones);
+    Files.write(ResponseSnapshot.tombstonePath(directory, "segment-0"), buffer.array());
+
+    ResponseSnapshot snapshot = ResponseSnapshot.open(directory, manifest(2));
+
+    assertFalse(snapshot.isLive(0, 70));
+    assertFalse(snapshot.isLive(0, 129));
+    assertTrue(snapshot.isLive(0, 69));
+    assertTrue(snapshot.isLive(0, 128));
+    assertTrue(snapshot.isLive(1, 0));
+    assertEquals(0, snapshot.find(1, id(70).toByteArray()));
+    assertEquals(List.of("A"), answers(snapshot.column(1, "department"), 0));
+  }
+
+  @Test
+  void rejectsASegmentWrittenForOtherQuestions() throws IOException {
+    SnapshotSegmentWriter.write(directory.resolve("segment-0"), List.of(DEPARTMENT), List.of());
+
+    assertThrows(IOException.class, () -> ResponseSnapshot.open(directory, manifest(1)));
+  }
+
+  private ResponseSnapshot write(List<List<SnapshotSegmentWriter.Row>> segments)
+      throws IOException {
+    for (int segment = 0; segment < segments.size(); segment++)
+      SnapshotSegmentWriter.write(
+          directory.resolve("segment-" + segment),
+          List.of(DEPARTMENT, TOPICS),
+          segments.get(segment));
+
+    return ResponseSnapshot.open(directory, manifest(segments.size()));
+  }
+
+  private static SnapshotManifest manifest(int segments) {
+    List<String> names = new ArrayList<>();
+    for (int segment = 0; segment < segments; segment++) names.add("segment-" + segment);
+    return new SnapshotManifest(List.of("department", "topics"), names, 0, segments);
+  }
+
+  private static List<String> answers(ResponseSnapshot.Column column, int row) {
+    List<String> answers = new ArrayList<>();
+    for (int index = column.start(row); index < column.end(row); index++)
+      answers.add(column.dictionary().get(column.code(index)));
+    return answers;
+  }
+
+  private static SnapshotSegmentWriter.Row row(int id, long modified, Response... responses) {
+    return new SnapshotSegmentWriter.Row(id(id), modified, List.of(responses));
+  }
+
+  /** Builds ObjectIds that sort in the order of their numbers. */
+  private static ObjectId id(int number) {
+    return new ObjectId(new Date(1_700_000_000_000L), number);
+  }
+
+  private static Response answer(String questionId, String... answer) {
+    return Response.builder().questionId(questionId).answer(List.of(answer)).build();
+  }
+}
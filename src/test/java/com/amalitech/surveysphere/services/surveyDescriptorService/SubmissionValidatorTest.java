@@ -0,0 +1,158 @@
+package com.amalitech.surveysphere.services.surveyDescriptorService;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amalitech.surveysphere.exceptions.InvalidResponseException;
+import com.amalitech.surveysphere.exceptions.NotFoundException;
+import com.amalitech.surveysphere.models.Condition;
+import com.amalitech.surveysphere.models.Question;
+import com.amalitech.surveysphere.models.Response;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SubmissionValidatorTest {
+  private static final Question CONSENT =
+      Question.builder()
+          .id("consent")
+          .type("single-choice")
+          .required(true)
+          .options(List.of("Yes", "No"))
+          .build();
+  private static final Question REASON =
+      Question.builder()
+          .id("reason")
+          .type("paragraph")
+          .required(true)
+          .conditions(Condition.builder().blockIndex(0).questionIndex(0).choice("No").build())
+          .build();
+  private static final Question TOPICS =
+      Question.builder()
+          .id("topics")
+          .type("multiple-choice")
+          .options(List.of("Pay", "Hours", "Team"))
+          .build();
+  private static final Question RATING =
+      Question.builder()
+          .id("rating")
+          .type("dropdown")
+          .required(true)
+          .options(List.of("1", "2", "3"))
+          .build();
+
+  private final SubmissionValidator validator =
+      SubmissionValidator.compile(List.of(List.of(CONSENT, REASON, TOPICS), List.of(RATING)));
+
+  @Test
+  void acceptsAValidSubmission() {
+    assertDoesNotThrow(
+        () ->
+            validator.validate(
+                List.of(
+                    response("consent", "No"),
+                    response("reason", "Too long"),
+                    response("topics", "Pay", "Team"),
+                    response("rating", "2"))));
+  }
+
+  @Test
+  void rejectsAnUnknownQuestionAsNotFound() {
+    assertThrows(
+        NotFoundException.class,
+        () -> validator.validate(List.of(response("consent", "Yes"), response("other", "x"))));
+  }
+
+  @Test
+  void rejectsAQuestionAnsweredTwice() {
+    assertThrows(
+        InvalidResponseException.class,
+        () -> validator.validate(List.of(response("consent", "Yes"), response("consent", "No"))));
+  }
+
+  @Test
+  void rejectsSeveralAnswersToASingleChoiceQuestion() {
+    assertThrows(
+        InvalidResponseException.class,
+        () -> validator.validate(List.of(response("consent", "Yes", "No"))));
+  }
+
+  @Test
+  void rejectsAnAnswerThatIsNotAnOption() {
+    assertThrows(
+        InvalidResponseException.class,
+        () ->
+            validator.validate(
+                List.of(response("consent", "Yes"), response("topics", "Holidays"))));
+  }
+
+  @Test
+  void rejectsAnUnansweredRequiredQuestionOfASubmittedBlock() {
+    assertThrows(
+        InvalidResponseException.class,
+        () -> validator.validate(List.of(response("topics", "Pay"))));
+  }
+
+  @Test
+  void onlyRequiresQuestionsOfTheSubmittedBlocks() {
+    assertDoesNotThrow(() -> validator.validate(List.of(response("rating", "3")), 1));
+  }
+
+  @Test
+  void rejectsAnAnswerToAQuestionHiddenByItsCondition() {
+    assertThrows(
+        InvalidResponseException.class,
+        () ->
+            validator.validate(List.of(response("consent", "Yes"), response("reason", "None"))));
+  }
+
+  @Test
+  void requiresAConditionalQuestionOnlyWhenItIsShown() {
+    assertDoesNotThrow(() -> validator.validate(List.of(response("consent", "Yes"))));
+    assertThrows(
+        InvalidResponseException.class,
+        () -> validator.validate(List.of(response("consent", "No"))));
+  }
+
+  @Test
+  void treatsBlankAnswersAsUnanswered() {
+    assertThrows(
+        InvalidResponseException.class,
+        () -> validator.validate(List.of(response("consent", " "))));
+  }
+
+  @Test
+  void rejectsAResponseToAnotherBlock() {
+    assertThrows(
+        InvalidResponseException.class,
+        () -> validator.validate(List.of(response("rating", "1")), 0));
+  }
+
+  @Test
+  void reportsTheBlocksOfASubmission() {
+    assertEquals(1, validator.lastBlockIndex());
+    assertEquals(0, validator.lastBlockOf(List.of(response("consent", "Yes"))));
+    assertEquals(1, validator.lastBlockOf(List.of(response("consent", "Yes"), response("rating"))));
+    assertEquals(-1, validator.lastBlockOf(List.of()));
+    assertEquals(-1, SubmissionValidator.compile(List.of()).lastBlockIndex());
+  }
+
+  @Test
+  void classifiesQuestionsByType() {
+    assertTrue(validator.hasQuestion("reason"));
+    assertFalse(validator.hasQuestion("other"));
+    assertTrue(validator.hasOptions("consent"));
+    assertTrue(validator.hasOptions("topics"));
+    assertTrue(validator.hasOptions("rating"));
+    assertFalse(validator.hasOptions("reason"));
+    assertFalse(validator.hasOptions("other"));
+    assertTrue(validator.isFreeText("reason"));
+    assertFalse(validator.isFreeText("consent"));
+  }
+
+  private static Response response(String questionId, String... answer) {
+    return Response.builder().questionId(questionId).answer(List.of(answer)).build();
+  }
+}
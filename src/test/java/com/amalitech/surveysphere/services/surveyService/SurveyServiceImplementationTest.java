@@ -1,4 +1,71 @@
 package com.amalitech.surveysphere.services.surveyService;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amalitech.surveysphere.dto.requestDto.AccountManagementDto;
+import com.amalitech.surveysphere.models.Survey;
+import com.amalitech.surveysphere.repositories.SurveyRepository;
+import com.amalitech.surveysphere.services.surveyDescriptorService.SurveyDescriptorService;
+import java.util.Optional;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+
+@ExtendWith(MockitoExtension.class)
 public class SurveyServiceImplementationTest implements SurveyServiceTest {
+  private static final String SURVEY_ID = "survey";
+
+  @Mock private SurveyRepository surveyRepository;
+  @Mock private SurveyDescriptorService surveyDescriptorService;
+
+  @InjectMocks private SurveyServiceImplementation surveyService;
+
+  @Test
+  void archiveSurvey_setsOnlyTheArchivedFlag() {
+    when(surveyRepository.findById(SURVEY_ID)).thenReturn(Optional.of(survey()));
+
+    surveyService.archiveSurvey(SURVEY_ID);
+
+    assertEquals(new Document("archived", true), setFields());
+    verify(surveyRepository, never()).save(any());
+    verify(surveyDescriptorService).evict(SURVEY_ID);
+  }
+
+  @Test
+  void activateOrDeactivateSurvey_setsOnlyTheDeactivatedFlag() {
+    Survey survey = survey();
+    when(surveyRepository.findById(SURVEY_ID)).thenReturn(Optional.of(survey));
+    AccountManagementDto managementDto = new AccountManagementDto();
+    managementDto.setId(SURVEY_ID);
+    managementDto.setStatus("DEACTIVATE");
+
+    Survey deactivated = surveyService.activateOrDeactivateSurvey(managementDto);
+
+    assertSame(survey, deactivated);
+    assertTrue(deactivated.isDeactivated());
+    assertEquals(new Document("deactivated", true), setFields());
+    verify(surveyRepository, never()).save(any());
+  }
+
+  private Survey survey() {
+    return Survey.builder().id(SURVEY_ID).respondentCount(12).build();
+  }
+
+  private Object setFields() {
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(surveyRepository).updateFields(eq(SURVEY_ID), update.capture());
+    return update.getValue().getUpdateObject().get("$set");
+  }
 }
@@ -0,0 +1,71 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+  @Test
+  void estimatesAreNeverBelowTheTrueCounts() {
+    CountMinSketch sketch = new CountMinSketch();
+    for (int term = 0; term < 2000; term++)
+      for (int count = 0; count <= term % 7; count++) sketch.add("term" + term);
+
+    for (int term = 0; term < 2000; term++)
+      assertTrue(sketch.estimate("term" + term) >= term % 7 + 1);
+  }
+
+  @Test
+  void estimatesFrequentTermsClosely() {
+    CountMinSketch sketch = new CountMinSketch();
+    for (int count = 0; count < 500; count++) sketch.add("service");
+    for (int term = 0; term < 1000; term++) sketch.add("noise" + term);
+
+    long estimate = sketch.estimate("service");
+    assertTrue(estimate >= 500 && estimate <= 500 + 1500 * Math.E / CountMinSketch.WIDTH + 5);
+    assertEquals(0, new CountMinSketch().estimate("service"));
+  }
+
+  @Test
+  void indexesHitOneCounterInEachRow() {
+    int[] indexes = CountMinSketch.indexes("delivery");
+
+    assertEquals(CountMinSketch.DEPTH, indexes.length);
+    for (int row = 0; row < indexes.length; row++) {
+      assertTrue(indexes[row] >= row * CountMinSketch.WIDTH);
+      assertTrue(indexes[row] < (row + 1) * CountMinSketch.WIDTH);
+    }
+    assertArrayEquals(indexes, CountMinSketch.indexes("delivery"));
+  }
+
+  @Test
+  void readsTheCountersIncrementedByIndex() {
+    Map<String, Long> stored = new HashMap<>();
+    for (int count = 0; count < 3; count++)
+      for (int index : CountMinSketch.indexes("price")) stored.merge("" + index, 1L, Long::sum);
+    stored.put("-1", 100L);
+    stored.put("" + CountMinSketch.DEPTH * CountMinSketch.WIDTH, 100L);
+
+    assertEquals(3, CountMinSketch.of(stored).estimate("price"));
+    assertEquals(0, CountMinSketch.of(null).estimate("price"));
+  }
+
+  @Test
+  void mergingAddsTheCounters() {
+    CountMinSketch first = new CountMinSketch();
+    CountMinSketch second = new CountMinSketch();
+    first.add("staff");
+    second.add("staff");
+    second.add("staff");
+
+    first.merge(second);
+
+    assertEquals(3, first.estimate("staff"));
+    assertEquals(2, second.estimate("staff"));
+  }
+}
@@ -0,0 +1,57 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+  @Test
+  void countsFewValuesExactly() {
+    HyperLogLog sketch = new HyperLogLog();
+    for (int value = 0; value < 10; value++) sketch.add("answer " + value);
+
+    assertEquals(10, sketch.estimate());
+    assertEquals(0, new HyperLogLog().estimate());
+  }
+
+  @Test
+  void addingAValueAgainDoesNotChangeTheEstimate() {
+    HyperLogLog sketch = new HyperLogLog();
+    for (int value = 0; value < 1000; value++) sketch.add("answer " + value);
+    long estimate = sketch.estimate();
+
+    for (int value = 0; value < 1000; value++) sketch.add("answer " + value);
+
+    assertEquals(estimate, sketch.estimate());
+  }
+
+  @Test
+  void estimatesManyValuesWithinAFewPercent() {
+    HyperLogLog sketch = new HyperLogLog();
+    for (int value = 0; value < 100_000; value++) sketch.add("answer " + value);
+
+    assertTrue(Math.abs(sketch.estimate() - 100_000) < 100_000 * 0.05);
+  }
+
+  @Test
+  void readsTheRegistersRaisedByIndex() {
+    HyperLogLog added = new HyperLogLog();
+    Map<String, Long> stored = new HashMap<>();
+
+    for (int value = 0; value < 5000; value++) {
+      added.add("answer " + value);
+      HyperLogLog.Register register = HyperLogLog.register("answer " + value);
+      assertTrue(register.index() >= 0 && register.index() < 1 << HyperLogLog.PRECISION);
+      assertTrue(register.rank() >= 1);
+      stored.merge("" + register.index(), (long) register.rank(), Math::max);
+    }
+    stored.put("-1", 60L);
+
+    assertEquals(added.estimate(), HyperLogLog.of(stored).estimate());
+    assertEquals(0, HyperLogLog.of(null).estimate());
+  }
+}
@@ -0,0 +1,44 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TextTokenizerTest {
+
+  @Test
+  void splitsAnAnswerIntoDistinctTermsAndPhrases() {
+    TextTokenizer.Tokens tokens =
+        TextTokenizer.tokenize("Great service, GREAT food and great service!");
+
+    assertEquals(List.of("great", "service", "food"), List.copyOf(tokens.terms()));
+    assertEquals(
+        List.of("great service", "service great", "great food"), List.copyOf(tokens.phrases()));
+  }
+
+  @Test
+  void leavesOutStopWordsNumbersAndSingleCharacters() {
+    TextTokenizer.Tokens tokens = TextTokenizer.tokenize("I waited 45 minutes for a x refund");
+
+    assertEquals(List.of("waited", "minutes", "refund"), List.copyOf(tokens.terms()));
+    assertTrue(tokens.phrases().isEmpty());
+  }
+
+  @Test
+  void keepsApostrophesInsideWordsOnly() {
+    TextTokenizer.Tokens tokens =
+        TextTokenizer.tokenize("'staff' wouldn't listen to the customer's complaint");
+
+    assertEquals(
+        List.of("staff", "listen", "customer's", "complaint"), List.copyOf(tokens.terms()));
+    assertEquals(List.of("customer's complaint"), List.copyOf(tokens.phrases()));
+  }
+
+  @Test
+  void normalizesCaseAndSpacing() {
+    assertEquals("too slow", TextTokenizer.normalize("  Too   SLOW "));
+    assertEquals(TextTokenizer.normalize("too, slow!"), TextTokenizer.normalize("Too slow"));
+  }
+}
@@ -0,0 +1,54 @@
+package com.amalitech.surveysphere.services.textAnalyticsService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TopKTest {
+
+  @Test
+  void keepsTheTermsWithTheHighestEstimates() {
+    TopK top = new TopK(2);
+    top.offer("slow", 3);
+    top.offer("friendly", 5);
+    top.offer("cheap", 1);
+    top.offer("clean", 4);
+
+    assertEquals(Set.of("friendly", "clean"), top.terms());
+  }
+
+  @Test
+  void updatesTheEstimateOfATermItHolds() {
+    TopK top = new TopK(2);
+    top.offer("slow", 3);
+    top.offer("friendly", 5);
+    top.offer("slow", 6);
+    top.offer("clean", 4);
+
+    assertEquals(Map.of("slow", 6L, "friendly", 5L), top.toMap());
+  }
+
+  @Test
+  void aTermMustBeatTheSmallestEstimateToEnter() {
+    TopK top = new TopK(1);
+    top.offer("slow", 3);
+    top.offer("clean", 3);
+
+    assertEquals(Set.of("slow"), top.terms());
+  }
+
+  @Test
+  void ordersByDescendingEstimateThenAlphabetically() {
+    TopK top = new TopK(4);
+    top.offer("slow", 2);
+    top.offer("clean", 5);
+    top.offer("friendly", 2);
+    top.offer("cheap", 7);
+
+    assertEquals(
+        List.of("cheap", "clean", "friendly", "slow"), List.copyOf(top.toMap().keySet()));
+  }
+}